@@ -0,0 +1,213 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates the registry of built-in argument types from the types annotated with {@code ArgumentKey}.
+ * <p>
+ * The generated class registers every argument type with a plain constructor call, sorted by key so
+ * that the ids assigned by the argument manager are the same from one build to the next.
+ */
+@SupportedAnnotationTypes(ArgumentKeyProcessor.ANNOTATION)
+public class ArgumentKeyProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "x.nexuskrop.minelint.commands.arguments.ArgumentKey";
+    static final String PARAMETER = "x.nexuskrop.minelint.commands.arguments.CommandParameter";
+    static final String PACKAGE = "x.nexuskrop.minelint.commands.arguments";
+    static final String REGISTRY = "GeneratedArgumentTypes";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+
+        if (annotation == null) {
+            return false;
+        }
+
+        var elements = roundEnv.getElementsAnnotatedWith(annotation);
+
+        if (elements.isEmpty()) {
+            return false;
+        }
+
+        if (generated) {
+            for (var element : elements) {
+                error(element, "Argument types must not be generated by other annotation processors");
+            }
+
+            return true;
+        }
+
+        var types = new TreeMap<String, TypeElement>();
+
+        for (var element : elements) {
+            if (!validate(element)) {
+                continue;
+            }
+
+            var type = (TypeElement) element;
+            var key = keyOf(type);
+
+            if (key == null || key.isEmpty()) {
+                error(element, "Argument key must not be empty");
+                continue;
+            }
+
+            var existing = types.putIfAbsent(key, type);
+
+            if (existing != null) {
+                error(element, String.format("Argument key %s is already used by %s", key, existing.getQualifiedName()));
+            }
+        }
+
+        generated = true;
+
+        try {
+            write(types);
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    String.format("Failed to write %s.%s: %s", PACKAGE, REGISTRY, ex.getMessage()));
+        }
+
+        return true;
+    }
+
+    private boolean validate(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            error(element, "Only classes can be argument types");
+            return false;
+        }
+
+        var type = (TypeElement) element;
+        var modifiers = type.getModifiers();
+
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                || (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))
+                || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            error(element, "Argument types must be public, concrete and not inner classes");
+            return false;
+        }
+
+        var parameter = processingEnv.getElementUtils().getTypeElement(PARAMETER);
+        var typeUtils = processingEnv.getTypeUtils();
+
+        if (parameter == null || !typeUtils.isAssignable(type.asType(), typeUtils.erasure(parameter.asType()))) {
+            error(element, String.format("Argument types must implement %s", PARAMETER));
+            return false;
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+
+        error(element, "Argument types must have a public default constructor");
+        return false;
+    }
+
+    private String keyOf(TypeElement type) {
+        for (var mirror : type.getAnnotationMirrors()) {
+            var annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+
+            if (!annotationType.getQualifiedName().contentEquals(ANNOTATION)) {
+                continue;
+            }
+
+            for (var entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("key")) {
+                    return (String) entry.getValue().getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void write(TreeMap<String, TypeElement> types) throws IOException {
+        var originating = types.values().toArray(new Element[0]);
+        var file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + REGISTRY, originating);
+
+        try (var out = new PrintWriter(file.openWriter())) {
+            out.println("package " + PACKAGE + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * The built-in argument types, generated by {@code " + getClass().getName() + "}.");
+            out.println(" */");
+            out.println("final class " + REGISTRY + " {");
+            out.println("    private " + REGISTRY + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    static void registerAll(CommandArgumentManager manager) {");
+
+            for (var entry : types.entrySet()) {
+                out.println("        manager.register(\"" + escape(entry.getKey()) + "\", new "
+                        + entry.getValue().getQualifiedName() + "());");
+            }
+
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static String escape(String value) {
+        var builder = new StringBuilder(value.length());
+
+        for (var i = 0; i < value.length(); i++) {
+            var ch = value.charAt(i);
+
+            if (ch == '"' || ch == '\\') {
+                builder.append('\\').append(ch);
+            } else if (ch < 0x20 || ch > 0x7e) {
+                builder.append(String.format("\\u%04x", (int) ch));
+            } else {
+                builder.append(ch);
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.linting.LineResultCache;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures linting single lines on the benchmark thread, without any I/O. The score is lines per millisecond.
+ * <p>
+ * The lines repeat, so with a line cache every line after the first round is a hit; compare the two values of
+ * {@code lineCache} to see the cost of a parse against the cost of a lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandLinterBenchmark {
+    private static final int LINES = 1024;
+
+    private final String[] lines = new String[LINES];
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+    private CommandLinter linter;
+    private int index;
+
+    @Param({"0", "16384"})
+    public int lineCache;
+
+    @Setup
+    public void setup() {
+        var definitions = CommandDefinitionModel.getEmbedded();
+
+        if (definitions == null) {
+            throw new IllegalStateException("Failed to load command definitions");
+        }
+
+        linter = new CommandLinter(CommandTree.compile(definitions, CommandArgumentManager.createDefault()), null,
+                lineCache == 0 ? null : new LineResultCache(lineCache));
+
+        var random = new Random(42);
+        var templates = LintPipelineBenchmark.TEMPLATES;
+
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = String.format(templates[random.nextInt(templates.length)], random.nextInt(256), random.nextInt(256));
+        }
+    }
+
+    @Benchmark
+    public Object lintLine() {
+        parser.resetText(lines[index++ & (LINES - 1)]);
+        return linter.lint(parser);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.CommandSyntaxException;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.TextSpan;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every {@code read*} method of {@link CommandSyntaxParser}, each over a short line like the ones found in
+ * functions. Span readers are measured next to their {@link String} counterparts to show the allocation saved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandSyntaxParserBenchmark {
+    private static final String UNQUOTED = "minecraft.used.carrot_on_a_stick";
+    private static final String QUOTED = "\"Welcome to the \\\"arena\\\", good luck\"";
+    private static final String GREEDY = "Welcome to the arena, the match starts in ten seconds";
+    private static final String SHORT = "-1024";
+    private static final String INT = "2147483";
+    private static final String LONG = "-9223372036854775";
+    private static final String FLOAT = "-128.5";
+    private static final String DOUBLE = "12345.625";
+    private static final String BOOLEAN = "false";
+
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+
+    @Benchmark
+    public String readUnquotedString() throws CommandSyntaxException {
+        parser.resetText(UNQUOTED);
+        return parser.readUnquotedString();
+    }
+
+    @Benchmark
+    public TextSpan readUnquotedSpan() throws CommandSyntaxException {
+        parser.resetText(UNQUOTED);
+        return parser.readUnquotedSpan();
+    }
+
+    @Benchmark
+    public String readQuotedString() throws CommandSyntaxException {
+        parser.resetText(QUOTED);
+        return parser.readQuotedString();
+    }
+
+    @Benchmark
+    public TextSpan readQuotedSpan() throws CommandSyntaxException {
+        parser.resetText(QUOTED);
+        return parser.readQuotedSpan();
+    }
+
+    @Benchmark
+    public String readGreedyString() throws CommandSyntaxException {
+        parser.resetText(GREEDY);
+        return parser.readGreedyString();
+    }
+
+    @Benchmark
+    public TextSpan readGreedySpan() throws CommandSyntaxException {
+        parser.resetText(GREEDY);
+        return parser.readGreedySpan();
+    }
+
+    @Benchmark
+    public String readUnquotedValueString() throws CommandSyntaxException {
+        parser.resetText(UNQUOTED);
+        return parser.readUnquotedValueString("value");
+    }
+
+    @Benchmark
+    public short readShort() throws CommandSyntaxException {
+        parser.resetText(SHORT);
+        return parser.readShort();
+    }
+
+    @Benchmark
+    public long readInt() throws CommandSyntaxException {
+        parser.resetText(INT);
+        return parser.readInt();
+    }
+
+    @Benchmark
+    public long readLong() throws CommandSyntaxException {
+        parser.resetText(LONG);
+        return parser.readLong();
+    }
+
+    @Benchmark
+    public float readFloat() throws CommandSyntaxException {
+        parser.resetText(FLOAT);
+        return parser.readFloat();
+    }
+
+    @Benchmark
+    public double readDouble() throws CommandSyntaxException {
+        parser.resetText(DOUBLE);
+        return parser.readDouble();
+    }
+
+    @Benchmark
+    public boolean readBoolean() throws CommandSyntaxException {
+        parser.resetText(BOOLEAN);
+        return parser.readBoolean();
+    }
+
+    @Benchmark
+    public boolean tryReadIntInvalid() {
+        parser.resetText(UNQUOTED);
+        return parser.tryReadInt();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.parsing.selector.EntitySelectorParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of parsing a single entity selector, from a bare selector type to one with most options.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySelectorBenchmark {
+    @Param({
+            "@s",
+            "Steve",
+            "dd12be42-52a9-4a91-a8a1-11c01849e498",
+            "@e[type=minecraft:zombie,limit=1,sort=nearest]",
+            "@a[level=1..5,distance=..10,scores={kills=1..,deaths=..3},tag=!boss,gamemode=!spectator]",
+            "@e[type=#minecraft:skeletons,nbt={NoAI:1b,Tags:[\"wave_3\"]},advancements={story/root=true}]"
+    })
+    public String selector;
+
+    private final EntitySelectorParser selectors = new EntitySelectorParser();
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+
+    @Benchmark
+    public boolean parse() {
+        parser.resetText(selector);
+        return selectors.tryParse(parser);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.linting.FunctionFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures splitting a whole function file into lines, with the word-at-a-time scan against a plain loop over the
+ * same characters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionFileBenchmark {
+    @Param({"10000"})
+    public int lines;
+
+    private FunctionFile file;
+
+    @Setup
+    public void setup() throws IOException {
+        var builder = new StringBuilder();
+
+        for (int i = 0; i < lines; i++) {
+            builder.append(LintPipelineBenchmark.TEMPLATES[i % LintPipelineBenchmark.TEMPLATES.length]).append('\n');
+        }
+
+        file = FunctionFile.of(ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Benchmark
+    public int findLineEnds() {
+        var count = 0;
+        var start = 0;
+        var length = file.length();
+
+        while (start < length) {
+            start = file.findLineEnd(start) + 1;
+            count++;
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int findLineEndsScalar() {
+        var content = file.content();
+        var length = file.length();
+        var count = 0;
+        var start = 0;
+
+        while (start < length) {
+            var end = start;
+
+            while (end < length && content.charAt(end) != '\n') {
+                end++;
+            }
+
+            start = end + 1;
+            count++;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures linting end to end, over a synthetic datapack written to a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LintPipelineBenchmark {
+    /**
+     * The lines of the synthetic functions, formatted with two random numbers.
+     */
+    static final String[] TEMPLATES = {
+            "ban-ip 192.168.%d.%d Spamming the chat",
+            "ban-ip 10.0.%d.%d",
+            "# Generated line %d of %d",
+            "",
+            "unknown_command %d %d"
+    };
+
+    @Param({"1000"})
+    public int files;
+
+    @Param({"100"})
+    public int linesPerFile;
+
+    @Param({"1", "4", "8"})
+    public int threads;
+
+    private Path root;
+    private List<Path> functions;
+    private CommandLinter linter;
+    private DatapackLinter datapackLinter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        var definitions = CommandDefinitionModel.getEmbedded();
+
+        if (definitions == null) {
+            throw new IllegalStateException("Failed to load command definitions");
+        }
+
+        linter = new CommandLinter(CommandTree.compile(definitions, CommandArgumentManager.createDefault()));
+        datapackLinter = new DatapackLinter(linter, threads);
+
+        var random = new Random(42);
+        root = Files.createTempDirectory("minelint-benchmark");
+
+        for (int i = 0; i < files; i++) {
+            var file = root.resolve(String.format("data/benchmark/functions/group%d/function%d.mcfunction", i % 16, i));
+            var content = new ArrayList<String>(linesPerFile);
+
+            for (int j = 0; j < linesPerFile; j++) {
+                var template = TEMPLATES[random.nextInt(TEMPLATES.length)];
+                content.add(String.format(template, random.nextInt(256), random.nextInt(256)));
+            }
+
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+        }
+
+        functions = DatapackLinter.findFunctions(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        datapackLinter.close();
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Lints the whole datapack; the score is datapacks per second, so files per second is the score times
+     * {@link #files}.
+     */
+    @Benchmark
+    public List<FunctionLintResult> lintDatapack() {
+        return datapackLinter.lint(functions);
+    }
+}
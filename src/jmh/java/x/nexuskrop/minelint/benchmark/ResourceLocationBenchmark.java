@@ -0,0 +1,85 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+import x.nexuskrop.minelint.parsing.data.ResourceLocationPool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction and validation of {@link ResourceLocation}, both from strings and from a parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceLocationBenchmark {
+    private String namespace = "minecraft";
+    private String path = "entity/zombie/loot/equipment_tier_3";
+    private String invalidPath = "entity/Zombie";
+    private String text = "minecraft:entity/zombie/loot/equipment_tier_3";
+
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+    private final ResourceLocationPool pool = new ResourceLocationPool(1024);
+
+    @Benchmark
+    public ResourceLocation construct() {
+        return new ResourceLocation(namespace, path);
+    }
+
+    @Benchmark
+    public boolean constructInvalid() {
+        try {
+            return new ResourceLocation(namespace, invalidPath).getPath() != null;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public ResourceLocation parse() {
+        parser.resetText(text);
+        return ResourceLocation.tryParse(parser, null);
+    }
+
+    @Benchmark
+    public ResourceLocation parsePooled() {
+        parser.resetText(text);
+        return ResourceLocation.tryParse(parser, pool);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        parser.resetText(text);
+        return ResourceLocation.tryValidate(parser);
+    }
+}
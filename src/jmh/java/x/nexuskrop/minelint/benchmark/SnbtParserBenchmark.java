@@ -0,0 +1,82 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.parsing.nbt.NbtTree;
+import x.nexuskrop.minelint.parsing.nbt.NbtType;
+import x.nexuskrop.minelint.parsing.nbt.SnbtParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validating and tree-building a multi-kilobyte SNBT compound, as found in generated entity and loot
+ * functions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnbtParserBenchmark {
+    private final SnbtParser snbt = new SnbtParser();
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+    private String text;
+
+    @Setup
+    public void setUp() {
+        var builder = new StringBuilder("{id:\"minecraft:zombie\",Health:20.0f,Tags:[\"boss\",\"wave_3\"],Items:[");
+
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append("{Slot:").append(i).append("b,id:\"minecraft:diamond_sword\",Count:1b,tag:{Damage:0,")
+                    .append("display:{Name:'{\"text\":\"Blade ").append(i).append("\",\"italic\":false}'},")
+                    .append("Enchantments:[{id:\"minecraft:sharpness\",lvl:5s}],AttributeModifiers:[],")
+                    .append("UUID:[I;1,-2,3,-4],Weight:").append(i).append(".25d}}");
+        }
+
+        text = builder.append("]}").toString();
+    }
+
+    @Benchmark
+    public NbtType validate() {
+        parser.resetText(text);
+        return snbt.tryValidate(parser);
+    }
+
+    @Benchmark
+    public NbtTree parseTree() {
+        parser.resetText(text);
+        return snbt.tryParse(parser);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.parsing.text.TextComponentValidator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validating a {@code tellraw} text component in place, against building a Gson tree of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextComponentBenchmark {
+    private static final String COMPONENT = "[{\"text\":\"Wave \",\"color\":\"gold\",\"bold\":true},"
+            + "{\"score\":{\"name\":\"#wave\",\"objective\":\"game\"},\"color\":\"yellow\"},"
+            + "{\"text\":\" - click \",\"clickEvent\":{\"action\":\"run_command\",\"value\":\"/trigger start\"},"
+            + "\"hoverEvent\":{\"action\":\"show_text\",\"contents\":[{\"text\":\"Start\",\"italic\":false}]}},"
+            + "{\"selector\":\"@a[tag=ready]\",\"separator\":\", \"}]";
+
+    private final TextComponentValidator validator = new TextComponentValidator();
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+
+    @Benchmark
+    public boolean validate() {
+        parser.resetText(COMPONENT);
+        return validator.tryValidate(parser);
+    }
+
+    @Benchmark
+    public JsonElement gsonTree() {
+        return JsonParser.parseString(COMPONENT);
+    }
+}
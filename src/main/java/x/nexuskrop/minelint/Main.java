@@ -18,27 +18,627 @@
 
 package x.nexuskrop.minelint;
 
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.commands.tree.SchemaStore;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.linting.CommandStreamLinter;
+import x.nexuskrop.minelint.linting.DatapackArchive;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.DatapackWatcher;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+import x.nexuskrop.minelint.linting.LineResultCache;
+import x.nexuskrop.minelint.linting.LintCache;
+import x.nexuskrop.minelint.linting.ReferenceIndex;
+import x.nexuskrop.minelint.linting.ReferenceReport;
+import x.nexuskrop.minelint.linting.ReferenceTarget;
+import x.nexuskrop.minelint.metrics.LintMetrics;
+import x.nexuskrop.minelint.metrics.LintPhase;
+import x.nexuskrop.minelint.reporting.JsonLintReporter;
+import x.nexuskrop.minelint.reporting.LintReporter;
+import x.nexuskrop.minelint.reporting.SarifLintReporter;
+import x.nexuskrop.minelint.server.LintServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class Main {
+    private static final String OPTION_CACHE = "cache";
+    private static final String OPTION_WATCH = "watch";
+    private static final String OPTION_SERVER = "server";
+    private static final String OPTION_STDIN = "stdin";
+    private static final String OPTION_REFERENCES = "references";
+    private static final String OPTION_GAME_VERSION = "game-version";
+    private static final String OPTION_METRICS = "metrics";
+    private static final String OPTION_FORMAT = "format";
+    private static final String OPTION_OUTPUT = "output";
+    private static final String OPTION_LINE_CACHE = "line-cache";
+
+    private static final String FORMAT_TEXT = "text";
+    private static final String FORMAT_JSON = "json";
+    private static final String FORMAT_SARIF = "sarif";
+
     public static void main(String[] args) {
-        if (args.length != 1) {
+        var options = createOptions();
+        CommandLine line;
+
+        try {
+            line = new DefaultParser().parse(options, args);
+        } catch (ParseException ex) {
+            System.out.println(ex.getMessage());
+            printUsage(options);
+            return;
+        }
+
+        if (line.hasOption(OPTION_SERVER)) {
+            System.exit(runServer(line));
+            return;
+        }
+
+        var arguments = line.getArgList();
+
+        if (line.hasOption(OPTION_STDIN)) {
+            if (!arguments.isEmpty()) {
+                System.out.println("No arguments can be specified when reading from standard input");
+                printUsage(options);
+                return;
+            }
+
+            lintStdin(line);
+            return;
+        }
+
+        if (arguments.size() != 1) {
             System.out.println("No valid arguments specified");
+            printUsage(options);
             return;
         }
 
-        var zero = args[0];
+        var format = line.getOptionValue(OPTION_FORMAT, FORMAT_TEXT);
 
-        if (zero.startsWith("/")) {
-            lintRawCommand(zero);
+        if (!List.of(FORMAT_TEXT, FORMAT_JSON, FORMAT_SARIF).contains(format)) {
+            System.out.printf("Unknown format %s%n", format);
+            printUsage(options);
+            return;
+        }
+
+        if (line.hasOption(OPTION_OUTPUT) && FORMAT_TEXT.equals(format)) {
+            System.out.println("An output file can only be specified for the json and sarif formats");
+            printUsage(options);
+            return;
+        }
+
+        if (line.hasOption(OPTION_WATCH) && !FORMAT_TEXT.equals(format)) {
+            System.out.println("Watching only supports the text format");
+            printUsage(options);
+            return;
+        }
+
+        var zero = arguments.get(0);
+
+        // Absolute paths on Unix-like systems start with a slash as well
+        if (zero.startsWith("/") && !Files.exists(Path.of(zero))) {
+            lintRawCommand(zero, line);
         } else {
-            lintFile(zero);
+            lintFile(zero, line);
+        }
+    }
+
+    private static Options createOptions() {
+        var options = new Options();
+        options.addOption(Option.builder()
+                .longOpt(OPTION_CACHE)
+                .hasArg()
+                .argName("directory")
+                .desc("Skip functions unchanged since the last run, using the cache in the specified directory")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_WATCH)
+                .desc("Keep running and relint functions as they change")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_SERVER)
+                .desc("Run as a language server over the standard input and output")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_STDIN)
+                .desc("Lint newline-delimited commands from the standard input")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_REFERENCES)
+                .desc("Check function references, reachability from the load and tick tags, and call cycles")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_GAME_VERSION)
+                .hasArg()
+                .argName("version")
+                .desc("Check commands against the specified game version instead of the latest one")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_METRICS)
+                .desc("Print the time spent in every phase and on every argument type at the end of the run")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_FORMAT)
+                .hasArg()
+                .argName("text | json | sarif")
+                .desc("Print the problems of a datapack in the specified format, text by default")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_OUTPUT)
+                .hasArg()
+                .argName("file")
+                .desc("Write the json or sarif report to the specified file instead of the standard output")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt(OPTION_LINE_CACHE)
+                .hasArg()
+                .argName("entries")
+                .desc("Remember the results of up to the specified amount of distinct lines, "
+                        + LineResultCache.DEFAULT_CAPACITY + " by default, or 0 to parse every line")
+                .build());
+        return options;
+    }
+
+    private static void printUsage(Options options) {
+        new HelpFormatter().printHelp("minelint [options] <datapack | /command>", options);
+    }
+
+    private static int runServer(CommandLine line) {
+        var linter = createLinter(line);
+
+        if (linter == null) {
+            return 1;
+        }
+
+        try {
+            return new LintServer(linter, System.in, System.out).run();
+        } catch (IOException ex) {
+            System.err.printf("Failed to communicate with the client: %s%n", ex.getMessage());
+            return 1;
+        }
+    }
+
+    private static @Nullable LintCache createCache(CommandLine line, CommandTree tree) {
+        if (!line.hasOption(OPTION_CACHE)) {
+            return null;
+        }
+
+        var digest = CommandDefinitionModel.getEmbeddedDigest();
+
+        if (digest == null) {
+            System.out.println("Failed to read command definitions, not using cache");
+            return null;
+        }
+
+        var linterDigest = computeLinterDigest();
+
+        if (linterDigest == null) {
+            System.out.println("Failed to read the code of the linter, not using cache");
+            return null;
+        }
+
+        return new LintCache(Path.of(line.getOptionValue(OPTION_CACHE)),
+                tree.target() + "@" + digest + "@" + linterDigest);
+    }
+
+    /**
+     * Computes the SHA-256 digest of the code of the linter: its JAR, or every file of its classes directory when
+     * not running from a JAR. Unlike the version in the manifest, this changes with every build that changes a rule.
+     * @return The digest, or {@code null} if the code could not be read.
+     */
+    private static @Nullable String computeLinterDigest() {
+        var source = Main.class.getProtectionDomain().getCodeSource();
+
+        if (source == null) {
+            return null;
+        }
+
+        try {
+            var location = Path.of(source.getLocation().toURI());
+            var digest = MessageDigest.getInstance("SHA-256");
+
+            if (!Files.isDirectory(location)) {
+                digest.update(Files.readAllBytes(location));
+                return HexFormat.of().formatHex(digest.digest());
+            }
+
+            try (var files = Files.walk(location)) {
+                for (var file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | UncheckedIOException | URISyntaxException | NoSuchAlgorithmException
+                 | IllegalArgumentException | FileSystemNotFoundException ex) {
+            return null;
+        }
+    }
+
+    private static void lintFile(String zero, CommandLine line) {
+        var path = Path.of(zero);
+
+        if (!Files.exists(path)) {
+            System.out.printf("No such file or directory %s%n", zero);
+            return;
+        }
+
+        if (!DatapackArchive.isArchive(path)) {
+            lintDatapack(path, zero, line);
+            return;
+        }
+
+        if (line.hasOption(OPTION_WATCH)) {
+            System.out.println("Zipped datapacks cannot be watched");
+            return;
+        }
+
+        try (var archive = DatapackArchive.open(path)) {
+            lintDatapack(archive.root(), zero, line);
+        } catch (IOException ex) {
+            System.out.printf("Failed to open %s: %s%n", zero, ex.getMessage());
+        }
+    }
+
+    @SuppressWarnings("try")
+    private static void lintDatapack(Path root, String zero, CommandLine line) {
+        var arguments = CommandArgumentManager.createDefault();
+        var metrics = createMetrics(line, arguments);
+        var linter = createLinter(line, arguments, metrics);
+
+        if (linter == null) {
+            return;
+        }
+
+        var tree = linter.tree();
+        var start = System.nanoTime();
+        var format = line.getOptionValue(OPTION_FORMAT, FORMAT_TEXT);
+
+        // Keep the standard output clean for reports written to it
+        var console = !FORMAT_TEXT.equals(format) && !line.hasOption(OPTION_OUTPUT) ? System.err : System.out;
+
+        var cache = createCache(line, tree);
+        var index = line.hasOption(OPTION_REFERENCES) ? new ReferenceIndex(root) : null;
+
+        try (var datapackLinter = new DatapackLinter(linter, Runtime.getRuntime().availableProcessors(), cache, index)) {
+            if (index != null) {
+                index.loadTags();
+            }
+
+            var totals = new RunTotals();
+
+            if (FORMAT_TEXT.equals(format)) {
+                var results = datapackLinter.lint(root);
+                results.forEach(totals::add);
+
+                try (var span = LintMetrics.begin(metrics, LintPhase.REPORT)) {
+                    printResults(root, results, false);
+                }
+            } else {
+                writeReport(root, datapackLinter, format, line.getOptionValue(OPTION_OUTPUT), totals, metrics);
+            }
+
+            var seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+            console.printf("Linted %d files (%d lines, %d cached) in %.3f s, %.0f files/s, %.0f lines/s, %d problems%n",
+                    totals.files, totals.lines, totals.cached, seconds, totals.files / seconds, totals.lines / seconds,
+                    totals.problems);
+
+            if (index != null) {
+                printReferences(console, root, index, metrics);
+            }
+
+            if (metrics != null) {
+                metrics.printSummary(console);
+                printLineCache(console, linter);
+            }
+
+            if (cache != null) {
+                cache.prune(LintCache.DEFAULT_MAX_AGE);
+            }
+
+            if (line.hasOption(OPTION_WATCH)) {
+                watch(root, datapackLinter);
+            }
+        } catch (IOException ex) {
+            console.printf("Failed to lint %s: %s%n", zero, ex.getMessage());
+        }
+    }
+
+    private static void writeReport(Path root, DatapackLinter datapackLinter, String format, @Nullable String output,
+                                    RunTotals totals, @Nullable LintMetrics metrics) throws IOException {
+        var out = output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+
+        try (var reporter = createReporter(format, out, root)) {
+            datapackLinter.lint(root, result -> {
+                totals.add(result);
+
+                var reportStart = System.nanoTime();
+                reporter.report(result);
+
+                if (metrics != null) {
+                    metrics.recordPhase(LintPhase.REPORT, System.nanoTime() - reportStart);
+                }
+            });
+        } finally {
+            // The standard output is left open for the summary
+            if (output == null) {
+                out.flush();
+            } else {
+                out.close();
+            }
+        }
+    }
+
+    private static LintReporter createReporter(String format, Writer out, Path root) throws IOException {
+        if (FORMAT_SARIF.equals(format)) {
+            return new SarifLintReporter(out, root, Main.class.getPackage().getImplementationVersion());
         }
+
+        return new JsonLintReporter(out, root);
     }
 
-    private static void lintFile(String zero) {
-        System.out.println("Not implemented");
+    /**
+     * Counts the results of a run as they are linted.
+     */
+    private static final class RunTotals {
+        private long files;
+        private long lines;
+        private long cached;
+        private long problems;
+
+        private void add(FunctionLintResult result) {
+            files++;
+            lines += result.lineCount();
+            problems += result.diagnostics().size() + (result.ioError() == null ? 0 : 1);
+
+            if (result.cached()) {
+                cached++;
+            }
+        }
     }
 
-    private static void lintRawCommand(String zero) {
+    @SuppressWarnings("try")
+    private static void printReferences(PrintStream out, Path root, ReferenceIndex index,
+                                        @Nullable LintMetrics metrics) {
+        ReferenceReport report;
+
+        try (var span = LintMetrics.begin(metrics, LintPhase.REFERENCES)) {
+            report = index.analyze();
+        }
+
+        for (var file : report.invalidTags()) {
+            out.printf("%s: invalid function tag%n", root.relativize(file));
+        }
+
+        for (var reference : report.unresolved()) {
+            var file = root.relativize(reference.file());
+
+            if (reference.line() > 0) {
+                out.printf("%s:%d: unresolved reference to %s%n", file, reference.line(), reference.target());
+            } else {
+                out.printf("%s: unresolved reference to %s%n", file, reference.target());
+            }
+        }
+
+        for (var function : report.unreachable()) {
+            out.printf("%s: unreachable from the load and tick tags%n", function);
+        }
+
+        for (var cycle : report.cycles()) {
+            out.printf("Call cycle: %s%n", cycle.stream().map(ReferenceTarget::toString)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        out.printf("Indexed %d functions and %d tags, %d unresolved, %d unreachable, %d cycles%n",
+                index.functionCount(), index.tagCount(), report.unresolved().size() + report.invalidTags().size(),
+                report.unreachable().size(), report.cycles().size());
+    }
 
+    private static void watch(Path root, DatapackLinter datapackLinter) throws IOException {
+        if (!Files.isDirectory(root)) {
+            System.out.println("Only directories can be watched");
+            return;
+        }
+
+        try (var watcher = new DatapackWatcher(datapackLinter, root)) {
+            System.out.printf("Watching %s for changes%n", root);
+
+            watcher.run(new DatapackWatcher.Listener() {
+                @Override
+                public void onChange(@NotNull List<FunctionLintResult> results, @NotNull List<Path> removed,
+                                     long latencyNanos) {
+                    var problems = printResults(root, results, true);
+
+                    for (var file : removed) {
+                        System.out.printf("%s: removed%n", root.relativize(file));
+                    }
+
+                    System.out.printf("Relinted %d files in %.1f ms, %d problems%n", results.size(),
+                            latencyNanos / 1e6, problems);
+                }
+
+                @Override
+                public void onError(@NotNull Exception ex) {
+                    System.out.printf("Failed to follow a change: %s%n", ex);
+                }
+            });
+        }
+    }
+
+    private static long printResults(Path root, List<FunctionLintResult> results, boolean reportClean) {
+        var problems = 0L;
+
+        for (var result : results) {
+            var file = root.equals(result.file()) ? root : root.relativize(result.file());
+
+            if (result.ioError() != null) {
+                problems++;
+                System.out.printf("%s: failed to read file: %s%n", file, result.ioError().getMessage());
+            }
+
+            for (var diagnostic : result.diagnostics()) {
+                problems++;
+                System.out.printf("%s:%d: %s%n", file, diagnostic.line(), diagnostic.diagnostic());
+            }
+
+            if (reportClean && result.isClean()) {
+                System.out.printf("%s: no problems%n", file);
+            }
+        }
+
+        return problems;
+    }
+
+    private static @Nullable LintMetrics createMetrics(CommandLine line, CommandArgumentManager arguments) {
+        return line.hasOption(OPTION_METRICS) ? new LintMetrics(arguments) : null;
+    }
+
+    private static @Nullable CommandTree loadTree(CommandLine line, CommandArgumentManager arguments) {
+        var definitions = CommandDefinitionModel.getEmbedded();
+
+        if (definitions == null) {
+            System.err.println("Failed to load command definitions");
+            return null;
+        }
+
+        var store = new SchemaStore(definitions, arguments);
+
+        if (!line.hasOption(OPTION_GAME_VERSION)) {
+            return store.base();
+        }
+
+        var gameVersion = line.getOptionValue(OPTION_GAME_VERSION);
+        var tree = store.resolve(gameVersion);
+
+        if (tree == null) {
+            System.err.printf("No command definitions for game version %s, known versions are %s%n", gameVersion,
+                    String.join(", ", store.versions()));
+        }
+
+        return tree;
+    }
+
+    private static @Nullable CommandLinter createLinter(CommandLine line) {
+        return createLinter(line, CommandArgumentManager.createDefault(), null);
+    }
+
+    @SuppressWarnings("try")
+    private static @Nullable CommandLinter createLinter(CommandLine line, CommandArgumentManager arguments,
+                                                       @Nullable LintMetrics metrics) {
+        var lineCacheSize = line.getOptionValue(OPTION_LINE_CACHE,
+                Integer.toString(LineResultCache.DEFAULT_CAPACITY));
+        int lineCacheCapacity;
+
+        try {
+            lineCacheCapacity = Integer.parseInt(lineCacheSize);
+        } catch (NumberFormatException ex) {
+            lineCacheCapacity = -1;
+        }
+
+        if (lineCacheCapacity < 0) {
+            System.err.printf("Invalid line cache size %s%n", lineCacheSize);
+            return null;
+        }
+
+        CommandTree tree;
+
+        try (var span = LintMetrics.begin(metrics, LintPhase.SCHEMA)) {
+            tree = loadTree(line, arguments);
+        }
+
+        if (tree == null) {
+            return null;
+        }
+
+        var lineCache = lineCacheCapacity == 0 ? null : new LineResultCache(lineCacheCapacity);
+        return new CommandLinter(tree, metrics, lineCache);
+    }
+
+    private static void printLineCache(PrintStream out, CommandLinter linter) {
+        var cache = linter.cache();
+
+        if (cache != null) {
+            cache.printSummary(out);
+        }
+    }
+
+    private static void lintStdin(CommandLine line) {
+        var arguments = CommandArgumentManager.createDefault();
+        var metrics = createMetrics(line, arguments);
+        var linter = createLinter(line, arguments, metrics);
+
+        if (linter == null) {
+            return;
+        }
+
+        var start = System.nanoTime();
+        var in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        var out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+        try {
+            var summary = new CommandStreamLinter(linter).lint(in, out);
+            out.flush();
+
+            // Standard output only holds the problems, so that it can be piped on
+            var seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+            System.err.printf("Linted %d lines in %.3f s, %.0f lines/s, %d problems%n", summary.lines(), seconds,
+                    summary.lines() / seconds, summary.problems());
+
+            if (metrics != null) {
+                metrics.recordLines(summary.lines(), summary.problems());
+                metrics.printSummary(System.err);
+                printLineCache(System.err, linter);
+            }
+        } catch (IOException ex) {
+            System.err.printf("Failed to lint standard input: %s%n", ex.getMessage());
+        }
+    }
+
+    private static void lintRawCommand(String zero, CommandLine line) {
+        var linter = createLinter(line);
+
+        if (linter == null) {
+            return;
+        }
+
+        var parser = new CommandSyntaxParser("");
+        parser.resetText(zero, 1, zero.length());
+        var diagnostic = linter.lint(parser);
+
+        if (diagnostic == null) {
+            System.out.println("No problems found");
+        } else {
+            System.out.println(diagnostic);
+        }
     }
-}
\ No newline at end of file
+}
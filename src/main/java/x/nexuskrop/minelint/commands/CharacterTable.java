@@ -0,0 +1,155 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable set of ASCII characters, tested with a single bit lookup rather than a chain of comparisons.
+ * <p>
+ * Tables are meant for scanning runs: {@link #skip(CharSequence, int, int)} finds the end of a run of characters in
+ * the set in one tight loop, so that callers only have to look at the character that ended it.
+ */
+public final class CharacterTable {
+    /**
+     * The characters allowed in unquoted strings: {@code 0-9}, {@code A-Z}, {@code a-z}, {@code _}, {@code -},
+     * {@code .} and {@code +}.
+     */
+    public static final CharacterTable UNQUOTED_STRING = builder()
+            .range('0', '9').range('A', 'Z').range('a', 'z').add("_-.+").build();
+
+    private final long low;
+    private final long high;
+
+    private CharacterTable(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Creates a builder of a new table.
+     * @return The builder.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Determines whether the specified character is in this table.
+     * @param c The character.
+     * @return {@code true} if it is; otherwise, {@code false}.
+     */
+    public boolean contains(int c) {
+        // Shifts only use the lower six bits, so the word is selected by the next bit
+        if (c < 64) {
+            return c >= 0 && (low & (1L << c)) != 0;
+        }
+
+        return c < 128 && (high & (1L << c)) != 0;
+    }
+
+    /**
+     * Finds the first character in a region that is not in this table.
+     * @param text The text.
+     * @param from The start of the region, inclusive.
+     * @param to The end of the region, exclusive.
+     * @return The index of the first character not in this table, or {@code to} if every character is.
+     */
+    public int skip(@NotNull CharSequence text, int from, int to) {
+        var i = from;
+
+        while (i < to && contains(text.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * Builds a {@link CharacterTable}.
+     */
+    public static final class Builder {
+        private long low;
+        private long high;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a single character.
+         * @param c The character, which must be ASCII.
+         * @return This builder.
+         */
+        public @NotNull Builder add(char c) {
+            if (c >= 128) {
+                throw new IllegalArgumentException(String.format("Character %s is not ASCII", c));
+            }
+
+            if (c < 64) {
+                low |= 1L << c;
+            } else {
+                high |= 1L << c;
+            }
+
+            return this;
+        }
+
+        /**
+         * Adds every character of the specified string.
+         * @param chars The characters, which must be ASCII.
+         * @return This builder.
+         */
+        public @NotNull Builder add(@NotNull String chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                add(chars.charAt(i));
+            }
+
+            return this;
+        }
+
+        /**
+         * Adds a range of characters.
+         * @param first The first character, inclusive.
+         * @param last The last character, inclusive.
+         * @return This builder.
+         */
+        public @NotNull Builder range(char first, char last) {
+            for (var c = first; c <= last; c++) {
+                add(c);
+            }
+
+            return this;
+        }
+
+        /**
+         * Adds every character of another table.
+         * @param table The table.
+         * @return This builder.
+         */
+        public @NotNull Builder add(@NotNull CharacterTable table) {
+            low |= table.low;
+            high |= table.high;
+            return this;
+        }
+
+        public @NotNull CharacterTable build() {
+            return new CharacterTable(low, high);
+        }
+    }
+}
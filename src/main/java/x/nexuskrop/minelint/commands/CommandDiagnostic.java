@@ -0,0 +1,116 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a syntax error found at a position in a command.
+ * <p>
+ * The description is formatted only when it is requested, so recording a diagnostic costs no more than the
+ * allocation of this object.
+ */
+public final class CommandDiagnostic {
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final CommandSyntaxError error;
+    private final int cursor;
+    private final Object[] values;
+    private final String description;
+
+    /**
+     * Constructs a new diagnostic.
+     * @param error The error.
+     * @param cursor The position of the error.
+     * @param values The values to format the description of the error with. If there are none, the description of the
+     *               error is used as is.
+     */
+    public CommandDiagnostic(@NotNull CommandSyntaxError error, int cursor, Object... values) {
+        this.error = error;
+        this.cursor = cursor;
+        this.values = values == null ? NO_VALUES : values;
+        this.description = null;
+    }
+
+    private CommandDiagnostic(CommandSyntaxError error, int cursor, Object[] values, String description) {
+        this.error = error;
+        this.cursor = cursor;
+        this.values = values;
+        this.description = description;
+    }
+
+    /**
+     * Creates a diagnostic with a description that is already formatted, such as one read back from a report.
+     * @param error The error.
+     * @param cursor The position of the error.
+     * @param description The formatted description.
+     * @return The diagnostic.
+     */
+    public static @NotNull CommandDiagnostic ofDescription(@NotNull CommandSyntaxError error, int cursor,
+                                                           @NotNull String description) {
+        return new CommandDiagnostic(error, cursor, NO_VALUES, description);
+    }
+
+    /**
+     * Creates a diagnostic that differs from this diagnostic only by the position, such as when the same problem is
+     * found in a line that is indented differently.
+     * @param cursor The position of the error.
+     * @return The diagnostic, or this diagnostic if the position is the same.
+     */
+    public @NotNull CommandDiagnostic withCursor(int cursor) {
+        return cursor == this.cursor ? this : new CommandDiagnostic(error, cursor, values, description);
+    }
+
+    public @NotNull CommandSyntaxError getError() {
+        return error;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Formats the description of the error with the values of this diagnostic.
+     * @return The description.
+     */
+    public @NotNull String getDescription() {
+        if (description != null) {
+            return description;
+        }
+
+        if (values.length == 0) {
+            return error.getDescription();
+        }
+
+        return String.format(error.getDescription(), values);
+    }
+
+    /**
+     * Creates an exception of this diagnostic.
+     * @return The exception.
+     */
+    public @NotNull CommandSyntaxException toException() {
+        return new CommandSyntaxException(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[at position %s] %s: %s", cursor, error.getId(), getDescription());
+    }
+}
@@ -18,6 +18,10 @@
 
 package x.nexuskrop.minelint.commands;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
 public final class CommandSyntaxError {
     private final String description;
     private final String id;
@@ -54,4 +58,74 @@ public final class CommandSyntaxError {
             = new CommandSyntaxError("MCF0007", "Invalid %s");
     public static final CommandSyntaxError UNQUOTED_STRING_ILLEGAL_CHAR
             = new CommandSyntaxError("MCF0008", "Character %c not allowed in unquoted string");
+    public static final CommandSyntaxError UNKNOWN_COMMAND
+            = new CommandSyntaxError("MCF0009", "Unknown command %s");
+    public static final CommandSyntaxError EXCEPTED_END_OF_COMMAND
+            = new CommandSyntaxError("MCF0010", "Excepted end of command but got %s");
+    public static final CommandSyntaxError INVALID_ESCAPE
+            = new CommandSyntaxError("MCF0011", "Invalid escape sequence \\%c in quoted string");
+    public static final CommandSyntaxError INVALID_RESOURCE_LOCATION
+            = new CommandSyntaxError("MCF0012", "Invalid resource location %s");
+    public static final CommandSyntaxError NBT_TOO_DEEP
+            = new CommandSyntaxError("MCF0013", "NBT is nested deeper than %d levels");
+    public static final CommandSyntaxError NBT_MIXED_LIST
+            = new CommandSyntaxError("MCF0014", "Cannot insert %s into list of %s");
+    public static final CommandSyntaxError NBT_INVALID_ARRAY
+            = new CommandSyntaxError("MCF0015", "Invalid array type %s");
+    public static final CommandSyntaxError NBT_INVALID_ARRAY_ELEMENT
+            = new CommandSyntaxError("MCF0016", "Cannot insert %s into %s");
+    public static final CommandSyntaxError SELECTOR_UNKNOWN_TYPE
+            = new CommandSyntaxError("MCF0017", "Unknown selector type %s");
+    public static final CommandSyntaxError SELECTOR_UNKNOWN_OPTION
+            = new CommandSyntaxError("MCF0018", "Unknown selector option %s");
+    public static final CommandSyntaxError SELECTOR_OPTION_NOT_APPLICABLE
+            = new CommandSyntaxError("MCF0019", "Selector option %s is not applicable here");
+    public static final CommandSyntaxError INVALID_NAME_OR_UUID
+            = new CommandSyntaxError("MCF0020", "Invalid name or UUID %s");
+    public static final CommandSyntaxError RANGE_SWAPPED
+            = new CommandSyntaxError("MCF0021", "Minimum %s is bigger than maximum %s");
+    public static final CommandSyntaxError VALUE_TOO_SMALL
+            = new CommandSyntaxError("MCF0022", "Excepted %s of at least %s");
+    public static final CommandSyntaxError SELECTOR_NOT_SINGLE
+            = new CommandSyntaxError("MCF0023", "Only one entity is allowed, but the selector allows more than one");
+    public static final CommandSyntaxError SELECTOR_NOT_PLAYERS
+            = new CommandSyntaxError("MCF0024", "Only players are allowed, but the selector includes entities");
+    public static final CommandSyntaxError JSON_TOO_DEEP
+            = new CommandSyntaxError("MCF0025", "JSON is nested deeper than %d levels");
+    public static final CommandSyntaxError COMPONENT_WRONG_TYPE
+            = new CommandSyntaxError("MCF0026", "Excepted %s to be %s but found %s");
+    public static final CommandSyntaxError COMPONENT_NO_CONTENT
+            = new CommandSyntaxError("MCF0027", "Text component has no content");
+    public static final CommandSyntaxError COMPONENT_MISSING_KEY
+            = new CommandSyntaxError("MCF0028", "Missing %s in %s");
+    public static final CommandSyntaxError COMPONENT_UNKNOWN_VALUE
+            = new CommandSyntaxError("MCF0029", "Unknown %s %s");
+    public static final CommandSyntaxError COMPONENT_EMPTY_LIST
+            = new CommandSyntaxError("MCF0030", "Excepted at least one component in %s");
+
+    private static final List<CommandSyntaxError> BUILT_IN = List.of(EXCEPTED_STRING, EXCEPTED_QUOTED_STRING,
+            EXCEPTED_END_OR_WHITESPACE, EXCEPTED_BEGIN_OF_QUOTE, EXCEPTED_END_OF_QUOTE, EXCEPTED_VALUE,
+            EXCEPTED_VALUE_BUT, INVALID_VALUE, UNQUOTED_STRING_ILLEGAL_CHAR, UNKNOWN_COMMAND, EXCEPTED_END_OF_COMMAND,
+            INVALID_ESCAPE, INVALID_RESOURCE_LOCATION, NBT_TOO_DEEP, NBT_MIXED_LIST, NBT_INVALID_ARRAY,
+            NBT_INVALID_ARRAY_ELEMENT, SELECTOR_UNKNOWN_TYPE, SELECTOR_UNKNOWN_OPTION, SELECTOR_OPTION_NOT_APPLICABLE,
+            INVALID_NAME_OR_UUID, RANGE_SWAPPED, VALUE_TOO_SMALL, SELECTOR_NOT_SINGLE, SELECTOR_NOT_PLAYERS,
+            JSON_TOO_DEEP, COMPONENT_WRONG_TYPE, COMPONENT_NO_CONTENT, COMPONENT_MISSING_KEY, COMPONENT_UNKNOWN_VALUE,
+            COMPONENT_EMPTY_LIST);
+
+    /**
+     * Finds the built-in error with the specified ID and description. Both are needed, as several errors can share
+     * the same ID.
+     * @param id The ID.
+     * @param description The description, unformatted.
+     * @return The built-in error, or a new error with the specified ID and description if there is none.
+     */
+    public static @NotNull CommandSyntaxError of(@NotNull String id, @NotNull String description) {
+        for (var error : BUILT_IN) {
+            if (error.id.equals(id) && error.description.equals(description)) {
+                return error;
+            }
+        }
+
+        return new CommandSyntaxError(id, description);
+    }
 }
@@ -18,35 +18,50 @@
 
 package x.nexuskrop.minelint.commands;
 
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when a command is not valid.
+ * <p>
+ * This is a thin adapter around {@link CommandDiagnostic}. It does not capture a stack trace, and its message is
+ * formatted only when it is requested.
+ */
 public class CommandSyntaxException extends Exception {
-    private final int cursor;
-    private final CommandSyntaxError error;
-    private final String description;
+    private final CommandDiagnostic diagnostic;
 
     public CommandSyntaxException(CommandSyntaxError error, int cursor) {
-        super(String.format("%s: %s", error.getId(), error.getDescription()));
-
-        this.description = error.getDescription();
-
-        this.error = error;
-        this.cursor = cursor;
+        this(new CommandDiagnostic(error, cursor));
     }
 
     public CommandSyntaxException(CommandSyntaxError error, int cursor, Object... formatArgs) {
-        super(String.format("%s: %s", error.getId(), String.format(error.getDescription(), formatArgs)));
+        this(new CommandDiagnostic(error, cursor, formatArgs));
+    }
+
+    public CommandSyntaxException(@NotNull CommandDiagnostic diagnostic) {
+        super(null, null, false, false);
 
-        this.description = String.format(error.getDescription(), formatArgs);
+        this.diagnostic = diagnostic;
+    }
 
-        this.error = error;
-        this.cursor = cursor;
+    @Override
+    public String getMessage() {
+        return String.format("%s: %s", diagnostic.getError().getId(), diagnostic.getDescription());
     }
 
     @Override
     public String toString() {
-        return String.format("[at position %s] %s: %s", cursor, error.getId(), description);
+        return diagnostic.toString();
     }
 
     public int getCursor() {
-        return cursor;
+        return diagnostic.getCursor();
+    }
+
+    public CommandSyntaxError getError() {
+        return diagnostic.getError();
+    }
+
+    public @NotNull CommandDiagnostic getDiagnostic() {
+        return diagnostic;
     }
 }
@@ -20,6 +20,9 @@ package x.nexuskrop.minelint.commands;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.IntPredicate;
 
 public class CommandSyntaxParser {
     private static final char SYNTAX_WHITESPACE = ' ';
@@ -30,38 +33,123 @@ public class CommandSyntaxParser {
     private static final String SYNTAX_TRUE = "true";
     private static final String SYNTAX_FALSE = "false";
 
-    private String string;
-    private char[] chars;
+    /**
+     * The maximum amount of significant digits that are accumulated into a {@code long}.
+     */
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+    private static final int MAX_EXPONENT = 100_000;
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long MAX_EXACT_FLOAT = 1L << 24;
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private CharSequence text;
+    private int offset;
+    private int length;
     private int cursor;
 
+    private final TextSpan span = new TextSpan();
+    private long longValue;
+    private double doubleValue;
+    private boolean booleanValue;
+    private CommandDiagnostic failure;
+
     /**
      * Constructs a new command syntax parser.
-     * @param string The string to parse.
+     * @param text The text to parse.
      */
     @Contract(pure = true)
-    public CommandSyntaxParser(String string) {
-        this.string = string;
-        this.chars = string.toCharArray();
+    public CommandSyntaxParser(@NotNull CharSequence text) {
+        this.text = text;
+        this.length = text.length();
     }
 
     /***
      * Resets the string of this parser to the specified string, and resets the cursor.
      * @param text The text to set to.
      */
-    public void resetText(@NotNull String text) {
-        string = text;
-        chars = text.toCharArray();
-        cursor = 0;
+    public void resetText(@NotNull CharSequence text) {
+        resetText(text, 0, text.length());
+    }
+
+    /**
+     * Resets the text of this parser to a region of the specified text, and resets the cursor. The text is not
+     * copied, and the cursor is relative to the start of the region.
+     * @param text The text to set to.
+     * @param start The start of the region, inclusive.
+     * @param end The end of the region, exclusive.
+     */
+    public void resetText(@NotNull CharSequence text, int start, int end) {
+        if (start < 0 || end < start || end > text.length()) {
+            throw new IndexOutOfBoundsException(String.format("Region %d to %d out of bounds for length %d",
+                    start, end, text.length()));
+        }
+
+        this.text = text;
+        this.offset = start;
+        this.length = end - start;
+        this.cursor = 0;
+        this.failure = null;
+    }
+
+    /**
+     * Resets the text of this parser to a region of the text of another parser, such as a value embedded in a
+     * larger one, and resets the cursor. Unlike passing a span, this reads the underlying text directly.
+     * @param parser The other parser.
+     * @param start The start of the region, relative to the text of the other parser.
+     * @param end The end of the region, exclusive.
+     */
+    public void resetText(@NotNull CommandSyntaxParser parser, int start, int end) {
+        parser.checkRegion(start, end);
+        resetText(parser.text, parser.offset + start, parser.offset + end);
+    }
+
+    /**
+     * Records a failure at the cursor. The message is not formatted until the failure is rendered.
+     * @param error The error.
+     * @param values The values to format the description of the error with.
+     * @return Always {@code false}, so that {@code try} methods can return the result of this method directly.
+     */
+    public boolean fail(@NotNull CommandSyntaxError error, Object... values) {
+        failure = new CommandDiagnostic(error, cursor, values);
+        return false;
+    }
+
+    /**
+     * Records the specified failure.
+     * @param diagnostic The failure.
+     * @return Always {@code false}, so that {@code try} methods can return the result of this method directly.
+     */
+    public boolean fail(@NotNull CommandDiagnostic diagnostic) {
+        failure = diagnostic;
+        return false;
     }
 
-    @Contract("_ -> new")
-    private @NotNull CommandSyntaxException error(CommandSyntaxError error) {
-        return new CommandSyntaxException(error, cursor);
+    /**
+     * Gets the last failure recorded by a {@code try} method since the text was reset.
+     * @return The failure, or {@code null} if nothing failed.
+     */
+    public @Nullable CommandDiagnostic getFailure() {
+        return failure;
     }
 
-    @Contract("_, _ -> new")
-    private @NotNull CommandSyntaxException error(CommandSyntaxError error, Object... values) {
-        return new CommandSyntaxException(error, cursor, values);
+    /**
+     * Creates an exception from the last failure recorded. This is how the throwing methods adapt their
+     * {@code try} counterparts.
+     * @return The exception.
+     * @exception IllegalStateException No failure was recorded.
+     */
+    public @NotNull CommandSyntaxException toException() {
+        if (failure == null) {
+            throw new IllegalStateException("No failure recorded");
+        }
+
+        return failure.toException();
     }
 
     /**
@@ -72,8 +160,37 @@ public class CommandSyntaxParser {
         return isEnd(0);
     }
 
+    /**
+     * Gets the current position of the cursor.
+     * @return The position of the cursor.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Gets the length of the text of this parser, which is the position of the end of the text.
+     * @return The length.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Moves the cursor to the specified position, such as back to the start of a value that failed to parse.
+     * @param cursor The position.
+     * @exception IndexOutOfBoundsException The position is beyond the length of string.
+     */
+    public void setCursor(int cursor) {
+        if (cursor < 0 || cursor > length) {
+            throw new IndexOutOfBoundsException(cursor);
+        }
+
+        this.cursor = cursor;
+    }
+
     public boolean isEnd(int pos) {
-        return (cursor + pos) >= chars.length;
+        return (cursor + pos) >= length;
     }
 
     /**
@@ -87,7 +204,7 @@ public class CommandSyntaxParser {
             throw new IllegalStateException("Out of reach");
         }
 
-        return string.charAt(cursor + offset);
+        return text.charAt(this.offset + cursor + offset);
     }
 
     /**
@@ -109,18 +226,30 @@ public class CommandSyntaxParser {
      * @throws CommandSyntaxException The current character is not whitespace, and it is not the end of string.
      */
     public void skipSingleSpace() throws CommandSyntaxException {
-        if (isEnd(0) || isEnd(1)) {
+        if (!trySkipSingleSpace()) {
+            throw toException();
+        }
+    }
+
+    /**
+     * Skips the space at the cursor, or do nothing if the cursor is at the end of the string.
+     * @return {@code true} if skipped; {@code false} if the current character is not whitespace, and it is not the
+     *         end of string.
+     */
+    public boolean trySkipSingleSpace() {
+        if (isEnd()) {
             // Silently return
-            return;
+            return true;
         }
 
         var ch = peek(0);
 
         if (ch != SYNTAX_WHITESPACE) {
-            throw error(CommandSyntaxError.EXCEPTED_END_OR_WHITESPACE, ch);
+            return fail(CommandSyntaxError.EXCEPTED_END_OR_WHITESPACE, ch);
         }
 
-        skip(1);
+        cursor++;
+        return true;
     }
 
     public char read() {
@@ -128,59 +257,404 @@ public class CommandSyntaxParser {
             throw new IllegalStateException("Out of reach");
         }
 
-        var result = chars[cursor];
+        var result = text.charAt(offset + cursor);
         cursor++;
         return result;
     }
 
     public short readShort() throws CommandSyntaxException {
-        var value = readUnquotedValueString("short");
-
-        try {
-            return Short.parseShort(value);
-        } catch (NumberFormatException ex) {
-            throw error(CommandSyntaxError.INVALID_VALUE, "short");
+        if (!tryReadShort()) {
+            throw toException();
         }
+
+        return (short) longValue;
     }
 
     public float readFloat() throws CommandSyntaxException {
-        var value = readUnquotedValueString("float");
-
-        try {
-            return Float.parseFloat(value);
-        } catch (NumberFormatException ex) {
-            throw error(CommandSyntaxError.INVALID_VALUE, "float");
+        if (!tryReadFloat()) {
+            throw toException();
         }
+
+        return (float) doubleValue;
     }
 
     public double readDouble() throws CommandSyntaxException {
-        var value = readUnquotedValueString("double");
-
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException ex) {
-            throw error(CommandSyntaxError.INVALID_VALUE, "double");
+        if (!tryReadDouble()) {
+            throw toException();
         }
+
+        return doubleValue;
     }
 
     public long readInt() throws CommandSyntaxException {
-        var value = readUnquotedValueString("int");
-
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException ex) {
-            throw error(CommandSyntaxError.INVALID_VALUE, "int");
+        if (!tryReadInt()) {
+            throw toException();
         }
+
+        return longValue;
     }
 
     public long readLong() throws CommandSyntaxException {
-        var value = readUnquotedValueString("long");
+        if (!tryReadLong()) {
+            throw toException();
+        }
+
+        return longValue;
+    }
+
+    /**
+     * Reads a {@code short} without throwing. On success, the value is available from {@link #getLongValue()}.
+     * @return {@code true} if read; otherwise, {@code false}, with the failure available from {@link #getFailure()}.
+     */
+    public boolean tryReadShort() {
+        return tryReadInteger("short", Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /**
+     * Reads an {@code int} without throwing. On success, the value is available from {@link #getLongValue()}.
+     * @return {@code true} if read; otherwise, {@code false}, with the failure available from {@link #getFailure()}.
+     */
+    public boolean tryReadInt() {
+        return tryReadInteger("int", Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a {@code long} without throwing. On success, the value is available from {@link #getLongValue()}.
+     * @return {@code true} if read; otherwise, {@code false}, with the failure available from {@link #getFailure()}.
+     */
+    public boolean tryReadLong() {
+        return tryReadInteger("long", Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads a {@code float} without throwing. On success, the value is available from {@link #getDoubleValue()}.
+     * @return {@code true} if read; otherwise, {@code false}, with the failure available from {@link #getFailure()}.
+     */
+    public boolean tryReadFloat() {
+        return tryReadDecimal("float", true);
+    }
+
+    /**
+     * Reads a {@code double} without throwing. On success, the value is available from {@link #getDoubleValue()}.
+     * @return {@code true} if read; otherwise, {@code false}, with the failure available from {@link #getFailure()}.
+     */
+    public boolean tryReadDouble() {
+        return tryReadDecimal("double", false);
+    }
+
+    /**
+     * Gets the value of the last integer read by a {@code try} method.
+     * @return The value.
+     */
+    public long getLongValue() {
+        return longValue;
+    }
+
+    /**
+     * Gets the value of the last decimal read by a {@code try} method.
+     * @return The value.
+     */
+    public double getDoubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * Gets the value of the last boolean read by {@link #tryReadBoolean()}.
+     * @return The value.
+     */
+    public boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * Parses the specified region as a decimal integer with an optional sign, without moving the cursor or recording
+     * a failure. On success, the value is available from {@link #getLongValue()}.
+     * @param start The start of the region, relative to the text of this parser.
+     * @param end The end of the region, exclusive.
+     * @param min The minimum value allowed.
+     * @param max The maximum value allowed.
+     * @return {@code true} if the region is a valid integer within range; otherwise, {@code false}.
+     */
+    public boolean tryParseInteger(int start, int end, long min, long max) {
+        checkRegion(start, end);
+        return parseInteger(start, end, min, max);
+    }
+
+    /**
+     * Parses the specified region as a decimal number, without moving the cursor or recording a failure. On
+     * success, the value is available from {@link #getDoubleValue()}.
+     * @param start The start of the region, relative to the text of this parser.
+     * @param end The end of the region, exclusive.
+     * @param single Whether the number is a {@code float} rather than a {@code double}.
+     * @return {@code true} if the region is a valid, finite number; otherwise, {@code false}.
+     */
+    public boolean tryParseDecimal(int start, int end, boolean single) {
+        checkRegion(start, end);
+        return parseDecimal(start, end, single);
+    }
+
+    /**
+     * Gets a span of the raw characters in the specified region, such as a value that was scanned in several reads.
+     * @param start The start of the region, relative to the text of this parser.
+     * @param end The end of the region, exclusive.
+     * @return The span, valid until the next read.
+     */
+    public @NotNull TextSpan spanOf(int start, int end) {
+        checkRegion(start, end);
+        span.set(text, offset, start, end, false);
+        return span;
+    }
+
+    private void checkRegion(int start, int end) {
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException(String.format("Region %d to %d out of bounds for length %d",
+                    start, end, length));
+        }
+    }
+
+    /**
+     * Finds the end of the value that starts at the cursor, that is, the next whitespace or the end of string.
+     * @return The end of the value, exclusive.
+     */
+    private int findValueEnd() {
+        var end = cursor;
+
+        while (end < length && text.charAt(offset + end) != SYNTAX_WHITESPACE) {
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Reads an integer value into {@link #longValue}. On failure, the cursor stays at the start of the value.
+     */
+    private boolean tryReadInteger(String valueType, long min, long max) {
+        if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
+            return fail(CommandSyntaxError.EXCEPTED_VALUE, valueType);
+        }
+
+        var end = findValueEnd();
+
+        if (!parseInteger(cursor, end, min, max)) {
+            return fail(CommandSyntaxError.INVALID_VALUE, valueType);
+        }
+
+        cursor = end;
+        skip(1);
+        return true;
+    }
+
+    /**
+     * Reads a decimal value into {@link #doubleValue}. On failure, the cursor stays at the start of the value.
+     */
+    private boolean tryReadDecimal(String valueType, boolean single) {
+        if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
+            return fail(CommandSyntaxError.EXCEPTED_VALUE, valueType);
+        }
+
+        var end = findValueEnd();
+
+        if (!parseDecimal(cursor, end, single)) {
+            return fail(CommandSyntaxError.INVALID_VALUE, valueType);
+        }
+
+        cursor = end;
+        skip(1);
+        return true;
+    }
+
+    /**
+     * Parses a decimal integer with an optional sign in the specified region into {@link #longValue}, without
+     * creating any objects.
+     * @param start The start of the region, relative to the text of this parser.
+     * @param end The end of the region, exclusive.
+     * @param min The minimum value allowed.
+     * @param max The maximum value allowed.
+     * @return {@code true} if the region is a valid integer within range; otherwise, {@code false}.
+     */
+    private boolean parseInteger(int start, int end, long min, long max) {
+        var i = start;
+        var negative = false;
+
+        if (i < end) {
+            var ch = text.charAt(offset + i);
+
+            if (ch == '-' || ch == '+') {
+                negative = ch == '-';
+                i++;
+            }
+        }
+
+        if (i >= end) {
+            return false;
+        }
+
+        // Accumulate negatively, so that Long.MIN_VALUE can be represented
+        var limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        var multiplyLimit = limit / 10;
+        var result = 0L;
+
+        for (; i < end; i++) {
+            var digit = text.charAt(offset + i) - '0';
+
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                return false;
+            }
+
+            result *= 10;
+
+            if (result < limit + digit) {
+                return false;
+            }
+
+            result -= digit;
+        }
+
+        result = negative ? result : -result;
+
+        if (result < min || result > max) {
+            return false;
+        }
+
+        longValue = result;
+        return true;
+    }
 
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException ex) {
-            throw error(CommandSyntaxError.INVALID_VALUE, "long");
+    /**
+     * Parses a decimal number in the form of {@code [sign] digits [. digits] [e [sign] digits]} in the specified
+     * region into {@link #doubleValue}.
+     * <p>
+     * Numbers with a small enough significand and exponent, which are nearly all numbers in commands, are
+     * computed exactly without creating any objects. Other numbers fall back to the JDK parser.
+     * @param start The start of the region, relative to the text of this parser.
+     * @param end The end of the region, exclusive.
+     * @param single Whether the number is a {@code float} rather than a {@code double}.
+     * @return {@code true} if the region is a valid, finite number; otherwise, {@code false}.
+     */
+    private boolean parseDecimal(int start, int end, boolean single) {
+        var i = start;
+        var negative = false;
+
+        if (i < end) {
+            var ch = text.charAt(offset + i);
+
+            if (ch == '-' || ch == '+') {
+                negative = ch == '-';
+                i++;
+            }
+        }
+
+        var significand = 0L;
+        var significantDigits = 0;
+        var digits = 0;
+        var exponent = 0;
+        var dot = false;
+
+        for (; i < end; i++) {
+            var ch = text.charAt(offset + i);
+
+            if (ch == '.' && !dot) {
+                dot = true;
+                continue;
+            }
+
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+
+            digits++;
+
+            if (significand == 0 && ch == '0') {
+                // Leading zeros are not significant
+                if (dot) {
+                    exponent--;
+                }
+
+                continue;
+            }
+
+            if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+                significand = significand * 10 + (ch - '0');
+                significantDigits++;
+
+                if (dot) {
+                    exponent--;
+                }
+            } else {
+                // Digits beyond what a long can hold only matter for the slow path
+                significantDigits++;
+
+                if (!dot) {
+                    exponent++;
+                }
+            }
         }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        if (i < end) {
+            var ch = text.charAt(offset + i);
+
+            if (ch != 'e' && ch != 'E') {
+                return false;
+            }
+
+            i++;
+            var exponentNegative = false;
+
+            if (i < end && (text.charAt(offset + i) == '-' || text.charAt(offset + i) == '+')) {
+                exponentNegative = text.charAt(offset + i) == '-';
+                i++;
+            }
+
+            if (i >= end) {
+                return false;
+            }
+
+            var explicitExponent = 0;
+
+            for (; i < end; i++) {
+                var digit = text.charAt(offset + i) - '0';
+
+                if (digit < 0 || digit > 9) {
+                    return false;
+                }
+
+                // Saturate, anything this large is out of range anyway
+                explicitExponent = Math.min(explicitExponent * 10 + digit, MAX_EXPONENT);
+            }
+
+            exponent += exponentNegative ? -explicitExponent : explicitExponent;
+        }
+
+        double value;
+
+        if (significand == 0) {
+            value = 0;
+        } else if (significantDigits <= MAX_SIGNIFICANT_DIGITS && single
+                && significand <= MAX_EXACT_FLOAT && Math.abs(exponent) < FLOAT_POWERS_OF_TEN.length) {
+            // Both operands are exact, so the single rounding of the operation gives the correct result
+            value = exponent < 0 ? (float) significand / FLOAT_POWERS_OF_TEN[-exponent]
+                    : (float) significand * FLOAT_POWERS_OF_TEN[exponent];
+        } else if (significantDigits <= MAX_SIGNIFICANT_DIGITS && !single
+                && significand <= MAX_EXACT_DOUBLE && Math.abs(exponent) < DOUBLE_POWERS_OF_TEN.length) {
+            value = exponent < 0 ? (double) significand / DOUBLE_POWERS_OF_TEN[-exponent]
+                    : (double) significand * DOUBLE_POWERS_OF_TEN[exponent];
+        } else {
+            // The region is already known to be well-formed, so this never throws
+            var string = text.subSequence(offset + start, offset + end).toString();
+            value = Math.abs(single ? Float.parseFloat(string) : Double.parseDouble(string));
+        }
+
+        if (Double.isInfinite(value)) {
+            return false;
+        }
+
+        doubleValue = negative ? -value : value;
+        return true;
     }
 
     /**
@@ -189,70 +663,155 @@ public class CommandSyntaxParser {
      * @throws CommandSyntaxException Either the current character is not single nor double quote, or the format of quoted string is illegal. See the error and message provided.
      */
     public @NotNull String readQuotedString() throws CommandSyntaxException {
+        return readQuotedSpan().toString();
+    }
+
+    /**
+     * Automatically reads either a single-quoted or double-quoted string, without materializing it.
+     * @return A span of the value of the quoted string, valid until the next read.
+     * @throws CommandSyntaxException Either the current character is not single nor double quote, or the format of quoted string is illegal. See the error and message provided.
+     */
+    public @NotNull TextSpan readQuotedSpan() throws CommandSyntaxException {
+        return ensure(tryReadQuotedSpan());
+    }
+
+    /**
+     * Automatically reads either a single-quoted or double-quoted string, without materializing it or throwing.
+     * @return A span of the value of the quoted string, valid until the next read; or {@code null} if failed, with
+     *         the failure available from {@link #getFailure()}.
+     */
+    public @Nullable TextSpan tryReadQuotedSpan() {
         if (isEnd()) {
-            throw error(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, "nothing");
+            fail(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, "nothing");
+            return null;
         }
 
         var ch = peek(0);
 
         switch (ch) {
-            case SYNTAX_SINGLE_QUOTE -> {
-                return readSingleQuotedString();
+            case SYNTAX_SINGLE_QUOTE, SYNTAX_DOUBLE_QUOTE -> {
+                return tryReadQuotedSpanInternal(ch);
             }
-            case SYNTAX_DOUBLE_QUOTE -> {
-                return readDoubleQuotedString();
+            default -> {
+                fail(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, ch);
+                return null;
             }
-            default -> throw error(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, ch);
         }
     }
 
+    /**
+     * Reads either a single-quoted or double-quoted string that is part of a larger value, such as a key or a value
+     * in NBT, without materializing it or throwing. Unlike {@link #tryReadQuotedSpan()}, any character may follow the
+     * closing quote, and it is not skipped.
+     * @return A span of the value of the quoted string, valid until the next read; or {@code null} if failed, with
+     *         the failure available from {@link #getFailure()}.
+     */
+    public @Nullable TextSpan tryReadEmbeddedQuotedSpan() {
+        if (isEnd()) {
+            fail(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, "nothing");
+            return null;
+        }
+
+        var ch = peek(0);
+
+        if (ch != SYNTAX_SINGLE_QUOTE && ch != SYNTAX_DOUBLE_QUOTE) {
+            fail(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, ch);
+            return null;
+        }
+
+        return tryReadQuotedSpanBody(ch);
+    }
+
     /**
      * Reads a double-quoted string.
      * @return The string parsed.
      * @throws CommandSyntaxException Illegal quoted string format. For more information, see the error and message provided.
      */
     public @NotNull String readDoubleQuotedString() throws CommandSyntaxException {
-        return readQuotedStringInternal(SYNTAX_DOUBLE_QUOTE);
+        return ensure(tryReadQuotedSpanInternal(SYNTAX_DOUBLE_QUOTE)).toString();
     }
 
     /**
      * Reads a quoted string with a specified quote char. This is the implementation method of the
      * {@link #readSingleQuotedString()} and {@link #readDoubleQuotedString()}.
+     * <p>
+     * Within the quotes, an escape character makes the quote character or another escape character part of the
+     * value.
      * @param quoteChar The quote character.
-     * @return The string parsed.
-     * @throws CommandSyntaxException Illegal quoted string format. For more information, see the error and message provided.
+     * @return A span of the value of the string, excluding the quotes; or {@code null} if failed.
      */
-    private @NotNull String readQuotedStringInternal(char quoteChar) throws CommandSyntaxException {
-        if (isEnd() || peek(0) != quoteChar) {
-            throw error(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, peek(0));
+    private @Nullable TextSpan tryReadQuotedSpanInternal(char quoteChar) {
+        if (isEnd()) {
+            fail(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, "nothing");
+            return null;
         }
 
-        var builder = new StringBuilder();
-        var escape = false;
-        skip(1);
+        if (peek(0) != quoteChar) {
+            fail(CommandSyntaxError.EXCEPTED_BEGIN_OF_QUOTE, peek(0));
+            return null;
+        }
+
+        var result = tryReadQuotedSpanBody(quoteChar);
+        return result != null && trySkipSingleSpace() ? result : null;
+    }
+
+    /**
+     * Reads a quoted string from the opening quote at the cursor to the closing quote, and leaves the cursor after
+     * the closing quote.
+     */
+    private @Nullable TextSpan tryReadQuotedSpanBody(char quoteChar) {
+        // Not skip(1), which would stay on a quote that ends the text
+        cursor++;
+        var start = cursor;
+        var escaped = false;
 
         while (true) {
+            // Jump over the plain characters, only quotes and escapes need a closer look
+            var i = offset + cursor;
+            var limit = offset + length;
+
+            while (i < limit) {
+                var c = text.charAt(i);
+
+                if (c == quoteChar || c == SYNTAX_ESCAPE) {
+                    break;
+                }
+
+                i++;
+            }
+
+            cursor = i - offset;
+
             if (isEnd()) {
-                throw error(CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+                fail(CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+                return null;
             }
 
             var ch = read();
 
             if (ch == SYNTAX_ESCAPE) {
-                escape = true;
-                continue;
-            }
+                if (isEnd()) {
+                    fail(CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+                    return null;
+                }
 
-            if (ch == quoteChar) {
-                if (escape) {
-                    continue;
+                var escapedChar = peek(0);
+
+                if (escapedChar != quoteChar && escapedChar != SYNTAX_ESCAPE) {
+                    cursor--;
+                    fail(CommandSyntaxError.INVALID_ESCAPE, escapedChar);
+                    return null;
                 }
 
-                skipSingleSpace();
-                return builder.toString();
+                escaped = true;
+                cursor++;
+                continue;
             }
 
-            builder.append(ch);
+            if (ch == quoteChar) {
+                span.set(text, offset, start, cursor - 1, escaped);
+                return span;
+            }
         }
     }
 
@@ -262,34 +821,46 @@ public class CommandSyntaxParser {
      * @throws CommandSyntaxException Illegal quoted string format. For more information, see the error and message provided.
      */
     public @NotNull String readSingleQuotedString() throws CommandSyntaxException {
-        return readQuotedStringInternal(SYNTAX_SINGLE_QUOTE);
+        return ensure(tryReadQuotedSpanInternal(SYNTAX_SINGLE_QUOTE)).toString();
     }
 
     public String readUnquotedValueString(String valueType) throws CommandSyntaxException {
-        if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
-            throw error(CommandSyntaxError.EXCEPTED_VALUE, valueType);
-        }
-
-        var builder = new StringBuilder();
+        return readUnquotedValueSpan(valueType).toString();
+    }
 
-        while (true) {
-            if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
-                skip(1);
-                return builder.toString();
-            }
+    /**
+     * Reads a value that ends at the next whitespace or the end of string, without materializing it.
+     * @param valueType The type of the value, used in the error message.
+     * @return A span of the value, valid until the next read.
+     * @throws CommandSyntaxException There is no value at the cursor.
+     */
+    public @NotNull TextSpan readUnquotedValueSpan(String valueType) throws CommandSyntaxException {
+        return ensure(tryReadUnquotedValueSpan(valueType));
+    }
 
-            builder.append(read());
+    /**
+     * Reads a value that ends at the next whitespace or the end of string, without materializing it or throwing.
+     * @param valueType The type of the value, used in the error message.
+     * @return A span of the value, valid until the next read; or {@code null} if there is no value at the cursor,
+     *         with the failure available from {@link #getFailure()}.
+     */
+    public @Nullable TextSpan tryReadUnquotedValueSpan(String valueType) {
+        if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
+            fail(CommandSyntaxError.EXCEPTED_VALUE, valueType);
+            return null;
         }
+
+        var start = cursor;
+        cursor = findValueEnd();
+        span.set(text, offset, start, cursor, false);
+        skip(1);
+        return span;
     }
 
     // https://github.com/Mojang/brigadier/blob/f20bede62a516a11a468d27d3f1adde2085762bc/src/main/java/com/mojang/brigadier/StringReader.java#L169
     // (C) Microsoft Corporation - MIT License
     public static boolean isAllowedInUnquotedString(final char c) {
-        return c >= '0' && c <= '9'
-                || c >= 'A' && c <= 'Z'
-                || c >= 'a' && c <= 'z'
-                || c == '_' || c == '-'
-                || c == '.' || c == '+';
+        return CharacterTable.UNQUOTED_STRING.contains(c);
     }
 
     /**
@@ -298,56 +869,140 @@ public class CommandSyntaxParser {
      * @throws CommandSyntaxException Illegal unquoted string format. For more information, see the error and message provided.
      */
     public String readUnquotedString() throws CommandSyntaxException {
+        return readUnquotedSpan().toString();
+    }
+
+    /**
+     * Reads an unquoted string, without materializing it.
+     * @return A span of the string, valid until the next read.
+     * @throws CommandSyntaxException Illegal unquoted string format. For more information, see the error and message provided.
+     */
+    public @NotNull TextSpan readUnquotedSpan() throws CommandSyntaxException {
+        return ensure(tryReadUnquotedSpan());
+    }
+
+    /**
+     * Reads an unquoted string, without materializing it or throwing.
+     * @return A span of the string, valid until the next read; or {@code null} if the format of the string is
+     *         illegal, with the failure available from {@link #getFailure()}.
+     */
+    public @Nullable TextSpan tryReadUnquotedSpan() {
         if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
-            throw error(CommandSyntaxError.EXCEPTED_STRING);
+            fail(CommandSyntaxError.EXCEPTED_STRING);
+            return null;
         }
 
-        var builder = new StringBuilder();
+        var start = cursor;
+        var end = CharacterTable.UNQUOTED_STRING.skip(text, offset + cursor, offset + length) - offset;
 
-        while (true) {
-            if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
-                skip(1);
-                return builder.toString();
-            }
+        if (end < length && text.charAt(offset + end) != SYNTAX_WHITESPACE) {
+            cursor = end;
+            fail(CommandSyntaxError.UNQUOTED_STRING_ILLEGAL_CHAR, text.charAt(offset + end));
+            return null;
+        }
 
-            var ch = read();
+        cursor = end;
+        span.set(text, offset, start, cursor, false);
+        skip(1);
+        return span;
+    }
 
-            if (!isAllowedInUnquotedString(ch)) {
-                cursor--;
-                throw error(CommandSyntaxError.UNQUOTED_STRING_ILLEGAL_CHAR, ch);
-            }
+    public String readGreedyString() throws CommandSyntaxException {
+        return readGreedySpan().toString();
+    }
 
-            builder.append(ch);
-        }
+    /**
+     * Reads the rest of the string, without materializing it.
+     * @return A span of the rest of the string, valid until the next read.
+     * @throws CommandSyntaxException The cursor is at the end of string, or at a whitespace.
+     */
+    public @NotNull TextSpan readGreedySpan() throws CommandSyntaxException {
+        return ensure(tryReadGreedySpan());
     }
 
-    public String readGreedyString() throws CommandSyntaxException {
+    /**
+     * Reads the rest of the string, without materializing it or throwing.
+     * @return A span of the rest of the string, valid until the next read; or {@code null} if the cursor is at the
+     *         end of string or at a whitespace, with the failure available from {@link #getFailure()}.
+     */
+    public @Nullable TextSpan tryReadGreedySpan() {
         if (isEnd() || peek(0) == SYNTAX_WHITESPACE) {
-            throw error(CommandSyntaxError.EXCEPTED_STRING);
+            fail(CommandSyntaxError.EXCEPTED_STRING);
+            return null;
         }
 
-        var builder = new StringBuilder();
+        span.set(text, offset, cursor, length, false);
+        cursor = length;
+        return span;
+    }
 
-        while (true) {
-            if (isEnd()) {
-                return builder.toString();
-            }
+    /**
+     * Reads characters as long as they are in the specified table. This never fails, and does not skip any
+     * whitespace after the span.
+     * @param allowed The table of allowed characters.
+     * @return A span of the characters read, possibly empty; valid until the next read.
+     */
+    public @NotNull TextSpan readSpanWhile(@NotNull CharacterTable allowed) {
+        var start = cursor;
+        cursor = allowed.skip(text, offset + cursor, offset + length) - offset;
+        span.set(text, offset, start, cursor, false);
+        return span;
+    }
 
-            builder.append(read());
+    /**
+     * Reads characters as long as they match the specified predicate. This never fails, and does not skip any
+     * whitespace after the span.
+     * @param allowed The predicate of allowed characters.
+     * @return A span of the characters read, possibly empty; valid until the next read.
+     */
+    public @NotNull TextSpan readSpanWhile(@NotNull IntPredicate allowed) {
+        var start = cursor;
+
+        while (cursor < length && allowed.test(text.charAt(offset + cursor))) {
+            cursor++;
         }
+
+        span.set(text, offset, start, cursor, false);
+        return span;
     }
 
     public boolean readBoolean() throws CommandSyntaxException {
+        if (!tryReadBoolean()) {
+            throw toException();
+        }
+
+        return booleanValue;
+    }
+
+    /**
+     * Reads a boolean without throwing. On success, the value is available from {@link #getBooleanValue()}.
+     * @return {@code true} if read; otherwise, {@code false}, with the failure available from {@link #getFailure()}.
+     */
+    public boolean tryReadBoolean() {
         var start = cursor;
-        var value = readUnquotedValueString("boolean");
+        var value = tryReadUnquotedValueSpan("boolean");
 
-        if (value.equals(SYNTAX_TRUE)) {
-            return true;
-        } else if (value.equals(SYNTAX_FALSE)) {
+        if (value == null) {
             return false;
+        }
+
+        if (value.contentEquals(SYNTAX_TRUE)) {
+            booleanValue = true;
+            return true;
+        } else if (value.contentEquals(SYNTAX_FALSE)) {
+            booleanValue = false;
+            return true;
         } else {
             cursor = start;
-            throw error(CommandSyntaxError.EXCEPTED_VALUE_BUT, "boolean", value);
+            return fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "boolean", value.toString());
         }
     }
+
+    private @NotNull TextSpan ensure(@Nullable TextSpan span) throws CommandSyntaxException {
+        if (span == null) {
+            throw toException();
+        }
+
+        return span;
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view of a token read by a {@link CommandSyntaxParser}, without copying it out of the text of the parser.
+ * <p>
+ * The characters of this sequence are the value of the token; for quoted strings this excludes the quotes and the
+ * escape characters. Use {@link #toString()} to materialize the value when a {@link String} is actually needed.
+ * <p>
+ * A parser reuses a single span for every read, so a span is only valid until the next read on, or the next reset of,
+ * the parser that returned it. Spans do not override {@link Object#equals(Object)}; use
+ * {@link #contentEquals(CharSequence)} instead.
+ */
+public final class TextSpan implements CharSequence {
+    private static final char SYNTAX_ESCAPE = '\\';
+
+    private CharSequence text;
+    private int base;
+    private int start;
+    private int end;
+    private boolean escaped;
+
+    TextSpan() {
+        this.text = "";
+    }
+
+    void set(CharSequence text, int base, int start, int end, boolean escaped) {
+        this.text = text;
+        this.base = base;
+        this.start = start;
+        this.end = end;
+        this.escaped = escaped;
+    }
+
+    /**
+     * Gets the position of the first character of the token, relative to the text of the parser.
+     * @return The start of the token, inclusive.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Gets the position after the last character of the token, relative to the text of the parser.
+     * @return The end of the token, exclusive.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Determines whether the token contains escape sequences, in which case the value differs from the raw text.
+     * @return {@code true} if the token contains escape sequences; otherwise, {@code false}.
+     */
+    public boolean hasEscapes() {
+        return escaped;
+    }
+
+    @Override
+    public int length() {
+        if (!escaped) {
+            return end - start;
+        }
+
+        var result = 0;
+
+        for (int i = start; i < end; i++) {
+            if (text.charAt(base + i) == SYNTAX_ESCAPE) {
+                i++;
+            }
+
+            result++;
+        }
+
+        return result;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        if (!escaped) {
+            if (index >= end - start) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return text.charAt(base + start + index);
+        }
+
+        var current = 0;
+
+        for (int i = start; i < end; i++) {
+            if (text.charAt(base + i) == SYNTAX_ESCAPE) {
+                i++;
+            }
+
+            if (current == index) {
+                return text.charAt(base + i);
+            }
+
+            current++;
+        }
+
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    /**
+     * Determines whether the value of this token is equal to the specified characters, without materializing it.
+     * @param other The characters to compare with.
+     * @return {@code true} if equal; otherwise, {@code false}.
+     */
+    public boolean contentEquals(@NotNull CharSequence other) {
+        if (escaped) {
+            return toString().contentEquals(other);
+        }
+
+        var length = end - start;
+
+        if (other.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(base + start + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        if (!escaped) {
+            return text.subSequence(base + start, base + end).toString();
+        }
+
+        var builder = new StringBuilder(end - start);
+
+        for (int i = start; i < end; i++) {
+            var ch = text.charAt(base + i);
+
+            if (ch == SYNTAX_ESCAPE) {
+                i++;
+                ch = text.charAt(base + i);
+            }
+
+            builder.append(ch);
+        }
+
+        return builder.toString();
+    }
+}
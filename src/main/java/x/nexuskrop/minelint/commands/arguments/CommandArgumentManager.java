@@ -15,29 +15,138 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <https://www.gnu.org/licenses/>.
  */
-
 package x.nexuskrop.minelint.commands.arguments;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Manages the argument types commands can use.
+ * <p>
+ * Every registered type is assigned a dense integer id in registration order, so that compiled commands can
+ * dispatch to their parameters through an array rather than a map.
+ */
 public class CommandArgumentManager {
-    private final Map<String, CommandParameter> parameterMap = new HashMap<>();
+    /**
+     * The id returned for keys that are not registered.
+     */
+    public static final int UNKNOWN_ID = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] keys = new String[8];
+    private CommandParameter[] parameters = new CommandParameter[8];
+    private int size;
+
+    /**
+     * Creates a new argument manager with all built-in argument types registered.
+     * <p>
+     * The built-in types are listed by an annotation processor at build time, so no reflection is involved.
+     * @return The argument manager.
+     */
+    public static CommandArgumentManager createDefault() {
+        var manager = new CommandArgumentManager();
+        GeneratedArgumentTypes.registerAll(manager);
+        return manager;
+    }
+
+    /**
+     * Gets the number of registered argument types. Ids range from {@code 0} to this value, exclusive.
+     * @return The number of registered argument types.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the id of the argument type registered under the specified key.
+     * @param key The key.
+     * @return The id, or {@link #UNKNOWN_ID} if no type is registered under the key.
+     */
+    public int idOf(String key) {
+        var id = ids.get(key);
+        return id == null ? UNKNOWN_ID : id;
+    }
+
+    /**
+     * Gets the parameter with the specified id.
+     * @param id The id.
+     * @return The parameter.
+     * @throws IndexOutOfBoundsException If the id is not assigned.
+     */
+    public @NotNull CommandParameter get(int id) {
+        return parameters[checkId(id)];
+    }
+
+    /**
+     * Gets the key of the argument type with the specified id.
+     * @param id The id.
+     * @return The key.
+     * @throws IndexOutOfBoundsException If the id is not assigned.
+     */
+    public @NotNull String getKey(int id) {
+        return keys[checkId(id)];
+    }
+
+    /**
+     * Gets the parameter registered under the specified key.
+     * @param key The key.
+     * @return The parameter, or {@code null} if no parameter is registered under the key.
+     */
+    public @Nullable CommandParameter get(String key) {
+        var id = ids.get(key);
+        return id == null ? null : parameters[id];
+    }
 
     public CommandParameter getEnsure(String key) {
-        if (!parameterMap.containsKey(key)) {
+        var parameter = get(key);
+
+        if (parameter == null) {
             throw new IllegalArgumentException(String.format("No such parameter type %s", key));
         }
 
-        return parameterMap.get(key);
+        return parameter;
     }
 
+    /**
+     * Registers a parameter under the specified key. If the key is already registered, the parameter replaces the
+     * existing one and keeps its id.
+     * @param key The key.
+     * @param parameter The parameter.
+     * @return The id of the key.
+     */
+    public int register(@NotNull String key, @NotNull CommandParameter parameter) {
+        var existing = ids.get(key);
+
+        if (existing != null) {
+            parameters[existing] = parameter;
+            return existing;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            parameters = Arrays.copyOf(parameters, size * 2);
+        }
+
+        keys[size] = key;
+        parameters[size] = parameter;
+        ids.put(key, size);
+        return size++;
+    }
+
+    /**
+     * Registers an argument type that is not known at build time, using reflection to read its key and create it.
+     * @param type The type, annotated with {@link ArgumentKey}.
+     * @throws InstantiationException If the type can not be instantiated.
+     * @throws InvocationTargetException If the constructor of the type throws.
+     */
     public void register(Class<?> type) throws InstantiationException, InvocationTargetException {
-        if (!type.isAssignableFrom(CommandParameter.class)
+        if (!CommandParameter.class.isAssignableFrom(type)
         || !type.isAnnotationPresent(ArgumentKey.class)) {
             throw new IllegalArgumentException("Type is not a parameter definition");
         }
@@ -59,9 +168,17 @@ public class CommandArgumentManager {
         }
 
         try {
-            parameterMap.put(annotation.key(), (CommandParameter) constructor.newInstance());
+            register(annotation.key(), (CommandParameter) constructor.newInstance());
         } catch (IllegalAccessException ex) {
             throw new IllegalArgumentException(String.format("Provided type %s have a default constructor that is not access-able", type.getName()), ex);
         }
     }
+
+    private int checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(String.format("No argument type with id %s", id));
+        }
+
+        return id;
+    }
 }
@@ -18,9 +18,22 @@
 
 package x.nexuskrop.minelint.commands.arguments;
 
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
 import x.nexuskrop.minelint.commands.CommandSyntaxException;
 import x.nexuskrop.minelint.commands.CommandSyntaxParser;
 
 public interface CommandParameter {
-    void parse(CommandSyntaxParser parser) throws CommandSyntaxException;
+    /**
+     * Parses this parameter at the cursor of the specified parser, without throwing.
+     * @param parser The parser.
+     * @return {@code true} if valid; otherwise, {@code false}, with the failure recorded through
+     *         {@link CommandSyntaxParser#fail(CommandSyntaxError, Object...)}.
+     */
+    boolean tryParse(CommandSyntaxParser parser);
+
+    default void parse(CommandSyntaxParser parser) throws CommandSyntaxException {
+        if (!tryParse(parser)) {
+            throw parser.toException();
+        }
+    }
 }
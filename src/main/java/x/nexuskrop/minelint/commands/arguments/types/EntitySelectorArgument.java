@@ -0,0 +1,66 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.arguments.types;
+
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandParameter;
+import x.nexuskrop.minelint.parsing.selector.EntitySelectorParser;
+
+/**
+ * The base of the entity selector arguments, which differ in whether more than one entity, and entities other than
+ * players, can be selected.
+ */
+public abstract class EntitySelectorArgument implements CommandParameter {
+    /**
+     * Selector parsers keep the result of the last selector, so each thread has its own.
+     */
+    private static final ThreadLocal<EntitySelectorParser> PARSERS = ThreadLocal.withInitial(EntitySelectorParser::new);
+
+    private final boolean single;
+    private final boolean playersOnly;
+
+    protected EntitySelectorArgument(boolean single, boolean playersOnly) {
+        this.single = single;
+        this.playersOnly = playersOnly;
+    }
+
+    @Override
+    public boolean tryParse(CommandSyntaxParser parser) {
+        var start = parser.getCursor();
+        var selector = PARSERS.get();
+
+        if (!selector.tryParse(parser)) {
+            return false;
+        }
+
+        if (single && selector.getMaxResults() > 1) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.SELECTOR_NOT_SINGLE);
+        }
+
+        // Whether @s is a player is only known when the command runs
+        if (playersOnly && selector.includesEntities() && !selector.isCurrentEntity()) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.SELECTOR_NOT_PLAYERS);
+        }
+
+        return parser.trySkipSingleSpace();
+    }
+}
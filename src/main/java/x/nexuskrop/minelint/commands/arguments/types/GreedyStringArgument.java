@@ -18,7 +18,6 @@
 
 package x.nexuskrop.minelint.commands.arguments.types;
 
-import x.nexuskrop.minelint.commands.CommandSyntaxException;
 import x.nexuskrop.minelint.commands.CommandSyntaxParser;
 import x.nexuskrop.minelint.commands.arguments.ArgumentKey;
 import x.nexuskrop.minelint.commands.arguments.CommandParameter;
@@ -26,7 +25,7 @@ import x.nexuskrop.minelint.commands.arguments.CommandParameter;
 @ArgumentKey(key = "greedy_string")
 public class GreedyStringArgument implements CommandParameter {
     @Override
-    public void parse(CommandSyntaxParser parser) throws CommandSyntaxException {
-        parser.readGreedyString();
+    public boolean tryParse(CommandSyntaxParser parser) {
+        return parser.tryReadGreedySpan() != null;
     }
 }
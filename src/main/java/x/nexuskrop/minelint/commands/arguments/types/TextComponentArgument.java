@@ -0,0 +1,41 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.arguments.types;
+
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.ArgumentKey;
+import x.nexuskrop.minelint.commands.arguments.CommandParameter;
+import x.nexuskrop.minelint.parsing.text.TextComponentValidator;
+
+/**
+ * A JSON text component, such as the message of {@code tellraw}, {@code title} or {@code bossbar}.
+ */
+@ArgumentKey(key = "component")
+public class TextComponentArgument implements CommandParameter {
+    /**
+     * Validators keep scratch state, so each thread has its own.
+     */
+    private static final ThreadLocal<TextComponentValidator> VALIDATORS
+            = ThreadLocal.withInitial(TextComponentValidator::new);
+
+    @Override
+    public boolean tryParse(CommandSyntaxParser parser) {
+        return VALIDATORS.get().tryValidate(parser) && parser.trySkipSingleSpace();
+    }
+}
@@ -18,19 +18,33 @@
 
 package x.nexuskrop.minelint.commands.models;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
 
 public class CommandDefinitionModel {
+    private static final String EMBEDDED_RESOURCE = "/commands.json";
+
     private final Map<String, CommandModel> commands;
-    private String target;
+    private final String target;
+    private final Map<String, CommandVersionModel> versions;
 
     public CommandDefinitionModel(Map<String, CommandModel> commands, String target) {
+        this(commands, target, null);
+    }
+
+    public CommandDefinitionModel(Map<String, CommandModel> commands, String target,
+                                  @Nullable Map<String, CommandVersionModel> versions) {
         this.commands = commands;
+        this.target = target;
+        this.versions = versions;
     }
 
     public String target() {
@@ -41,17 +55,47 @@ public class CommandDefinitionModel {
         return commands;
     }
 
+    /**
+     * Gets the differences of other game versions from these definitions, which are for {@link #target()}.
+     * @return The differences by version, or {@code null} if only the target version is defined.
+     */
+    public @Nullable Map<String, CommandVersionModel> versions() {
+        return versions;
+    }
+
+    /**
+     * Computes the SHA-256 digest of the embedded definitions, which changes whenever the definitions change.
+     * @return The digest, in hexadecimal; or {@code null} if the definitions cannot be read.
+     */
+    public static @Nullable String getEmbeddedDigest() {
+        var res = CommandDefinitionModel.class.getResourceAsStream(EMBEDDED_RESOURCE);
+
+        if (res == null) {
+            return null;
+        }
+
+        try (res) {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(res.readAllBytes()));
+        } catch (IOException | NoSuchAlgorithmException x) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the embedded definitions. Commands are only read when they are first looked up, see
+     * {@link CommandDefinitionReader}.
+     * @return The definitions, or {@code null} if they cannot be read.
+     */
     public static @Nullable CommandDefinitionModel getEmbedded() {
-        var res = CommandDefinitionModel.class.getResourceAsStream("commands.json");
+        var res = CommandDefinitionModel.class.getResourceAsStream(EMBEDDED_RESOURCE);
 
         if (res == null) {
             return null;
         }
 
-        try (var x = new InputStreamReader(res)) {
-            var gson = new Gson();
-            return gson.fromJson(x, CommandDefinitionModel.class);
-        } catch (IOException x) {
+        try (var x = new InputStreamReader(res, StandardCharsets.UTF_8)) {
+            return CommandDefinitionReader.read(x);
+        } catch (IOException | JsonParseException x) {
             return null;
         }
     }
@@ -0,0 +1,465 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.models;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads command definitions without binding them through reflection.
+ * <p>
+ * Reading only indexes where the definition of every command starts and ends in the text; the definition itself is
+ * read with a {@link JsonReader} the first time the command is looked up in {@link CommandDefinitionModel#commands()}.
+ * The cost of loading the definitions is therefore a single scan of the text, and only the commands a datapack uses
+ * are ever turned into {@link CommandModel}s. The differences of other game versions are small and read right away.
+ * <p>
+ * Since the definition of a command is only scanned for its structure up front, a definition that is valid JSON but
+ * not a valid command, such as one with a number for its arguments, is only found when the command is looked up.
+ * {@link LazyCommandMap#get(Object)} then throws a {@link JsonParseException}.
+ */
+public final class CommandDefinitionReader {
+    private static final String FIELD_TARGET = "target";
+    private static final String FIELD_COMMANDS = "commands";
+    private static final String FIELD_VERSIONS = "versions";
+
+    private final String text;
+    private int position;
+
+    private CommandDefinitionReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Reads command definitions.
+     * @param reader The reader to read the definitions from. It is read to the end, but not closed.
+     * @return The definitions, with commands that are read on first use.
+     * @throws IOException Failed to read, or the definitions are not a valid JSON object.
+     */
+    public static @NotNull CommandDefinitionModel read(@NotNull Reader reader) throws IOException {
+        var builder = new StringBuilder();
+        var buffer = new char[8192];
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+
+        return read(builder.toString());
+    }
+
+    /**
+     * Reads command definitions.
+     * @param text The definitions, in JSON.
+     * @return The definitions, with commands that are read on first use.
+     * @throws IOException The definitions are not a valid JSON object.
+     */
+    public static @NotNull CommandDefinitionModel read(@NotNull String text) throws IOException {
+        return new CommandDefinitionReader(text).readDefinitions();
+    }
+
+    private CommandDefinitionModel readDefinitions() throws IOException {
+        String target = null;
+        LazyCommandMap commands = null;
+        Map<String, CommandVersionModel> versions = null;
+
+        expect('{');
+
+        if (!tryConsume('}')) {
+            do {
+                var name = readName();
+
+                switch (name) {
+                    case FIELD_TARGET -> target = readValue(JsonReader::nextString);
+                    case FIELD_COMMANDS -> commands = indexCommands();
+                    case FIELD_VERSIONS -> versions = readValue(CommandDefinitionReader::readVersions);
+                    default -> skipValue();
+                }
+            } while (tryConsume(','));
+
+            expect('}');
+        }
+
+        skipWhitespace();
+
+        if (position != text.length()) {
+            throw error("Excepted end of definitions");
+        }
+
+        return new CommandDefinitionModel(commands == null ? Map.of() : commands, target, versions);
+    }
+
+    private LazyCommandMap indexCommands() throws IOException {
+        var spans = new LinkedHashMap<String, Long>();
+
+        if (tryConsumeNull()) {
+            return new LazyCommandMap(text, spans);
+        }
+
+        expect('{');
+
+        if (!tryConsume('}')) {
+            do {
+                var literal = readName();
+                skipWhitespace();
+
+                var start = position;
+                skipValue();
+                spans.put(literal, ((long) start << Integer.SIZE) | position);
+            } while (tryConsume(','));
+
+            expect('}');
+        }
+
+        return new LazyCommandMap(text, spans);
+    }
+
+    /**
+     * Reads a single command.
+     * @param reader The reader, before the value of the command.
+     * @return The command, or {@code null} if the value is {@code null}.
+     * @throws IOException The value is not a valid command.
+     */
+    public static @Nullable CommandModel readCommand(@NotNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        Map<String, CommandArgumentModel> arguments = null;
+        CommandRequirement requirement = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "arguments" -> arguments = readNullable(reader, CommandDefinitionReader::readArguments);
+                case "requirement" -> requirement = readNullable(reader, CommandDefinitionReader::readRequirement);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+        return new CommandModel(arguments, requirement);
+    }
+
+    private static Map<String, CommandArgumentModel> readArguments(JsonReader reader) throws IOException {
+        // Arguments are parsed in the order they are defined in
+        var arguments = new LinkedHashMap<String, CommandArgumentModel>();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            var name = reader.nextName();
+            String type = null;
+            var required = false;
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "type" -> type = readNullable(reader, JsonReader::nextString);
+                    case "required" -> required = reader.nextBoolean();
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+            arguments.put(name, new CommandArgumentModel(type, required));
+        }
+
+        reader.endObject();
+        return arguments;
+    }
+
+    private static CommandRequirement readRequirement(JsonReader reader) throws IOException {
+        var multiplayerOnly = false;
+        var permissionLevel = 0;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "isMultiplayerOnly" -> multiplayerOnly = reader.nextBoolean();
+                case "permissionLevel" -> permissionLevel = reader.nextInt();
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+        return new CommandRequirement(multiplayerOnly, permissionLevel);
+    }
+
+    private static Map<String, CommandVersionModel> readVersions(JsonReader reader) throws IOException {
+        var versions = new LinkedHashMap<String, CommandVersionModel>();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            var version = reader.nextName();
+            String parent = null;
+            Map<String, CommandModel> commands = null;
+            List<String> removed = null;
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "parent" -> parent = readNullable(reader, JsonReader::nextString);
+                    case "commands" -> commands = readNullable(reader, CommandDefinitionReader::readCommands);
+                    case "removed" -> removed = readNullable(reader, CommandDefinitionReader::readStrings);
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+            versions.put(version, new CommandVersionModel(parent, commands, removed));
+        }
+
+        reader.endObject();
+        return versions;
+    }
+
+    private static Map<String, CommandModel> readCommands(JsonReader reader) throws IOException {
+        var commands = new HashMap<String, CommandModel>();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            var literal = reader.nextName();
+            var command = readCommand(reader);
+            commands.put(literal, command == null ? new CommandModel(null, null) : command);
+        }
+
+        reader.endObject();
+        return commands;
+    }
+
+    private static List<String> readStrings(JsonReader reader) throws IOException {
+        var strings = new ArrayList<String>();
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            strings.add(reader.nextString());
+        }
+
+        reader.endArray();
+        return strings;
+    }
+
+    private static <T> T readNullable(JsonReader reader, ValueReader<T> valueReader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        return valueReader.read(reader);
+    }
+
+    /**
+     * Reads the value at the current position with a {@link JsonReader}, and moves past it.
+     */
+    private <T> T readValue(ValueReader<T> valueReader) throws IOException {
+        skipWhitespace();
+
+        var start = position;
+        skipValue();
+
+        try (var reader = new JsonReader(new StringReader(text.substring(start, position)))) {
+            return readNullable(reader, valueReader);
+        }
+    }
+
+    // The index is built by a structural scan, as JsonReader does not tell where in the text a value is
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            var c = text.charAt(position);
+
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+
+            position++;
+        }
+    }
+
+    private boolean tryConsume(char c) {
+        skipWhitespace();
+
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean tryConsumeNull() {
+        skipWhitespace();
+
+        if (text.startsWith("null", position)) {
+            position += 4;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(char c) throws IOException {
+        if (!tryConsume(c)) {
+            throw error(String.format("Excepted %c", c));
+        }
+    }
+
+    private String readName() throws IOException {
+        skipWhitespace();
+
+        if (position >= text.length() || text.charAt(position) != '"') {
+            throw error("Excepted name");
+        }
+
+        var start = position;
+        skipString();
+
+        var end = position;
+        expect(':');
+
+        // Names rarely contain escapes, so only those that do are decoded by a JsonReader
+        var name = text.substring(start + 1, end - 1);
+
+        if (name.indexOf('\\') < 0) {
+            return name;
+        }
+
+        try (var reader = new JsonReader(new StringReader(text.substring(start, end)))) {
+            return reader.nextString();
+        }
+    }
+
+    private void skipString() throws IOException {
+        // At the opening quote
+        position++;
+
+        while (position < text.length()) {
+            var c = text.charAt(position++);
+
+            if (c == '"') {
+                return;
+            }
+
+            if (c == '\\') {
+                position++;
+            }
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private void skipValue() throws IOException {
+        skipWhitespace();
+
+        if (position >= text.length()) {
+            throw error("Excepted value");
+        }
+
+        var depth = 0;
+
+        do {
+            skipWhitespace();
+
+            if (position >= text.length()) {
+                throw error("Unterminated value");
+            }
+
+            var c = text.charAt(position);
+
+            switch (c) {
+                case '"' -> skipString();
+                case '{', '[' -> {
+                    depth++;
+                    position++;
+                }
+                case '}', ']' -> {
+                    if (--depth < 0) {
+                        throw error(String.format("Unexpected %c", c));
+                    }
+
+                    position++;
+                }
+                case ',', ':' -> {
+                    if (depth == 0) {
+                        throw error(String.format("Unexpected %c", c));
+                    }
+
+                    position++;
+                }
+                default -> {
+                    // Numbers, booleans and null run until the next delimiter
+                    var start = position;
+
+                    while (position < text.length() && ",:]} \t\n\r\"{[".indexOf(text.charAt(position)) < 0) {
+                        position++;
+                    }
+
+                    if (position == start) {
+                        throw error(String.format("Unexpected %c", c));
+                    }
+                }
+            }
+        } while (depth > 0);
+    }
+
+    private MalformedJsonException error(String message) {
+        return new MalformedJsonException(String.format("%s at offset %d", message, position));
+    }
+
+    @FunctionalInterface
+    private interface ValueReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Materializes the command at the specified span of the text.
+     */
+    static CommandModel materialize(String text, String literal, long span) {
+        var start = (int) (span >>> Integer.SIZE);
+        var end = (int) span;
+
+        try (var reader = new JsonReader(new StringReader(text.substring(start, end)))) {
+            var command = readCommand(reader);
+            return command == null ? new CommandModel(null, null) : command;
+        } catch (IOException | IllegalStateException | NumberFormatException ex) {
+            throw new JsonParseException(String.format("Invalid definition of command %s", literal), ex);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.models;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The differences of the commands of a game version from the commands of another version.
+ * @param parent The version this version is based on, or {@code null} for the base definitions.
+ * @param commands The commands that are added or changed in this version.
+ * @param removed The literals of the commands that no longer exist in this version.
+ */
+public record CommandVersionModel(@Nullable String parent, @Nullable Map<String, CommandModel> commands,
+                                  @Nullable List<String> removed) {
+}
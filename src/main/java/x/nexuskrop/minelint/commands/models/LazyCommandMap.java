@@ -0,0 +1,135 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.models;
+
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable map of commands whose definitions are read from the text of the definitions the first time they are
+ * looked up. Looking up keys, such as through {@link #containsKey(Object)} or {@link #keySet()}, reads nothing.
+ * <p>
+ * This map is thread-safe. Iterating over its entries or values reads every command.
+ */
+public final class LazyCommandMap extends AbstractMap<String, CommandModel> {
+    private final String text;
+    private final Map<String, Long> spans;
+    private final ConcurrentHashMap<String, CommandModel> materialized = new ConcurrentHashMap<>();
+
+    LazyCommandMap(String text, Map<String, Long> spans) {
+        this.text = text;
+        this.spans = spans;
+    }
+
+    /**
+     * Gets the definition of the specified command, reading it on first use.
+     * @param key The literal of the command.
+     * @return The definition, or {@code null} if there is no such command.
+     * @throws JsonParseException The definition of the command is malformed. Since reading the definitions only
+     *                            checks their structure, this is the first point such a command fails.
+     */
+    @Override
+    public CommandModel get(Object key) {
+        if (!(key instanceof String literal)) {
+            return null;
+        }
+
+        var existing = materialized.get(literal);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        var span = spans.get(literal);
+
+        if (span == null) {
+            return null;
+        }
+
+        return materialized.computeIfAbsent(literal, x -> CommandDefinitionReader.materialize(text, x, span));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return spans.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return spans.size();
+    }
+
+    @Override
+    public @NotNull Set<String> keySet() {
+        return Collections.unmodifiableSet(spans.keySet());
+    }
+
+    /**
+     * Checks whether the definition of the specified command has been read.
+     * @param literal The literal of the command.
+     * @return {@code true} if it has been read.
+     */
+    public boolean isMaterialized(@NotNull String literal) {
+        return materialized.containsKey(literal);
+    }
+
+    /**
+     * Gets the amount of commands whose definitions have been read.
+     * @return The amount.
+     */
+    public int materializedCount() {
+        return materialized.size();
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, CommandModel>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Entry<String, CommandModel>> iterator() {
+                var literals = spans.keySet().iterator();
+
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return literals.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, CommandModel> next() {
+                        var literal = literals.next();
+                        return new SimpleImmutableEntry<>(literal, get(literal));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return spans.size();
+            }
+        };
+    }
+}
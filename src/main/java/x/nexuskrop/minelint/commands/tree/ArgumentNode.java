@@ -0,0 +1,36 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.tree;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.arguments.CommandParameter;
+
+/**
+ * An argument of a compiled command.
+ * @param name The name of the argument, only used in messages.
+ * @param type The key of the argument type.
+ * @param typeId The id of the argument type in the argument manager, or
+ *               {@link x.nexuskrop.minelint.commands.arguments.CommandArgumentManager#UNKNOWN_ID} if it is not known.
+ * @param parameter The parameter that parses the argument, or {@code null} if the type is not known.
+ * @param required Whether the argument is required.
+ */
+public record ArgumentNode(@NotNull String name, @NotNull String type, int typeId,
+                           @Nullable CommandParameter parameter, boolean required) {
+}
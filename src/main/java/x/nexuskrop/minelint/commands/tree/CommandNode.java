@@ -0,0 +1,82 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.tree;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.models.CommandRequirement;
+
+/**
+ * A compiled command: its literal, and its arguments in the order they are parsed.
+ */
+public final class CommandNode {
+    private final String literal;
+    private final ArgumentNode[] arguments;
+    private final int minimumArguments;
+    private final CommandRequirement requirement;
+
+    CommandNode(@NotNull String literal, @NotNull ArgumentNode[] arguments, @Nullable CommandRequirement requirement) {
+        this.literal = literal;
+        this.arguments = arguments;
+        this.requirement = requirement;
+
+        var minimum = 0;
+
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i].required()) {
+                minimum = i + 1;
+            }
+        }
+
+        this.minimumArguments = minimum;
+    }
+
+    public @NotNull String literal() {
+        return literal;
+    }
+
+    /**
+     * Gets the amount of arguments.
+     * @return The amount of arguments.
+     */
+    public int argumentCount() {
+        return arguments.length;
+    }
+
+    /**
+     * Gets the argument at the specified index.
+     * @param index The index.
+     * @return The argument.
+     */
+    public @NotNull ArgumentNode argument(int index) {
+        return arguments[index];
+    }
+
+    /**
+     * Gets the amount of arguments that must be present, that is, the position after the last required argument.
+     * @return The minimum amount of arguments.
+     */
+    public int minimumArguments() {
+        return minimumArguments;
+    }
+
+    public @Nullable CommandRequirement requirement() {
+        return requirement;
+    }
+}
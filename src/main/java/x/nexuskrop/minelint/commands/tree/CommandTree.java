@@ -0,0 +1,186 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.tree;
+
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.models.CommandModel;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The immutable dispatch tree of a set of command definitions.
+ * <p>
+ * The definitions are compiled once: commands are looked up by their literal through a {@link LiteralTable},
+ * and their arguments point directly at the {@link x.nexuskrop.minelint.commands.arguments.CommandParameter}
+ * that parses them. Linting a line is a single walk down the tree.
+ * <p>
+ * Every command is compiled the first time it is looked up, so that definitions which are read lazily (see
+ * {@link x.nexuskrop.minelint.commands.models.CommandDefinitionReader}) are only read for the commands in use. A
+ * malformed definition is therefore only found when its command is first looked up, in the middle of linting; the
+ * command is then treated as unknown rather than failing the lint.
+ */
+public final class CommandTree {
+    private final String target;
+    private final LiteralTable<CommandSlot> commands;
+
+    private CommandTree(String target, LiteralTable<CommandSlot> commands) {
+        this.target = target;
+        this.commands = commands;
+    }
+
+    /**
+     * Compiles the specified command definitions. Only the literals of the commands are looked at; every command is
+     * compiled when it is first looked up.
+     * @param definitions The definitions.
+     * @param arguments The argument types to resolve the arguments with.
+     * @return The dispatch tree.
+     */
+    public static @NotNull CommandTree compile(@NotNull CommandDefinitionModel definitions,
+                                               @NotNull CommandArgumentManager arguments) {
+        var models = definitions.commands();
+        var slots = new HashMap<String, CommandSlot>();
+
+        for (var literal : models.keySet()) {
+            slots.put(literal, new CommandSlot(literal, models, arguments));
+        }
+
+        return new CommandTree(definitions.target(), new LiteralTable<>(slots));
+    }
+
+    /**
+     * Compiles a single command.
+     * @param literal The literal of the command.
+     * @param model The definition of the command.
+     * @param arguments The argument types to resolve the arguments with.
+     * @return The compiled command.
+     */
+    public static @NotNull CommandNode compileCommand(@NotNull String literal, @NotNull CommandModel model,
+                                                      @NotNull CommandArgumentManager arguments) {
+        var argumentModels = model.arguments();
+
+        if (argumentModels == null) {
+            return new CommandNode(literal, new ArgumentNode[0], model.requirement());
+        }
+
+        var nodes = new ArgumentNode[argumentModels.size()];
+        var index = 0;
+
+        for (var entry : argumentModels.entrySet()) {
+            var argument = entry.getValue();
+            var typeId = arguments.idOf(argument.type());
+            var parameter = typeId == CommandArgumentManager.UNKNOWN_ID ? null : arguments.get(typeId);
+            nodes[index++] = new ArgumentNode(entry.getKey(), argument.type(), typeId, parameter, argument.required());
+        }
+
+        return new CommandNode(literal, nodes, model.requirement());
+    }
+
+    /**
+     * Creates a tree that differs from this tree by the specified commands. The commands that are not changed or
+     * removed are shared with this tree rather than compiled again.
+     * @param target The version of the game the new tree is for.
+     * @param changed The commands that are added or changed.
+     * @param removed The literals of the commands that are removed.
+     * @param arguments The argument types to resolve the arguments of the changed commands with.
+     * @return The new tree.
+     */
+    public @NotNull CommandTree derive(@Nullable String target, @NotNull Map<String, CommandModel> changed,
+                                       @NotNull Collection<String> removed, @NotNull CommandArgumentManager arguments) {
+        var slots = new HashMap<String, CommandSlot>(commands.size() + changed.size());
+        commands.forEach(slots::put);
+
+        for (var literal : removed) {
+            slots.remove(literal);
+        }
+
+        for (var literal : changed.keySet()) {
+            slots.put(literal, new CommandSlot(literal, changed, arguments));
+        }
+
+        return new CommandTree(target, new LiteralTable<>(slots));
+    }
+
+    /**
+     * Gets the version of the game the commands are for.
+     * @return The target version.
+     */
+    public @Nullable String target() {
+        return target;
+    }
+
+    /**
+     * Gets the command with the specified literal.
+     * @param literal The literal.
+     * @return The command, or {@code null} if no such command exists or its definition is malformed.
+     */
+    public @Nullable CommandNode getCommand(@NotNull CharSequence literal) {
+        var slot = commands.get(literal);
+        return slot == null ? null : slot.get();
+    }
+
+    /**
+     * Checks whether the command with the specified literal has been compiled.
+     * @param literal The literal.
+     * @return {@code true} if the command exists and has been compiled.
+     */
+    public boolean isCompiled(@NotNull String literal) {
+        var slot = commands.get(literal);
+        return slot != null && slot.node != null;
+    }
+
+    /**
+     * A command that is compiled on first use. Trees derived from each other share the slots of the commands they
+     * have in common, and with them the compiled commands.
+     */
+    private static final class CommandSlot {
+        private final String literal;
+        private final Map<String, CommandModel> models;
+        private final CommandArgumentManager arguments;
+        private volatile CommandNode node;
+        private volatile boolean malformed;
+
+        private CommandSlot(String literal, Map<String, CommandModel> models, CommandArgumentManager arguments) {
+            this.literal = literal;
+            this.models = models;
+            this.arguments = arguments;
+        }
+
+        private CommandNode get() {
+            var result = node;
+
+            if (result == null && !malformed) {
+                // Compiling twice on a race is harmless, since both threads get equal nodes
+                try {
+                    result = compileCommand(literal, models.get(literal), arguments);
+                    node = result;
+                } catch (JsonParseException ex) {
+                    malformed = true;
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.tree;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable open-addressing table from literals to values, which can be looked up with any
+ * {@link CharSequence} (such as a {@link x.nexuskrop.minelint.commands.TextSpan}) without creating a {@link String}.
+ * @param <T> The type of the values.
+ */
+public final class LiteralTable<T> {
+    private final String[] keys;
+    private final Object[] values;
+    private final int[] hashes;
+    private final int mask;
+    private final int size;
+
+    /**
+     * Constructs a table with the entries of the specified map.
+     * @param entries The entries.
+     */
+    public LiteralTable(@NotNull Map<String, ? extends T> entries) {
+        // Keep the load factor at or below one half, so that probe sequences stay short
+        var capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 2 - 1) << 1;
+
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = entries.size();
+
+        for (var entry : entries.entrySet()) {
+            var hash = hash(entry.getKey());
+            var index = hash & mask;
+
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+            hashes[index] = hash;
+        }
+    }
+
+    /**
+     * Computes the hash of any character sequence: the polynomial hash of {@link String#hashCode()}, with its higher
+     * half folded into its lower half. Equal sequences have the same hash regardless of their type, but the hash
+     * differs from {@link String#hashCode()}.
+     * @param key The characters.
+     * @return The hash.
+     */
+    public static int hash(@NotNull CharSequence key) {
+        var hash = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            hash = 31 * hash + key.charAt(i);
+        }
+
+        // Spread the higher bits, since only the lower bits select the slot
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the value of the specified literal.
+     * @param key The literal.
+     * @return The value, or {@code null} if the literal is not in this table.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(@NotNull CharSequence key) {
+        var hash = hash(key);
+        var index = hash & mask;
+
+        while (keys[index] != null) {
+            if (hashes[index] == hash && keys[index].contentEquals(key)) {
+                return (T) values[index];
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Performs an action for every entry of this table, in no particular order.
+     * @param action The action.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull BiConsumer<String, ? super T> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], (T) values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.commands.tree;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.models.CommandVersionModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The command trees of every game version in a set of command definitions.
+ * <p>
+ * The definitions hold the commands of a base version, and the differences of every other version from the base or
+ * from another version. The tree of a version is only compiled when it is first asked for, and shares every command
+ * it does not change with the tree it is derived from, so supporting one more version costs little more than its
+ * differences.
+ */
+public final class SchemaStore {
+    private static final String WILDCARD = ".*";
+
+    private final CommandDefinitionModel definitions;
+    private final CommandArgumentManager arguments;
+    private final Map<String, CommandVersionModel> versions;
+    private final Map<String, CommandTree> trees = new HashMap<>();
+    private CommandTree base;
+
+    /**
+     * Constructs a new store. Nothing is compiled until a tree is asked for.
+     * @param definitions The definitions.
+     * @param arguments The argument types to resolve arguments with.
+     */
+    public SchemaStore(@NotNull CommandDefinitionModel definitions, @NotNull CommandArgumentManager arguments) {
+        this.definitions = definitions;
+        this.arguments = arguments;
+        this.versions = definitions.versions() == null ? Map.of() : definitions.versions();
+    }
+
+    /**
+     * Gets every version in the store, the base version first if the definitions name its target.
+     * @return The versions.
+     */
+    public @NotNull Set<String> versions() {
+        var result = new LinkedHashSet<String>();
+
+        if (definitions.target() != null) {
+            result.add(definitions.target());
+        }
+
+        result.addAll(versions.keySet());
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Gets the tree of the base version.
+     * @return The tree.
+     */
+    public synchronized @NotNull CommandTree base() {
+        if (base == null) {
+            base = CommandTree.compile(definitions, arguments);
+        }
+
+        return base;
+    }
+
+    /**
+     * Gets the tree of the specified version, compiling it on first use.
+     * @param version The version, as named in the definitions.
+     * @return The tree, or {@code null} if the version is not in the definitions.
+     * @throws IllegalArgumentException The parents of the version refer to each other, or to a version that does not
+     *                                  exist.
+     */
+    public synchronized @Nullable CommandTree get(@NotNull String version) {
+        if (version.equals(definitions.target())) {
+            return base();
+        }
+
+        if (!versions.containsKey(version)) {
+            return null;
+        }
+
+        var existing = trees.get(version);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        // Walk up to the closest version that is already compiled, then derive back down
+        var chain = new ArrayList<String>();
+        var current = version;
+        CommandTree parent;
+
+        while (true) {
+            if (chain.contains(current)) {
+                throw new IllegalArgumentException(String.format("Version %s is its own parent", current));
+            }
+
+            chain.add(current);
+
+            var model = versions.get(current);
+
+            if (model == null) {
+                throw new IllegalArgumentException(String.format("Version %s is not defined", current));
+            }
+
+            var parentName = model.parent();
+
+            if (parentName == null || parentName.equals(definitions.target())) {
+                parent = base();
+                break;
+            }
+
+            parent = trees.get(parentName);
+
+            if (parent != null) {
+                break;
+            }
+
+            current = parentName;
+        }
+
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            var name = chain.get(i);
+            var model = versions.get(name);
+            parent = parent.derive(name, model.commands() == null ? Map.of() : model.commands(),
+                    model.removed() == null ? List.of() : model.removed(), arguments);
+            trees.put(name, parent);
+        }
+
+        return parent;
+    }
+
+    /**
+     * Gets the tree for a specific game version, such as {@code 1.20.4}. A version named in the definitions matches
+     * exactly; a name ending in {@code .*} matches every version that starts with what comes before it.
+     * @param gameVersion The game version.
+     * @return The tree of the most specific matching version, or {@code null} if no version matches.
+     */
+    public @Nullable CommandTree resolve(@NotNull String gameVersion) {
+        String best = null;
+
+        for (var version : versions()) {
+            if (version.equals(gameVersion)) {
+                return get(version);
+            }
+
+            if (matches(version, gameVersion) && (best == null || version.length() > best.length())) {
+                best = version;
+            }
+        }
+
+        return best == null ? null : get(best);
+    }
+
+    /**
+     * Checks whether the tree of the specified version has been compiled.
+     * @param version The version.
+     * @return {@code true} if it has been compiled.
+     */
+    public synchronized boolean isLoaded(@NotNull String version) {
+        return version.equals(definitions.target()) ? base != null : trees.containsKey(version);
+    }
+
+    private static boolean matches(String version, String gameVersion) {
+        if (!version.endsWith(WILDCARD)) {
+            return version.equals(gameVersion);
+        }
+
+        var prefix = version.substring(0, version.length() - WILDCARD.length());
+        return gameVersion.equals(prefix)
+                || (gameVersion.startsWith(prefix) && gameVersion.charAt(prefix.length()) == '.');
+    }
+}
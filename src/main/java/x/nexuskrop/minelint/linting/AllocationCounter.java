@@ -0,0 +1,83 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts the bytes allocated on the heap by the current thread, for checking that hot loops do not allocate.
+ * <p>
+ * The counter relies on the per-thread allocation statistics of HotSpot, exposed by
+ * {@link com.sun.management.ThreadMXBean}. On virtual machines without them, {@link #isSupported()} is
+ * {@code false} and every count is {@code -1}.
+ */
+public final class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREADS = createThreadBean();
+
+    private final long start;
+
+    private AllocationCounter(long start) {
+        this.start = start;
+    }
+
+    private static com.sun.management.ThreadMXBean createThreadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        return threads;
+    }
+
+    /**
+     * Determines whether allocations can be counted on this virtual machine.
+     * @return {@code true} if supported; otherwise, {@code false}.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Gets the total amount of bytes the current thread has allocated since it started.
+     * @return The amount of bytes, or {@code -1} if not supported.
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Starts counting the allocations of the current thread.
+     * @return The counter, which must only be read from the same thread.
+     */
+    public static AllocationCounter start() {
+        return new AllocationCounter(currentThreadAllocatedBytes());
+    }
+
+    /**
+     * Gets the amount of bytes the current thread has allocated since this counter was started.
+     * @return The amount of bytes, or {@code -1} if not supported.
+     */
+    public long allocatedBytes() {
+        return THREADS == null ? -1 : currentThreadAllocatedBytes() - start;
+    }
+}
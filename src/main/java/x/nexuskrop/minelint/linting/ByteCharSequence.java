@@ -0,0 +1,122 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only view of a region of a byte buffer as a sequence of characters, where every byte is one character.
+ * <p>
+ * This is only correct for ASCII content; the bytes are not decoded and not copied.
+ */
+public final class ByteCharSequence implements CharSequence {
+    private static final long BYTE_ONES = 0x0101010101010101L;
+    private static final long BYTE_LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int length;
+
+    /**
+     * Constructs a view of the whole buffer, from index {@code 0} to its limit.
+     * @param buffer The buffer.
+     */
+    public ByteCharSequence(@NotNull ByteBuffer buffer) {
+        this(buffer, 0, buffer.limit());
+    }
+
+    private ByteCharSequence(ByteBuffer buffer, int start, int length) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException(String.format("Region %d to %d out of bounds for length %d",
+                    start, end, length));
+        }
+
+        return new ByteCharSequence(buffer, this.start + start, end - start);
+    }
+
+    /**
+     * Finds the first occurrence of an ASCII character, eight bytes at a time.
+     * @param ch The character, which must be ASCII.
+     * @param from The index to start searching at.
+     * @return The index of the character, or {@code -1} if it does not occur at or after {@code from}.
+     */
+    public int indexOf(char ch, int from) {
+        if (ch >= 128) {
+            throw new IllegalArgumentException(String.format("Character %s is not ASCII", ch));
+        }
+
+        var i = Math.max(from, 0);
+        var pattern = (ch & 0xFFL) * BYTE_ONES;
+        var bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+
+        while (i + Long.BYTES <= length) {
+            var word = buffer.getLong(start + i) ^ pattern;
+            // Sets the high bit of every byte that is zero, without carries between bytes, so that the first match
+            // is exact in either byte order
+            var zeroes = ~(((word & BYTE_LOW_BITS) + BYTE_LOW_BITS) | word | BYTE_LOW_BITS);
+
+            if (zeroes != 0) {
+                var bit = bigEndian ? Long.numberOfLeadingZeros(zeroes) : Long.numberOfTrailingZeros(zeroes);
+                return i + (bit >>> 3);
+            }
+
+            i += Long.BYTES;
+        }
+
+        for (; i < length; i++) {
+            if (buffer.get(start + i) == ch) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        var bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
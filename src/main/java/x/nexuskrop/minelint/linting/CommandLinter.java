@@ -0,0 +1,197 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.metrics.LintMetrics;
+
+/**
+ * Lints single command lines against a compiled {@link CommandTree}.
+ * <p>
+ * This class holds no per-line state, and can be shared between threads as long as every thread uses its own
+ * {@link CommandSyntaxParser}. The {@link LineResultCache} it may use is thread-safe as well.
+ */
+public class CommandLinter {
+    private static final char SYNTAX_WHITESPACE = ' ';
+    private static final char SYNTAX_COMMENT = '#';
+
+    private final CommandTree tree;
+    private final LintMetrics metrics;
+    private final LineResultCache cache;
+
+    public CommandLinter(@NotNull CommandTree tree) {
+        this(tree, null);
+    }
+
+    /**
+     * Constructs a new linter that records the time spent parsing every argument.
+     * @param tree The tree to lint against.
+     * @param metrics The metrics to record to, or {@code null} to not record anything.
+     */
+    public CommandLinter(@NotNull CommandTree tree, @Nullable LintMetrics metrics) {
+        this(tree, metrics, null);
+    }
+
+    /**
+     * Constructs a new linter that reuses the results of lines it has already linted.
+     * @param tree The tree to lint against.
+     * @param metrics The metrics to record to, or {@code null} to not record anything. Lines found in the cache are
+     *                not parsed, so their arguments are not recorded.
+     * @param cache The cache of line results, or {@code null} to parse every line. A cache can be shared between
+     *              linters, even of different trees.
+     */
+    public CommandLinter(@NotNull CommandTree tree, @Nullable LintMetrics metrics, @Nullable LineResultCache cache) {
+        this.tree = tree;
+        this.metrics = metrics;
+        this.cache = cache;
+    }
+
+    public CommandLinter(@NotNull CommandDefinitionModel definitions, @NotNull CommandArgumentManager arguments) {
+        this(CommandTree.compile(definitions, arguments));
+    }
+
+    public @NotNull CommandTree tree() {
+        return tree;
+    }
+
+    /**
+     * Gets the metrics this linter records to.
+     * @return The metrics, or {@code null} if this linter does not record any.
+     */
+    public @Nullable LintMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the cache of line results this linter uses.
+     * @return The cache, or {@code null} if this linter parses every line.
+     */
+    public @Nullable LineResultCache cache() {
+        return cache;
+    }
+
+    /**
+     * Lints the text currently held by the specified parser. Leading white spaces, empty lines and comments are
+     * skipped. Arguments with a type that is not known to the argument manager stop the check of the line
+     * without reporting an error.
+     * @param parser The parser to lint with.
+     * @return The problem found in the line, or {@code null} if the line is valid. The cursor of the problem is the
+     *         column in the line.
+     */
+    public @Nullable CommandDiagnostic lint(@NotNull CommandSyntaxParser parser) {
+        while (!parser.isEnd() && parser.peek(0) == SYNTAX_WHITESPACE) {
+            parser.setCursor(parser.getCursor() + 1);
+        }
+
+        if (parser.isEnd() || parser.peek(0) == SYNTAX_COMMENT) {
+            return null;
+        }
+
+        var start = parser.getCursor();
+        var end = parser.getLength();
+
+        if (cache == null || end - start > LineResultCache.MAX_LINE_LENGTH) {
+            return lintCommand(parser, start);
+        }
+
+        var line = parser.spanOf(start, end);
+        var hash = LineResultCache.hash(line);
+        var entry = cache.find(tree, line, hash);
+
+        if (entry != null) {
+            var cached = entry.result();
+            return cached == null ? null : cached.withCursor(cached.getCursor() + start);
+        }
+
+        if (!cache.admit(hash)) {
+            return lintCommand(parser, start);
+        }
+
+        // The span is reused by the parser, so the key has to be copied before the line is parsed
+        var key = line.toString();
+        var result = lintCommand(parser, start);
+        cache.put(tree, key, hash, result == null ? null : result.withCursor(result.getCursor() - start));
+        return result;
+    }
+
+    private @Nullable CommandDiagnostic lintCommand(CommandSyntaxParser parser, int start) {
+        var name = parser.tryReadUnquotedSpan();
+
+        if (name == null) {
+            return parser.getFailure();
+        }
+
+        var command = tree.getCommand(name);
+
+        if (command == null) {
+            return new CommandDiagnostic(CommandSyntaxError.UNKNOWN_COMMAND, start, name.toString());
+        }
+
+        var count = command.argumentCount();
+
+        for (int i = 0; i < count; i++) {
+            if (parser.isEnd()) {
+                if (i < command.minimumArguments()) {
+                    return new CommandDiagnostic(CommandSyntaxError.EXCEPTED_VALUE, parser.getCursor(),
+                            command.argument(i).name());
+                }
+
+                return null;
+            }
+
+            var argument = command.argument(i);
+            var parameter = argument.parameter();
+
+            if (parameter == null) {
+                // Cannot tell where the unknown argument ends, so the rest of the line is not checked
+                return null;
+            }
+
+            if (metrics == null) {
+                if (!parameter.tryParse(parser)) {
+                    return parser.getFailure();
+                }
+
+                continue;
+            }
+
+            var parseStart = System.nanoTime();
+            var parsed = parameter.tryParse(parser);
+            metrics.recordArgument(argument.typeId(), System.nanoTime() - parseStart, parsed);
+
+            if (!parsed) {
+                return parser.getFailure();
+            }
+        }
+
+        if (!parser.isEnd()) {
+            return new CommandDiagnostic(CommandSyntaxError.EXCEPTED_END_OF_COMMAND, parser.getCursor(),
+                    parser.peek(0));
+        }
+
+        return null;
+    }
+}
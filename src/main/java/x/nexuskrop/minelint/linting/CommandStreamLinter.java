@@ -0,0 +1,264 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Lints a stream of newline-delimited commands, such as the standard input, in a pipeline.
+ * <p>
+ * A reader thread splits the input into batches of lines, worker threads lint the batches, and the calling thread
+ * writes the problems of every batch in input order. The queues between the stages are bounded, so only a fixed
+ * amount of batches is held in memory no matter how long the input is.
+ * <p>
+ * As with a command passed on the command line, a single leading slash is not part of the command, and the cursors of
+ * problems are relative to the character after it.
+ */
+public class CommandStreamLinter {
+    /**
+     * The default amount of lines in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final char SYNTAX_SLASH = '/';
+
+    private static final Batch END = new Batch(0, new String[0], 0, null);
+
+    private final CommandLinter linter;
+    private final int workers;
+    private final int batchSize;
+    private final int maxBatches;
+
+    /**
+     * Represents the totals of a linted stream.
+     * @param lines The amount of lines read.
+     * @param problems The amount of lines that have a problem.
+     */
+    public record Summary(long lines, long problems) {
+    }
+
+    /**
+     * Constructs a new stream linter with {@linkplain #DEFAULT_BATCH_SIZE default batches} and a worker per available
+     * processor.
+     * @param linter The linter to lint lines with.
+     */
+    public CommandStreamLinter(@NotNull CommandLinter linter) {
+        this(linter, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new stream linter. At most four batches per worker are held in memory at a time.
+     * @param linter The linter to lint lines with.
+     * @param workers The amount of worker threads.
+     * @param batchSize The amount of lines in a batch.
+     */
+    public CommandStreamLinter(@NotNull CommandLinter linter, int workers, int batchSize) {
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Worker count and batch size must be positive");
+        }
+
+        this.linter = linter;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxBatches = workers * 4;
+    }
+
+    /**
+     * Lints every line of the input, and writes a record for every line that has a problem to the output, in input
+     * order. A record is the line number, starting from {@code 1}, followed by the problem.
+     * @param in The input to read commands from.
+     * @param out The output to write problems to. It is not flushed.
+     * @return The totals of the stream.
+     * @throws IOException Failed to read the input or to write the output.
+     */
+    public @NotNull Summary lint(@NotNull BufferedReader in, @NotNull Writer out) throws IOException {
+        var work = new ArrayBlockingQueue<Batch>(maxBatches);
+        var order = new ArrayBlockingQueue<Batch>(maxBatches);
+        var threads = new ArrayList<Thread>(workers + 1);
+
+        threads.add(new Thread(() -> read(in, work, order), "minelint-reader"));
+
+        for (int i = 0; i < workers; i++) {
+            threads.add(new Thread(() -> work(work), "minelint-worker-" + i));
+        }
+
+        for (var thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try {
+            return write(order, out);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while linting", ex);
+        } finally {
+            stop(threads);
+        }
+    }
+
+    private Summary write(BlockingQueue<Batch> order, Writer out) throws IOException, InterruptedException {
+        var lines = 0L;
+        var problems = 0L;
+        Batch batch;
+
+        while (!(batch = order.take()).isEnd()) {
+            CommandDiagnostic[] diagnostics;
+
+            try {
+                diagnostics = batch.result.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+
+                throw ex;
+            }
+
+            for (int i = 0; i < batch.count; i++) {
+                if (diagnostics[i] != null) {
+                    problems++;
+                    out.write(Long.toString(batch.firstLine + i));
+                    out.write(": ");
+                    out.write(diagnostics[i].toString());
+                    out.write('\n');
+                }
+            }
+
+            lines += batch.count;
+        }
+
+        if (batch.error != null) {
+            throw batch.error;
+        }
+
+        return new Summary(lines, problems);
+    }
+
+    private void read(BufferedReader in, BlockingQueue<Batch> work, BlockingQueue<Batch> order) {
+        var end = END;
+
+        try {
+            var lineNumber = 1L;
+            var lines = new String[batchSize];
+            var count = 0;
+            String line;
+
+            while ((line = in.readLine()) != null) {
+                lines[count++] = line;
+
+                if (count == batchSize) {
+                    submit(new Batch(lineNumber, lines, count, null), work, order);
+                    lineNumber += count;
+                    lines = new String[batchSize];
+                    count = 0;
+                }
+            }
+
+            if (count > 0) {
+                submit(new Batch(lineNumber, lines, count, null), work, order);
+            }
+        } catch (IOException ex) {
+            end = new Batch(0, END.lines, 0, ex);
+        } catch (InterruptedException ex) {
+            return;
+        }
+
+        try {
+            order.put(end);
+
+            for (int i = 0; i < workers; i++) {
+                work.put(END);
+            }
+        } catch (InterruptedException ex) {
+            // Stopped by the writer
+        }
+    }
+
+    private static void submit(Batch batch, BlockingQueue<Batch> work, BlockingQueue<Batch> order)
+            throws InterruptedException {
+        // Queued for writing first, so that the writer always waits on the oldest batch
+        order.put(batch);
+        work.put(batch);
+    }
+
+    private void work(BlockingQueue<Batch> work) {
+        var parser = new CommandSyntaxParser("");
+
+        try {
+            Batch batch;
+
+            while (!(batch = work.take()).isEnd()) {
+                try {
+                    var diagnostics = new CommandDiagnostic[batch.count];
+
+                    for (int i = 0; i < batch.count; i++) {
+                        var line = batch.lines[i];
+                        var start = !line.isEmpty() && line.charAt(0) == SYNTAX_SLASH ? 1 : 0;
+                        parser.resetText(line, start, line.length());
+                        diagnostics[i] = linter.lint(parser);
+                    }
+
+                    batch.result.complete(diagnostics);
+                } catch (RuntimeException ex) {
+                    batch.result.completeExceptionally(ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            // Stopped by the writer
+        }
+    }
+
+    private static void stop(List<Thread> threads) {
+        for (var thread : threads) {
+            thread.interrupt();
+        }
+    }
+
+    private static final class Batch {
+        private final long firstLine;
+        private final String[] lines;
+        private final int count;
+        private final IOException error;
+        private final CompletableFuture<CommandDiagnostic[]> result = new CompletableFuture<>();
+
+        private Batch(long firstLine, String[] lines, int count, IOException error) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+            this.count = count;
+            this.error = error;
+        }
+
+        private boolean isEnd() {
+            return lines.length == 0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * A zipped datapack, opened as a zip file system.
+ * <p>
+ * Entries are read straight from the archive when they are linted, so nothing is extracted to disk. Nothing writes to
+ * the file system either, so the archive is left unchanged when it is closed. Paths under
+ * {@link #root()} can be passed to {@link DatapackLinter} and {@link ReferenceIndex} like paths of a directory.
+ */
+public final class DatapackArchive implements AutoCloseable {
+    /**
+     * The extension of zipped datapacks.
+     */
+    public static final String ARCHIVE_EXTENSION = ".zip";
+
+    private static final String DATA_DIRECTORY = "data";
+
+    private final FileSystem fileSystem;
+    private final Path root;
+
+    private DatapackArchive(FileSystem fileSystem, Path root) {
+        this.fileSystem = fileSystem;
+        this.root = root;
+    }
+
+    /**
+     * Checks whether the specified file is a zipped datapack, judging by its name.
+     * @param file The file.
+     * @return {@code true} if the file is a regular file with the {@value #ARCHIVE_EXTENSION} extension.
+     */
+    public static boolean isArchive(@NotNull Path file) {
+        var name = file.getFileName();
+        return name != null && name.toString().toLowerCase(Locale.ROOT).endsWith(ARCHIVE_EXTENSION)
+                && Files.isRegularFile(file);
+    }
+
+    /**
+     * Opens a zipped datapack.
+     * @param file The zip file.
+     * @return The archive.
+     * @throws IOException Failed to open the file, or it is not a valid zip file.
+     */
+    public static @NotNull DatapackArchive open(@NotNull Path file) throws IOException {
+        var fileSystem = FileSystems.newFileSystem(file);
+
+        try {
+            return new DatapackArchive(fileSystem, findRoot(fileSystem.getPath("/")));
+        } catch (IOException | RuntimeException ex) {
+            fileSystem.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Finds the root directory of the datapack in an archive. Archives made by zipping the datapack directory,
+     * rather than its content, hold a single directory with the datapack inside.
+     */
+    private static Path findRoot(Path top) throws IOException {
+        if (Files.isDirectory(top.resolve(DATA_DIRECTORY))) {
+            return top;
+        }
+
+        try (var stream = Files.list(top)) {
+            var children = stream.limit(2).toList();
+
+            if (children.size() == 1 && Files.isDirectory(children.get(0).resolve(DATA_DIRECTORY))) {
+                return children.get(0);
+            }
+        }
+
+        return top;
+    }
+
+    /**
+     * Gets the root directory of the datapack, which holds the {@code data} directory.
+     * @return The root directory, in the zip file system.
+     */
+    public @NotNull Path root() {
+        return root;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileSystem.close();
+    }
+}
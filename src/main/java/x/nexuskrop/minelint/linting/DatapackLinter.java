@@ -0,0 +1,419 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.metrics.FileLintEvent;
+import x.nexuskrop.minelint.metrics.LintMetrics;
+import x.nexuskrop.minelint.metrics.LintPhase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Lints every function file of a datapack in parallel.
+ * <p>
+ * Files are linted on a work-stealing {@link ForkJoinPool}. The results are always reported in the order of the
+ * file paths, no matter in which order the files finished.
+ * <p>
+ * Every worker thread keeps its parser, its read buffer and its list of diagnostics across files, so that linting
+ * valid lines allocates nothing once the workers are warm.
+ * <p>
+ * Every file is recorded as a {@link FileLintEvent} for Flight Recorder, and to the metrics of the command linter,
+ * if it has any.
+ */
+public class DatapackLinter implements AutoCloseable {
+    /**
+     * The extension of function files.
+     */
+    public static final String FUNCTION_EXTENSION = ".mcfunction";
+
+    /**
+     * The maximum amount of files a single task lints before it is split further.
+     */
+    private static final int TASK_THRESHOLD = 4;
+
+    /**
+     * The amount of files linted together when results are streamed. At most two windows of results are held at once.
+     */
+    private static final int STREAM_WINDOW = 256;
+
+    private final CommandLinter linter;
+    private final ForkJoinPool pool;
+    private final LintCache cache;
+    private final ReferenceIndex index;
+    private final LintMetrics metrics;
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    /**
+     * Consumes the results of a streamed lint.
+     */
+    public interface ResultConsumer {
+        /**
+         * Called for every result, in the order of the files.
+         * @param result The result.
+         * @throws IOException Failed to write the result out.
+         */
+        void accept(@NotNull FunctionLintResult result) throws IOException;
+    }
+
+    /**
+     * The state a worker thread reuses from file to file.
+     */
+    private static final class Workspace {
+        private final CommandSyntaxParser parser;
+        private final ArrayList<LintDiagnostic> diagnostics = new ArrayList<>();
+        private final @Nullable ByteBuffer scratch;
+
+        private Workspace() {
+            this(new CommandSyntaxParser(""), ByteBuffer.allocate(FunctionFile.MAP_THRESHOLD));
+        }
+
+        private Workspace(CommandSyntaxParser parser, @Nullable ByteBuffer scratch) {
+            this.parser = parser;
+            this.scratch = scratch;
+        }
+    }
+
+    /**
+     * Constructs a new datapack linter with a pool sized to the amount of available processors.
+     * @param linter The linter to lint lines with.
+     */
+    public DatapackLinter(@NotNull CommandLinter linter) {
+        this(linter, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new datapack linter.
+     * @param linter The linter to lint lines with.
+     * @param parallelism The amount of worker threads.
+     */
+    public DatapackLinter(@NotNull CommandLinter linter, int parallelism) {
+        this(linter, parallelism, null);
+    }
+
+    /**
+     * Constructs a new datapack linter.
+     * @param linter The linter to lint lines with.
+     * @param parallelism The amount of worker threads.
+     * @param cache The cache to skip unchanged files with, or {@code null} to lint every file.
+     */
+    public DatapackLinter(@NotNull CommandLinter linter, int parallelism, @Nullable LintCache cache) {
+        this(linter, parallelism, cache, null);
+    }
+
+    /**
+     * Constructs a new datapack linter.
+     * @param linter The linter to lint lines with.
+     * @param parallelism The amount of worker threads.
+     * @param cache The cache to skip unchanged files with, or {@code null} to lint every file.
+     * @param index The index to add the references of every linted file to, or {@code null} to not index
+     *              references. Files are indexed even if their result is cached.
+     */
+    public DatapackLinter(@NotNull CommandLinter linter, int parallelism, @Nullable LintCache cache,
+                          @Nullable ReferenceIndex index) {
+        this.linter = linter;
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = cache;
+        this.index = index;
+        this.metrics = linter.metrics();
+    }
+
+    /**
+     * Finds every function file under the specified directory. Files and directories that are deleted while the
+     * directory is walked are skipped.
+     * @param root The directory to search in.
+     * @return The function files, sorted by path.
+     * @throws IOException Failed to walk the directory.
+     */
+    public static @NotNull List<Path> findFunctions(@NotNull Path root) throws IOException {
+        var functions = new ArrayList<Path>();
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (file.getFileName() != null && file.getFileName().toString().endsWith(FUNCTION_EXTENSION)
+                        && Files.isRegularFile(file)) {
+                    functions.add(file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) throws IOException {
+                return skipVanished(root, file, ex);
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+                return ex == null ? FileVisitResult.CONTINUE : skipVanished(root, dir, ex);
+            }
+        });
+
+        functions.sort(null);
+        return functions;
+    }
+
+    private static FileVisitResult skipVanished(Path root, Path path, IOException ex) throws IOException {
+        if (ex instanceof NoSuchFileException && !path.equals(root)) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        throw ex;
+    }
+
+    /**
+     * Lints every function file under the specified directory.
+     * @param root The directory to lint.
+     * @return The results, sorted by path.
+     * @throws IOException Failed to walk the directory.
+     */
+    public @NotNull List<FunctionLintResult> lint(@NotNull Path root) throws IOException {
+        return lint(findFunctions(root));
+    }
+
+    /**
+     * Lints the specified function files in parallel.
+     * @param files The files to lint.
+     * @return The results, in the same order as the files.
+     */
+    public @NotNull List<FunctionLintResult> lint(@NotNull List<Path> files) {
+        var results = new FunctionLintResult[files.size()];
+        pool.invoke(new LintTask(files, results, 0, files.size()));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Lints every function file under the specified directory, and streams the results to the specified consumer.
+     * @param root The directory to lint.
+     * @param consumer The consumer of the results, called in the order of the file paths.
+     * @throws IOException Failed to walk the directory, or thrown by the consumer.
+     */
+    public void lint(@NotNull Path root, @NotNull ResultConsumer consumer) throws IOException {
+        lint(findFunctions(root), consumer);
+    }
+
+    /**
+     * Lints the specified function files in parallel, and streams the results to the specified consumer.
+     * <p>
+     * Files are linted in windows of a fixed size. The next window is linted while the results of the current one
+     * are consumed, so that only two windows of results are ever held in memory, no matter how many files there are.
+     * @param files The files to lint.
+     * @param consumer The consumer of the results, called on the current thread in the same order as the files.
+     * @throws IOException Thrown by the consumer. Files that are not linted yet are skipped.
+     */
+    public void lint(@NotNull List<Path> files, @NotNull ResultConsumer consumer) throws IOException {
+        var buffers = new FunctionLintResult[2][Math.min(files.size(), STREAM_WINDOW)];
+        var windows = (files.size() + STREAM_WINDOW - 1) / STREAM_WINDOW;
+        ForkJoinTask<?> pending = windows == 0 ? null : pool.submit(createWindow(files, 0, buffers[0]));
+
+        for (int window = 0; window < windows; window++) {
+            pending.join();
+
+            var next = window + 1 < windows
+                    ? pool.submit(createWindow(files, window + 1, buffers[(window + 1) & 1]))
+                    : null;
+
+            try {
+                var results = buffers[window & 1];
+                var count = Math.min(STREAM_WINDOW, files.size() - window * STREAM_WINDOW);
+
+                for (int i = 0; i < count; i++) {
+                    consumer.accept(results[i]);
+                    results[i] = null;
+                }
+            } catch (IOException | RuntimeException ex) {
+                if (next != null) {
+                    next.cancel(false);
+                }
+
+                throw ex;
+            }
+
+            pending = next;
+        }
+    }
+
+    private LintTask createWindow(List<Path> files, int window, FunctionLintResult[] results) {
+        var from = window * STREAM_WINDOW;
+        var to = Math.min(from + STREAM_WINDOW, files.size());
+        return new LintTask(files.subList(from, to), results, 0, to - from);
+    }
+
+    /**
+     * Lints a single function file on the current thread. If this linter has a cache and the file is unchanged, the
+     * cached result is returned instead.
+     * @param file The file to lint.
+     * @param parser The parser to lint with. Its text is replaced.
+     * @return The result.
+     */
+    public @NotNull FunctionLintResult lintFile(@NotNull Path file, @NotNull CommandSyntaxParser parser) {
+        return lintFile(file, new Workspace(parser, null));
+    }
+
+    private FunctionLintResult lintFile(Path file, Workspace workspace) {
+        var event = new FileLintEvent();
+        event.begin();
+
+        var result = lintFileUntimed(file, workspace);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.file = file.toString();
+            event.lines = result.lineCount();
+            event.problems = result.diagnostics().size();
+            event.cached = result.cached();
+            event.commit();
+        }
+
+        if (metrics != null) {
+            metrics.recordFile(result.lineCount(), result.diagnostics().size() + (result.ioError() == null ? 0 : 1),
+                    result.cached());
+        }
+
+        return result;
+    }
+
+    private FunctionLintResult lintFileUntimed(Path file, Workspace workspace) {
+        var parser = workspace.parser;
+        var time = System.nanoTime();
+        FunctionFile function;
+
+        try {
+            function = FunctionFile.open(file, workspace.scratch);
+        } catch (IOException ex) {
+            return new FunctionLintResult(file, 0, List.of(), ex, false);
+        }
+
+        time = recordPhase(LintPhase.READ, time);
+
+        if (index != null) {
+            index.addFunction(file, function, parser);
+            time = recordPhase(LintPhase.REFERENCES, time);
+        }
+
+        String key = null;
+
+        if (cache != null) {
+            key = cache.key(function);
+            var cached = cache.get(key, file);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        var content = function.content();
+        var length = function.length();
+        var diagnostics = workspace.diagnostics;
+        var line = 0;
+        var start = 0;
+
+        diagnostics.clear();
+
+        while (start < length) {
+            var lineEnd = function.findLineEnd(start);
+            line++;
+
+            parser.resetText(content, start, function.trimLineEnd(start, lineEnd));
+
+            var diagnostic = linter.lint(parser);
+
+            if (diagnostic != null) {
+                diagnostics.add(new LintDiagnostic(line, diagnostic));
+            }
+
+            start = lineEnd + 1;
+        }
+
+        var result = new FunctionLintResult(file, line, diagnostics.isEmpty() ? List.of() : List.copyOf(diagnostics),
+                null, false);
+        recordPhase(LintPhase.PARSE, time);
+
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Records the time since the specified start to the metrics, if any.
+     * @return The current time, to start the next phase at.
+     */
+    private long recordPhase(LintPhase phase, long start) {
+        var now = System.nanoTime();
+
+        if (metrics != null) {
+            metrics.recordPhase(phase, now - start);
+        }
+
+        return now;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class LintTask extends RecursiveAction {
+        private final List<Path> files;
+        private final FunctionLintResult[] results;
+        private final int from;
+        private final int to;
+
+        private LintTask(List<Path> files, FunctionLintResult[] results, int from, int to) {
+            this.files = files;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                var workspace = workspaces.get();
+
+                for (int i = from; i < to; i++) {
+                    results[i] = lintFile(files.get(i), workspace);
+                }
+
+                return;
+            }
+
+            var middle = (from + to) >>> 1;
+            invokeAll(new LintTask(files, results, from, middle), new LintTask(files, results, middle, to));
+        }
+    }
+}
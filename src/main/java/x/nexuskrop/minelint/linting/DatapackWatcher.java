@@ -0,0 +1,334 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a datapack for changes and relints the function files that changed.
+ * <p>
+ * Editors often save a file in several steps, so events are collected until no new event arrived for the debounce
+ * interval, and every changed file is then linted once. The linter, and with it the compiled command tree, stays
+ * loaded between changes.
+ */
+public class DatapackWatcher implements AutoCloseable {
+    /**
+     * The default interval without events after which the collected changes are linted.
+     */
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(20);
+
+    private final DatapackLinter linter;
+    private final Path root;
+    private final long debounceNanos;
+    private final WatchService service;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    /**
+     * The known function files of each watched directory, so that they can be reported as removed when their
+     * directory is deleted or moved away without an event for each file.
+     */
+    private final Map<Path, Set<Path>> functions = new HashMap<>();
+
+    /**
+     * Listens to the results of a watcher.
+     */
+    public interface Listener {
+        /**
+         * Called after a batch of changes was linted.
+         * @param results The results of the changed function files, sorted by path.
+         * @param removed The function files that were deleted, sorted by path.
+         * @param latencyNanos The time from the first event of the batch to the results, debouncing included.
+         */
+        void onChange(@NotNull List<FunctionLintResult> results, @NotNull List<Path> removed, long latencyNanos);
+
+        /**
+         * Called when a change could not be followed, such as a new directory that cannot be read, or when a batch
+         * failed to lint, such as with a malformed command definition. Watching goes on, but the affected files may
+         * not be relinted until they change again.
+         * @param ex The failure.
+         */
+        default void onError(@NotNull Exception ex) {
+        }
+    }
+
+    /**
+     * Constructs a new watcher with the {@linkplain #DEFAULT_DEBOUNCE default debounce interval}. Watching starts
+     * immediately, but changes are only linted while {@link #run(Listener)} is running.
+     * @param linter The linter to lint changed files with.
+     * @param root The root directory of the datapack.
+     * @throws IOException Failed to watch the directory.
+     */
+    public DatapackWatcher(@NotNull DatapackLinter linter, @NotNull Path root) throws IOException {
+        this(linter, root, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Constructs a new watcher. Watching starts immediately, but changes are only linted while
+     * {@link #run(Listener)} is running.
+     * @param linter The linter to lint changed files with.
+     * @param root The root directory of the datapack.
+     * @param debounce The interval without events after which the collected changes are linted.
+     * @throws IOException Failed to watch the directory.
+     */
+    public DatapackWatcher(@NotNull DatapackLinter linter, @NotNull Path root, @NotNull Duration debounce)
+            throws IOException {
+        this.linter = linter;
+        this.root = root;
+        this.debounceNanos = debounce.toNanos();
+        this.service = root.getFileSystem().newWatchService();
+
+        try {
+            registerAll(root, null);
+        } catch (IOException ex) {
+            service.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Lints changes until this watcher is closed or the current thread is interrupted. Failures to follow a change
+     * are reported to the listener and do not stop watching.
+     * @param listener The listener to report the results to.
+     */
+    public void run(@NotNull Listener listener) {
+        try {
+            while (true) {
+                var changed = new TreeSet<Path>();
+                var first = service.take();
+                var received = System.nanoTime();
+                var complete = collect(first, changed, listener);
+                var deadline = System.nanoTime() + debounceNanos;
+                WatchKey key;
+
+                while ((key = service.poll(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) != null) {
+                    complete &= collect(key, changed, listener);
+                    deadline = System.nanoTime() + debounceNanos;
+                }
+
+                if (!complete) {
+                    findAll(changed, listener);
+                }
+
+                try {
+                    lintChanged(changed, received, listener);
+                } catch (RuntimeException ex) {
+                    listener.onError(ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // Closed by close(), which is how watching normally ends
+        }
+    }
+
+    private void findAll(TreeSet<Path> changed, Listener listener) {
+        try {
+            var found = DatapackLinter.findFunctions(root);
+            functions.values().forEach(Set::clear);
+
+            for (var file : found) {
+                functions.computeIfAbsent(file.getParent(), k -> new HashSet<>()).add(file);
+            }
+
+            changed.addAll(found);
+        } catch (IOException ex) {
+            listener.onError(ex);
+        }
+    }
+
+    private void lintChanged(TreeSet<Path> changed, long received, Listener listener) {
+        var files = new ArrayList<Path>(changed.size());
+        var removed = new ArrayList<Path>();
+
+        for (var file : changed) {
+            if (Files.isRegularFile(file)) {
+                files.add(file);
+            } else {
+                removed.add(file);
+            }
+        }
+
+        if (!files.isEmpty() || !removed.isEmpty()) {
+            var results = linter.lint(files);
+            listener.onChange(results, removed, System.nanoTime() - received);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+
+    /**
+     * Collects the function files affected by the events of a key.
+     * @return {@code false} if events were lost and the whole datapack has to be relinted.
+     */
+    private boolean collect(WatchKey key, TreeSet<Path> changed, Listener listener) {
+        var directory = directories.get(key);
+        var complete = true;
+
+        for (var event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                complete = false;
+                continue;
+            }
+
+            if (directory == null) {
+                continue;
+            }
+
+            var path = directory.resolve((Path) event.context());
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                // Files may have been created before the directory was registered
+                try {
+                    registerAll(path, changed);
+                } catch (IOException ex) {
+                    listener.onError(ex);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && functions.containsKey(path)) {
+                forgetAll(path, changed);
+            } else if (path.getFileName().toString().endsWith(DatapackLinter.FUNCTION_EXTENSION)) {
+                var known = functions.computeIfAbsent(directory, k -> new HashSet<>());
+
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    known.remove(path);
+                } else {
+                    known.add(path);
+                }
+
+                changed.add(path);
+            }
+        }
+
+        if (!key.reset()) {
+            directories.remove(key);
+            var known = directory == null ? null : functions.remove(directory);
+
+            if (known != null) {
+                // The directory is gone, and with it any files not deleted one by one
+                changed.addAll(known);
+            }
+        }
+
+        return complete;
+    }
+
+    /**
+     * Stops watching a deleted or moved directory and everything below it, and adds the function files known in
+     * them to the changed files, where they are reported as removed.
+     */
+    private void forgetAll(Path start, TreeSet<Path> changed) {
+        var keys = directories.entrySet().iterator();
+
+        while (keys.hasNext()) {
+            var entry = keys.next();
+
+            if (entry.getValue().startsWith(start)) {
+                // A moved directory would otherwise still be watched under its old path
+                entry.getKey().cancel();
+                keys.remove();
+            }
+        }
+
+        var known = functions.entrySet().iterator();
+
+        while (known.hasNext()) {
+            var entry = known.next();
+
+            if (entry.getKey().startsWith(start)) {
+                changed.addAll(entry.getValue());
+                known.remove();
+            }
+        }
+    }
+
+    private void registerAll(Path start, TreeSet<Path> found) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key;
+
+                try {
+                    key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                } catch (NoSuchFileException ex) {
+                    // Deleted again before it could be watched
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                directories.put(key, dir);
+                functions.computeIfAbsent(dir, k -> new HashSet<>());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) throws IOException {
+                if (ex instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                throw ex;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+                if (ex == null || ex instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                throw ex;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && file.getFileName().toString().endsWith(DatapackLinter.FUNCTION_EXTENSION)) {
+                    functions.computeIfAbsent(file.getParent(), k -> new HashSet<>()).add(file);
+
+                    if (found != null) {
+                        found.add(file);
+                    }
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
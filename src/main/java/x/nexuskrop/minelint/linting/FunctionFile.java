@@ -0,0 +1,202 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The content of a function file, split into lines without copying.
+ * <p>
+ * Large files are memory-mapped, smaller ones are read into a single buffer. ASCII content, which most functions
+ * are, is viewed directly through a {@link ByteCharSequence}; other content is decoded once as a whole.
+ * Lines are regions of {@link #content()}, to be passed to
+ * {@link x.nexuskrop.minelint.commands.CommandSyntaxParser#resetText(CharSequence, int, int)}.
+ */
+public final class FunctionFile {
+    /**
+     * Files of at least this size are memory-mapped. Mapping a file is more expensive than reading it, so
+     * small files are read instead; a scratch buffer of this size can hold every file that is read.
+     */
+    public static final int MAP_THRESHOLD = 64 * 1024;
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final ByteBuffer buffer;
+    private final CharSequence content;
+    private final int length;
+
+    private FunctionFile(ByteBuffer buffer, CharSequence content) {
+        this.buffer = buffer;
+        this.content = content;
+        this.length = content.length();
+    }
+
+    /**
+     * Opens the specified function file. Files in other file systems than the default one, such as entries of a zip
+     * file system, are always read.
+     * @param file The file.
+     * @return The content of the file.
+     * @throws IOException Failed to read the file, or the file is not valid UTF-8.
+     */
+    public static @NotNull FunctionFile open(@NotNull Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Opens the specified function file, reading it into a scratch buffer if it fits rather than into a new buffer.
+     * The returned file is only valid until the scratch buffer is used again.
+     * @param file The file.
+     * @param scratch The buffer to reuse, or {@code null} to always allocate a new buffer.
+     * @return The content of the file.
+     * @throws IOException Failed to read the file, or the file is not valid UTF-8.
+     */
+    public static @NotNull FunctionFile open(@NotNull Path file, @Nullable ByteBuffer scratch) throws IOException {
+        try (var channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("File %s is too large", file));
+            }
+
+            ByteBuffer buffer;
+
+            if (size >= MAP_THRESHOLD && channel instanceof FileChannel fileChannel) {
+                buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = scratch != null && scratch.capacity() >= size
+                        ? scratch.clear().limit((int) size)
+                        : ByteBuffer.allocate((int) size);
+
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Keep reading until the buffer is full
+                }
+
+                buffer.flip();
+            }
+
+            return of(buffer);
+        }
+    }
+
+    /**
+     * Creates a function file over the content of the specified buffer, from index {@code 0} to its limit.
+     * @param buffer The buffer holding the UTF-8 content of the file.
+     * @return The content of the file.
+     * @throws IOException The content is not valid UTF-8.
+     */
+    public static @NotNull FunctionFile of(@NotNull ByteBuffer buffer) throws IOException {
+        if (isAscii(buffer)) {
+            return new FunctionFile(buffer, new ByteCharSequence(buffer));
+        }
+
+        var decoded = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(buffer.duplicate().position(0));
+
+        if (decoded.hasRemaining() && decoded.get(0) == BYTE_ORDER_MARK) {
+            decoded.position(1);
+            decoded = decoded.slice();
+        }
+
+        return new FunctionFile(buffer, decoded);
+    }
+
+    private static boolean isAscii(ByteBuffer buffer) {
+        var limit = buffer.limit();
+
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the raw bytes of the file.
+     * @return A read-only buffer of the bytes, from index {@code 0} to its limit.
+     */
+    public @NotNull ByteBuffer bytes() {
+        return buffer.asReadOnlyBuffer().position(0);
+    }
+
+    /**
+     * Gets the content of the file.
+     * @return The content.
+     */
+    public @NotNull CharSequence content() {
+        return content;
+    }
+
+    /**
+     * Gets the length of the content.
+     * @return The length.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Finds the end of the line that starts at the specified position.
+     * @param start The start of the line.
+     * @return The position of the line feed that ends the line, or the length of the content if the line is the
+     *         last line and does not end with a line feed.
+     */
+    public int findLineEnd(int start) {
+        if (content instanceof ByteCharSequence bytes) {
+            var end = bytes.indexOf('\n', start);
+            return end < 0 ? length : end;
+        }
+
+        for (int i = start; i < length; i++) {
+            if (content.charAt(i) == '\n') {
+                return i;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Gets the end of the content of the line that ends at the specified line end, excluding the carriage return
+     * of a CRLF line ending.
+     * @param start The start of the line.
+     * @param lineEnd The end of the line, as returned by {@link #findLineEnd(int)}.
+     * @return The end of the content of the line, exclusive.
+     */
+    public int trimLineEnd(int start, int lineEnd) {
+        if (lineEnd > start && content.charAt(lineEnd - 1) == '\r') {
+            return lineEnd - 1;
+        }
+
+        return lineEnd;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Represents the result of linting a single function file.
+ * @param file The function file.
+ * @param lineCount The amount of lines in the file.
+ * @param diagnostics The problems found, ordered by line.
+ * @param ioError The error that prevented the file from being read, or {@code null} if it was read.
+ * @param cached Whether the result was replayed from a {@link LintCache} rather than linted.
+ */
+public record FunctionLintResult(Path file, int lineCount, List<LintDiagnostic> diagnostics,
+                                 @Nullable IOException ioError, boolean cached) {
+    public boolean isClean() {
+        return ioError == null && diagnostics.isEmpty();
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.commands.tree.LiteralTable;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-memory cache of the results of command lines, so that a line repeated across the functions of a generated
+ * datapack is only parsed once.
+ * <p>
+ * The key of an entry is the content of the line from its first character that is not a white space, and the
+ * {@link CommandTree} the line was linted against. Trees are immutable, so a tree is its own schema version: a line
+ * linted against a derived tree misses the entries of the tree it was derived from. The cursor of a cached problem is
+ * relative to the start of the key, so that lines indented differently share an entry.
+ * <p>
+ * Entries are immutable and stored in an array of slots grouped in sets of two. Lookups and insertions never lock;
+ * concurrent insertions into the same set may lose an entry, which only costs a later miss. Inserting into a full set
+ * evicts its older entry, so the cache never holds more entries than its capacity.
+ * <p>
+ * A line is only stored the second time it misses. The first miss only records the hash of the line, so that lines
+ * which occur once, as most lines of a hand-written datapack do, are never copied and linting them allocates
+ * nothing.
+ */
+public final class LineResultCache {
+    /**
+     * The capacity used when none is specified.
+     */
+    public static final int DEFAULT_CAPACITY = 16384;
+
+    /**
+     * The maximum length of a line that is cached. Longer lines are rarely repeated and would pin a lot of memory.
+     */
+    public static final int MAX_LINE_LENGTH = 1024;
+
+    private static final int WAYS = 2;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicIntegerArray seen;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LineResultCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty cache.
+     * @param capacity The maximum amount of entries. It is rounded up to a power of two.
+     * @exception IllegalArgumentException The capacity is not positive.
+     */
+    public LineResultCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        var size = capacity <= WAYS ? WAYS : Integer.highestOneBit(Math.min(capacity, MAX_CAPACITY) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.seen = new AtomicIntegerArray(size);
+        this.mask = (size - 1) & -WAYS;
+    }
+
+    /**
+     * Computes the hash of a line, to pass to {@link #find(CommandTree, CharSequence, int)} and
+     * {@link #put(CommandTree, CharSequence, int, CommandDiagnostic)}.
+     * @param line The line.
+     * @return The hash.
+     */
+    static int hash(CharSequence line) {
+        return LiteralTable.hash(line);
+    }
+
+    /**
+     * Looks up the result of a line, and counts a hit or a miss.
+     * @param tree The tree the line is linted against.
+     * @param line The line, starting from its first character that is not a white space.
+     * @param hash The hash of the line.
+     * @return The entry, or {@code null} if the line is not cached.
+     */
+    @Nullable Entry find(CommandTree tree, CharSequence line, int hash) {
+        var index = hash & mask;
+
+        for (int i = 0; i < WAYS; i++) {
+            var entry = slots.get(index + i);
+
+            if (entry != null && entry.matches(tree, line, hash)) {
+                hits.increment();
+                return entry;
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Records a line that was not found, and checks whether its result should be cached.
+     * @param hash The hash of the line.
+     * @return {@code true} if the line has been missed before and should be cached; {@code false} if this is the first
+     *         miss of the line.
+     */
+    boolean admit(int hash) {
+        var index = hash & (seen.length() - 1);
+
+        if (seen.get(index) == hash) {
+            return true;
+        }
+
+        seen.set(index, hash);
+        return false;
+    }
+
+    /**
+     * Caches the result of a line, which should only be done once {@link #admit(int)} accepted it.
+     * @param tree The tree the line was linted against.
+     * @param line The line, starting from its first character that is not a white space.
+     * @param hash The hash of the line.
+     * @param result The problem found in the line with the cursor relative to the start of the line, or {@code null}
+     *               if the line is valid.
+     */
+    void put(CommandTree tree, CharSequence line, int hash, @Nullable CommandDiagnostic result) {
+        var index = hash & mask;
+        var entry = new Entry(tree, line.toString(), hash, result);
+        var newest = slots.get(index);
+
+        if (newest != null) {
+            // Keep the previous newest entry as the older one of the set, evicting the older one
+            slots.set(index + 1, newest);
+        }
+
+        slots.set(index, entry);
+    }
+
+    /**
+     * Gets the amount of entries this cache can hold.
+     * @return The capacity.
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Gets the amount of lookups that found an entry.
+     * @return The amount.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the amount of lookups that did not find an entry.
+     * @return The amount.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes every entry, and forgets which lines have been missed. The hit and miss counters are kept.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+            seen.set(i, 0);
+        }
+    }
+
+    /**
+     * Prints the hit rate of this cache.
+     * @param out The stream to print to.
+     */
+    public void printSummary(@NotNull PrintStream out) {
+        var hitCount = hits();
+        var lookups = hitCount + misses();
+        out.printf("Line cache: %d hits, %d misses (%.1f%% hit rate), capacity %d%n", hitCount, misses(),
+                lookups == 0 ? 0.0 : hitCount * 100.0 / lookups, capacity());
+    }
+
+    /**
+     * The cached result of a line.
+     */
+    static final class Entry {
+        private final CommandTree tree;
+        private final String line;
+        private final int hash;
+        private final CommandDiagnostic result;
+
+        private Entry(CommandTree tree, String line, int hash, CommandDiagnostic result) {
+            this.tree = tree;
+            this.line = line;
+            this.hash = hash;
+            this.result = result;
+        }
+
+        /**
+         * Gets the problem found in the line.
+         * @return The problem with the cursor relative to the start of the line, or {@code null} if the line is valid.
+         */
+        @Nullable CommandDiagnostic result() {
+            return result;
+        }
+
+        private boolean matches(CommandTree tree, CharSequence line, int hash) {
+            if (this.hash != hash || this.tree != tree || this.line.length() != line.length()) {
+                return false;
+            }
+
+            for (int i = 0; i < line.length(); i++) {
+                if (this.line.charAt(i) != line.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
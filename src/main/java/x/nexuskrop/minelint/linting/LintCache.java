@@ -0,0 +1,292 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+
+/**
+ * An on-disk cache of lint results, keyed by the content of function files.
+ * <p>
+ * The key of an entry is the SHA-256 digest of the content of the file, a fingerprint of the command definitions and
+ * of the code of the linter, and the version of the entry format. Any change to the definitions or the linter thus
+ * misses every existing entry, and entries never have to be invalidated explicitly. Entries that are no longer hit
+ * are removed by {@link #prune(Duration)} instead.
+ * <p>
+ * Entries are written to a temporary file and then atomically moved into place, so concurrent runs sharing a cache
+ * directory only ever see complete entries. An entry that cannot be read is treated as a miss. The cache is best
+ * effort: failing to write an entry does not fail the lint.
+ */
+public class LintCache {
+    /**
+     * The version of the format of entries. Increment on incompatible changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String ENTRY_EXTENSION = ".json";
+
+    /**
+     * How long an entry is kept after it was last written or hit, unless specified otherwise.
+     */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+    private final Path directory;
+    private final byte[] salt;
+
+    /**
+     * Constructs a new cache.
+     * @param directory The directory to store entries in. It is created when the first entry is written.
+     * @param fingerprint A string that changes whenever the result of linting a file could change, such as the
+     *                    digests of the command definitions and of the code of the linter.
+     */
+    public LintCache(@NotNull Path directory, @NotNull String fingerprint) {
+        this.directory = directory;
+        this.salt = String.join("\n", Integer.toString(FORMAT_VERSION), fingerprint, "")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Computes the key of the specified file.
+     * @param file The file.
+     * @return The key.
+     */
+    public @NotNull String key(@NotNull FunctionFile file) {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+
+        digest.update(salt);
+        digest.update(file.bytes());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path entryPath(String key) {
+        // Shard by the first byte, so that no directory grows too large
+        return directory.resolve(key.substring(0, 2)).resolve(key.substring(2) + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Gets the cached result of a file.
+     * @param key The key of the file.
+     * @param file The path of the file, which is not part of the key.
+     * @return The result, or {@code null} on a miss.
+     */
+    public @Nullable FunctionLintResult get(@NotNull String key, @NotNull Path file) {
+        var path = entryPath(key);
+
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (var reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            var lineCount = -1;
+            var diagnostics = new ArrayList<LintDiagnostic>();
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "lines" -> lineCount = reader.nextInt();
+                    case "diagnostics" -> {
+                        reader.beginArray();
+
+                        while (reader.hasNext()) {
+                            diagnostics.add(readDiagnostic(reader));
+                        }
+
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if (lineCount < 0) {
+                return null;
+            }
+
+            touch(path);
+            return new FunctionLintResult(file, lineCount, diagnostics, null, true);
+        } catch (IOException | JsonParseException | IllegalStateException ex) {
+            return null;
+        }
+    }
+
+    private static LintDiagnostic readDiagnostic(JsonReader reader) throws IOException {
+        var line = -1;
+        var cursor = -1;
+        String id = null;
+        String template = null;
+        String description = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "line" -> line = reader.nextInt();
+                case "cursor" -> cursor = reader.nextInt();
+                case "id" -> id = reader.nextString();
+                case "template" -> template = reader.nextString();
+                case "description" -> description = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        if (line < 0 || cursor < 0 || id == null || template == null || description == null) {
+            throw new IllegalStateException("Incomplete diagnostic");
+        }
+
+        return new LintDiagnostic(line, CommandDiagnostic.ofDescription(CommandSyntaxError.of(id, template), cursor,
+                description));
+    }
+
+    /**
+     * Stores the result of a file. Results of files that could not be read are not stored.
+     * @param key The key of the file.
+     * @param result The result.
+     */
+    public void put(@NotNull String key, @NotNull FunctionLintResult result) {
+        if (result.ioError() != null) {
+            return;
+        }
+
+        var path = entryPath(key);
+
+        try {
+            Files.createDirectories(path.getParent());
+            var temp = Files.createTempFile(path.getParent(), key.substring(2), ".tmp");
+
+            try {
+                try (var writer = new JsonWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+                    writer.beginObject();
+                    writer.name("lines").value(result.lineCount());
+                    writer.name("diagnostics").beginArray();
+
+                    for (var diagnostic : result.diagnostics()) {
+                        var error = diagnostic.diagnostic().getError();
+
+                        writer.beginObject();
+                        writer.name("line").value(diagnostic.line());
+                        writer.name("cursor").value(diagnostic.diagnostic().getCursor());
+                        writer.name("id").value(error.getId());
+                        writer.name("template").value(error.getDescription());
+                        writer.name("description").value(diagnostic.diagnostic().getDescription());
+                        writer.endObject();
+                    }
+
+                    writer.endArray();
+                    writer.endObject();
+                }
+
+                move(temp, path);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            // The cache is best effort; the result is simply linted again next time
+        }
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException ex) {
+            // The entry is only pruned earlier than it could be
+        }
+    }
+
+    /**
+     * Removes the entries that were neither written nor hit within the specified age, along with temporary files
+     * left behind by runs that were killed while writing. The cache is best effort: files that cannot be removed are
+     * skipped.
+     * @param maxAge The age.
+     * @return The amount of files removed.
+     */
+    public int prune(@NotNull Duration maxAge) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        var oldest = FileTime.from(Instant.now().minus(maxAge));
+        var removed = 0;
+
+        try (var shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (var shard : shards) {
+                try (var entries = Files.newDirectoryStream(shard)) {
+                    for (var entry : entries) {
+                        if (pruneEntry(entry, oldest)) {
+                            removed++;
+                        }
+                    }
+                } catch (IOException | DirectoryIteratorException ex) {
+                    // Skip the rest of the shard, such as one another run removed in the meantime
+                }
+            }
+        } catch (IOException ex) {
+            // Nothing more can be pruned
+        }
+
+        return removed;
+    }
+
+    private static boolean pruneEntry(Path entry, FileTime oldest) {
+        try {
+            return Files.getLastModifiedTime(entry).compareTo(oldest) < 0 && Files.deleteIfExists(entry);
+        } catch (IOException ex) {
+            // Skip the entry, such as one another run removed or is writing at the same time
+            return false;
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
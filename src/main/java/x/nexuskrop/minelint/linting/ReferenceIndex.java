@@ -0,0 +1,549 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+import x.nexuskrop.minelint.parsing.data.ResourceLocationPool;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the references between the functions and function tags of a datapack.
+ * <p>
+ * Functions are added while they are linted, from any thread. References are found by scanning for the
+ * {@code function} keyword where a command can start: at the start of a line, or after {@code run},
+ * {@code schedule}, {@code if} or {@code unless}. Once every function and tag is added, {@link #analyze()} resolves
+ * the references in a single pass over the index.
+ */
+public class ReferenceIndex {
+    private static final String DATA_DIRECTORY = "data";
+    private static final String FUNCTION_DIRECTORY = "functions";
+    private static final String TAG_DIRECTORY = "tags";
+    private static final String TAG_EXTENSION = ".json";
+    private static final String KEYWORD_FUNCTION = "function";
+    private static final String[] KEYWORDS_BEFORE_COMMAND = { "run", "schedule", "if", "unless" };
+    private static final char SYNTAX_WHITESPACE = ' ';
+    private static final char SYNTAX_COMMENT = '#';
+    private static final char SYNTAX_MACRO = '$';
+    private static final char SYNTAX_TAG = '#';
+    private static final int POOL_CAPACITY = 4096;
+
+    /**
+     * The tags whose functions are run by the game on their own.
+     */
+    private static final List<ResourceLocation> ROOT_TAGS = List.of(
+            new ResourceLocation(ResourceLocation.DEFAULT_NAMESPACE, "load"),
+            new ResourceLocation(ResourceLocation.DEFAULT_NAMESPACE, "tick"));
+
+    private final Path root;
+    private final ResourceLocationPool pool = new ResourceLocationPool(POOL_CAPACITY);
+    private final Map<ResourceLocation, Node> functions = new ConcurrentHashMap<>();
+    private final Map<ResourceLocation, Node> tags = new ConcurrentHashMap<>();
+    private final List<Path> invalidTags = new ArrayList<>();
+
+    /**
+     * The references held by a single function or tag file.
+     */
+    private static final class Node {
+        private final Path file;
+        private final ReferenceTarget[] targets;
+        /**
+         * The line of every target in a function, or {@code 0} for targets in a tag.
+         */
+        private final int[] lines;
+        /**
+         * Whether every target must exist, or {@code null} if all of them must.
+         */
+        private final boolean @Nullable [] required;
+
+        private Node(Path file, ReferenceTarget[] targets, int[] lines, boolean @Nullable [] required) {
+            this.file = file;
+            this.targets = targets;
+            this.lines = lines;
+            this.required = required;
+        }
+    }
+
+    /**
+     * Constructs a new, empty index.
+     * @param root The root directory of the datapack, which holds the {@code data} directory.
+     */
+    public ReferenceIndex(@NotNull Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the resource location of a file in a datapack.
+     * @param root The root directory of the datapack.
+     * @param file The file.
+     * @param type The type directory of the file, such as {@code functions} or {@code tags/functions}.
+     * @param extension The extension of the file.
+     * @return The resource location, or {@code null} if the file is not in the directory of the type, or its name is
+     *         not a valid resource location.
+     */
+    public static @Nullable ResourceLocation locate(@NotNull Path root, @NotNull Path file, @NotNull String type,
+                                                    @NotNull String extension) {
+        if (!file.startsWith(root)) {
+            return null;
+        }
+
+        var relative = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+        var prefix = DATA_DIRECTORY + "/";
+
+        if (!relative.startsWith(prefix) || !relative.endsWith(extension)) {
+            return null;
+        }
+
+        var namespaceEnd = relative.indexOf('/', prefix.length());
+        var typeEnd = namespaceEnd + 1 + type.length();
+
+        if (namespaceEnd < 0 || !relative.startsWith(type, namespaceEnd + 1) || typeEnd >= relative.length()
+                || relative.charAt(typeEnd) != '/') {
+            return null;
+        }
+
+        var namespace = relative.substring(prefix.length(), namespaceEnd);
+        var path = relative.substring(typeEnd + 1, relative.length() - extension.length());
+
+        if (!ResourceLocation.isValidNamespace(namespace) || path.isEmpty() || !ResourceLocation.isValidPath(path)) {
+            return null;
+        }
+
+        return new ResourceLocation(namespace, path);
+    }
+
+    /**
+     * Adds the references of a function to this index. Files that are not functions of the datapack are ignored.
+     * This method can be called from several threads at once.
+     * @param file The function file.
+     * @param function The content of the file.
+     * @param parser The parser to read resource locations with. Its text is replaced.
+     */
+    public void addFunction(@NotNull Path file, @NotNull FunctionFile function, @NotNull CommandSyntaxParser parser) {
+        var location = locate(root, file, FUNCTION_DIRECTORY, DatapackLinter.FUNCTION_EXTENSION);
+
+        if (location == null) {
+            return;
+        }
+
+        var content = function.content();
+        var length = function.length();
+        var targets = new ArrayList<ReferenceTarget>();
+        var lines = new int[8];
+        var line = 0;
+        var start = 0;
+
+        while (start < length) {
+            var lineEnd = function.findLineEnd(start);
+            line++;
+
+            var end = function.trimLineEnd(start, lineEnd);
+            var count = targets.size();
+            scanLine(content, start, end, parser, targets);
+
+            for (int i = count; i < targets.size(); i++) {
+                if (i == lines.length) {
+                    lines = Arrays.copyOf(lines, i * 2);
+                }
+
+                lines[i] = line;
+            }
+
+            start = lineEnd + 1;
+        }
+
+        functions.put(location, new Node(file, targets.toArray(new ReferenceTarget[0]),
+                Arrays.copyOf(lines, targets.size()), null));
+    }
+
+    /**
+     * Reads every function tag of the datapack into this index.
+     * @throws IOException Failed to walk the data directory.
+     */
+    public void loadTags() throws IOException {
+        var data = root.resolve(DATA_DIRECTORY);
+
+        if (!Files.isDirectory(data)) {
+            return;
+        }
+
+        var type = TAG_DIRECTORY + "/" + FUNCTION_DIRECTORY;
+        List<Path> files;
+
+        try (var stream = Files.walk(data)) {
+            files = stream.filter(x -> x.getFileName() != null
+                            && x.getFileName().toString().endsWith(TAG_EXTENSION)
+                            && Files.isRegularFile(x))
+                    .sorted()
+                    .toList();
+        }
+
+        for (var file : files) {
+            var location = locate(root, file, type, TAG_EXTENSION);
+
+            if (location != null) {
+                loadTag(location, file);
+            }
+        }
+    }
+
+    private void loadTag(ResourceLocation location, Path file) {
+        var targets = new ArrayList<ReferenceTarget>();
+        var required = new ArrayList<Boolean>();
+        var parser = new CommandSyntaxParser("");
+
+        try {
+            var values = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8))
+                    .getAsJsonObject().getAsJsonArray("values");
+
+            if (values != null) {
+                for (var value : values) {
+                    String id;
+                    var isRequired = true;
+
+                    if (value.isJsonObject()) {
+                        var entry = value.getAsJsonObject();
+                        id = entry.get("id").getAsString();
+                        isRequired = !entry.has("required") || entry.get("required").getAsBoolean();
+                    } else {
+                        id = value.getAsString();
+                    }
+
+                    var target = parseTarget(id, 0, id.length(), parser);
+
+                    if (target == null) {
+                        throw new JsonParseException(String.format("Invalid tag entry %s", id));
+                    }
+
+                    targets.add(target);
+                    required.add(isRequired);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Malformed JSON surfaces as one of several runtime exceptions
+            synchronized (invalidTags) {
+                invalidTags.add(file);
+            }
+
+            return;
+        }
+
+        var requiredArray = new boolean[required.size()];
+
+        for (int i = 0; i < requiredArray.length; i++) {
+            requiredArray[i] = required.get(i);
+        }
+
+        tags.put(location, new Node(file, targets.toArray(new ReferenceTarget[0]), new int[targets.size()],
+                requiredArray));
+    }
+
+    private void scanLine(CharSequence content, int start, int end, CommandSyntaxParser parser,
+                          List<ReferenceTarget> targets) {
+        var i = skipWhitespace(content, start, end);
+
+        if (i < end && content.charAt(i) == SYNTAX_COMMENT) {
+            return;
+        }
+
+        if (i < end && content.charAt(i) == SYNTAX_MACRO) {
+            i++;
+        }
+
+        var commandPosition = true;
+        var expectTarget = false;
+
+        while (i < end) {
+            var tokenStart = i;
+
+            while (i < end && content.charAt(i) != SYNTAX_WHITESPACE) {
+                i++;
+            }
+
+            if (expectTarget) {
+                var target = parseTarget(content, tokenStart, i, parser);
+
+                if (target != null) {
+                    targets.add(target);
+                }
+            }
+
+            expectTarget = commandPosition && regionEquals(content, tokenStart, i, KEYWORD_FUNCTION);
+            commandPosition = false;
+
+            for (var keyword : KEYWORDS_BEFORE_COMMAND) {
+                if (regionEquals(content, tokenStart, i, keyword)) {
+                    commandPosition = true;
+                    break;
+                }
+            }
+
+            i = skipWhitespace(content, i, end);
+        }
+    }
+
+    private @Nullable ReferenceTarget parseTarget(CharSequence content, int start, int end, CommandSyntaxParser parser) {
+        var tag = start < end && content.charAt(start) == SYNTAX_TAG;
+
+        parser.resetText(content, tag ? start + 1 : start, end);
+        var location = ResourceLocation.tryParse(parser, pool);
+
+        if (location == null || !parser.isEnd()) {
+            return null;
+        }
+
+        return new ReferenceTarget(location, tag);
+    }
+
+    private static int skipWhitespace(CharSequence content, int start, int end) {
+        while (start < end && content.charAt(start) == SYNTAX_WHITESPACE) {
+            start++;
+        }
+
+        return start;
+    }
+
+    private static boolean regionEquals(CharSequence content, int start, int end, String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (content.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the amount of functions added to this index.
+     * @return The amount of functions.
+     */
+    public int functionCount() {
+        return functions.size();
+    }
+
+    /**
+     * Gets the amount of function tags added to this index.
+     * @return The amount of tags.
+     */
+    public int tagCount() {
+        return tags.size();
+    }
+
+    /**
+     * Resolves every reference in this index. All functions must have been added.
+     * @return The problems found.
+     */
+    public @NotNull ReferenceReport analyze() {
+        // Functions and tags are numbered together, functions first, so that the graph is a plain array of edges
+        var order = Comparator.comparing(ResourceLocation::toString);
+        var functionLocations = functions.keySet().stream().sorted(order).toList();
+        var tagLocations = tags.keySet().stream().sorted(order).toList();
+        var count = functionLocations.size() + tagLocations.size();
+        var targets = new ReferenceTarget[count];
+        var nodes = new Node[count];
+        var ids = new HashMap<ReferenceTarget, Integer>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            var isTag = i >= functionLocations.size();
+            var location = isTag ? tagLocations.get(i - functionLocations.size()) : functionLocations.get(i);
+            targets[i] = new ReferenceTarget(location, isTag);
+            nodes[i] = isTag ? tags.get(location) : functions.get(location);
+            ids.put(targets[i], i);
+        }
+
+        var edges = new int[count][];
+        var unresolved = new ArrayList<UnresolvedReference>();
+
+        for (int i = 0; i < count; i++) {
+            var node = nodes[i];
+            var nodeEdges = new int[node.targets.length];
+            var edgeCount = 0;
+
+            for (int j = 0; j < node.targets.length; j++) {
+                var id = ids.get(node.targets[j]);
+
+                if (id != null) {
+                    nodeEdges[edgeCount++] = id;
+                } else if (node.required == null || node.required[j]) {
+                    unresolved.add(new UnresolvedReference(node.file, node.lines[j], node.targets[j]));
+                }
+            }
+
+            edges[i] = edgeCount == nodeEdges.length ? nodeEdges : Arrays.copyOf(nodeEdges, edgeCount);
+        }
+
+        unresolved.sort(Comparator.comparing(UnresolvedReference::file).thenComparingInt(UnresolvedReference::line));
+
+        List<Path> invalid;
+
+        synchronized (invalidTags) {
+            invalid = invalidTags.stream().sorted().toList();
+        }
+
+        return new ReferenceReport(unresolved, findUnreachable(targets, ids, edges, functionLocations.size()),
+                findCycles(targets, edges), invalid);
+    }
+
+    private static List<ResourceLocation> findUnreachable(ReferenceTarget[] targets, Map<ReferenceTarget, Integer> ids,
+                                                          int[][] edges, int functionCount) {
+        var reached = new boolean[targets.length];
+        var queue = new ArrayDeque<Integer>();
+
+        for (var tag : ROOT_TAGS) {
+            var id = ids.get(new ReferenceTarget(tag, true));
+
+            if (id != null) {
+                reached[id] = true;
+                queue.add(id);
+            }
+        }
+
+        if (queue.isEmpty()) {
+            // Without an entry point, any function may be run by hand
+            return List.of();
+        }
+
+        while (!queue.isEmpty()) {
+            for (var next : edges[queue.poll()]) {
+                if (!reached[next]) {
+                    reached[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+
+        var unreachable = new ArrayList<ResourceLocation>();
+
+        for (int i = 0; i < functionCount; i++) {
+            if (!reached[i]) {
+                unreachable.add(targets[i].location());
+            }
+        }
+
+        return unreachable;
+    }
+
+    /**
+     * Finds the strongly connected components with more than one member, or with a member that reaches itself,
+     * using an iterative form of Tarjan's algorithm so that deep call chains do not overflow the stack.
+     */
+    private static List<List<ReferenceTarget>> findCycles(ReferenceTarget[] targets, int[][] edges) {
+        var count = targets.length;
+        var index = new int[count];
+        var low = new int[count];
+        var onStack = new boolean[count];
+        var stack = new int[count];
+        var stackSize = 0;
+        var calls = new int[count];
+        var edgePositions = new int[count];
+        var nextIndex = 0;
+        var cycles = new ArrayList<List<ReferenceTarget>>();
+
+        Arrays.fill(index, -1);
+
+        for (int start = 0; start < count; start++) {
+            if (index[start] != -1) {
+                continue;
+            }
+
+            var depth = 0;
+            calls[depth++] = start;
+            index[start] = low[start] = nextIndex++;
+            stack[stackSize++] = start;
+            onStack[start] = true;
+
+            while (depth > 0) {
+                var node = calls[depth - 1];
+
+                if (edgePositions[node] < edges[node].length) {
+                    var next = edges[node][edgePositions[node]++];
+
+                    if (index[next] == -1) {
+                        index[next] = low[next] = nextIndex++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        calls[depth++] = next;
+                    } else if (onStack[next]) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+
+                    continue;
+                }
+
+                depth--;
+
+                if (depth > 0) {
+                    var parent = calls[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+
+                if (low[node] != index[node]) {
+                    continue;
+                }
+
+                var component = new ArrayList<ReferenceTarget>();
+                int member;
+
+                do {
+                    member = stack[--stackSize];
+                    onStack[member] = false;
+                    component.add(targets[member]);
+                } while (member != node);
+
+                if (component.size() > 1 || reachesItself(edges, node)) {
+                    component.sort(Comparator.comparing(ReferenceTarget::toString));
+                    cycles.add(component);
+                }
+            }
+        }
+
+        cycles.sort(Comparator.comparing(x -> x.get(0).toString()));
+        return cycles;
+    }
+
+    private static boolean reachesItself(int[][] edges, int node) {
+        for (var next : edges[node]) {
+            if (next == node) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Represents the problems found in the references between the functions of a datapack.
+ * @param unresolved The references to functions and tags that do not exist, sorted by file and line.
+ * @param unreachable The functions that are not reached from the {@code load} and {@code tick} tags, sorted by
+ *                    resource location. Empty if the datapack has neither tag.
+ * @param cycles The groups of functions and tags that reach each other, sorted by their first member.
+ * @param invalidTags The tag files that could not be read.
+ */
+public record ReferenceReport(@NotNull List<UnresolvedReference> unresolved,
+                              @NotNull List<ResourceLocation> unreachable,
+                              @NotNull List<List<ReferenceTarget>> cycles,
+                              @NotNull List<Path> invalidTags) {
+    public boolean isClean() {
+        return unresolved.isEmpty() && unreachable.isEmpty() && cycles.isEmpty() && invalidTags.isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.linting;
+
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+
+/**
+ * The target of a reference, either a function or a function tag.
+ * @param location The resource location of the target.
+ * @param tag Whether the target is a function tag.
+ */
+public record ReferenceTarget(@NotNull ResourceLocation location, boolean tag) {
+    @Override
+    public String toString() {
+        return tag ? "#" + location : location.toString();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event spanning the read and lint of a single function file.
+ */
+@Name("x.nexuskrop.minelint.FileLint")
+@Label("Function File Lint")
+@Category("MineLint")
+@Description("Reading and linting a single function file")
+public class FileLintEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Problems")
+    public int problems;
+
+    @Label("Cached")
+    public boolean cached;
+}
@@ -0,0 +1,129 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of durations in nanoseconds.
+ * <p>
+ * Durations are counted in buckets of powers of two, so recording is a single striped increment and never
+ * allocates. Percentiles are therefore only accurate up to a factor of two, which is enough to tell where the time
+ * of a run went.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos The duration, in nanoseconds. Negative durations are counted as zero.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets[Math.min(bucketOf(nanos), BUCKETS - 1)].increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Gets the amount of recorded durations.
+     * @return The amount.
+     */
+    public long count() {
+        var count = 0L;
+
+        for (var bucket : buckets) {
+            count += bucket.sum();
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the sum of all recorded durations.
+     * @return The sum, in nanoseconds.
+     */
+    public long totalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     * @return The duration, in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Gets an upper bound of the specified percentile of the recorded durations.
+     * @param percentile The percentile, from {@code 0} to {@code 100}.
+     * @return The upper bound of the bucket holding the percentile, never more than the longest recorded duration,
+     *         in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Excepted a percentile between 0 and 100");
+        }
+
+        var counts = new long[BUCKETS];
+        var count = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        var rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        var seen = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                var bound = i == 0 ? 0 : i >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(bound, maxNanos());
+            }
+        }
+
+        return maxNanos();
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects where the time of a lint run goes: a latency histogram per {@link LintPhase} and per argument type, and
+ * counters of the files, lines and problems linted.
+ * <p>
+ * All methods are thread-safe, and recording never allocates nor blocks, so that the metrics can be left on in
+ * continuous integration. Argument types are tracked by the ids of the argument manager the metrics were created
+ * with; types registered afterwards are not tracked.
+ */
+public final class LintMetrics {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+    private static final double NANOS_PER_MICROSECOND = 1e3;
+
+    private final CommandArgumentManager arguments;
+    private final long started = System.nanoTime();
+    private final LatencyHistogram[] phases = new LatencyHistogram[LintPhase.values().length];
+    private final LatencyHistogram[] argumentLatencies;
+    private final LongAdder[] argumentFailures;
+    private final LongAdder files = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder problems = new LongAdder();
+
+    /**
+     * Constructs new, empty metrics.
+     * @param arguments The argument manager whose types to track.
+     */
+    public LintMetrics(@NotNull CommandArgumentManager arguments) {
+        this.arguments = arguments;
+
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+
+        var size = arguments.size();
+        argumentLatencies = new LatencyHistogram[size];
+        argumentFailures = new LongAdder[size];
+
+        for (int i = 0; i < size; i++) {
+            argumentLatencies[i] = new LatencyHistogram();
+            argumentFailures[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts timing a phase. Closing the returned span records it to the specified metrics, if any, and commits a
+     * {@link PhaseEvent} if Flight Recorder is recording.
+     * @param metrics The metrics to record to, or {@code null} to only emit the event.
+     * @param phase The phase.
+     * @return The span, to be closed when the phase ends.
+     */
+    public static @NotNull Span begin(@Nullable LintMetrics metrics, @NotNull LintPhase phase) {
+        return new Span(metrics, phase);
+    }
+
+    /**
+     * Records the duration of a phase.
+     * @param phase The phase.
+     * @param nanos The duration, in nanoseconds.
+     */
+    public void recordPhase(@NotNull LintPhase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the parse of a single argument.
+     * @param typeId The id of the argument type in the argument manager.
+     * @param nanos The duration, in nanoseconds.
+     * @param parsed Whether the argument was valid.
+     */
+    public void recordArgument(int typeId, long nanos, boolean parsed) {
+        if (typeId < 0 || typeId >= argumentLatencies.length) {
+            return;
+        }
+
+        argumentLatencies[typeId].record(nanos);
+
+        if (!parsed) {
+            argumentFailures[typeId].increment();
+        }
+    }
+
+    /**
+     * Records a linted function file.
+     * @param lineCount The amount of lines in the file.
+     * @param problemCount The amount of problems found in the file.
+     * @param fromCache Whether the result was replayed from a cache.
+     */
+    public void recordFile(int lineCount, int problemCount, boolean fromCache) {
+        files.increment();
+
+        if (fromCache) {
+            cached.increment();
+        }
+
+        recordLines(lineCount, problemCount);
+    }
+
+    /**
+     * Records linted lines that do not belong to a function file, such as commands read from the standard input.
+     * @param lineCount The amount of lines.
+     * @param problemCount The amount of problems found in the lines.
+     */
+    public void recordLines(long lineCount, long problemCount) {
+        lines.add(lineCount);
+        problems.add(problemCount);
+    }
+
+    /**
+     * Gets the histogram of a phase.
+     * @param phase The phase.
+     * @return The histogram.
+     */
+    public @NotNull LatencyHistogram phase(@NotNull LintPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Gets the histogram of an argument type.
+     * @param typeId The id of the argument type in the argument manager.
+     * @return The histogram, or {@code null} if the type is not tracked.
+     */
+    public @Nullable LatencyHistogram argument(int typeId) {
+        return typeId < 0 || typeId >= argumentLatencies.length ? null : argumentLatencies[typeId];
+    }
+
+    /**
+     * Gets the amount of invalid arguments of an argument type.
+     * @param typeId The id of the argument type in the argument manager.
+     * @return The amount, or {@code 0} if the type is not tracked.
+     */
+    public long argumentFailures(int typeId) {
+        return typeId < 0 || typeId >= argumentFailures.length ? 0 : argumentFailures[typeId].sum();
+    }
+
+    public long files() {
+        return files.sum();
+    }
+
+    public long cachedFiles() {
+        return cached.sum();
+    }
+
+    public long lines() {
+        return lines.sum();
+    }
+
+    public long problems() {
+        return problems.sum();
+    }
+
+    /**
+     * Gets the time since these metrics were created.
+     * @return The time, in nanoseconds.
+     */
+    public long elapsedNanos() {
+        return Math.max(System.nanoTime() - started, 1);
+    }
+
+    /**
+     * Prints a summary of these metrics.
+     * @param out The stream to print to.
+     */
+    public void printSummary(@NotNull PrintStream out) {
+        var seconds = elapsedNanos() / NANOS_PER_SECOND;
+        var fileCount = files();
+        var lineCount = lines();
+
+        out.printf("Metrics: %d files (%d cached), %d lines, %d problems in %.3f s, %.0f files/s, %.0f lines/s%n",
+                fileCount, cachedFiles(), lineCount, problems(), seconds, fileCount / seconds, lineCount / seconds);
+        out.printf("%-20s %10s %10s %10s %10s %10s%n", "phase", "count", "total ms", "p50 us", "p99 us", "max us");
+
+        for (var phase : LintPhase.values()) {
+            var histogram = phase(phase);
+
+            if (histogram.count() != 0) {
+                printRow(out, phase.label(), histogram, "");
+            }
+        }
+
+        out.printf("%-20s %10s %10s %10s %10s %10s %10s%n", "argument", "count", "total ms", "p50 us", "p99 us",
+                "max us", "failures");
+
+        for (int i = 0; i < argumentLatencies.length; i++) {
+            if (argumentLatencies[i].count() != 0) {
+                printRow(out, arguments.getKey(i), argumentLatencies[i],
+                        String.format(" %10d", argumentFailures(i)));
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, LatencyHistogram histogram, String extra) {
+        out.printf("%-20s %10d %10.1f %10.1f %10.1f %10.1f%s%n", name, histogram.count(),
+                histogram.totalNanos() / NANOS_PER_MILLISECOND,
+                histogram.percentileNanos(50) / NANOS_PER_MICROSECOND,
+                histogram.percentileNanos(99) / NANOS_PER_MICROSECOND,
+                histogram.maxNanos() / NANOS_PER_MICROSECOND, extra);
+    }
+
+    /**
+     * A running phase, started by {@link #begin(LintMetrics, LintPhase)}.
+     */
+    public static final class Span implements AutoCloseable {
+        private final LintMetrics metrics;
+        private final LintPhase phase;
+        private final PhaseEvent event = new PhaseEvent();
+        private final long start;
+
+        private Span(LintMetrics metrics, LintPhase phase) {
+            this.metrics = metrics;
+            this.phase = phase;
+            event.begin();
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            var nanos = System.nanoTime() - start;
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.phase = phase.label();
+                event.commit();
+            }
+
+            if (metrics != null) {
+                metrics.recordPhase(phase, nanos);
+            }
+        }
+    }
+}
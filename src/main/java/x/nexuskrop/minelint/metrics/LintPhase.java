@@ -0,0 +1,61 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The phases a lint run spends its time in.
+ */
+public enum LintPhase {
+    /**
+     * Loading and compiling command definitions.
+     */
+    SCHEMA("schema"),
+    /**
+     * Reading function files from disk or an archive.
+     */
+    READ("read"),
+    /**
+     * Linting the lines of function files.
+     */
+    PARSE("parse"),
+    /**
+     * Indexing and resolving references between functions and tags.
+     */
+    REFERENCES("references"),
+    /**
+     * Printing the problems found.
+     */
+    REPORT("report");
+
+    private final String label;
+
+    LintPhase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the name of this phase as it is printed in summaries and recorded in events.
+     * @return The name.
+     */
+    public @NotNull String label() {
+        return label;
+    }
+}
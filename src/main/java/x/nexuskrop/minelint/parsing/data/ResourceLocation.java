@@ -18,26 +18,54 @@
 
 package x.nexuskrop.minelint.parsing.data;
 
-import org.intellij.lang.annotations.RegExp;
-
-import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CharacterTable;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxException;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.TextSpan;
 
 public class ResourceLocation {
-    @RegExp
-    private static final String NAMESPACE_PATTERN = "^[a-z0-9_\\-.]*$";
+    /**
+     * The namespace of resource locations that do not specify one.
+     */
+    public static final String DEFAULT_NAMESPACE = "minecraft";
+
+    private static final char SYNTAX_SEPARATOR = ':';
+
+    /**
+     * Returned by {@link #findSeparator(CommandSyntaxParser, TextSpan)} for invalid resource locations.
+     */
+    private static final int INVALID = -2;
 
-    @RegExp
-    private static final String VALUE_PATTERN = "^[a-z0-9_\\-./]*$";
+    private static final CharacterTable NAMESPACE_CHARACTERS = CharacterTable.builder()
+            .range('a', 'z').range('0', '9').add("_-.").build();
+    private static final CharacterTable PATH_CHARACTERS = CharacterTable.builder()
+            .add(NAMESPACE_CHARACTERS).add('/').build();
+    private static final CharacterTable RESOURCE_LOCATION_CHARACTERS = CharacterTable.builder()
+            .add(PATH_CHARACTERS).add(SYNTAX_SEPARATOR).build();
 
     private final String namespace;
     private final String path;
+    private final int hash;
 
     public ResourceLocation(String namespace, String path) {
+        verifyNamespace(namespace);
+        verifyValue(path);
+
         this.namespace = namespace;
         this.path = path;
+        this.hash = hash(namespace, 0, namespace.length(), path, 0, path.length());
+    }
 
-        verifyNamespace(namespace);
-        verifyValue(path);
+    /**
+     * Constructs a resource location that is already known to be valid.
+     */
+    ResourceLocation(String namespace, String path, int hash) {
+        this.namespace = namespace;
+        this.path = path;
+        this.hash = hash;
     }
 
     public String getNamespace() {
@@ -50,18 +78,203 @@ public class ResourceLocation {
 
     @Override
     public String toString() {
-        return String.format("%s:%s", namespace, path);
+        return namespace + SYNTAX_SEPARATOR + path;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        return obj instanceof ResourceLocation other
+                && hash == other.hash
+                && namespace.equals(other.namespace)
+                && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Computes the hash of a resource location from regions of characters, as {@link #hashCode()} would.
+     */
+    static int hash(CharSequence namespace, int namespaceStart, int namespaceEnd,
+                    CharSequence path, int pathStart, int pathEnd) {
+        var hash = 0;
+
+        for (int i = namespaceStart; i < namespaceEnd; i++) {
+            hash = 31 * hash + namespace.charAt(i);
+        }
+
+        hash = 31 * hash + SYNTAX_SEPARATOR;
+
+        for (int i = pathStart; i < pathEnd; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+
+        return hash;
+    }
+
+    public static boolean isAllowedInNamespace(final int c) {
+        return NAMESPACE_CHARACTERS.contains(c);
+    }
+
+    public static boolean isAllowedInPath(final int c) {
+        return PATH_CHARACTERS.contains(c);
+    }
+
+    /**
+     * Determines whether the specified character can appear in the text form of a resource location.
+     * @param c The character.
+     * @return {@code true} if allowed; otherwise, {@code false}.
+     */
+    public static boolean isAllowedInResourceLocation(final int c) {
+        return RESOURCE_LOCATION_CHARACTERS.contains(c);
+    }
+
+    private static boolean isValid(CharSequence text, int start, int end, boolean path) {
+        return (path ? PATH_CHARACTERS : NAMESPACE_CHARACTERS).skip(text, start, end) == end;
+    }
+
+    public static boolean isValidNamespace(@NotNull CharSequence namespace) {
+        return isValid(namespace, 0, namespace.length(), false);
+    }
+
+    public static boolean isValidPath(@NotNull CharSequence path) {
+        return isValid(path, 0, path.length(), true);
+    }
+
+    /**
+     * Determines whether the specified text is a resource location, in the form of {@code namespace:path} or
+     * {@code path}.
+     * @param text The text.
+     * @return {@code true} if valid; otherwise, {@code false}.
+     */
+    public static boolean isValid(@NotNull CharSequence text) {
+        var length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == SYNTAX_SEPARATOR) {
+                return isValid(text, 0, i, false) && isValid(text, i + 1, length, true);
+            }
+        }
+
+        return isValid(text, 0, length, true);
     }
 
     private static void verifyNamespace(String namespace) {
-        if (!Pattern.matches(NAMESPACE_PATTERN, namespace)) {
+        if (!isValidNamespace(namespace)) {
             throw new IllegalArgumentException(String.format("Namespace %s is invalid", namespace));
         }
     }
 
     private static void verifyValue(String value) {
-        if (!Pattern.matches(VALUE_PATTERN, value)) {
+        if (!isValidPath(value)) {
             throw new IllegalArgumentException(String.format("Path %s is invalid", value));
         }
     }
+
+    /**
+     * Reads a resource location in the form of {@code namespace:path} or {@code path} at the cursor of the specified
+     * parser. A missing or empty namespace defaults to {@value #DEFAULT_NAMESPACE}. Reading stops at the first
+     * character that cannot appear in a resource location; no whitespace is skipped.
+     * @param parser The parser.
+     * @param pool The pool to intern the resource location with, or {@code null} to always create a new instance.
+     * @return The resource location.
+     * @throws CommandSyntaxException There is no valid resource location at the cursor.
+     */
+    public static @NotNull ResourceLocation parse(@NotNull CommandSyntaxParser parser, @Nullable ResourceLocationPool pool)
+            throws CommandSyntaxException {
+        var result = tryParse(parser, pool);
+
+        if (result == null) {
+            throw parser.toException();
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads a resource location at the cursor of the specified parser without throwing. See
+     * {@link #parse(CommandSyntaxParser, ResourceLocationPool)}.
+     * @param parser The parser.
+     * @param pool The pool to intern the resource location with, or {@code null} to always create a new instance.
+     * @return The resource location, or {@code null} if there is no valid resource location at the cursor, with the
+     *         failure recorded in the parser. The cursor is then at the start of the resource location.
+     */
+    public static @Nullable ResourceLocation tryParse(@NotNull CommandSyntaxParser parser,
+                                                      @Nullable ResourceLocationPool pool) {
+        var token = parser.readSpanWhile(RESOURCE_LOCATION_CHARACTERS);
+        var separator = findSeparator(parser, token);
+
+        if (separator == INVALID) {
+            return null;
+        }
+
+        if (pool != null) {
+            return pool.intern(token, separator);
+        }
+
+        var text = token.toString();
+
+        // An empty namespace, such as in ":foo", is the default namespace as well
+        if (separator <= 0) {
+            return new ResourceLocation(DEFAULT_NAMESPACE, text.substring(separator + 1),
+                    hash(DEFAULT_NAMESPACE, 0, DEFAULT_NAMESPACE.length(), text, separator + 1, text.length()));
+        }
+
+        return new ResourceLocation(text.substring(0, separator), text.substring(separator + 1),
+                hash(text, 0, separator, text, separator + 1, text.length()));
+    }
+
+    /**
+     * Reads and validates a resource location at the cursor of the specified parser, without creating it.
+     * @param parser The parser.
+     * @return {@code true} if valid; otherwise, {@code false}, with the failure recorded in the parser.
+     */
+    public static boolean tryValidate(@NotNull CommandSyntaxParser parser) {
+        var token = parser.readSpanWhile(RESOURCE_LOCATION_CHARACTERS);
+        return findSeparator(parser, token) != INVALID;
+    }
+
+    /**
+     * Validates a token read from the parser.
+     * @return The index of the separator, {@code -1} if there is none, or {@link #INVALID} if the token is not valid.
+     */
+    private static int findSeparator(CommandSyntaxParser parser, TextSpan token) {
+        var length = token.length();
+
+        if (length == 0) {
+            parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "resource location");
+            return INVALID;
+        }
+
+        var separator = -1;
+
+        for (int i = 0; i < length; i++) {
+            if (token.charAt(i) == SYNTAX_SEPARATOR) {
+                if (separator >= 0) {
+                    return invalid(parser, token);
+                }
+
+                separator = i;
+            }
+        }
+
+        // Every character is already allowed in a path, only the namespace needs to be checked further
+        if (separator >= 0 && !isValid(token, 0, separator, false)) {
+            return invalid(parser, token);
+        }
+
+        return separator;
+    }
+
+    private static int invalid(CommandSyntaxParser parser, TextSpan token) {
+        parser.setCursor(token.start());
+        parser.fail(CommandSyntaxError.INVALID_RESOURCE_LOCATION, token.toString());
+        return INVALID;
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of resource locations, so that the same resource location read many times shares one instance.
+ * <p>
+ * The pool is a fixed-size table where each slot holds the resource location last interned into it. Looking up is
+ * lock-free and creates nothing on a hit; on a miss, the new instance replaces whatever was in the slot. The pool thus
+ * never grows beyond its capacity, and may hand out distinct, but equal, instances for resource locations that
+ * collide.
+ */
+public final class ResourceLocationPool {
+    private final AtomicReferenceArray<ResourceLocation> slots;
+    private final int mask;
+
+    /**
+     * Constructs a new pool.
+     * @param capacity The amount of slots, rounded up to a power of two.
+     */
+    public ResourceLocationPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        var size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Interns the resource location in the specified text.
+     * @param text The text, already validated.
+     * @param separator The index of the separator in the text, or {@code -1} if the text has no namespace. A
+     *                  separator at {@code 0} is an empty namespace, which is the default namespace as well.
+     * @return The resource location.
+     */
+    @NotNull ResourceLocation intern(@NotNull CharSequence text, int separator) {
+        var length = text.length();
+        var pathStart = separator + 1;
+        CharSequence namespace = separator <= 0 ? ResourceLocation.DEFAULT_NAMESPACE : text;
+        var namespaceEnd = separator <= 0 ? ResourceLocation.DEFAULT_NAMESPACE.length() : separator;
+
+        var hash = ResourceLocation.hash(namespace, 0, namespaceEnd, text, pathStart, length);
+        var index = (hash ^ (hash >>> 16)) & mask;
+        var existing = slots.get(index);
+
+        if (existing != null && existing.hashCode() == hash
+                && regionEquals(existing.getNamespace(), namespace, 0, namespaceEnd)
+                && regionEquals(existing.getPath(), text, pathStart, length)) {
+            return existing;
+        }
+
+        var created = new ResourceLocation(
+                separator <= 0 ? ResourceLocation.DEFAULT_NAMESPACE : text.subSequence(0, separator).toString(),
+                text.subSequence(pathStart, length).toString(),
+                hash);
+        slots.set(index, created);
+        return created;
+    }
+
+    /**
+     * Interns the specified resource location.
+     * @param location The resource location.
+     * @return The pooled instance equal to the resource location.
+     */
+    public @NotNull ResourceLocation intern(@NotNull ResourceLocation location) {
+        var hash = location.hashCode();
+        var index = (hash ^ (hash >>> 16)) & mask;
+        var existing = slots.get(index);
+
+        if (location.equals(existing)) {
+            return existing;
+        }
+
+        slots.set(index, location);
+        return location;
+    }
+
+    private static boolean regionEquals(String string, CharSequence text, int start, int end) {
+        if (string.length() != end - start) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (string.charAt(i - start) != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
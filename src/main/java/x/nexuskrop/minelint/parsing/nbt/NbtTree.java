@@ -0,0 +1,360 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.nbt;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A compact, immutable tree of a parsed SNBT value.
+ * <p>
+ * Tags are numbered in the order they appear in the text, the root being {@code 0}, and stored in a few parallel
+ * arrays rather than as objects. Keys and strings are kept as positions in a copy of the source text, and only
+ * turned into {@link String}s when asked for. The children of a list, compound or array start right after it, and
+ * are chained by {@link #nextSibling(int)}.
+ */
+public final class NbtTree {
+    private static final byte FLAG_KEY_ESCAPED = 1;
+    private static final byte FLAG_VALUE_ESCAPED = 2;
+    private static final byte FLAG_VALUE_QUOTED = 4;
+    private static final NbtType[] TYPES = NbtType.values();
+    private static final char SYNTAX_ESCAPE = '\\';
+
+    private final String source;
+    private final int size;
+    private final byte[] types;
+    private final byte[] flags;
+    private final int[] next;
+    private final int[] childCounts;
+    private final int[] keyStarts;
+    private final int[] keyEnds;
+    private final int[] starts;
+    private final int[] ends;
+    private final long[] values;
+
+    private NbtTree(String source, Builder builder) {
+        this.source = source;
+        this.size = builder.size;
+        this.types = Arrays.copyOf(builder.types, size);
+        this.flags = Arrays.copyOf(builder.flags, size);
+        this.next = Arrays.copyOf(builder.next, size);
+        this.childCounts = Arrays.copyOf(builder.childCounts, size);
+        this.keyStarts = Arrays.copyOf(builder.keyStarts, size);
+        this.keyEnds = Arrays.copyOf(builder.keyEnds, size);
+        this.starts = Arrays.copyOf(builder.starts, size);
+        this.ends = Arrays.copyOf(builder.ends, size);
+        this.values = Arrays.copyOf(builder.values, size);
+    }
+
+    /**
+     * Gets the amount of tags in this tree, the root included.
+     * @return The amount of tags.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the root tag.
+     * @return The root tag.
+     */
+    public int root() {
+        return 0;
+    }
+
+    public @NotNull NbtType type(int tag) {
+        return TYPES[types[tag]];
+    }
+
+    /**
+     * Gets the amount of children of a list, compound or array.
+     * @param tag The tag.
+     * @return The amount of children, or {@code 0} if the tag is not a list, compound nor array.
+     */
+    public int childCount(int tag) {
+        return childCounts[tag];
+    }
+
+    /**
+     * Gets the first child of a list, compound or array.
+     * @param tag The tag.
+     * @return The first child, or {@code -1} if there are no children.
+     */
+    public int firstChild(int tag) {
+        return childCounts[tag] == 0 ? -1 : tag + 1;
+    }
+
+    /**
+     * Gets the next child of the parent of a tag.
+     * @param tag The tag.
+     * @return The next child, or {@code -1} if the tag is the last child.
+     */
+    public int nextSibling(int tag) {
+        return next[tag];
+    }
+
+    /**
+     * Gets the key of an entry of a compound.
+     * @param tag The tag.
+     * @return The key, or {@code null} if the tag is not in a compound.
+     */
+    public @Nullable String key(int tag) {
+        return keyStarts[tag] < 0 ? null : unescape(keyStarts[tag], keyEnds[tag],
+                (flags[tag] & FLAG_KEY_ESCAPED) != 0);
+    }
+
+    /**
+     * Gets the value of a string tag.
+     * @param tag The tag.
+     * @return The value, without quotes and escapes.
+     * @throws IllegalArgumentException The tag is not a string.
+     */
+    public @NotNull String stringValue(int tag) {
+        checkType(tag, NbtType.STRING);
+        return unescape(starts[tag], ends[tag], (flags[tag] & FLAG_VALUE_ESCAPED) != 0);
+    }
+
+    /**
+     * Gets the value of a byte, short, int or long tag. Booleans are bytes of {@code 0} or {@code 1}.
+     * @param tag The tag.
+     * @return The value.
+     * @throws IllegalArgumentException The tag is not an integer.
+     */
+    public long longValue(int tag) {
+        if (!type(tag).isInteger()) {
+            throw new IllegalArgumentException(String.format("Tag %d is a %s, not an integer", tag, type(tag)));
+        }
+
+        return values[tag];
+    }
+
+    /**
+     * Gets the value of a float or double tag.
+     * @param tag The tag.
+     * @return The value.
+     * @throws IllegalArgumentException The tag is not a decimal number.
+     */
+    public double doubleValue(int tag) {
+        if (!type(tag).isDecimal()) {
+            throw new IllegalArgumentException(String.format("Tag %d is a %s, not a decimal", tag, type(tag)));
+        }
+
+        return Double.longBitsToDouble(values[tag]);
+    }
+
+    /**
+     * Finds the entry of a compound with the specified key.
+     * @param compound The compound.
+     * @param key The key.
+     * @return The entry, or {@code -1} if there is none.
+     * @throws IllegalArgumentException The tag is not a compound.
+     */
+    public int find(int compound, @NotNull String key) {
+        checkType(compound, NbtType.COMPOUND);
+
+        for (var child = firstChild(compound); child != -1; child = next[child]) {
+            var start = keyStarts[child];
+            var length = keyEnds[child] - start;
+
+            if ((flags[child] & FLAG_KEY_ESCAPED) != 0) {
+                if (key.equals(key(child))) {
+                    return child;
+                }
+            } else if (length == key.length() && source.regionMatches(start, key, 0, length)) {
+                return child;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the text of a tag as it was written, with quotes and escapes.
+     * @param tag The tag.
+     * @return The text.
+     */
+    public @NotNull String source(int tag) {
+        var start = starts[tag];
+        var end = ends[tag];
+
+        // The span of quoted strings excludes the quotes
+        if ((flags[tag] & FLAG_VALUE_QUOTED) != 0) {
+            return source.substring(start - 1, end + 1);
+        }
+
+        return source.substring(start, end);
+    }
+
+    private void checkType(int tag, NbtType type) {
+        if (type(tag) != type) {
+            throw new IllegalArgumentException(String.format("Tag %d is a %s, not a %s", tag, type(tag), type));
+        }
+    }
+
+    private String unescape(int start, int end, boolean escaped) {
+        if (!escaped) {
+            return source.substring(start, end);
+        }
+
+        var builder = new StringBuilder(end - start);
+
+        for (int i = start; i < end; i++) {
+            var ch = source.charAt(i);
+
+            if (ch == SYNTAX_ESCAPE) {
+                ch = source.charAt(++i);
+            }
+
+            builder.append(ch);
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return source(0);
+    }
+
+    /**
+     * Collects the tags of a tree as they are parsed. Positions are relative to the text of the parser, and moved
+     * to the copied source when the tree is built.
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int size;
+        private byte[] types = new byte[INITIAL_CAPACITY];
+        private byte[] flags = new byte[INITIAL_CAPACITY];
+        private int[] next = new int[INITIAL_CAPACITY];
+        private int[] childCounts = new int[INITIAL_CAPACITY];
+        private int[] keyStarts = new int[INITIAL_CAPACITY];
+        private int[] keyEnds = new int[INITIAL_CAPACITY];
+        private int[] starts = new int[INITIAL_CAPACITY];
+        private int[] ends = new int[INITIAL_CAPACITY];
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        // The open containers, and the last child added to each of them
+        private int[] open = new int[INITIAL_CAPACITY];
+        private int[] lastChild = new int[INITIAL_CAPACITY];
+        private int depth;
+
+        /**
+         * Adds a tag to the innermost open container.
+         * @param keyStart The start of the key, or {@code -1} if the tag is not in a compound.
+         * @return The tag.
+         */
+        int add(NbtType type, int keyStart, int keyEnd, boolean keyEscaped, int start, int end) {
+            if (size == types.length) {
+                grow();
+            }
+
+            var tag = size++;
+            types[tag] = (byte) type.ordinal();
+            flags[tag] = keyEscaped ? FLAG_KEY_ESCAPED : 0;
+            next[tag] = -1;
+            childCounts[tag] = 0;
+            keyStarts[tag] = keyStart;
+            keyEnds[tag] = keyEnd;
+            starts[tag] = start;
+            ends[tag] = end;
+            values[tag] = 0;
+
+            if (depth > 0) {
+                var parent = open[depth - 1];
+                var previous = lastChild[depth - 1];
+
+                if (previous != -1) {
+                    next[previous] = tag;
+                }
+
+                lastChild[depth - 1] = tag;
+                childCounts[parent]++;
+            }
+
+            return tag;
+        }
+
+        /**
+         * Makes the specified tag the innermost open container.
+         */
+        void push(int tag) {
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+                lastChild = Arrays.copyOf(lastChild, depth * 2);
+            }
+
+            open[depth] = tag;
+            lastChild[depth] = -1;
+            depth++;
+        }
+
+        /**
+         * Closes the innermost open container.
+         * @param end The end of the container, exclusive.
+         */
+        void pop(int end) {
+            depth--;
+            ends[open[depth]] = end;
+        }
+
+        /**
+         * Sets the value of a number, as a {@code long} or as the bits of a {@code double}.
+         */
+        void setValue(int tag, long value) {
+            values[tag] = value;
+        }
+
+        /**
+         * Marks a string as quoted, in which case its span excludes the quotes.
+         */
+        void setQuoted(int tag, boolean escaped) {
+            flags[tag] |= FLAG_VALUE_QUOTED | (escaped ? FLAG_VALUE_ESCAPED : 0);
+        }
+
+        NbtTree build(String source, int base) {
+            for (int i = 0; i < size; i++) {
+                starts[i] -= base;
+                ends[i] -= base;
+
+                if (keyStarts[i] >= 0) {
+                    keyStarts[i] -= base;
+                    keyEnds[i] -= base;
+                }
+            }
+
+            return new NbtTree(source, this);
+        }
+
+        private void grow() {
+            var capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            next = Arrays.copyOf(next, capacity);
+            childCounts = Arrays.copyOf(childCounts, capacity);
+            keyStarts = Arrays.copyOf(keyStarts, capacity);
+            keyEnds = Arrays.copyOf(keyEnds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.nbt;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The types of NBT tags, by their binary ids.
+ */
+public enum NbtType {
+    BYTE(1, "byte"),
+    SHORT(2, "short"),
+    INT(3, "int"),
+    LONG(4, "long"),
+    FLOAT(5, "float"),
+    DOUBLE(6, "double"),
+    BYTE_ARRAY(7, "byte array"),
+    STRING(8, "string"),
+    LIST(9, "list"),
+    COMPOUND(10, "compound"),
+    INT_ARRAY(11, "int array"),
+    LONG_ARRAY(12, "long array");
+
+    private static final NbtType[] BY_ID = new NbtType[13];
+
+    static {
+        for (var type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    private final int id;
+    private final String label;
+
+    NbtType(int id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    /**
+     * Gets the type with the specified binary id.
+     * @param id The id.
+     * @return The type, or {@code null} if there is none, such as for the end tag.
+     */
+    public static @Nullable NbtType of(int id) {
+        return id <= 0 || id >= BY_ID.length ? null : BY_ID[id];
+    }
+
+    public int id() {
+        return id;
+    }
+
+    /**
+     * Determines whether tags of this type hold an integer.
+     * @return {@code true} for bytes, shorts, ints and longs.
+     */
+    public boolean isInteger() {
+        return this == BYTE || this == SHORT || this == INT || this == LONG;
+    }
+
+    /**
+     * Determines whether tags of this type hold a decimal number.
+     * @return {@code true} for floats and doubles.
+     */
+    public boolean isDecimal() {
+        return this == FLOAT || this == DOUBLE;
+    }
+
+    /**
+     * Gets the type of the elements of arrays of this type.
+     * @return The element type, or {@code null} if this is not an array type.
+     */
+    public @Nullable NbtType elementType() {
+        return switch (this) {
+            case BYTE_ARRAY -> BYTE;
+            case INT_ARRAY -> INT;
+            case LONG_ARRAY -> LONG;
+            default -> null;
+        };
+    }
+
+    /**
+     * Gets the name of this type, as used in error messages.
+     * @return The name.
+     */
+    public @NotNull String label() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
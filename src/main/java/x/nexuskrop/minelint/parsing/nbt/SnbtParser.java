@@ -0,0 +1,622 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.nbt;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CharacterTable;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.TextSpan;
+
+/**
+ * Parses stringified NBT (SNBT) at the cursor of a {@link CommandSyntaxParser}, following the grammar of the game:
+ * compounds, lists of a single element type, typed arrays ({@code [B;}, {@code [I;} and {@code [L;}), quoted and
+ * unquoted strings, and numbers with their type suffixes.
+ * <p>
+ * Validation is a single pass over the text that builds nothing; numbers are range-checked in place, and unquoted
+ * values are told apart without regular expressions. {@link #tryParse(CommandSyntaxParser)} runs the same pass, and
+ * additionally records the tags in a compact {@link NbtTree}.
+ * <p>
+ * Like the game, an unquoted value that looks like a number but is out of range, such as {@code 300b}, is a string.
+ * Parsers hold no state, and can be shared between threads.
+ */
+public final class SnbtParser {
+    /**
+     * The deepest nesting of compounds, lists and arrays the game accepts.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 512;
+
+    private static final char SYNTAX_COMPOUND_OPEN = '{';
+    private static final char SYNTAX_COMPOUND_CLOSE = '}';
+    private static final char SYNTAX_LIST_OPEN = '[';
+    private static final char SYNTAX_LIST_CLOSE = ']';
+    private static final char SYNTAX_SEPARATOR = ',';
+    private static final char SYNTAX_KEY_VALUE = ':';
+    private static final char SYNTAX_ARRAY_TYPE = ';';
+    private static final char SYNTAX_DOUBLE_QUOTE = '"';
+    private static final char SYNTAX_SINGLE_QUOTE = '\'';
+
+    private static final String SYNTAX_TRUE = "true";
+    private static final String SYNTAX_FALSE = "false";
+
+    private static final String VALUE = "value";
+    private static final String KEY = "key";
+
+    private static final CharacterTable UNQUOTED = CharacterTable.UNQUOTED_STRING;
+
+    private final int maxDepth;
+
+    /**
+     * Constructs a new parser with the {@linkplain #DEFAULT_MAX_DEPTH default depth limit}.
+     */
+    public SnbtParser() {
+        this(DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Constructs a new parser.
+     * @param maxDepth The deepest nesting of compounds, lists and arrays allowed.
+     */
+    public SnbtParser(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Excepted a depth limit of at least 1");
+        }
+
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Validates the value at the cursor. Leading whitespace is skipped, and on success the cursor is right after the
+     * value.
+     * @param parser The parser.
+     * @return The type of the value; or {@code null} if invalid, with the failure recorded in the parser.
+     */
+    public @Nullable NbtType tryValidate(@NotNull CommandSyntaxParser parser) {
+        return readValue(parser, null, -1, -1, false, 0);
+    }
+
+    /**
+     * Validates the compound at the cursor. On success, the cursor is right after the compound.
+     * @param parser The parser.
+     * @return {@code true} if valid; otherwise, {@code false}, with the failure recorded in the parser.
+     */
+    public boolean tryValidateCompound(@NotNull CommandSyntaxParser parser) {
+        return expectCompound(parser) && readCompound(parser, null, -1, -1, false, 0);
+    }
+
+    /**
+     * Parses the value at the cursor into a tree. Leading whitespace is skipped, and on success the cursor is right
+     * after the value.
+     * @param parser The parser.
+     * @return The tree; or {@code null} if invalid, with the failure recorded in the parser.
+     */
+    public @Nullable NbtTree tryParse(@NotNull CommandSyntaxParser parser) {
+        skipWhitespace(parser);
+
+        var builder = new NbtTree.Builder();
+        var start = parser.getCursor();
+
+        if (readValue(parser, builder, -1, -1, false, 0) == null) {
+            return null;
+        }
+
+        return builder.build(parser.spanOf(start, parser.getCursor()).toString(), start);
+    }
+
+    /**
+     * Parses the compound at the cursor into a tree. On success, the cursor is right after the compound.
+     * @param parser The parser.
+     * @return The tree; or {@code null} if invalid, with the failure recorded in the parser.
+     */
+    public @Nullable NbtTree tryParseCompound(@NotNull CommandSyntaxParser parser) {
+        var builder = new NbtTree.Builder();
+        var start = parser.getCursor();
+
+        if (!expectCompound(parser) || !readCompound(parser, builder, -1, -1, false, 0)) {
+            return null;
+        }
+
+        return builder.build(parser.spanOf(start, parser.getCursor()).toString(), start);
+    }
+
+    private static boolean expectCompound(CommandSyntaxParser parser) {
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "compound");
+        }
+
+        if (parser.peek(0) != SYNTAX_COMPOUND_OPEN) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "compound", parser.peek(0));
+        }
+
+        return true;
+    }
+
+    private NbtType readValue(CommandSyntaxParser parser, NbtTree.Builder builder, int keyStart, int keyEnd,
+                              boolean keyEscaped, int depth) {
+        skipWhitespace(parser);
+
+        if (parser.isEnd()) {
+            parser.fail(CommandSyntaxError.EXCEPTED_VALUE, VALUE);
+            return null;
+        }
+
+        var ch = parser.peek(0);
+
+        if (ch == SYNTAX_COMPOUND_OPEN) {
+            return readCompound(parser, builder, keyStart, keyEnd, keyEscaped, depth) ? NbtType.COMPOUND : null;
+        }
+
+        if (ch == SYNTAX_LIST_OPEN) {
+            // Like the game, any character other than a quote followed by a semicolon starts an array
+            if (!parser.isEnd(2) && !isQuote(parser.peek(1)) && parser.peek(2) == SYNTAX_ARRAY_TYPE) {
+                return readArray(parser, builder, keyStart, keyEnd, keyEscaped, depth);
+            }
+
+            return readList(parser, builder, keyStart, keyEnd, keyEscaped, depth) ? NbtType.LIST : null;
+        }
+
+        if (isQuote(ch)) {
+            var span = parser.tryReadEmbeddedQuotedSpan();
+
+            if (span == null) {
+                return null;
+            }
+
+            if (builder != null) {
+                var tag = builder.add(NbtType.STRING, keyStart, keyEnd, keyEscaped, span.start(), span.end());
+                builder.setQuoted(tag, span.hasEscapes());
+            }
+
+            return NbtType.STRING;
+        }
+
+        return readPrimitive(parser, builder, keyStart, keyEnd, keyEscaped);
+    }
+
+    private boolean readCompound(CommandSyntaxParser parser, NbtTree.Builder builder, int keyStart, int keyEnd,
+                                 boolean keyEscaped, int depth) {
+        if (depth >= maxDepth) {
+            return parser.fail(CommandSyntaxError.NBT_TOO_DEEP, maxDepth);
+        }
+
+        var start = parser.getCursor();
+        advance(parser, 1);
+
+        if (builder != null) {
+            builder.push(builder.add(NbtType.COMPOUND, keyStart, keyEnd, keyEscaped, start, start));
+        }
+
+        skipWhitespace(parser);
+
+        while (!parser.isEnd() && parser.peek(0) != SYNTAX_COMPOUND_CLOSE) {
+            var entryKeyStart = -1;
+            var entryKeyEnd = -1;
+            var entryKeyEscaped = false;
+
+            if (isQuote(parser.peek(0))) {
+                var key = parser.tryReadEmbeddedQuotedSpan();
+
+                if (key == null) {
+                    return false;
+                }
+
+                entryKeyStart = key.start();
+                entryKeyEnd = key.end();
+                entryKeyEscaped = key.hasEscapes();
+            } else {
+                var key = parser.readSpanWhile(UNQUOTED);
+
+                if (key.length() == 0) {
+                    return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, KEY);
+                }
+
+                entryKeyStart = key.start();
+                entryKeyEnd = key.end();
+            }
+
+            if (!expect(parser, SYNTAX_KEY_VALUE)
+                    || readValue(parser, builder, entryKeyStart, entryKeyEnd, entryKeyEscaped, depth + 1) == null) {
+                return false;
+            }
+
+            if (!trySkipSeparator(parser)) {
+                break;
+            }
+
+            if (parser.isEnd()) {
+                return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, KEY);
+            }
+        }
+
+        return close(parser, builder, SYNTAX_COMPOUND_CLOSE);
+    }
+
+    private boolean readList(CommandSyntaxParser parser, NbtTree.Builder builder, int keyStart, int keyEnd,
+                             boolean keyEscaped, int depth) {
+        if (depth >= maxDepth) {
+            return parser.fail(CommandSyntaxError.NBT_TOO_DEEP, maxDepth);
+        }
+
+        var start = parser.getCursor();
+        advance(parser, 1);
+
+        if (builder != null) {
+            builder.push(builder.add(NbtType.LIST, keyStart, keyEnd, keyEscaped, start, start));
+        }
+
+        skipWhitespace(parser);
+
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, VALUE);
+        }
+
+        NbtType elementType = null;
+
+        while (parser.peek(0) != SYNTAX_LIST_CLOSE) {
+            var elementStart = parser.getCursor();
+            var type = readValue(parser, builder, -1, -1, false, depth + 1);
+
+            if (type == null) {
+                return false;
+            }
+
+            if (elementType == null) {
+                elementType = type;
+            } else if (type != elementType) {
+                parser.setCursor(elementStart);
+                return parser.fail(CommandSyntaxError.NBT_MIXED_LIST, type, elementType);
+            }
+
+            if (!trySkipSeparator(parser)) {
+                break;
+            }
+
+            if (parser.isEnd()) {
+                return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, VALUE);
+            }
+        }
+
+        return close(parser, builder, SYNTAX_LIST_CLOSE);
+    }
+
+    private NbtType readArray(CommandSyntaxParser parser, NbtTree.Builder builder, int keyStart, int keyEnd,
+                              boolean keyEscaped, int depth) {
+        if (depth >= maxDepth) {
+            parser.fail(CommandSyntaxError.NBT_TOO_DEEP, maxDepth);
+            return null;
+        }
+
+        var start = parser.getCursor();
+        var arrayType = switch (parser.peek(1)) {
+            case 'B' -> NbtType.BYTE_ARRAY;
+            case 'I' -> NbtType.INT_ARRAY;
+            case 'L' -> NbtType.LONG_ARRAY;
+            default -> null;
+        };
+
+        if (arrayType == null) {
+            advance(parser, 1);
+            parser.fail(CommandSyntaxError.NBT_INVALID_ARRAY, parser.peek(0));
+            return null;
+        }
+
+        advance(parser, 3);
+
+        if (builder != null) {
+            builder.push(builder.add(arrayType, keyStart, keyEnd, keyEscaped, start, start));
+        }
+
+        skipWhitespace(parser);
+
+        if (parser.isEnd()) {
+            parser.fail(CommandSyntaxError.EXCEPTED_VALUE, VALUE);
+            return null;
+        }
+
+        var elementType = arrayType.elementType();
+
+        while (parser.peek(0) != SYNTAX_LIST_CLOSE) {
+            var elementStart = parser.getCursor();
+            var type = readValue(parser, builder, -1, -1, false, depth + 1);
+
+            if (type == null) {
+                return null;
+            }
+
+            if (type != elementType) {
+                parser.setCursor(elementStart);
+                parser.fail(CommandSyntaxError.NBT_INVALID_ARRAY_ELEMENT, type, arrayType);
+                return null;
+            }
+
+            if (!trySkipSeparator(parser)) {
+                break;
+            }
+
+            if (parser.isEnd()) {
+                parser.fail(CommandSyntaxError.EXCEPTED_VALUE, VALUE);
+                return null;
+            }
+        }
+
+        return close(parser, builder, SYNTAX_LIST_CLOSE) ? arrayType : null;
+    }
+
+    private static boolean close(CommandSyntaxParser parser, NbtTree.Builder builder, char close) {
+        if (!expect(parser, close)) {
+            return false;
+        }
+
+        if (builder != null) {
+            builder.pop(parser.getCursor());
+        }
+
+        return true;
+    }
+
+    private static NbtType readPrimitive(CommandSyntaxParser parser, NbtTree.Builder builder, int keyStart,
+                                         int keyEnd, boolean keyEscaped) {
+        var token = parser.readSpanWhile(UNQUOTED);
+        var start = token.start();
+        var end = token.end();
+
+        if (start == end) {
+            parser.fail(CommandSyntaxError.EXCEPTED_VALUE, VALUE);
+            return null;
+        }
+
+        // Booleans are the only bytes without a suffix
+        var bool = Character.toLowerCase(token.charAt(end - start - 1)) == 'e';
+        var truth = bool && Character.toLowerCase(token.charAt(0)) == 't';
+        var type = classify(parser, token);
+
+        if (builder != null) {
+            var tag = builder.add(type, keyStart, keyEnd, keyEscaped, start, end);
+
+            if (type == NbtType.BYTE && bool) {
+                builder.setValue(tag, truth ? 1 : 0);
+            } else if (type.isInteger()) {
+                builder.setValue(tag, parser.getLongValue());
+            } else if (type.isDecimal()) {
+                builder.setValue(tag, Double.doubleToRawLongBits(decimalValue(parser, start, end,
+                        type == NbtType.FLOAT)));
+            }
+        }
+
+        return type;
+    }
+
+    /**
+     * Tells the type of an unquoted value. Integers are left in {@link CommandSyntaxParser#getLongValue()}.
+     */
+    private static NbtType classify(CommandSyntaxParser parser, TextSpan token) {
+        var length = token.length();
+        var start = token.start();
+        var last = Character.toLowerCase(token.charAt(length - 1));
+
+        if (last >= '0' && last <= '9') {
+            if (isInteger(token, 0, length)) {
+                return parser.tryParseInteger(start, start + length, Integer.MIN_VALUE, Integer.MAX_VALUE)
+                        ? NbtType.INT : NbtType.STRING;
+            }
+
+            return isDecimal(token, 0, length, true) ? NbtType.DOUBLE : NbtType.STRING;
+        }
+
+        switch (last) {
+            case '.' -> {
+                return isDecimal(token, 0, length, true) ? NbtType.DOUBLE : NbtType.STRING;
+            }
+            case 'b' -> {
+                return isInteger(token, 0, length - 1)
+                        && parser.tryParseInteger(start, start + length - 1, Byte.MIN_VALUE, Byte.MAX_VALUE)
+                        ? NbtType.BYTE : NbtType.STRING;
+            }
+            case 's' -> {
+                return isInteger(token, 0, length - 1)
+                        && parser.tryParseInteger(start, start + length - 1, Short.MIN_VALUE, Short.MAX_VALUE)
+                        ? NbtType.SHORT : NbtType.STRING;
+            }
+            case 'l' -> {
+                return isInteger(token, 0, length - 1)
+                        && parser.tryParseInteger(start, start + length - 1, Long.MIN_VALUE, Long.MAX_VALUE)
+                        ? NbtType.LONG : NbtType.STRING;
+            }
+            case 'f' -> {
+                return isDecimal(token, 0, length - 1, false) ? NbtType.FLOAT : NbtType.STRING;
+            }
+            case 'd' -> {
+                return isDecimal(token, 0, length - 1, false) ? NbtType.DOUBLE : NbtType.STRING;
+            }
+            case 'e' -> {
+                return isBoolean(token, SYNTAX_TRUE) || isBoolean(token, SYNTAX_FALSE) ? NbtType.BYTE : NbtType.STRING;
+            }
+            default -> {
+                return NbtType.STRING;
+            }
+        }
+    }
+
+    /**
+     * Matches {@code [-+]?(0|[1-9][0-9]*)}.
+     */
+    private static boolean isInteger(TextSpan token, int from, int to) {
+        var i = from;
+
+        if (i < to && isSign(token.charAt(i))) {
+            i++;
+        }
+
+        if (i >= to) {
+            return false;
+        }
+
+        if (token.charAt(i) == '0') {
+            return i + 1 == to;
+        }
+
+        for (; i < to; i++) {
+            if (!isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Matches {@code [-+]?([0-9]+[.]?|[0-9]*[.][0-9]+)(e[-+]?[0-9]+)?}, where the dot is required if so specified.
+     */
+    private static boolean isDecimal(TextSpan token, int from, int to, boolean requireDot) {
+        var i = from;
+
+        if (i < to && isSign(token.charAt(i))) {
+            i++;
+        }
+
+        var before = 0;
+
+        while (i < to && isDigit(token.charAt(i))) {
+            i++;
+            before++;
+        }
+
+        var dot = i < to && token.charAt(i) == '.';
+        var after = 0;
+
+        if (dot) {
+            i++;
+
+            while (i < to && isDigit(token.charAt(i))) {
+                i++;
+                after++;
+            }
+        }
+
+        if (dot ? before + after == 0 : requireDot || before == 0) {
+            return false;
+        }
+
+        if (i < to && (token.charAt(i) == 'e' || token.charAt(i) == 'E')) {
+            i++;
+
+            if (i < to && isSign(token.charAt(i))) {
+                i++;
+            }
+
+            var exponent = 0;
+
+            while (i < to && isDigit(token.charAt(i))) {
+                i++;
+                exponent++;
+            }
+
+            if (exponent == 0) {
+                return false;
+            }
+        }
+
+        return i == to;
+    }
+
+    private static boolean isBoolean(TextSpan token, String value) {
+        if (token.length() != value.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(token.charAt(i)) != value.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static double decimalValue(CommandSyntaxParser parser, int start, int end, boolean single) {
+        var last = parser.spanOf(start, end).charAt(end - start - 1);
+        var numberEnd = last == 'f' || last == 'F' || last == 'd' || last == 'D' ? end - 1 : end;
+
+        if (parser.tryParseDecimal(start, numberEnd, single)) {
+            return parser.getDoubleValue();
+        }
+
+        // Only infinite values are rejected, as the number is already known to be well-formed
+        return parser.spanOf(start, numberEnd).charAt(0) == '-' ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Moves the cursor forward. Unlike {@link CommandSyntaxParser#skip(int)}, this moves onto the end of the text.
+     */
+    private static void advance(CommandSyntaxParser parser, int count) {
+        parser.setCursor(parser.getCursor() + count);
+    }
+
+    private static boolean isSign(char c) {
+        return c == '-' || c == '+';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isQuote(char c) {
+        return c == SYNTAX_DOUBLE_QUOTE || c == SYNTAX_SINGLE_QUOTE;
+    }
+
+    private static boolean expect(CommandSyntaxParser parser, char c) {
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, quote(c));
+        }
+
+        if (parser.peek(0) != c) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, quote(c), parser.peek(0));
+        }
+
+        advance(parser, 1);
+        return true;
+    }
+
+    private static String quote(char c) {
+        return "'" + c + "'";
+    }
+
+    /**
+     * Skips a separator and the whitespace around it.
+     * @return {@code true} if there was a separator.
+     */
+    private static boolean trySkipSeparator(CommandSyntaxParser parser) {
+        skipWhitespace(parser);
+
+        if (parser.isEnd() || parser.peek(0) != SYNTAX_SEPARATOR) {
+            return false;
+        }
+
+        advance(parser, 1);
+        skipWhitespace(parser);
+        return true;
+    }
+
+    private static void skipWhitespace(CommandSyntaxParser parser) {
+        while (!parser.isEnd() && Character.isWhitespace(parser.peek(0))) {
+            advance(parser, 1);
+        }
+    }
+}
@@ -0,0 +1,796 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.selector;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CharacterTable;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.TextSpan;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+import x.nexuskrop.minelint.parsing.nbt.SnbtParser;
+
+/**
+ * Parses an entity selector at the cursor of a {@link CommandSyntaxParser}, following the grammar of the game: a
+ * selector type such as {@code @e} with optional options in brackets, a player name, or a UUID.
+ * <p>
+ * Option names are resolved through a perfect hash table, and ranges such as {@code level=1..5} are parsed in place
+ * into primitives, so that parsing a selector creates no objects unless it fails. What the last selector selects is
+ * available from the accessors, such as {@link #getMaxResults()} and {@link #includesEntities()}.
+ * <p>
+ * A parser keeps the result of the last selector, and is not thread-safe.
+ */
+public final class EntitySelectorParser {
+    /**
+     * The longest name a player can have.
+     */
+    public static final int MAX_NAME_LENGTH = 16;
+
+    private static final char SYNTAX_SELECTOR = '@';
+    private static final char SYNTAX_OPTIONS_OPEN = '[';
+    private static final char SYNTAX_OPTIONS_CLOSE = ']';
+    private static final char SYNTAX_MAP_OPEN = '{';
+    private static final char SYNTAX_MAP_CLOSE = '}';
+    private static final char SYNTAX_SEPARATOR = ',';
+    private static final char SYNTAX_ASSIGN = '=';
+    private static final char SYNTAX_NEGATE = '!';
+    private static final char SYNTAX_TAG = '#';
+    private static final char SYNTAX_DOUBLE_QUOTE = '"';
+    private static final char SYNTAX_SINGLE_QUOTE = '\'';
+    private static final char SYNTAX_UUID_SEPARATOR = '-';
+    private static final int MAX_UUID_LENGTH = 36;
+    private static final int UUID_SEPARATORS = 4;
+
+    private static final String[] SORT_ORDERS = {"nearest", "furthest", "random", "arbitrary"};
+    private static final String[] GAME_MODES = {"survival", "creative", "adventure", "spectator"};
+    private static final String PLAYER = "player";
+    private static final String NAMESPACED_PLAYER = "minecraft:player";
+
+    private static final OptionTable OPTIONS = new OptionTable(SelectorOption.values());
+    private static final SnbtParser SNBT = new SnbtParser();
+    private static final CharacterTable UNQUOTED = CharacterTable.UNQUOTED_STRING;
+    private static final CharacterTable NUMBER = CharacterTable.builder()
+            .range('0', '9')
+            .add("-.")
+            .build();
+
+    private char selectorType;
+    private boolean uuid;
+    private int maxResults;
+    private boolean includesEntities;
+    private boolean currentEntity;
+    private int levelMin;
+    private int levelMax;
+    private double distanceMin;
+    private double distanceMax;
+
+    /**
+     * The options given, as masks of {@link SelectorOption#ordinal()}.
+     */
+    private int options;
+    /**
+     * The negatable options given without a negation; these cannot be given again.
+     */
+    private int positiveOptions;
+    /**
+     * The negatable options given with a negation.
+     */
+    private int negatedOptions;
+
+    private double rangeMin;
+    private double rangeMax;
+
+    /**
+     * Constructs a new parser.
+     */
+    public EntitySelectorParser() {
+        reset();
+    }
+
+    /**
+     * Parses the selector, name or UUID at the cursor. On success, the cursor is right after it.
+     * @param parser The parser.
+     * @return {@code true} if valid; otherwise, {@code false}, with the failure recorded in the parser.
+     */
+    public boolean tryParse(@NotNull CommandSyntaxParser parser) {
+        reset();
+
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "entity selector");
+        }
+
+        if (parser.peek(0) == SYNTAX_SELECTOR) {
+            return readSelector(parser);
+        }
+
+        return readNameOrUuid(parser);
+    }
+
+    /**
+     * Gets the type of the last selector, such as {@code e} for {@code @e}.
+     * @return The type, or {@code '\0'} if the last selector was a name or UUID.
+     */
+    public char getSelectorType() {
+        return selectorType;
+    }
+
+    /**
+     * Determines whether the last selector was a UUID.
+     * @return {@code true} if a UUID; otherwise, {@code false}.
+     */
+    public boolean isUuid() {
+        return uuid;
+    }
+
+    /**
+     * Gets the most entities the last selector can select.
+     * @return The number of entities, or {@link Integer#MAX_VALUE} if unlimited.
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Determines whether the last selector can select entities that are not players.
+     * @return {@code true} if it can; otherwise, {@code false}.
+     */
+    public boolean includesEntities() {
+        return includesEntities;
+    }
+
+    /**
+     * Determines whether the last selector selects the entity running the command, that is, {@code @s}.
+     * @return {@code true} if it does; otherwise, {@code false}.
+     */
+    public boolean isCurrentEntity() {
+        return currentEntity;
+    }
+
+    /**
+     * Gets the lowest experience level selected by the last selector.
+     * @return The level.
+     */
+    public int getLevelMin() {
+        return levelMin;
+    }
+
+    /**
+     * Gets the highest experience level selected by the last selector.
+     * @return The level, or {@link Integer#MAX_VALUE} if unbounded.
+     */
+    public int getLevelMax() {
+        return levelMax;
+    }
+
+    /**
+     * Gets the shortest distance selected by the last selector.
+     * @return The distance.
+     */
+    public double getDistanceMin() {
+        return distanceMin;
+    }
+
+    /**
+     * Gets the longest distance selected by the last selector.
+     * @return The distance, or {@link Double#POSITIVE_INFINITY} if unbounded.
+     */
+    public double getDistanceMax() {
+        return distanceMax;
+    }
+
+    /**
+     * Determines whether the last selector has the specified option.
+     * @param option The option.
+     * @return {@code true} if it has; otherwise, {@code false}.
+     */
+    public boolean hasOption(@NotNull SelectorOption option) {
+        return (options & option.mask()) != 0;
+    }
+
+    private void reset() {
+        selectorType = '\0';
+        uuid = false;
+        maxResults = Integer.MAX_VALUE;
+        includesEntities = true;
+        currentEntity = false;
+        levelMin = 0;
+        levelMax = Integer.MAX_VALUE;
+        distanceMin = 0;
+        distanceMax = Double.POSITIVE_INFINITY;
+        options = 0;
+        positiveOptions = 0;
+        negatedOptions = 0;
+    }
+
+    private boolean readSelector(CommandSyntaxParser parser) {
+        var start = parser.getCursor();
+
+        if (parser.isEnd(1)) {
+            advance(parser, 1);
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "selector type");
+        }
+
+        var type = parser.peek(1);
+
+        switch (type) {
+            case 'p', 'r' -> {
+                maxResults = 1;
+                includesEntities = false;
+                positiveOptions = SelectorOption.TYPE.mask();
+            }
+            case 'a' -> {
+                includesEntities = false;
+                positiveOptions = SelectorOption.TYPE.mask();
+            }
+            case 's' -> {
+                maxResults = 1;
+                currentEntity = true;
+            }
+            case 'n' -> maxResults = 1;
+            case 'e' -> {
+                // Selects every entity, which is the default
+            }
+            default -> {
+                return parser.fail(CommandSyntaxError.SELECTOR_UNKNOWN_TYPE, parser.spanOf(start, start + 2).toString());
+            }
+        }
+
+        selectorType = type;
+        advance(parser, 2);
+
+        if (!parser.isEnd() && parser.peek(0) == SYNTAX_OPTIONS_OPEN) {
+            return readOptions(parser);
+        }
+
+        return true;
+    }
+
+    private boolean readOptions(CommandSyntaxParser parser) {
+        advance(parser, 1);
+        skipWhitespace(parser);
+
+        while (!parser.isEnd() && parser.peek(0) != SYNTAX_OPTIONS_CLOSE) {
+            skipWhitespace(parser);
+            var keyStart = parser.getCursor();
+            var key = readString(parser);
+
+            if (key == null) {
+                return false;
+            }
+
+            var option = OPTIONS.get(key);
+
+            if (option == null) {
+                var name = key.toString();
+                parser.setCursor(keyStart);
+                return parser.fail(CommandSyntaxError.SELECTOR_UNKNOWN_OPTION, name);
+            }
+
+            if (!canUse(option)) {
+                parser.setCursor(keyStart);
+                return parser.fail(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE, option.key());
+            }
+
+            skipWhitespace(parser);
+
+            if (!expect(parser, SYNTAX_ASSIGN)) {
+                return false;
+            }
+
+            skipWhitespace(parser);
+
+            if (!readOption(parser, option, keyStart)) {
+                return false;
+            }
+
+            options |= option.mask();
+            skipWhitespace(parser);
+
+            if (!parser.isEnd() && parser.peek(0) == SYNTAX_SEPARATOR) {
+                advance(parser, 1);
+                continue;
+            }
+
+            if (!parser.isEnd() && parser.peek(0) != SYNTAX_OPTIONS_CLOSE) {
+                return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "',' or ']'", parser.peek(0));
+            }
+        }
+
+        return expect(parser, SYNTAX_OPTIONS_CLOSE);
+    }
+
+    private boolean canUse(SelectorOption option) {
+        if (currentEntity && (option == SelectorOption.LIMIT || option == SelectorOption.SORT)) {
+            return false;
+        }
+
+        if (option.isRepeatable()) {
+            return true;
+        }
+
+        return ((option.isNegatable() ? positiveOptions : options) & option.mask()) == 0;
+    }
+
+    private boolean readOption(CommandSyntaxParser parser, SelectorOption option, int keyStart) {
+        var negated = false;
+
+        if (option.isNegatable()) {
+            negated = readNegation(parser);
+
+            if (!negated && !option.isRepeatable() && (negatedOptions & option.mask()) != 0) {
+                parser.setCursor(keyStart);
+                return parser.fail(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE, option.key());
+            }
+
+            if (negated) {
+                negatedOptions |= option.mask();
+            } else {
+                positiveOptions |= option.mask();
+            }
+        }
+
+        switch (option) {
+            case NAME -> {
+                return readString(parser) != null;
+            }
+            case DISTANCE -> {
+                if (!readRange(parser, "double", false, false, false) || !checkNotNegative(parser, "distance")) {
+                    return false;
+                }
+
+                distanceMin = Math.max(rangeMin, 0);
+                distanceMax = rangeMax;
+                return true;
+            }
+            case LEVEL -> {
+                if (!readRange(parser, "int", true, false, false) || !checkNotNegative(parser, "level")) {
+                    return false;
+                }
+
+                levelMin = (int) Math.max(rangeMin, 0);
+                levelMax = (int) Math.min(rangeMax, Integer.MAX_VALUE);
+                includesEntities = false;
+                return true;
+            }
+            case X, Y, Z, DX, DY, DZ -> {
+                return readNumber(parser, "double", false);
+            }
+            case X_ROTATION, Y_ROTATION -> {
+                // Rotations wrap around, so the minimum may be bigger than the maximum
+                return readRange(parser, "float", false, true, true);
+            }
+            case LIMIT -> {
+                var start = parser.getCursor();
+
+                if (!readNumber(parser, "int", true)) {
+                    return false;
+                }
+
+                if (parser.getLongValue() < 1) {
+                    parser.setCursor(start);
+                    return parser.fail(CommandSyntaxError.VALUE_TOO_SMALL, "limit", 1);
+                }
+
+                maxResults = (int) parser.getLongValue();
+                return true;
+            }
+            case SORT -> {
+                return readKeyword(parser, "sort order", SORT_ORDERS);
+            }
+            case GAMEMODE -> {
+                includesEntities = false;
+                return readKeyword(parser, "game mode", GAME_MODES);
+            }
+            case TEAM, TAG -> {
+                parser.readSpanWhile(UNQUOTED);
+                return true;
+            }
+            case TYPE -> {
+                return readType(parser, negated);
+            }
+            case NBT -> {
+                return SNBT.tryValidateCompound(parser);
+            }
+            case SCORES -> {
+                return readScores(parser);
+            }
+            case ADVANCEMENTS -> {
+                return readAdvancements(parser);
+            }
+            case PREDICATE -> {
+                return ResourceLocation.tryValidate(parser);
+            }
+            default -> throw new IllegalStateException("Unhandled option " + option);
+        }
+    }
+
+    private boolean readType(CommandSyntaxParser parser, boolean negated) {
+        var tag = !parser.isEnd() && parser.peek(0) == SYNTAX_TAG;
+
+        if (tag) {
+            advance(parser, 1);
+        }
+
+        var start = parser.getCursor();
+
+        if (!ResourceLocation.tryValidate(parser)) {
+            return false;
+        }
+
+        if (!negated && !tag) {
+            var type = parser.spanOf(start, parser.getCursor());
+
+            if (type.contentEquals(PLAYER) || type.contentEquals(NAMESPACED_PLAYER)) {
+                includesEntities = false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean readScores(CommandSyntaxParser parser) {
+        if (!expect(parser, SYNTAX_MAP_OPEN)) {
+            return false;
+        }
+
+        skipWhitespace(parser);
+
+        // Like the game, entries need not be separated by commas
+        while (!parser.isEnd() && parser.peek(0) != SYNTAX_MAP_CLOSE) {
+            skipWhitespace(parser);
+            parser.readSpanWhile(UNQUOTED);
+            skipWhitespace(parser);
+
+            if (!expect(parser, SYNTAX_ASSIGN)) {
+                return false;
+            }
+
+            skipWhitespace(parser);
+
+            if (!readRange(parser, "int", true, false, false)) {
+                return false;
+            }
+
+            skipSeparator(parser);
+        }
+
+        return expect(parser, SYNTAX_MAP_CLOSE);
+    }
+
+    private boolean readAdvancements(CommandSyntaxParser parser) {
+        if (!expect(parser, SYNTAX_MAP_OPEN)) {
+            return false;
+        }
+
+        skipWhitespace(parser);
+
+        while (!parser.isEnd() && parser.peek(0) != SYNTAX_MAP_CLOSE) {
+            skipWhitespace(parser);
+
+            if (!ResourceLocation.tryValidate(parser)) {
+                return false;
+            }
+
+            skipWhitespace(parser);
+
+            if (!expect(parser, SYNTAX_ASSIGN)) {
+                return false;
+            }
+
+            skipWhitespace(parser);
+
+            if (!parser.isEnd() && parser.peek(0) == SYNTAX_MAP_OPEN) {
+                if (!readCriteria(parser)) {
+                    return false;
+                }
+            } else if (!readBoolean(parser)) {
+                return false;
+            }
+
+            skipSeparator(parser);
+        }
+
+        return expect(parser, SYNTAX_MAP_CLOSE);
+    }
+
+    private boolean readCriteria(CommandSyntaxParser parser) {
+        advance(parser, 1);
+        skipWhitespace(parser);
+
+        while (!parser.isEnd() && parser.peek(0) != SYNTAX_MAP_CLOSE) {
+            skipWhitespace(parser);
+            parser.readSpanWhile(UNQUOTED);
+            skipWhitespace(parser);
+
+            if (!expect(parser, SYNTAX_ASSIGN)) {
+                return false;
+            }
+
+            skipWhitespace(parser);
+
+            if (!readBoolean(parser)) {
+                return false;
+            }
+
+            skipSeparator(parser);
+        }
+
+        skipWhitespace(parser);
+        return expect(parser, SYNTAX_MAP_CLOSE);
+    }
+
+    /**
+     * Reads a range such as {@code 1..5}, {@code ..5}, {@code 1..} or {@code 3} into {@link #rangeMin} and
+     * {@link #rangeMax}. A missing bound is infinite.
+     */
+    private boolean readRange(CommandSyntaxParser parser, String valueType, boolean integer, boolean single,
+                              boolean wrapped) {
+        var start = parser.getCursor();
+        var minEnd = skipNumber(parser);
+        var maxStart = minEnd;
+        var maxEnd = minEnd;
+        var bounded = !parser.isEnd(1) && parser.peek(0) == '.' && parser.peek(1) == '.';
+
+        if (bounded) {
+            advance(parser, 2);
+            maxStart = parser.getCursor();
+            maxEnd = skipNumber(parser);
+        }
+
+        if (start == minEnd && maxStart == maxEnd) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "range of " + valueType);
+        }
+
+        if (start == minEnd) {
+            rangeMin = Double.NEGATIVE_INFINITY;
+        } else if (!parseNumber(parser, valueType, integer, single, start, minEnd)) {
+            return false;
+        } else {
+            rangeMin = integer ? parser.getLongValue() : parser.getDoubleValue();
+        }
+
+        if (!bounded) {
+            rangeMax = rangeMin;
+        } else if (maxStart == maxEnd) {
+            rangeMax = Double.POSITIVE_INFINITY;
+        } else if (!parseNumber(parser, valueType, integer, single, maxStart, maxEnd)) {
+            return false;
+        } else {
+            rangeMax = integer ? parser.getLongValue() : parser.getDoubleValue();
+        }
+
+        if (!wrapped && rangeMin > rangeMax) {
+            var min = parser.spanOf(start, minEnd).toString();
+            var max = parser.spanOf(maxStart, maxEnd).toString();
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.RANGE_SWAPPED, min, max);
+        }
+
+        return true;
+    }
+
+    private boolean checkNotNegative(CommandSyntaxParser parser, String valueType) {
+        // A missing bound is infinite, so only a given bound can be negative
+        if (rangeMin < 0 && rangeMin != Double.NEGATIVE_INFINITY || rangeMax < 0) {
+            return parser.fail(CommandSyntaxError.VALUE_TOO_SMALL, valueType, 0);
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads a number. On success, the value is available from {@link CommandSyntaxParser#getLongValue()} or
+     * {@link CommandSyntaxParser#getDoubleValue()}.
+     */
+    private static boolean readNumber(CommandSyntaxParser parser, String valueType, boolean integer) {
+        var start = parser.getCursor();
+        var end = skipNumber(parser);
+
+        if (start == end) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, valueType);
+        }
+
+        return parseNumber(parser, valueType, integer, false, start, end);
+    }
+
+    private static boolean parseNumber(CommandSyntaxParser parser, String valueType, boolean integer, boolean single,
+                                       int start, int end) {
+        var valid = integer ? parser.tryParseInteger(start, end, Integer.MIN_VALUE, Integer.MAX_VALUE)
+                : parser.tryParseDecimal(start, end, single);
+
+        if (!valid) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.INVALID_VALUE, valueType);
+        }
+
+        return true;
+    }
+
+    /**
+     * Skips the characters of a number, stopping before the {@code ..} of a range.
+     * @return The end of the number, exclusive.
+     */
+    private static int skipNumber(CommandSyntaxParser parser) {
+        while (!parser.isEnd() && NUMBER.contains(parser.peek(0))
+                && !(parser.peek(0) == '.' && !parser.isEnd(1) && parser.peek(1) == '.')) {
+            advance(parser, 1);
+        }
+
+        return parser.getCursor();
+    }
+
+    private static boolean readKeyword(CommandSyntaxParser parser, String valueType, String[] keywords) {
+        var start = parser.getCursor();
+        var value = parser.readSpanWhile(UNQUOTED);
+
+        for (var keyword : keywords) {
+            if (value.contentEquals(keyword)) {
+                return true;
+            }
+        }
+
+        var found = value.toString();
+        parser.setCursor(start);
+        return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, valueType, found);
+    }
+
+    private static boolean readBoolean(CommandSyntaxParser parser) {
+        var start = parser.getCursor();
+        var value = parser.readSpanWhile(UNQUOTED);
+
+        if (value.length() == 0) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "boolean");
+        }
+
+        if (value.contentEquals("true") || value.contentEquals("false")) {
+            return true;
+        }
+
+        var found = value.toString();
+        parser.setCursor(start);
+        return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "boolean", found);
+    }
+
+    private boolean readNameOrUuid(CommandSyntaxParser parser) {
+        var start = parser.getCursor();
+        var value = readString(parser);
+
+        if (value == null) {
+            return false;
+        }
+
+        maxResults = 1;
+
+        if (isUuid(value)) {
+            uuid = true;
+            return true;
+        }
+
+        if (value.length() == 0 || value.length() > MAX_NAME_LENGTH) {
+            var found = value.toString();
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.INVALID_NAME_OR_UUID, found);
+        }
+
+        includesEntities = false;
+        return true;
+    }
+
+    /**
+     * Determines whether the specified value is a UUID, in the lenient form the game accepts: five groups of
+     * hexadecimal digits separated by hyphens, such as {@code 0-0-0-0-1}.
+     * @param value The value.
+     * @return {@code true} if a UUID; otherwise, {@code false}.
+     */
+    public static boolean isUuid(@NotNull CharSequence value) {
+        var length = value.length();
+
+        if (length > MAX_UUID_LENGTH) {
+            return false;
+        }
+
+        var separators = 0;
+        var groupLength = 0;
+
+        for (int i = 0; i < length; i++) {
+            var ch = value.charAt(i);
+
+            if (ch == SYNTAX_UUID_SEPARATOR) {
+                if (groupLength == 0) {
+                    return false;
+                }
+
+                separators++;
+                groupLength = 0;
+            } else if (ch >= '0' && ch <= '9' || ch >= 'a' && ch <= 'f' || ch >= 'A' && ch <= 'F') {
+                groupLength++;
+            } else {
+                return false;
+            }
+        }
+
+        return separators == UUID_SEPARATORS && groupLength > 0;
+    }
+
+    /**
+     * Reads a quoted or unquoted string, which may be empty.
+     * @return A span of the string, valid until the next read; or {@code null} if failed, with the failure recorded
+     *         in the parser.
+     */
+    private static @Nullable TextSpan readString(CommandSyntaxParser parser) {
+        if (!parser.isEnd() && isQuote(parser.peek(0))) {
+            return parser.tryReadEmbeddedQuotedSpan();
+        }
+
+        return parser.readSpanWhile(UNQUOTED);
+    }
+
+    private static boolean readNegation(CommandSyntaxParser parser) {
+        if (parser.isEnd() || parser.peek(0) != SYNTAX_NEGATE) {
+            return false;
+        }
+
+        advance(parser, 1);
+        skipWhitespace(parser);
+        return true;
+    }
+
+    /**
+     * Moves the cursor forward. Unlike {@link CommandSyntaxParser#skip(int)}, this moves onto the end of the text.
+     */
+    private static void advance(CommandSyntaxParser parser, int count) {
+        parser.setCursor(parser.getCursor() + count);
+    }
+
+    private static boolean isQuote(char c) {
+        return c == SYNTAX_DOUBLE_QUOTE || c == SYNTAX_SINGLE_QUOTE;
+    }
+
+    private static boolean expect(CommandSyntaxParser parser, char c) {
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, quote(c));
+        }
+
+        if (parser.peek(0) != c) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, quote(c), parser.peek(0));
+        }
+
+        advance(parser, 1);
+        return true;
+    }
+
+    private static String quote(char c) {
+        return "'" + c + "'";
+    }
+
+    private static void skipSeparator(CommandSyntaxParser parser) {
+        skipWhitespace(parser);
+
+        if (!parser.isEnd() && parser.peek(0) == SYNTAX_SEPARATOR) {
+            advance(parser, 1);
+        }
+    }
+
+    private static void skipWhitespace(CommandSyntaxParser parser) {
+        while (!parser.isEnd() && Character.isWhitespace(parser.peek(0))) {
+            advance(parser, 1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.selector;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.tree.LiteralTable;
+
+/**
+ * A perfect hash table of selector options. The multiplier is searched once, when the table is built, so that every
+ * option lands in a slot of its own; a lookup is then one hash, one multiplication and one comparison, without
+ * probing.
+ */
+final class OptionTable {
+    /**
+     * The first multiplier tried, the golden ratio in fixed point. Later candidates are the odd numbers after it.
+     */
+    private static final int SEED = 0x9E3779B9;
+    private static final int ATTEMPTS_PER_SIZE = 1 << 16;
+
+    private final SelectorOption[] slots;
+    private final int multiplier;
+    private final int shift;
+
+    OptionTable(@NotNull SelectorOption[] options) {
+        // Start at twice as many slots as options, so that a collision-free multiplier is found in a few tries
+        var bits = 32 - Integer.numberOfLeadingZeros(Math.max(options.length, 1) * 2 - 1);
+
+        while (true) {
+            var candidate = SEED;
+
+            for (int attempt = 0; attempt < ATTEMPTS_PER_SIZE; attempt++, candidate += 2) {
+                var table = place(options, candidate, bits);
+
+                if (table != null) {
+                    this.slots = table;
+                    this.multiplier = candidate;
+                    this.shift = 32 - bits;
+                    return;
+                }
+            }
+
+            bits++;
+        }
+    }
+
+    private static SelectorOption[] place(SelectorOption[] options, int multiplier, int bits) {
+        var table = new SelectorOption[1 << bits];
+
+        for (var option : options) {
+            var index = (LiteralTable.hash(option.key()) * multiplier) >>> (32 - bits);
+
+            if (table[index] != null) {
+                return null;
+            }
+
+            table[index] = option;
+        }
+
+        return table;
+    }
+
+    /**
+     * Gets the option with the specified name.
+     * @param key The name.
+     * @return The option, or {@code null} if there is no such option.
+     */
+    @Nullable SelectorOption get(@NotNull CharSequence key) {
+        var option = slots[(LiteralTable.hash(key) * multiplier) >>> shift];
+        return option != null && option.key().contentEquals(key) ? option : null;
+    }
+
+    /**
+     * Gets the number of slots of this table.
+     * @return The number of slots.
+     */
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.selector;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An option of an entity selector, such as {@code type} in {@code @e[type=zombie]}.
+ */
+public enum SelectorOption {
+    NAME("name", true, false),
+    DISTANCE("distance", false, false),
+    LEVEL("level", false, false),
+    X("x", false, false),
+    Y("y", false, false),
+    Z("z", false, false),
+    DX("dx", false, false),
+    DY("dy", false, false),
+    DZ("dz", false, false),
+    X_ROTATION("x_rotation", false, false),
+    Y_ROTATION("y_rotation", false, false),
+    LIMIT("limit", false, false),
+    SORT("sort", false, false),
+    GAMEMODE("gamemode", true, false),
+    TEAM("team", true, false),
+    TYPE("type", true, false),
+    TAG("tag", true, true),
+    NBT("nbt", true, true),
+    SCORES("scores", false, false),
+    ADVANCEMENTS("advancements", false, false),
+    PREDICATE("predicate", true, true);
+
+    private final String key;
+    private final boolean negatable;
+    private final boolean repeatable;
+
+    SelectorOption(String key, boolean negatable, boolean repeatable) {
+        this.key = key;
+        this.negatable = negatable;
+        this.repeatable = repeatable;
+    }
+
+    /**
+     * Gets the name of this option, as written in selectors.
+     * @return The name.
+     */
+    public @NotNull String key() {
+        return key;
+    }
+
+    /**
+     * Determines whether the value of this option can be negated with {@code !}. Negated values of an option can be
+     * given any number of times, but not together with a value that is not negated.
+     * @return {@code true} if negatable; otherwise, {@code false}.
+     */
+    public boolean isNegatable() {
+        return negatable;
+    }
+
+    /**
+     * Determines whether this option can be given any number of times, whether negated or not.
+     * @return {@code true} if repeatable; otherwise, {@code false}.
+     */
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    int mask() {
+        return 1 << ordinal();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.text;
+
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.commands.tree.LiteralTable;
+
+import java.util.HashMap;
+
+/**
+ * A key known to text components, or to one of the objects nested in them, such as click and hover events. Keys
+ * shared by several objects, such as {@code value}, appear once.
+ */
+enum ComponentKey {
+    TEXT("text"),
+    TRANSLATE("translate"),
+    WITH("with"),
+    FALLBACK("fallback"),
+    SCORE("score"),
+    SELECTOR("selector"),
+    SEPARATOR("separator"),
+    KEYBIND("keybind"),
+    NBT("nbt"),
+    BLOCK("block"),
+    ENTITY("entity"),
+    STORAGE("storage"),
+    INTERPRET("interpret"),
+    EXTRA("extra"),
+    COLOR("color"),
+    BOLD("bold"),
+    ITALIC("italic"),
+    UNDERLINED("underlined"),
+    STRIKETHROUGH("strikethrough"),
+    OBFUSCATED("obfuscated"),
+    INSERTION("insertion"),
+    FONT("font"),
+    CLICK_EVENT("clickEvent"),
+    HOVER_EVENT("hoverEvent"),
+    TYPE("type"),
+    NAME("name"),
+    OBJECTIVE("objective"),
+    ACTION("action"),
+    VALUE("value"),
+    CONTENTS("contents"),
+    ID("id"),
+    COUNT("count"),
+    TAG("tag");
+
+    /**
+     * The keys that give a component its content; a component needs at least one of them.
+     */
+    static final long CONTENT = TEXT.mask() | TRANSLATE.mask() | SCORE.mask() | SELECTOR.mask() | KEYBIND.mask()
+            | NBT.mask();
+    /**
+     * The keys that give an NBT component its source.
+     */
+    static final long NBT_SOURCE = BLOCK.mask() | ENTITY.mask() | STORAGE.mask();
+
+    private final String key;
+
+    ComponentKey(String key) {
+        this.key = key;
+    }
+
+    @NotNull String key() {
+        return key;
+    }
+
+    long mask() {
+        return 1L << ordinal();
+    }
+
+    static @NotNull LiteralTable<ComponentKey> table() {
+        var entries = new HashMap<String, ComponentKey>();
+
+        for (var key : values()) {
+            entries.put(key.key, key);
+        }
+
+        return new LiteralTable<>(entries);
+    }
+}
@@ -0,0 +1,1034 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.parsing.text;
+
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.commands.CharacterTable;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.tree.LiteralTable;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+import x.nexuskrop.minelint.parsing.selector.EntitySelectorParser;
+
+/**
+ * Validates a JSON text component at the cursor of a {@link CommandSyntaxParser}, such as the message of
+ * {@code tellraw}, in a single pass over the command text.
+ * <p>
+ * The JSON is read as a stream of tokens straight from the text of the parser, without building a tree. Besides the
+ * syntax of strict JSON, components are checked against their schema: each needs content ({@code text},
+ * {@code translate}, {@code score}, {@code selector}, {@code keybind} or {@code nbt}), keys known to the game must
+ * have values of the right type, and colors, events, selectors and resource locations must be valid. Like the game,
+ * unknown keys are ignored. Failures are recorded at the position of the offending token.
+ * <p>
+ * A validator keeps scratch state, and is not thread-safe.
+ */
+public final class TextComponentValidator {
+    /**
+     * The deepest nesting of objects and arrays allowed by default.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 512;
+
+    private static final char SYNTAX_OBJECT_OPEN = '{';
+    private static final char SYNTAX_OBJECT_CLOSE = '}';
+    private static final char SYNTAX_ARRAY_OPEN = '[';
+    private static final char SYNTAX_ARRAY_CLOSE = ']';
+    private static final char SYNTAX_SEPARATOR = ',';
+    private static final char SYNTAX_KEY_VALUE = ':';
+    private static final char SYNTAX_QUOTE = '"';
+    private static final char SYNTAX_ESCAPE = '\\';
+    private static final char SYNTAX_COLOR = '#';
+    private static final int MAX_COLOR_DIGITS = 6;
+    private static final int UNICODE_ESCAPE_DIGITS = 4;
+
+    private static final String[] COLORS = {"black", "dark_blue", "dark_green", "dark_aqua", "dark_red",
+            "dark_purple", "gold", "gray", "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow",
+            "white"};
+    private static final String[] TYPES = {"text", "translatable", "score", "selector", "keybind", "nbt"};
+    private static final String[] CLICK_ACTIONS = {"open_url", "open_file", "run_command", "suggest_command",
+            "change_page", "copy_to_clipboard"};
+    private static final String[] HOVER_ACTIONS = {"show_text", "show_item", "show_entity"};
+    private static final int SHOW_TEXT = 0;
+    private static final int SHOW_ITEM = 1;
+
+    private static final String COMPONENT = "text component";
+    private static final String CLICK_EVENT = "clickEvent";
+    private static final String HOVER_EVENT = "hoverEvent";
+
+    private static final LiteralTable<ComponentKey> KEYS = ComponentKey.table();
+    /**
+     * The ASCII characters that stand for themselves in a string; other characters are looked at one by one.
+     */
+    private static final CharacterTable STRING_CHARACTERS = CharacterTable.builder()
+            .range(' ', '!')
+            .range('#', '[')
+            .range(']', '~')
+            .build();
+    private static final CharacterTable DIGITS = CharacterTable.builder()
+            .range('0', '9')
+            .build();
+    private static final CharacterTable WHITESPACE = CharacterTable.builder()
+            .add(" \t\n\r")
+            .build();
+
+    private final int maxDepth;
+    private final StringBuilder unescaped = new StringBuilder();
+    private final CommandSyntaxParser selectorText = new CommandSyntaxParser("");
+    private final EntitySelectorParser selectors = new EntitySelectorParser();
+
+    /**
+     * The region of the last string read, excluding the quotes.
+     */
+    private int stringStart;
+    private int stringEnd;
+    private boolean stringEscaped;
+    /**
+     * The last key read, or {@code null} if it is not known.
+     */
+    private ComponentKey key;
+
+    /**
+     * Constructs a new validator with the {@linkplain #DEFAULT_MAX_DEPTH default depth limit}.
+     */
+    public TextComponentValidator() {
+        this(DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Constructs a new validator.
+     * @param maxDepth The deepest nesting of objects and arrays allowed.
+     */
+    public TextComponentValidator(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Excepted a depth limit of at least 1");
+        }
+
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Validates the text component at the cursor. On success, the cursor is right after the component.
+     * @param parser The parser.
+     * @return {@code true} if valid; otherwise, {@code false}, with the failure recorded in the parser.
+     */
+    public boolean tryValidate(@NotNull CommandSyntaxParser parser) {
+        return readComponent(parser, 0);
+    }
+
+    private boolean readComponent(CommandSyntaxParser parser, int depth) {
+        var type = peekType(parser);
+
+        if (type == null) {
+            return false;
+        }
+
+        return switch (type) {
+            case STRING -> readString(parser);
+            case NUMBER -> readNumber(parser);
+            case BOOLEAN -> readLiteral(parser);
+            case NULL -> parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, COMPONENT, type.label());
+            case OBJECT -> readComponentObject(parser, depth);
+            case ARRAY -> readComponentList(parser, depth, "list", false);
+        };
+    }
+
+    private boolean readComponentList(CommandSyntaxParser parser, int depth, String owner, boolean allowEmpty) {
+        if (!enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        advance(parser, 1);
+        skipWhitespace(parser);
+
+        if (!parser.isEnd() && parser.peek(0) == SYNTAX_ARRAY_CLOSE) {
+            if (!allowEmpty) {
+                parser.setCursor(start);
+                return parser.fail(CommandSyntaxError.COMPONENT_EMPTY_LIST, owner);
+            }
+
+            advance(parser, 1);
+            return true;
+        }
+
+        int next;
+
+        do {
+            if (!readComponent(parser, depth + 1)) {
+                return false;
+            }
+
+            next = next(parser, SYNTAX_ARRAY_CLOSE);
+        } while (next > 0);
+
+        return next == 0;
+    }
+
+    private boolean readComponentObject(CommandSyntaxParser parser, int depth) {
+        if (!enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        var keys = 0L;
+        advance(parser, 1);
+        skipWhitespace(parser);
+
+        if (!parser.isEnd() && parser.peek(0) == SYNTAX_OBJECT_CLOSE) {
+            advance(parser, 1);
+        } else {
+            int next;
+
+            do {
+                if (!readKey(parser)) {
+                    return false;
+                }
+
+                var current = key;
+
+                if (!readComponentValue(parser, current, depth + 1)) {
+                    return false;
+                }
+
+                if (current != null) {
+                    keys |= current.mask();
+                }
+
+                next = next(parser, SYNTAX_OBJECT_CLOSE);
+            } while (next > 0);
+
+            if (next < 0) {
+                return false;
+            }
+        }
+
+        if ((keys & ComponentKey.CONTENT) == 0) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.COMPONENT_NO_CONTENT);
+        }
+
+        if ((keys & ComponentKey.CONTENT) == ComponentKey.NBT.mask() && (keys & ComponentKey.NBT_SOURCE) == 0) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.COMPONENT_MISSING_KEY, "block, entity or storage", "nbt");
+        }
+
+        return true;
+    }
+
+    private boolean readComponentValue(CommandSyntaxParser parser, ComponentKey key, int depth) {
+        if (key == null) {
+            return skipValue(parser, depth);
+        }
+
+        return switch (key) {
+            case TEXT -> readPrimitive(parser, key);
+            case TRANSLATE, FALLBACK, KEYBIND, NBT, BLOCK, INSERTION -> readString(parser, key);
+            case WITH -> expectType(parser, key, JsonType.ARRAY)
+                    && readComponentList(parser, depth, key.key(), true);
+            case EXTRA -> expectType(parser, key, JsonType.ARRAY)
+                    && readComponentList(parser, depth, key.key(), false);
+            case SEPARATOR -> readComponent(parser, depth);
+            case SCORE -> expectType(parser, key, JsonType.OBJECT) && readScore(parser, depth);
+            case SELECTOR, ENTITY -> readString(parser, key) && validateSelector(parser);
+            case STORAGE, FONT -> readString(parser, key) && validateResourceLocation(parser);
+            case INTERPRET, BOLD, ITALIC, UNDERLINED, STRIKETHROUGH, OBFUSCATED ->
+                    expectType(parser, key, JsonType.BOOLEAN) && readLiteral(parser);
+            case COLOR -> readString(parser, key) && validateColor(parser);
+            case TYPE -> readString(parser, key) && validateKeyword(parser, "component type", TYPES) >= 0;
+            case CLICK_EVENT -> expectType(parser, key, JsonType.OBJECT) && readClickEvent(parser, depth);
+            case HOVER_EVENT -> expectType(parser, key, JsonType.OBJECT) && readHoverEvent(parser, depth);
+            default -> skipValue(parser, depth);
+        };
+    }
+
+    private boolean readScore(CommandSyntaxParser parser, int depth) {
+        if (!enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        var keys = 0L;
+        var next = openObject(parser);
+
+        while (next > 0) {
+            if (!readKey(parser)) {
+                return false;
+            }
+
+            var current = key;
+            var valid = current == ComponentKey.NAME || current == ComponentKey.OBJECTIVE
+                    ? readString(parser, current)
+                    : skipValue(parser, depth + 1);
+
+            if (!valid) {
+                return false;
+            }
+
+            keys |= current == null ? 0 : current.mask();
+            next = next(parser, SYNTAX_OBJECT_CLOSE);
+        }
+
+        return next == 0
+                && requireKey(parser, keys, ComponentKey.NAME, ComponentKey.SCORE.key(), start)
+                && requireKey(parser, keys, ComponentKey.OBJECTIVE, ComponentKey.SCORE.key(), start);
+    }
+
+    private boolean readClickEvent(CommandSyntaxParser parser, int depth) {
+        if (!enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        var keys = 0L;
+        var next = openObject(parser);
+
+        while (next > 0) {
+            if (!readKey(parser)) {
+                return false;
+            }
+
+            var current = key;
+            boolean valid;
+
+            if (current == ComponentKey.ACTION) {
+                valid = readString(parser, current) && validateKeyword(parser, "click action", CLICK_ACTIONS) >= 0;
+            } else if (current == ComponentKey.VALUE) {
+                valid = readPrimitive(parser, current);
+            } else {
+                valid = skipValue(parser, depth + 1);
+            }
+
+            if (!valid) {
+                return false;
+            }
+
+            keys |= current == null ? 0 : current.mask();
+            next = next(parser, SYNTAX_OBJECT_CLOSE);
+        }
+
+        return next == 0
+                && requireKey(parser, keys, ComponentKey.ACTION, CLICK_EVENT, start)
+                && requireKey(parser, keys, ComponentKey.VALUE, CLICK_EVENT, start);
+    }
+
+    /**
+     * Reads a hover event. As the action may come after the contents, the contents are first only checked to be
+     * well-formed; once the action is known, the cursor is moved back to check them against the schema of the
+     * action.
+     */
+    private boolean readHoverEvent(CommandSyntaxParser parser, int depth) {
+        if (!enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        var action = -1;
+        var contents = -1;
+        var value = -1;
+        var next = openObject(parser);
+
+        while (next > 0) {
+            if (!readKey(parser)) {
+                return false;
+            }
+
+            var current = key;
+            boolean valid;
+
+            if (current == ComponentKey.ACTION) {
+                valid = readString(parser, current)
+                        && (action = validateKeyword(parser, "hover action", HOVER_ACTIONS)) >= 0;
+            } else {
+                if (current == ComponentKey.CONTENTS) {
+                    contents = parser.getCursor();
+                } else if (current == ComponentKey.VALUE) {
+                    value = parser.getCursor();
+                }
+
+                valid = skipValue(parser, depth + 1);
+            }
+
+            if (!valid) {
+                return false;
+            }
+
+            next = next(parser, SYNTAX_OBJECT_CLOSE);
+        }
+
+        if (next < 0) {
+            return false;
+        }
+
+        if (action < 0) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.COMPONENT_MISSING_KEY, ComponentKey.ACTION.key(), HOVER_EVENT);
+        }
+
+        if (contents < 0 && value < 0) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.COMPONENT_MISSING_KEY, ComponentKey.CONTENTS.key(), HOVER_EVENT);
+        }
+
+        var end = parser.getCursor();
+
+        if (contents < 0) {
+            // The legacy value is a component, whatever the action
+            parser.setCursor(value);
+            return readComponent(parser, depth + 1) && restore(parser, end);
+        }
+
+        parser.setCursor(contents);
+        var valid = switch (action) {
+            case SHOW_TEXT -> readComponent(parser, depth + 1);
+            case SHOW_ITEM -> readItem(parser, depth + 1);
+            default -> readEntity(parser, depth + 1);
+        };
+
+        return valid && restore(parser, end);
+    }
+
+    private boolean readItem(CommandSyntaxParser parser, int depth) {
+        var type = peekType(parser);
+
+        if (type == JsonType.STRING) {
+            return readString(parser) && validateResourceLocation(parser);
+        }
+
+        if (!expectType(parser, ComponentKey.CONTENTS, JsonType.OBJECT) || !enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        var keys = 0L;
+        var next = openObject(parser);
+
+        while (next > 0) {
+            if (!readKey(parser)) {
+                return false;
+            }
+
+            var current = key;
+            boolean valid;
+
+            if (current == ComponentKey.ID) {
+                valid = readString(parser, current) && validateResourceLocation(parser);
+            } else if (current == ComponentKey.COUNT) {
+                valid = expectType(parser, current, JsonType.NUMBER) && readNumber(parser);
+            } else if (current == ComponentKey.TAG) {
+                valid = readString(parser, current);
+            } else {
+                valid = skipValue(parser, depth + 1);
+            }
+
+            if (!valid) {
+                return false;
+            }
+
+            keys |= current == null ? 0 : current.mask();
+            next = next(parser, SYNTAX_OBJECT_CLOSE);
+        }
+
+        return next == 0 && requireKey(parser, keys, ComponentKey.ID, "show_item", start);
+    }
+
+    private boolean readEntity(CommandSyntaxParser parser, int depth) {
+        if (!expectType(parser, ComponentKey.CONTENTS, JsonType.OBJECT) || !enter(parser, depth)) {
+            return false;
+        }
+
+        var start = parser.getCursor();
+        var keys = 0L;
+        var next = openObject(parser);
+
+        while (next > 0) {
+            if (!readKey(parser)) {
+                return false;
+            }
+
+            var current = key;
+            boolean valid;
+
+            if (current == ComponentKey.TYPE) {
+                valid = readString(parser, current) && validateResourceLocation(parser);
+            } else if (current == ComponentKey.ID) {
+                valid = readString(parser, current) && validateUuid(parser);
+            } else if (current == ComponentKey.NAME) {
+                valid = readComponent(parser, depth + 1);
+            } else {
+                valid = skipValue(parser, depth + 1);
+            }
+
+            if (!valid) {
+                return false;
+            }
+
+            keys |= current == null ? 0 : current.mask();
+            next = next(parser, SYNTAX_OBJECT_CLOSE);
+        }
+
+        return next == 0
+                && requireKey(parser, keys, ComponentKey.TYPE, "show_entity", start)
+                && requireKey(parser, keys, ComponentKey.ID, "show_entity", start);
+    }
+
+    private static boolean requireKey(CommandSyntaxParser parser, long keys, ComponentKey required, String owner,
+                                      int start) {
+        if ((keys & required.mask()) != 0) {
+            return true;
+        }
+
+        parser.setCursor(start);
+        return parser.fail(CommandSyntaxError.COMPONENT_MISSING_KEY, required.key(), owner);
+    }
+
+    private static boolean restore(CommandSyntaxParser parser, int cursor) {
+        parser.setCursor(cursor);
+        return true;
+    }
+
+    // Schema checks of the last string read
+
+    private boolean validateSelector(CommandSyntaxParser parser) {
+        if (stringEscaped) {
+            selectorText.resetText(stringValue(parser).toString());
+        } else {
+            selectorText.resetText(parser, stringStart, stringEnd);
+        }
+
+        if (selectors.tryParse(selectorText) && selectorText.isEnd()) {
+            return true;
+        }
+
+        var failure = selectorText.getFailure();
+        var inner = failure == null ? selectorText.getCursor() : failure.getCursor();
+        // Positions within a string with escapes cannot be mapped back, so point to its start instead
+        var position = stringEscaped ? stringStart : stringStart + inner;
+        parser.setCursor(position);
+
+        if (failure == null) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+        }
+
+        return parser.fail(CommandDiagnostic.ofDescription(failure.getError(), position, failure.getDescription()));
+    }
+
+    private boolean validateResourceLocation(CommandSyntaxParser parser) {
+        var value = stringValue(parser);
+
+        if (ResourceLocation.isValid(value)) {
+            return true;
+        }
+
+        return failString(parser, CommandSyntaxError.INVALID_RESOURCE_LOCATION, value.toString());
+    }
+
+    private boolean validateUuid(CommandSyntaxParser parser) {
+        var value = stringValue(parser);
+
+        if (EntitySelectorParser.isUuid(value)) {
+            return true;
+        }
+
+        return failString(parser, CommandSyntaxError.EXCEPTED_VALUE_BUT, "UUID", value.toString());
+    }
+
+    private boolean validateColor(CommandSyntaxParser parser) {
+        var value = stringValue(parser);
+        var length = value.length();
+
+        if (length > 0 && value.charAt(0) == SYNTAX_COLOR) {
+            var valid = length > 1 && length <= MAX_COLOR_DIGITS + 1;
+
+            for (int i = 1; valid && i < length; i++) {
+                valid = Character.digit(value.charAt(i), 16) >= 0 && value.charAt(i) < 0x80;
+            }
+
+            return valid || failString(parser, CommandSyntaxError.COMPONENT_UNKNOWN_VALUE, "color", value.toString());
+        }
+
+        return validateKeyword(parser, "color", COLORS) >= 0;
+    }
+
+    /**
+     * Checks that the last string read is one of the specified keywords.
+     * @return The index of the keyword; or {@code -1} if it is none of them, with the failure recorded.
+     */
+    private int validateKeyword(CommandSyntaxParser parser, String valueType, String[] keywords) {
+        var value = stringValue(parser);
+
+        for (int i = 0; i < keywords.length; i++) {
+            if (keywords[i].contentEquals(value)) {
+                return i;
+            }
+        }
+
+        failString(parser, CommandSyntaxError.COMPONENT_UNKNOWN_VALUE, valueType, value.toString());
+        return -1;
+    }
+
+    /**
+     * Records a failure at the opening quote of the last string read.
+     */
+    private boolean failString(CommandSyntaxParser parser, CommandSyntaxError error, Object... values) {
+        parser.setCursor(stringStart - 1);
+        return parser.fail(error, values);
+    }
+
+    // Typed values
+
+    private boolean readString(CommandSyntaxParser parser, ComponentKey key) {
+        return expectType(parser, key, JsonType.STRING) && readString(parser);
+    }
+
+    /**
+     * Reads a string, number or boolean, all of which the game turns into a string.
+     */
+    private boolean readPrimitive(CommandSyntaxParser parser, ComponentKey key) {
+        var type = peekType(parser);
+
+        if (type == null) {
+            return false;
+        }
+
+        return switch (type) {
+            case STRING -> readString(parser);
+            case NUMBER -> readNumber(parser);
+            case BOOLEAN -> readLiteral(parser);
+            default -> parser.fail(CommandSyntaxError.COMPONENT_WRONG_TYPE, key.key(), JsonType.STRING.label(),
+                    type.label());
+        };
+    }
+
+    private static boolean expectType(CommandSyntaxParser parser, ComponentKey key, JsonType expected) {
+        var type = peekType(parser);
+
+        if (type == null) {
+            return false;
+        }
+
+        if (type != expected) {
+            return parser.fail(CommandSyntaxError.COMPONENT_WRONG_TYPE, key.key(), expected.label(), type.label());
+        }
+
+        return true;
+    }
+
+    // JSON tokens
+
+    /**
+     * Skips whitespace, and determines the type of the value at the cursor from its first character.
+     * @return The type; or {@code null} if no value starts at the cursor, with the failure recorded.
+     */
+    private static JsonType peekType(CommandSyntaxParser parser) {
+        skipWhitespace(parser);
+
+        if (parser.isEnd()) {
+            parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "JSON value");
+            return null;
+        }
+
+        var ch = parser.peek(0);
+
+        switch (ch) {
+            case SYNTAX_QUOTE -> {
+                return JsonType.STRING;
+            }
+            case SYNTAX_OBJECT_OPEN -> {
+                return JsonType.OBJECT;
+            }
+            case SYNTAX_ARRAY_OPEN -> {
+                return JsonType.ARRAY;
+            }
+            case 't', 'f' -> {
+                return JsonType.BOOLEAN;
+            }
+            case 'n' -> {
+                return JsonType.NULL;
+            }
+            default -> {
+                if (ch == '-' || isDigit(ch)) {
+                    return JsonType.NUMBER;
+                }
+
+                parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "JSON value", ch);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Checks that a value is well-formed, without checking it against any schema.
+     */
+    private boolean skipValue(CommandSyntaxParser parser, int depth) {
+        var type = peekType(parser);
+
+        if (type == null) {
+            return false;
+        }
+
+        switch (type) {
+            case STRING -> {
+                return readString(parser);
+            }
+            case NUMBER -> {
+                return readNumber(parser);
+            }
+            case BOOLEAN, NULL -> {
+                return readLiteral(parser);
+            }
+            default -> {
+                // Objects and arrays
+            }
+        }
+
+        if (!enter(parser, depth)) {
+            return false;
+        }
+
+        var object = type == JsonType.OBJECT;
+        var close = object ? SYNTAX_OBJECT_CLOSE : SYNTAX_ARRAY_CLOSE;
+        advance(parser, 1);
+        skipWhitespace(parser);
+
+        if (!parser.isEnd() && parser.peek(0) == close) {
+            advance(parser, 1);
+            return true;
+        }
+
+        int next;
+
+        do {
+            if (object && !readKey(parser) || !skipValue(parser, depth + 1)) {
+                return false;
+            }
+
+            next = next(parser, close);
+        } while (next > 0);
+
+        return next == 0;
+    }
+
+    /**
+     * Opens an object at the cursor, which is known to be one.
+     * @return {@code 1} if the object has members, or {@code 0} if it is empty and closed.
+     */
+    private static int openObject(CommandSyntaxParser parser) {
+        advance(parser, 1);
+        skipWhitespace(parser);
+
+        if (!parser.isEnd() && parser.peek(0) == SYNTAX_OBJECT_CLOSE) {
+            advance(parser, 1);
+            return 0;
+        }
+
+        return 1;
+    }
+
+    /**
+     * Reads a key and the colon after it into {@link #key}, leaving the cursor at the value.
+     */
+    private boolean readKey(CommandSyntaxParser parser) {
+        skipWhitespace(parser);
+
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "key");
+        }
+
+        if (parser.peek(0) != SYNTAX_QUOTE) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "key", parser.peek(0));
+        }
+
+        if (!readString(parser)) {
+            return false;
+        }
+
+        key = KEYS.get(stringValue(parser));
+        skipWhitespace(parser);
+        return expect(parser, SYNTAX_KEY_VALUE);
+    }
+
+    /**
+     * Skips the separator or the closing character after a member of an object or an element of an array.
+     * @return {@code 1} if there is another member, {@code 0} if closed, or {@code -1} if neither, with the failure
+     *         recorded.
+     */
+    private static int next(CommandSyntaxParser parser, char close) {
+        skipWhitespace(parser);
+
+        if (parser.isEnd()) {
+            parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "',' or '" + close + "'");
+            return -1;
+        }
+
+        var ch = parser.peek(0);
+
+        if (ch == SYNTAX_SEPARATOR) {
+            advance(parser, 1);
+            return 1;
+        }
+
+        if (ch == close) {
+            advance(parser, 1);
+            return 0;
+        }
+
+        parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "',' or '" + close + "'", ch);
+        return -1;
+    }
+
+    /**
+     * Reads a string into {@link #stringStart} and {@link #stringEnd}, checking its escape sequences.
+     */
+    private boolean readString(CommandSyntaxParser parser) {
+        var start = parser.getCursor();
+        advance(parser, 1);
+        stringEscaped = false;
+
+        while (!parser.isEnd()) {
+            parser.readSpanWhile(STRING_CHARACTERS);
+
+            if (parser.isEnd()) {
+                break;
+            }
+
+            var ch = parser.peek(0);
+
+            if (ch == SYNTAX_QUOTE) {
+                stringStart = start + 1;
+                stringEnd = parser.getCursor();
+                advance(parser, 1);
+                return true;
+            }
+
+            if (ch == SYNTAX_ESCAPE) {
+                if (!readEscape(parser)) {
+                    return false;
+                }
+
+                stringEscaped = true;
+            } else {
+                advance(parser, 1);
+            }
+        }
+
+        return parser.fail(CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+    }
+
+    private static boolean readEscape(CommandSyntaxParser parser) {
+        if (parser.isEnd(1)) {
+            advance(parser, 1);
+            return parser.fail(CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+        }
+
+        var ch = parser.peek(1);
+
+        switch (ch) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> {
+                advance(parser, 2);
+                return true;
+            }
+            case 'u' -> {
+                for (int i = 2; i < 2 + UNICODE_ESCAPE_DIGITS; i++) {
+                    if (parser.isEnd(i) || Character.digit(parser.peek(i), 16) < 0 || parser.peek(i) >= 0x80) {
+                        return parser.fail(CommandSyntaxError.INVALID_ESCAPE, ch);
+                    }
+                }
+
+                advance(parser, 2 + UNICODE_ESCAPE_DIGITS);
+                return true;
+            }
+            default -> {
+                return parser.fail(CommandSyntaxError.INVALID_ESCAPE, ch);
+            }
+        }
+    }
+
+    /**
+     * Gets the value of the last string read. Strings without escape sequences are not copied.
+     * @return The value, valid until the next read.
+     */
+    private CharSequence stringValue(CommandSyntaxParser parser) {
+        var raw = parser.spanOf(stringStart, stringEnd);
+
+        if (!stringEscaped) {
+            return raw;
+        }
+
+        unescaped.setLength(0);
+
+        for (int i = 0; i < raw.length(); i++) {
+            var ch = raw.charAt(i);
+
+            if (ch != SYNTAX_ESCAPE) {
+                unescaped.append(ch);
+                continue;
+            }
+
+            ch = raw.charAt(++i);
+
+            switch (ch) {
+                case 'b' -> unescaped.append('\b');
+                case 'f' -> unescaped.append('\f');
+                case 'n' -> unescaped.append('\n');
+                case 'r' -> unescaped.append('\r');
+                case 't' -> unescaped.append('\t');
+                case 'u' -> {
+                    unescaped.append((char) Integer.parseInt(raw, i + 1, i + 1 + UNICODE_ESCAPE_DIGITS, 16));
+                    i += UNICODE_ESCAPE_DIGITS;
+                }
+                default -> unescaped.append(ch);
+            }
+        }
+
+        return unescaped;
+    }
+
+    /**
+     * Reads a number in the strict form of JSON: an optional minus sign, an integer part without leading zeros, an
+     * optional fraction and an optional exponent.
+     */
+    private static boolean readNumber(CommandSyntaxParser parser) {
+        var start = parser.getCursor();
+
+        if (peekIs(parser, '-')) {
+            advance(parser, 1);
+        }
+
+        boolean valid;
+
+        if (peekIs(parser, '0')) {
+            advance(parser, 1);
+            // Leading zeros are not allowed
+            valid = parser.isEnd() || !isDigit(parser.peek(0));
+        } else {
+            valid = skipDigits(parser);
+        }
+
+        if (valid && peekIs(parser, '.')) {
+            advance(parser, 1);
+            valid = skipDigits(parser);
+        }
+
+        if (valid && (peekIs(parser, 'e') || peekIs(parser, 'E'))) {
+            advance(parser, 1);
+
+            if (peekIs(parser, '+') || peekIs(parser, '-')) {
+                advance(parser, 1);
+            }
+
+            valid = skipDigits(parser);
+        }
+
+        if (!valid) {
+            parser.setCursor(start);
+            return parser.fail(CommandSyntaxError.INVALID_VALUE, "number");
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads {@code true}, {@code false} or {@code null}, whichever starts with the character at the cursor.
+     */
+    private static boolean readLiteral(CommandSyntaxParser parser) {
+        var literal = switch (parser.peek(0)) {
+            case 't' -> "true";
+            case 'f' -> "false";
+            default -> "null";
+        };
+
+        for (int i = 0; i < literal.length(); i++) {
+            if (parser.isEnd(i) || parser.peek(i) != literal.charAt(i)) {
+                return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, literal);
+            }
+        }
+
+        advance(parser, literal.length());
+        return true;
+    }
+
+    private static boolean skipDigits(CommandSyntaxParser parser) {
+        return parser.readSpanWhile(DIGITS).length() > 0;
+    }
+
+    private boolean enter(CommandSyntaxParser parser, int depth) {
+        if (depth >= maxDepth) {
+            return parser.fail(CommandSyntaxError.JSON_TOO_DEEP, maxDepth);
+        }
+
+        return true;
+    }
+
+    private static boolean expect(CommandSyntaxParser parser, char c) {
+        if (parser.isEnd()) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE, "'" + c + "'");
+        }
+
+        if (parser.peek(0) != c) {
+            return parser.fail(CommandSyntaxError.EXCEPTED_VALUE_BUT, "'" + c + "'", parser.peek(0));
+        }
+
+        advance(parser, 1);
+        return true;
+    }
+
+    private static boolean peekIs(CommandSyntaxParser parser, char c) {
+        return !parser.isEnd() && parser.peek(0) == c;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Moves the cursor forward. Unlike {@link CommandSyntaxParser#skip(int)}, this moves onto the end of the text.
+     */
+    private static void advance(CommandSyntaxParser parser, int count) {
+        parser.setCursor(parser.getCursor() + count);
+    }
+
+    /**
+     * Skips whitespace as JSON defines it.
+     */
+    private static void skipWhitespace(CommandSyntaxParser parser) {
+        // Most tokens are not preceded by whitespace, so look at the first character before scanning
+        if (!parser.isEnd() && WHITESPACE.contains(parser.peek(0))) {
+            parser.readSpanWhile(WHITESPACE);
+        }
+    }
+
+    private enum JsonType {
+        STRING("string"),
+        NUMBER("number"),
+        BOOLEAN("boolean"),
+        NULL("null"),
+        OBJECT("object"),
+        ARRAY("array");
+
+        private final String label;
+
+        JsonType(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+}
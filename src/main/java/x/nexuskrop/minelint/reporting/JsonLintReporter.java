@@ -0,0 +1,112 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.reporting;
+
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+
+/**
+ * Writes a JSON report with an entry for every function file that has problems, and a summary at the end.
+ * <p>
+ * The report has the form:
+ * <pre>{@code
+ * {
+ *   "files": [
+ *     {
+ *       "file": "data/example/functions/load.mcfunction",
+ *       "diagnostics": [ { "line": 2, "cursor": 0, "id": "MCF0009", "message": "Unknown command foo" } ]
+ *     },
+ *     { "file": "data/example/functions/broken.mcfunction", "error": "Access denied", "diagnostics": [] }
+ *   ],
+ *   "summary": { "files": 2, "lines": 10, "problems": 2 }
+ * }
+ * }</pre>
+ */
+public final class JsonLintReporter implements LintReporter {
+    private final JsonWriter writer;
+    private final Path root;
+    private long files;
+    private long lines;
+    private long problems;
+
+    /**
+     * Constructs a new reporter, and writes the beginning of the report.
+     * @param out The writer to write to. It should be buffered.
+     * @param root The root of the datapack, which file paths are written relative to.
+     * @throws IOException Failed to write the beginning of the report.
+     */
+    public JsonLintReporter(@NotNull Writer out, @NotNull Path root) throws IOException {
+        this.writer = new JsonWriter(out);
+        this.root = root;
+
+        writer.beginObject();
+        writer.name("files").beginArray();
+    }
+
+    @Override
+    public void report(@NotNull FunctionLintResult result) throws IOException {
+        files++;
+        lines += result.lineCount();
+
+        if (result.isClean()) {
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("file").value(LintReporter.relativePath(root, result.file()));
+
+        if (result.ioError() != null) {
+            problems++;
+            writer.name("error").value(String.valueOf(result.ioError().getMessage()));
+        }
+
+        writer.name("diagnostics").beginArray();
+
+        for (var diagnostic : result.diagnostics()) {
+            problems++;
+
+            writer.beginObject();
+            writer.name("line").value(diagnostic.line());
+            writer.name("cursor").value(diagnostic.diagnostic().getCursor());
+            writer.name("id").value(diagnostic.diagnostic().getError().getId());
+            writer.name("message").value(diagnostic.diagnostic().getDescription());
+            writer.endObject();
+        }
+
+        writer.endArray();
+        writer.endObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.endArray();
+        writer.name("summary").beginObject();
+        writer.name("files").value(files);
+        writer.name("lines").value(lines);
+        writer.name("problems").value(problems);
+        writer.endObject();
+        writer.endObject();
+        writer.flush();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.reporting;
+
+import org.jetbrains.annotations.NotNull;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes lint results out as a machine-readable report, one file at a time.
+ * <p>
+ * Reporters hold no results: every result is written as soon as it is reported, so that the memory a report needs
+ * does not grow with the amount of problems found. Results should be reported in a deterministic order, such as the
+ * path order in which {@link DatapackLinter} streams them.
+ */
+public interface LintReporter extends Closeable {
+    /**
+     * Writes the result of a function file.
+     * @param result The result.
+     * @throws IOException Failed to write the result.
+     */
+    void report(@NotNull FunctionLintResult result) throws IOException;
+
+    /**
+     * Finishes the report and flushes it. The underlying writer is not closed.
+     * @throws IOException Failed to write the end of the report.
+     */
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Gets the path of a function file relative to the root of its datapack, as it is written in reports.
+     * @param root The root of the datapack.
+     * @param file The function file.
+     * @return The relative path, separated by slashes on every platform, or the file name if the file is the root.
+     */
+    static @NotNull String relativePath(@NotNull Path root, @NotNull Path file) {
+        var relative = root.equals(file) || !file.startsWith(root) ? file.getFileName() : root.relativize(file);
+
+        if (relative == null) {
+            return file.toString();
+        }
+
+        var builder = new StringBuilder();
+
+        for (var name : relative) {
+            if (!builder.isEmpty()) {
+                builder.append('/');
+            }
+
+            builder.append(name);
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.reporting;
+
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+/**
+ * Writes a report in the <a href="https://docs.oasis-open.org/sarif/sarif/v2.1.0/sarif-v2.1.0.html">SARIF 2.1.0</a>
+ * format, as understood by code scanning services.
+ * <p>
+ * Every problem is a result of a single run, with the error ID as its rule ID. Files that could not be read are
+ * reported as results without a rule. Locations are relative to the {@code %SRCROOT%} base, which is the root of the
+ * datapack, and columns start from {@code 1}.
+ */
+public final class SarifLintReporter implements LintReporter {
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String VERSION = "2.1.0";
+    private static final String TOOL_NAME = "MineLint";
+    private static final String SOURCE_ROOT = "%SRCROOT%";
+
+    private final JsonWriter writer;
+    private final Path root;
+
+    /**
+     * Constructs a new reporter, and writes the beginning of the report.
+     * @param out The writer to write to. It should be buffered.
+     * @param root The root of the datapack, which file locations are written relative to.
+     * @param toolVersion The version of this linter, or {@code null} if not known.
+     * @throws IOException Failed to write the beginning of the report.
+     */
+    public SarifLintReporter(@NotNull Writer out, @NotNull Path root, @Nullable String toolVersion)
+            throws IOException {
+        this.writer = new JsonWriter(out);
+        this.root = root;
+
+        writer.beginObject();
+        writer.name("$schema").value(SCHEMA);
+        writer.name("version").value(VERSION);
+        writer.name("runs").beginArray();
+        writer.beginObject();
+        writer.name("tool").beginObject();
+        writer.name("driver").beginObject();
+        writer.name("name").value(TOOL_NAME);
+
+        if (toolVersion != null) {
+            writer.name("version").value(toolVersion);
+        }
+
+        writer.endObject();
+        writer.endObject();
+        writer.name("results").beginArray();
+    }
+
+    @Override
+    public void report(@NotNull FunctionLintResult result) throws IOException {
+        if (result.isClean()) {
+            return;
+        }
+
+        var uri = toUri(LintReporter.relativePath(root, result.file()));
+
+        if (result.ioError() != null) {
+            writer.beginObject();
+            writer.name("level").value("error");
+            writeMessage("Failed to read file: " + result.ioError().getMessage());
+            writeLocation(uri, 0, 0);
+            writer.endObject();
+        }
+
+        for (var diagnostic : result.diagnostics()) {
+            writer.beginObject();
+            writer.name("ruleId").value(diagnostic.diagnostic().getError().getId());
+            writer.name("level").value("error");
+            writeMessage(diagnostic.diagnostic().getDescription());
+            writeLocation(uri, diagnostic.line(), diagnostic.diagnostic().getCursor() + 1);
+            writer.endObject();
+        }
+    }
+
+    private void writeMessage(String text) throws IOException {
+        writer.name("message").beginObject();
+        writer.name("text").value(text);
+        writer.endObject();
+    }
+
+    private void writeLocation(String uri, int line, int column) throws IOException {
+        writer.name("locations").beginArray();
+        writer.beginObject();
+        writer.name("physicalLocation").beginObject();
+        writer.name("artifactLocation").beginObject();
+        writer.name("uri").value(uri);
+        writer.name("uriBaseId").value(SOURCE_ROOT);
+        writer.endObject();
+
+        if (line > 0) {
+            writer.name("region").beginObject();
+            writer.name("startLine").value(line);
+            writer.name("startColumn").value(column);
+            writer.endObject();
+        }
+
+        writer.endObject();
+        writer.endObject();
+        writer.endArray();
+    }
+
+    private static String toUri(String path) {
+        try {
+            return new URI(null, null, path, null).getRawPath();
+        } catch (URISyntaxException ex) {
+            return path;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.endArray();
+        writer.endObject();
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+    }
+}
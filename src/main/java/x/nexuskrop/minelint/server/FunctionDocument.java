@@ -0,0 +1,202 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.linting.CommandLinter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An open function document that keeps the diagnostic of every line.
+ * <p>
+ * Edits only relint the lines they touch. The diagnostics of all other lines are kept, and moved along when lines
+ * are inserted or removed above them.
+ */
+public class FunctionDocument {
+    private final CommandLinter linter;
+    private final CommandSyntaxParser parser;
+    private final ArrayList<String> lines = new ArrayList<>();
+    private final ArrayList<CommandDiagnostic> diagnostics = new ArrayList<>();
+    private int problems;
+
+    /**
+     * Constructs a new document and lints all of its lines.
+     * @param linter The linter to lint lines with.
+     * @param parser The parser to lint with. It must not be used by another thread while this document is edited.
+     * @param text The text of the document.
+     */
+    public FunctionDocument(@NotNull CommandLinter linter, @NotNull CommandSyntaxParser parser, @NotNull String text) {
+        this.linter = linter;
+        this.parser = parser;
+        replace(text);
+    }
+
+    /**
+     * Replaces the whole text of this document and lints all of its lines.
+     * @param text The new text.
+     */
+    public void replace(@NotNull String text) {
+        lines.clear();
+        diagnostics.clear();
+        problems = 0;
+        splice(0, 0, text);
+    }
+
+    /**
+     * Replaces a range of this document and relints the lines the range touched. Positions past the end of a line or
+     * of the document are moved back to the end.
+     * @param startLine The line of the start of the range, starting from {@code 0}.
+     * @param startCharacter The column of the start of the range, inclusive.
+     * @param endLine The line of the end of the range.
+     * @param endCharacter The column of the end of the range, exclusive.
+     * @param text The text to replace the range with.
+     * @return The amount of lines that were linted.
+     */
+    public int applyChange(int startLine, int startCharacter, int endLine, int endCharacter, @NotNull String text) {
+        var last = lines.size() - 1;
+
+        if (startLine > last) {
+            startLine = last;
+            startCharacter = Integer.MAX_VALUE;
+        }
+
+        if (endLine > last) {
+            endLine = last;
+            endCharacter = Integer.MAX_VALUE;
+        }
+
+        if (startLine < 0 || endLine < startLine) {
+            throw new IllegalArgumentException(String.format("Invalid range %d:%d to %d:%d",
+                    startLine, startCharacter, endLine, endCharacter));
+        }
+
+        var first = lines.get(startLine);
+        var end = lines.get(endLine);
+        var prefix = first.substring(0, Math.min(Math.max(startCharacter, 0), first.length()));
+        var suffix = end.substring(Math.min(Math.max(endCharacter, 0), end.length()));
+
+        return splice(startLine, endLine + 1, prefix + text + suffix);
+    }
+
+    /**
+     * Gets the amount of lines in this document.
+     * @return The amount of lines, at least {@code 1}.
+     */
+    public int lineCount() {
+        return lines.size();
+    }
+
+    /**
+     * Gets the text of a line, without the line terminator.
+     * @param line The line, starting from {@code 0}.
+     * @return The text.
+     */
+    public @NotNull String line(int line) {
+        return lines.get(line);
+    }
+
+    /**
+     * Gets the problem found in a line.
+     * @param line The line, starting from {@code 0}.
+     * @return The problem, or {@code null} if the line is valid.
+     */
+    public @Nullable CommandDiagnostic diagnostic(int line) {
+        return diagnostics.get(line);
+    }
+
+    /**
+     * Gets the amount of lines that have a problem.
+     * @return The amount of problems.
+     */
+    public int problemCount() {
+        return problems;
+    }
+
+    /**
+     * Gets the whole text of this document.
+     * @return The text, with lines separated by {@code \n}.
+     */
+    public @NotNull String text() {
+        return String.join("\n", lines);
+    }
+
+    private int splice(int from, int to, String text) {
+        for (int i = from; i < to; i++) {
+            if (diagnostics.get(i) != null) {
+                problems--;
+            }
+        }
+
+        var newLines = new ArrayList<String>();
+        var start = 0;
+        int lineEnd;
+
+        while ((lineEnd = text.indexOf('\n', start)) != -1) {
+            newLines.add(text.substring(start, lineEnd));
+            start = lineEnd + 1;
+        }
+
+        newLines.add(text.substring(start));
+
+        var newDiagnostics = new ArrayList<CommandDiagnostic>(newLines.size());
+
+        for (var line : newLines) {
+            var diagnostic = lint(line);
+            newDiagnostics.add(diagnostic);
+
+            if (diagnostic != null) {
+                problems++;
+            }
+        }
+
+        replaceRange(lines, from, to, newLines);
+        replaceRange(diagnostics, from, to, newDiagnostics);
+        return newLines.size();
+    }
+
+    private @Nullable CommandDiagnostic lint(String line) {
+        var end = line.length();
+
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+
+        parser.resetText(line, 0, end);
+        return linter.lint(parser);
+    }
+
+    private static <T> void replaceRange(ArrayList<T> list, int from, int to, List<T> replacement) {
+        var overlap = Math.min(to - from, replacement.size());
+
+        for (int i = 0; i < overlap; i++) {
+            list.set(from + i, replacement.get(i));
+        }
+
+        if (to - from > overlap) {
+            list.subList(from + overlap, to).clear();
+        } else if (replacement.size() > overlap) {
+            list.addAll(from + overlap, replacement.subList(overlap, replacement.size()));
+        }
+    }
+}
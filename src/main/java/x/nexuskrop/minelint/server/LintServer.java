@@ -0,0 +1,327 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.linting.CommandLinter;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A language server that lints function documents over a stream, usually the standard input and output.
+ * <p>
+ * Messages are JSON-RPC with {@code Content-Length} framing, as specified by the Language Server Protocol. Documents
+ * are synchronized incrementally, and every change publishes the diagnostics of the whole document.
+ */
+public class LintServer {
+    private static final String HEADER_CONTENT_LENGTH = "content-length:";
+    private static final int TEXT_DOCUMENT_SYNC_INCREMENTAL = 2;
+    private static final int SEVERITY_ERROR = 1;
+    private static final int ERROR_PARSE = -32700;
+    private static final int ERROR_INVALID_REQUEST = -32600;
+    private static final int ERROR_METHOD_NOT_FOUND = -32601;
+    private static final int ERROR_INVALID_PARAMS = -32602;
+
+    private final CommandLinter linter;
+    private final InputStream in;
+    private final OutputStream out;
+    private final CommandSyntaxParser parser = new CommandSyntaxParser("");
+    private final Map<String, FunctionDocument> documents = new HashMap<>();
+    private boolean shutdown;
+
+    /**
+     * Constructs a new server.
+     * @param linter The linter to lint documents with.
+     * @param in The stream to read messages from.
+     * @param out The stream to write messages to.
+     */
+    public LintServer(@NotNull CommandLinter linter, @NotNull InputStream in, @NotNull OutputStream out) {
+        this.linter = linter;
+        this.in = new BufferedInputStream(in);
+        this.out = out;
+    }
+
+    /**
+     * Serves messages until the client sends {@code exit} or closes the input.
+     * @return The exit code: {@code 0} if the client sent {@code shutdown} before exiting, otherwise {@code 1}.
+     * @throws IOException Failed to read or write a message.
+     */
+    public int run() throws IOException {
+        byte[] content;
+
+        while ((content = readMessage()) != null) {
+            JsonObject message;
+
+            try {
+                var element = JsonParser.parseString(new String(content, StandardCharsets.UTF_8));
+
+                if (!element.isJsonObject()) {
+                    writeError(JsonNull.INSTANCE, ERROR_INVALID_REQUEST, "Message is not an object");
+                    continue;
+                }
+
+                message = element.getAsJsonObject();
+            } catch (JsonParseException ex) {
+                writeError(JsonNull.INSTANCE, ERROR_PARSE, ex.getMessage());
+                continue;
+            }
+
+            var method = message.get("method");
+
+            if (method == null || !method.isJsonPrimitive()) {
+                // A response to a request of ours, of which there are none
+                continue;
+            }
+
+            if ("exit".equals(method.getAsString())) {
+                return shutdown ? 0 : 1;
+            }
+
+            var id = message.get("id");
+            var params = message.get("params");
+
+            try {
+                handle(method.getAsString(), id, params != null && params.isJsonObject() ? params.getAsJsonObject() : new JsonObject());
+            } catch (RuntimeException ex) {
+                // Malformed parameters, such as missing fields or values of the wrong type
+                if (id != null) {
+                    writeError(id, ERROR_INVALID_PARAMS, ex.toString());
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    private void handle(String method, @Nullable JsonElement id, JsonObject params) throws IOException {
+        switch (method) {
+            case "initialize" -> {
+                var sync = new JsonObject();
+                sync.addProperty("openClose", true);
+                sync.addProperty("change", TEXT_DOCUMENT_SYNC_INCREMENTAL);
+
+                var capabilities = new JsonObject();
+                capabilities.add("textDocumentSync", sync);
+
+                var info = new JsonObject();
+                info.addProperty("name", "MineLint");
+
+                var result = new JsonObject();
+                result.add("capabilities", capabilities);
+                result.add("serverInfo", info);
+                writeResult(id, result);
+            }
+            case "shutdown" -> {
+                shutdown = true;
+                documents.clear();
+                writeResult(id, JsonNull.INSTANCE);
+            }
+            case "textDocument/didOpen" -> {
+                var document = params.getAsJsonObject("textDocument");
+                var uri = document.get("uri").getAsString();
+                var opened = new FunctionDocument(linter, parser, document.get("text").getAsString());
+                documents.put(uri, opened);
+                publishDiagnostics(uri, opened);
+            }
+            case "textDocument/didChange" -> {
+                var uri = params.getAsJsonObject("textDocument").get("uri").getAsString();
+                var document = documents.get(uri);
+
+                if (document == null) {
+                    return;
+                }
+
+                for (var element : params.getAsJsonArray("contentChanges")) {
+                    var change = element.getAsJsonObject();
+                    var text = change.get("text").getAsString();
+                    var range = change.getAsJsonObject("range");
+
+                    if (range == null) {
+                        document.replace(text);
+                        continue;
+                    }
+
+                    var start = range.getAsJsonObject("start");
+                    var end = range.getAsJsonObject("end");
+                    document.applyChange(start.get("line").getAsInt(), start.get("character").getAsInt(),
+                            end.get("line").getAsInt(), end.get("character").getAsInt(), text);
+                }
+
+                publishDiagnostics(uri, document);
+            }
+            case "textDocument/didClose" -> {
+                var uri = params.getAsJsonObject("textDocument").get("uri").getAsString();
+
+                if (documents.remove(uri) != null) {
+                    publishDiagnostics(uri, null);
+                }
+            }
+            default -> {
+                // Notifications may be ignored, but requests must be answered
+                if (id != null) {
+                    writeError(id, ERROR_METHOD_NOT_FOUND, String.format("Unknown method %s", method));
+                }
+            }
+        }
+    }
+
+    private void publishDiagnostics(String uri, @Nullable FunctionDocument document) throws IOException {
+        var diagnostics = new JsonArray();
+
+        if (document != null) {
+            var count = document.lineCount();
+
+            for (int i = 0; i < count && diagnostics.size() < document.problemCount(); i++) {
+                var diagnostic = document.diagnostic(i);
+
+                if (diagnostic == null) {
+                    continue;
+                }
+
+                var line = document.line(i);
+                var lineEnd = line.endsWith("\r") ? line.length() - 1 : line.length();
+                var start = Math.min(diagnostic.getCursor(), lineEnd);
+
+                var range = new JsonObject();
+                range.add("start", position(i, start));
+                range.add("end", position(i, lineEnd));
+
+                var entry = new JsonObject();
+                entry.add("range", range);
+                entry.addProperty("severity", SEVERITY_ERROR);
+                entry.addProperty("code", diagnostic.getError().getId());
+                entry.addProperty("source", "minelint");
+                entry.addProperty("message", diagnostic.getDescription());
+                diagnostics.add(entry);
+            }
+        }
+
+        var params = new JsonObject();
+        params.addProperty("uri", uri);
+        params.add("diagnostics", diagnostics);
+
+        var notification = new JsonObject();
+        notification.addProperty("jsonrpc", "2.0");
+        notification.addProperty("method", "textDocument/publishDiagnostics");
+        notification.add("params", params);
+        writeMessage(notification);
+    }
+
+    private static JsonObject position(int line, int character) {
+        var position = new JsonObject();
+        position.addProperty("line", line);
+        position.addProperty("character", character);
+        return position;
+    }
+
+    private void writeResult(@Nullable JsonElement id, JsonElement result) throws IOException {
+        var response = new JsonObject();
+        response.addProperty("jsonrpc", "2.0");
+        response.add("id", id == null ? JsonNull.INSTANCE : id);
+        response.add("result", result);
+        writeMessage(response);
+    }
+
+    private void writeError(JsonElement id, int code, String message) throws IOException {
+        var error = new JsonObject();
+        error.addProperty("code", code);
+        error.addProperty("message", message);
+
+        var response = new JsonObject();
+        response.addProperty("jsonrpc", "2.0");
+        response.add("id", id);
+        response.add("error", error);
+        writeMessage(response);
+    }
+
+    private void writeMessage(JsonObject message) throws IOException {
+        var content = message.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(String.format(Locale.ROOT, "Content-Length: %d\r\n\r\n", content.length)
+                .getBytes(StandardCharsets.US_ASCII));
+        out.write(content);
+        out.flush();
+    }
+
+    /**
+     * Reads the content of the next message.
+     * @return The content, or {@code null} if the input ended.
+     */
+    private byte @Nullable [] readMessage() throws IOException {
+        var length = -1;
+        String header;
+
+        while ((header = readHeader()) != null) {
+            if (header.isEmpty()) {
+                if (length >= 0) {
+                    break;
+                }
+
+                // A message without length can not be skipped, so wait for the next one
+                continue;
+            }
+
+            if (header.regionMatches(true, 0, HEADER_CONTENT_LENGTH, 0, HEADER_CONTENT_LENGTH.length())) {
+                try {
+                    length = Integer.parseInt(header.substring(HEADER_CONTENT_LENGTH.length()).trim());
+                } catch (NumberFormatException ex) {
+                    throw new IOException(String.format("Invalid header %s", header), ex);
+                }
+            }
+        }
+
+        if (header == null) {
+            return null;
+        }
+
+        var content = in.readNBytes(length);
+        return content.length == length ? content : null;
+    }
+
+    private @Nullable String readHeader() throws IOException {
+        var buffer = new ByteArrayOutputStream();
+        int read;
+
+        while ((read = in.read()) != -1) {
+            if (read == '\n') {
+                var header = buffer.toString(StandardCharsets.US_ASCII);
+                return header.endsWith("\r") ? header.substring(0, header.length() - 1) : header;
+            }
+
+            buffer.write(read);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.linting.AllocationCounter;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.linting.LineResultCache;
+
+class AllocationCounterTest {
+    private static final String CONTENT = String.join("\n",
+            "say hello world",
+            "  # a comment",
+            "",
+            "function minecraft:foo/bar",
+            "function test:loop 'quoted value'",
+            "say \"quoted\" greedy");
+
+    @Test
+    void allocatedBytes_countsAllocations() {
+        if (!AllocationCounter.isSupported()) {
+            return;
+        }
+
+        var counter = AllocationCounter.start();
+        var array = new byte[1024 * 1024];
+
+        Assertions.assertTrue(counter.allocatedBytes() >= array.length);
+    }
+
+    @Test
+    void lint_validLinesAllocateNothing() {
+        if (!AllocationCounter.isSupported()) {
+            return;
+        }
+
+        var linter = new CommandLinter(TestLinters.sayAndFunction().compile("test"));
+        var parser = new CommandSyntaxParser("");
+
+        // Warm up, so that the measured loop runs compiled code
+        lintAll(linter, parser, 20_000);
+
+        var counter = AllocationCounter.start();
+        var problems = lintAll(linter, parser, 20_000);
+        var allocated = counter.allocatedBytes();
+
+        Assertions.assertEquals(0, problems);
+        Assertions.assertTrue(allocated < 1024, String.format("Allocated %d bytes", allocated));
+    }
+
+    @Test
+    void lint_cachedLinesAllocateNothing() {
+        if (!AllocationCounter.isSupported()) {
+            return;
+        }
+
+        var linter = new CommandLinter(TestLinters.sayAndFunction().compile("test"), null,
+                new LineResultCache());
+        var parser = new CommandSyntaxParser("");
+
+        // Warm up with repeated lines, which are stored on their second miss and found from then on
+        lintAll(linter, parser, 20_000);
+
+        var counter = AllocationCounter.start();
+        var problems = lintAll(linter, parser, 20_000);
+        var allocated = counter.allocatedBytes();
+
+        Assertions.assertEquals(0, problems);
+        Assertions.assertTrue(allocated < 1024, String.format("Allocated %d bytes", allocated));
+
+        // Lines that occur once are never stored, so missing them does not allocate either
+        lintLines(linter, parser, uniqueLines("warm-up"));
+
+        var text = uniqueLines("measured");
+        counter = AllocationCounter.start();
+        problems = lintLines(linter, parser, text);
+        allocated = counter.allocatedBytes();
+
+        Assertions.assertEquals(0, problems);
+        Assertions.assertTrue(allocated < 1024, String.format("Allocated %d bytes", allocated));
+    }
+
+    private static String uniqueLines(String prefix) {
+        var builder = new StringBuilder();
+
+        for (int i = 0; i < 2 * LineResultCache.DEFAULT_CAPACITY; i++) {
+            builder.append("say ").append(prefix).append(' ').append(i).append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    private static int lintAll(CommandLinter linter, CommandSyntaxParser parser, int rounds) {
+        var problems = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            problems += lintLines(linter, parser, CONTENT);
+        }
+
+        return problems;
+    }
+
+    private static int lintLines(CommandLinter linter, CommandSyntaxParser parser, String text) {
+        var problems = 0;
+        var start = 0;
+
+        while (start <= text.length()) {
+            var end = text.indexOf('\n', start);
+
+            if (end < 0) {
+                end = text.length();
+            }
+
+            parser.resetText(text, start, end);
+
+            if (linter.lint(parser) != null) {
+                problems++;
+            }
+
+            start = end + 1;
+        }
+
+        return problems;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CharacterTable;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+
+class CharacterTableTest {
+    @Test
+    void unquotedString_matchesComparisons() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            var expected = c >= '0' && c <= '9'
+                    || c >= 'A' && c <= 'Z'
+                    || c >= 'a' && c <= 'z'
+                    || c == '_' || c == '-'
+                    || c == '.' || c == '+';
+
+            Assertions.assertEquals(expected, CommandSyntaxParser.isAllowedInUnquotedString((char) c), String.valueOf(c));
+        }
+    }
+
+    @Test
+    void resourceLocation_matchesComparisons() {
+        for (int c = -1; c <= Character.MAX_VALUE; c++) {
+            var namespace = c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '_' || c == '-' || c == '.';
+
+            Assertions.assertEquals(namespace, ResourceLocation.isAllowedInNamespace(c));
+            Assertions.assertEquals(namespace || c == '/', ResourceLocation.isAllowedInPath(c));
+            Assertions.assertEquals(namespace || c == '/' || c == ':', ResourceLocation.isAllowedInResourceLocation(c));
+        }
+    }
+
+    @Test
+    void skip() {
+        var table = CharacterTable.builder().range('a', 'c').add('@').add('\u007f').build();
+
+        Assertions.assertEquals(5, table.skip("xabc@\u007fz", 1, 5));
+        Assertions.assertEquals(6, table.skip("xabc@\u007fz", 1, 7));
+        Assertions.assertEquals(0, table.skip("xabc", 0, 4));
+        Assertions.assertFalse(table.contains('\u0080'));
+        Assertions.assertFalse(table.contains(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CharacterTable.builder().add('\u00e9'));
+    }
+}
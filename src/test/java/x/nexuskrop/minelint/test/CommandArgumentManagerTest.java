@@ -0,0 +1,73 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.arguments.types.GreedyStringArgument;
+import x.nexuskrop.minelint.commands.arguments.types.ResourceLocationArgument;
+
+class CommandArgumentManagerTest {
+    @Test
+    void createDefault_registersBuiltIns() {
+        var manager = CommandArgumentManager.createDefault();
+        var greedy = manager.idOf("greedy_string");
+        var location = manager.idOf("resource_location");
+
+        Assertions.assertTrue(greedy >= 0 && greedy < manager.size());
+        Assertions.assertTrue(location >= 0 && location < manager.size());
+        Assertions.assertNotEquals(greedy, location);
+        Assertions.assertInstanceOf(GreedyStringArgument.class, manager.get(greedy));
+        Assertions.assertInstanceOf(ResourceLocationArgument.class, manager.get(location));
+        Assertions.assertEquals("resource_location", manager.getKey(location));
+        Assertions.assertSame(manager.get(greedy), manager.get("greedy_string"));
+    }
+
+    @Test
+    void idOf_unknown() {
+        var manager = CommandArgumentManager.createDefault();
+
+        Assertions.assertEquals(CommandArgumentManager.UNKNOWN_ID, manager.idOf("no_such_type"));
+        Assertions.assertNull(manager.get("no_such_type"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> manager.getEnsure("no_such_type"));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> manager.get(manager.size()));
+    }
+
+    @Test
+    void register_replaceKeepsId() {
+        var manager = new CommandArgumentManager();
+        var first = manager.register("test", new GreedyStringArgument());
+        var replacement = new GreedyStringArgument();
+
+        Assertions.assertEquals(0, first);
+        Assertions.assertEquals(first, manager.register("test", replacement));
+        Assertions.assertSame(replacement, manager.get(first));
+        Assertions.assertEquals(1, manager.size());
+    }
+
+    @Test
+    void register_reflection() {
+        var manager = new CommandArgumentManager();
+
+        Assertions.assertDoesNotThrow(() -> manager.register(ResourceLocationArgument.class));
+        Assertions.assertInstanceOf(ResourceLocationArgument.class, manager.get("resource_location"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> manager.register(String.class));
+    }
+}
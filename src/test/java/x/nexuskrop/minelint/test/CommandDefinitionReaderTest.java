@@ -0,0 +1,136 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionReader;
+import x.nexuskrop.minelint.commands.models.LazyCommandMap;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+
+import java.io.IOException;
+import java.util.List;
+
+class CommandDefinitionReaderTest {
+    private static final String DEFINITIONS = """
+            {
+              "comment": { "note": "skipped, with \\"quotes\\", {braces} and [brackets]", "list": [1, 2.5e3, true, null] },
+              "target": "1.20.*",
+              "commands": {
+                "say": { "arguments": { "message": { "type": "greedy_string", "required": true } } },
+                "tp": {
+                  "arguments": {
+                    "destination": { "type": "resource_location", "required": true },
+                    "facing": { "type": "greedy_string", "required": false },
+                    "extra": { "type": "unknown_type" }
+                  },
+                  "requirement": { "isMultiplayerOnly": false, "permissionLevel": 2 }
+                },
+                "stop": {},
+                "broken": { "arguments": 5 },
+                "sp\\u0061ce": null
+              },
+              "versions": {
+                "1.21.*": { "commands": { "tick": {} }, "removed": ["stop"] }
+              }
+            }
+            """;
+
+    @Test
+    void read_commandsAreLazy() throws IOException {
+        var definitions = CommandDefinitionReader.read(DEFINITIONS);
+        var commands = Assertions.assertInstanceOf(LazyCommandMap.class, definitions.commands());
+
+        Assertions.assertEquals("1.20.*", definitions.target());
+        Assertions.assertEquals(5, commands.size());
+        Assertions.assertTrue(commands.containsKey("space"));
+        Assertions.assertEquals(0, commands.materializedCount());
+
+        var tree = CommandTree.compile(definitions, CommandArgumentManager.createDefault());
+        Assertions.assertEquals(0, commands.materializedCount());
+        Assertions.assertFalse(tree.isCompiled("say"));
+
+        var say = tree.getCommand("say");
+        Assertions.assertNotNull(say);
+        Assertions.assertEquals(1, say.argumentCount());
+        Assertions.assertTrue(tree.isCompiled("say"));
+        Assertions.assertTrue(commands.isMaterialized("say"));
+        Assertions.assertFalse(commands.isMaterialized("tp"));
+        Assertions.assertEquals(1, commands.materializedCount());
+
+        Assertions.assertNull(tree.getCommand("missing"));
+        Assertions.assertSame(say, tree.getCommand("say"));
+
+        // A malformed definition is only found on first use, and the command is then unknown
+        Assertions.assertNull(tree.getCommand("broken"));
+        Assertions.assertFalse(tree.isCompiled("broken"));
+    }
+
+    @Test
+    void read_commandDefinition() throws IOException {
+        var commands = CommandDefinitionReader.read(DEFINITIONS).commands();
+
+        var tp = commands.get("tp");
+        Assertions.assertNotNull(tp);
+        Assertions.assertEquals(List.of("destination", "facing", "extra"), List.copyOf(tp.arguments().keySet()));
+        Assertions.assertEquals("resource_location", tp.arguments().get("destination").type());
+        Assertions.assertTrue(tp.arguments().get("destination").required());
+        Assertions.assertFalse(tp.arguments().get("extra").required());
+        Assertions.assertEquals(2, tp.requirement().permissionLevel());
+
+        var stop = commands.get("stop");
+        Assertions.assertNotNull(stop);
+        Assertions.assertNull(stop.arguments());
+
+        Assertions.assertNotNull(commands.get("space"));
+        Assertions.assertThrows(JsonParseException.class, () -> commands.get("broken"));
+    }
+
+    @Test
+    void read_versions() throws IOException {
+        var versions = CommandDefinitionReader.read(DEFINITIONS).versions();
+        Assertions.assertNotNull(versions);
+
+        var version = versions.get("1.21.*");
+        Assertions.assertNotNull(version);
+        Assertions.assertNull(version.parent());
+        Assertions.assertTrue(version.commands().containsKey("tick"));
+        Assertions.assertEquals(List.of("stop"), version.removed());
+    }
+
+    @Test
+    void read_malformed() {
+        Assertions.assertThrows(IOException.class, () -> CommandDefinitionReader.read("{\"commands\": {\"say\": {}"));
+        Assertions.assertThrows(IOException.class, () -> CommandDefinitionReader.read("{\"target\": \"a\"} trailing"));
+        Assertions.assertThrows(IOException.class, () -> CommandDefinitionReader.read("{\"commands\": {\"say\" {}}}"));
+        Assertions.assertThrows(IOException.class, () -> CommandDefinitionReader.read("[]"));
+    }
+
+    @Test
+    void getEmbedded_readsTarget() {
+        var definitions = CommandDefinitionModel.getEmbedded();
+
+        Assertions.assertNotNull(definitions);
+        Assertions.assertEquals("1.20.*", definitions.target());
+        Assertions.assertTrue(definitions.commands().containsKey("ban-ip"));
+    }
+}
@@ -2,9 +2,13 @@ package x.nexuskrop.minelint.test;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
 import x.nexuskrop.minelint.commands.CommandSyntaxParser;
 import x.nexuskrop.minelint.commands.CommandSyntaxException;
 
+import java.util.Locale;
+import java.util.Random;
+
 class CommandLinterTest {
     @Test
     void readUnquotedString_emptyTest() {
@@ -48,6 +52,16 @@ class CommandLinterTest {
         Assertions.assertEquals("word2", str2);
     }
 
+    @Test
+    void resetText_region() {
+        var linter = new CommandSyntaxParser("");
+        linter.resetText("say word1 word2\nsay word3", 4, 15);
+
+        Assertions.assertEquals("word1", Assertions.assertDoesNotThrow(linter::readUnquotedString));
+        Assertions.assertEquals("word2", Assertions.assertDoesNotThrow(linter::readUnquotedString));
+        Assertions.assertTrue(linter.isEnd());
+    }
+
     @Test
     void read_valueTest() {
         var linter = new CommandSyntaxParser("10 20 30.2 40.3");
@@ -58,6 +72,82 @@ class CommandLinterTest {
         Assertions.assertEquals(40.3, Assertions.assertDoesNotThrow(linter::readDouble));
     }
 
+    @Test
+    void read_valueBounds() {
+        var linter = new CommandSyntaxParser("-2147483648 2147483647 -9223372036854775808 -32768");
+
+        Assertions.assertEquals(Integer.MIN_VALUE, Assertions.assertDoesNotThrow(linter::readInt));
+        Assertions.assertEquals(Integer.MAX_VALUE, Assertions.assertDoesNotThrow(linter::readInt));
+        Assertions.assertEquals(Long.MIN_VALUE, Assertions.assertDoesNotThrow(linter::readLong));
+        Assertions.assertEquals((short) -32768, Assertions.assertDoesNotThrow(linter::readShort));
+    }
+
+    @Test
+    void read_valueInvalid() {
+        var overflow = new CommandSyntaxParser("say 2147483648");
+        Assertions.assertDoesNotThrow(overflow::readUnquotedString);
+
+        var ex = Assertions.assertThrows(CommandSyntaxException.class, overflow::readInt);
+        Assertions.assertEquals(CommandSyntaxError.INVALID_VALUE, ex.getError());
+        Assertions.assertEquals(4, ex.getCursor());
+
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser("12a")::readLong);
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser("-")::readInt);
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser("1.5")::readInt);
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser("1e")::readDouble);
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser(".")::readDouble);
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser("1e400")::readDouble);
+        Assertions.assertThrows(CommandSyntaxException.class, new CommandSyntaxParser("1e39")::readFloat);
+    }
+
+    @Test
+    void read_decimalMatchesJdk() {
+        var random = new Random(42);
+
+        for (int i = 0; i < 10000; i++) {
+            var value = switch (i % 4) {
+                case 0 -> Integer.toString(random.nextInt(2000001) - 1000000);
+                case 1 -> String.format(Locale.ROOT, "%.3f", random.nextDouble() * 60000 - 30000);
+                case 2 -> Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+                default -> random.nextInt(100000) + "." + random.nextInt(100000) + "e" + (random.nextInt(80) - 40);
+            };
+
+            var linter = new CommandSyntaxParser(value + " " + value);
+
+            Assertions.assertEquals(Double.parseDouble(value), Assertions.assertDoesNotThrow(linter::readDouble), value);
+
+            if (Float.isInfinite(Float.parseFloat(value))) {
+                Assertions.assertThrows(CommandSyntaxException.class, linter::readFloat);
+            } else {
+                Assertions.assertEquals(Float.parseFloat(value), Assertions.assertDoesNotThrow(linter::readFloat), value);
+            }
+        }
+    }
+
+    @Test
+    void tryRead_failureRecorded() {
+        var linter = new CommandSyntaxParser("12 abc");
+
+        Assertions.assertTrue(linter.tryReadInt());
+        Assertions.assertEquals(12, linter.getLongValue());
+        Assertions.assertNull(linter.getFailure());
+
+        Assertions.assertFalse(linter.tryReadInt());
+
+        var failure = linter.getFailure();
+        Assertions.assertNotNull(failure);
+        Assertions.assertEquals(CommandSyntaxError.INVALID_VALUE, failure.getError());
+        Assertions.assertEquals(3, failure.getCursor());
+        Assertions.assertEquals("Invalid int", failure.getDescription());
+
+        var ex = linter.toException();
+        Assertions.assertEquals("MCF0007: Invalid int", ex.getMessage());
+        Assertions.assertEquals(0, ex.getStackTrace().length);
+
+        linter.resetText("");
+        Assertions.assertNull(linter.getFailure());
+    }
+
     @Test
     void readBoolean_legal() {
         var linter = new CommandSyntaxParser("true false");
@@ -84,6 +174,44 @@ class CommandLinterTest {
         Assertions.assertEquals("double", str2);
     }
 
+    @Test
+    void readQuotedString_escape() {
+        var linter = new CommandSyntaxParser("\"say \\\"hi\\\"\" 'it\\'s' \"a\\b\"");
+
+        Assertions.assertEquals("say \"hi\"", Assertions.assertDoesNotThrow(linter::readQuotedString));
+        Assertions.assertEquals("it's", Assertions.assertDoesNotThrow(linter::readQuotedString));
+
+        var ex = Assertions.assertThrows(CommandSyntaxException.class, linter::readQuotedString);
+        Assertions.assertEquals(CommandSyntaxError.INVALID_ESCAPE, ex.getError());
+        Assertions.assertEquals(23, ex.getCursor());
+    }
+
+    @Test
+    void readQuotedSpan_offsets() {
+        var linter = new CommandSyntaxParser("say 'a\\'b' end");
+        Assertions.assertDoesNotThrow(linter::readUnquotedSpan);
+
+        var span = Assertions.assertDoesNotThrow(linter::readQuotedSpan);
+        Assertions.assertEquals(5, span.start());
+        Assertions.assertEquals(9, span.end());
+        Assertions.assertTrue(span.hasEscapes());
+        Assertions.assertEquals(3, span.length());
+        Assertions.assertEquals('b', span.charAt(2));
+        Assertions.assertTrue(span.contentEquals("a'b"));
+        Assertions.assertEquals("a'b", span.toString());
+    }
+
+    @Test
+    void readUnquotedSpan_contentEquals() {
+        var linter = new CommandSyntaxParser("word1 word2");
+
+        var span = Assertions.assertDoesNotThrow(linter::readUnquotedSpan);
+        Assertions.assertTrue(span.contentEquals("word1"));
+        Assertions.assertFalse(span.contentEquals("word"));
+        Assertions.assertEquals(0, span.start());
+        Assertions.assertEquals(5, span.end());
+    }
+
     @Test
     void readGreedyString_test() {
         var linter = new CommandSyntaxParser("say Hey This Great Something!!!");
@@ -0,0 +1,105 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.linting.CommandStreamLinter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+class CommandStreamLinterTest {
+    @Test
+    void lint_ordered() throws IOException {
+        var input = new StringBuilder();
+
+        for (int i = 1; i <= 10_000; i++) {
+            input.append(i % 7 == 0 ? "unknown_command" : "# comment").append('\n');
+        }
+
+        // Small batches and few workers, so that the queues fill up
+        var linter = new CommandStreamLinter(TestLinters.embedded(), 3, 16);
+        var out = new StringWriter();
+        var summary = linter.lint(new BufferedReader(new StringReader(input.toString())), out);
+
+        Assertions.assertEquals(10_000, summary.lines());
+        Assertions.assertEquals(10_000 / 7, summary.problems());
+
+        var records = out.toString().split("\n");
+        Assertions.assertEquals(10_000 / 7, records.length);
+
+        for (int i = 0; i < records.length; i++) {
+            Assertions.assertTrue(records[i].startsWith((i + 1) * 7 + ": "), records[i]);
+            Assertions.assertTrue(records[i].contains("MCF0009"), records[i]);
+        }
+    }
+
+    @Test
+    void lint_leadingSlash() throws IOException {
+        var out = new StringWriter();
+        var summary = new CommandStreamLinter(TestLinters.embedded(), 1, 4)
+                .lint(new BufferedReader(new StringReader("/unknown_command\nunknown_command\n/ban-ip\nban-ip\n/\n")), out);
+
+        Assertions.assertEquals(5, summary.lines());
+
+        var records = out.toString().split("\n");
+        Assertions.assertEquals(4, records.length);
+        Assertions.assertEquals(records[0].substring(1), records[1].substring(1));
+        Assertions.assertEquals(records[2].substring(1), records[3].substring(1));
+    }
+
+    @Test
+    void lint_empty() throws IOException {
+        var out = new StringWriter();
+        var summary = new CommandStreamLinter(TestLinters.embedded()).lint(new BufferedReader(new StringReader("")), out);
+
+        Assertions.assertEquals(0, summary.lines());
+        Assertions.assertEquals("", out.toString());
+    }
+
+    @Test
+    void lint_readError() {
+        var failing = new Reader() {
+            private boolean read;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (read) {
+                    throw new IOException("Broken pipe");
+                }
+
+                read = true;
+                buffer[offset] = '\n';
+                return 1;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        var linter = new CommandStreamLinter(TestLinters.embedded(), 2, 1);
+        var ex = Assertions.assertThrows(IOException.class, () -> linter.lint(new BufferedReader(failing), new StringWriter()));
+        Assertions.assertEquals("Broken pipe", ex.getMessage());
+    }
+}
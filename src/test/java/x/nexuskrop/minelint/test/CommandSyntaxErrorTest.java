@@ -0,0 +1,47 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+
+import java.lang.reflect.Modifier;
+
+class CommandSyntaxErrorTest {
+    @Test
+    void of_findsEveryBuiltInError() throws IllegalAccessException {
+        var count = 0;
+
+        for (var field : CommandSyntaxError.class.getFields()) {
+            var modifiers = field.getModifiers();
+
+            if (!Modifier.isStatic(modifiers) || field.getType() != CommandSyntaxError.class) {
+                continue;
+            }
+
+            var error = (CommandSyntaxError) field.get(null);
+            Assertions.assertSame(error, CommandSyntaxError.of(error.getId(), error.getDescription()),
+                    field.getName() + " is missing from the built-in errors");
+            count++;
+        }
+
+        Assertions.assertTrue(count > 0, "No built-in errors found");
+    }
+}
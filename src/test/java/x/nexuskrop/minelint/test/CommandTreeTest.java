@@ -0,0 +1,106 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.commands.tree.LiteralTable;
+import x.nexuskrop.minelint.linting.CommandLinter;
+
+import java.util.HashMap;
+
+class CommandTreeTest {
+    private static CommandTree createTree() {
+        return TestLinters.definitions()
+                .command("test")
+                .argument("first", "greedy_string", false)
+                .argument("second", "unknown_type", true)
+                .argument("third", "greedy_string", false)
+                .command("say")
+                .compile("1.20.*");
+    }
+
+    @Test
+    void compile_resolvesArguments() {
+        var tree = createTree();
+        Assertions.assertEquals("1.20.*", tree.target());
+
+        var command = tree.getCommand("test");
+        Assertions.assertNotNull(command);
+        Assertions.assertEquals(3, command.argumentCount());
+        Assertions.assertEquals(2, command.minimumArguments());
+        Assertions.assertEquals("second", command.argument(1).name());
+        Assertions.assertNotNull(command.argument(0).parameter());
+        Assertions.assertNull(command.argument(1).parameter());
+        Assertions.assertEquals(CommandArgumentManager.UNKNOWN_ID, command.argument(1).typeId());
+        Assertions.assertEquals(command.argument(0).typeId(), command.argument(2).typeId());
+
+        var say = tree.getCommand("say");
+        Assertions.assertNotNull(say);
+        Assertions.assertEquals(0, say.argumentCount());
+        Assertions.assertNull(tree.getCommand("tes"));
+    }
+
+    @Test
+    void getCommand_span() {
+        var tree = createTree();
+        var parser = new CommandSyntaxParser("test say");
+
+        Assertions.assertSame(tree.getCommand("test"), tree.getCommand(Assertions.assertDoesNotThrow(parser::readUnquotedSpan)));
+        Assertions.assertSame(tree.getCommand("say"), tree.getCommand(Assertions.assertDoesNotThrow(parser::readUnquotedSpan)));
+    }
+
+    @Test
+    void lint_missingRequired() {
+        var linter = new CommandLinter(createTree());
+        var parser = new CommandSyntaxParser("test");
+
+        var diagnostic = linter.lint(parser);
+        Assertions.assertNotNull(diagnostic);
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, diagnostic.getError());
+        Assertions.assertEquals("Excepted first", diagnostic.getDescription());
+
+        parser.resetText("say extra");
+        diagnostic = linter.lint(parser);
+        Assertions.assertNotNull(diagnostic);
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_END_OF_COMMAND, diagnostic.getError());
+    }
+
+    @Test
+    void literalTable_manyEntries() {
+        var entries = new HashMap<String, Integer>();
+
+        for (int i = 0; i < 1000; i++) {
+            entries.put("literal" + i, i);
+        }
+
+        var table = new LiteralTable<>(entries);
+        Assertions.assertEquals(1000, table.size());
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, table.get(new StringBuilder("literal").append(i)));
+        }
+
+        Assertions.assertNull(table.get("literal1000"));
+    }
+}
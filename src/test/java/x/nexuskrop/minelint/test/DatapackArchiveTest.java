@@ -0,0 +1,97 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.linting.DatapackArchive;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.ReferenceIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+class DatapackArchiveTest {
+    @TempDir
+    Path root;
+
+    private Path zip(Map<String, String> entries) throws IOException {
+        var file = root.resolve("pack.zip");
+
+        try (var out = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (var entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+
+        return file;
+    }
+
+    @Test
+    void isArchive() throws IOException {
+        var file = zip(Map.of("data/test/functions/a.mcfunction", ""));
+
+        Assertions.assertTrue(DatapackArchive.isArchive(file));
+        Assertions.assertFalse(DatapackArchive.isArchive(root));
+        Assertions.assertFalse(DatapackArchive.isArchive(root.resolve("missing.zip")));
+    }
+
+    @Test
+    void lint_nestedRoot() throws IOException {
+        // Larger than the threshold above which files on disk are memory-mapped
+        var large = "# comment\n".repeat(10_000) + "unknown_command\n";
+        var file = zip(Map.of(
+                "pack/pack.mcmeta", "{}",
+                "pack/data/test/functions/main.mcfunction", "function test:large\nfunction test:missing\n",
+                "pack/data/test/functions/large.mcfunction", large,
+                "pack/data/minecraft/tags/functions/load.json", "{\"values\": [\"test:main\"]}"));
+
+        try (var archive = DatapackArchive.open(file)) {
+            Assertions.assertEquals("/pack", archive.root().toString());
+
+            var index = new ReferenceIndex(archive.root());
+            index.loadTags();
+
+            try (var linter = new DatapackLinter(TestLinters.embedded(), 2, null, index)) {
+                var results = linter.lint(archive.root());
+
+                Assertions.assertEquals(2, results.size());
+
+                var largeResult = results.get(0);
+                Assertions.assertNull(largeResult.ioError());
+                Assertions.assertEquals(10_001, largeResult.lineCount());
+                Assertions.assertEquals(CommandSyntaxError.UNKNOWN_COMMAND, largeResult.diagnostics().get(0).diagnostic().getError());
+            }
+
+            var report = index.analyze();
+            Assertions.assertEquals(1, report.unresolved().size());
+            Assertions.assertEquals("test:missing", report.unresolved().get(0).target().toString());
+            Assertions.assertTrue(report.unreachable().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+class DatapackLinterTest {
+    @TempDir
+    Path root;
+
+    private void writeFunction(String path, String content) throws IOException {
+        var file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    @Test
+    void lint_stableOrder() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            writeFunction(String.format("data/test/functions/f%02d.mcfunction", i), "ban-ip\n");
+        }
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 4)) {
+            var results = linter.lint(root);
+
+            Assertions.assertEquals(50, results.size());
+
+            for (int i = 0; i < results.size(); i++) {
+                Assertions.assertEquals(String.format("f%02d.mcfunction", i), results.get(i).file().getFileName().toString());
+            }
+        }
+    }
+
+    @Test
+    void lint_diagnostics() throws IOException {
+        writeFunction("data/test/functions/main.mcfunction", """
+                # comment
+
+                  ban-ip
+                unknown_command arg
+                """);
+        writeFunction("data/test/other.txt", "not a function");
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2)) {
+            var results = linter.lint(root);
+
+            Assertions.assertEquals(1, results.size());
+
+            var result = results.get(0);
+            Assertions.assertEquals(4, result.lineCount());
+            Assertions.assertEquals(2, result.diagnostics().size());
+
+            var missing = result.diagnostics().get(0);
+            Assertions.assertEquals(3, missing.line());
+            Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, missing.diagnostic().getError());
+
+            var unknown = result.diagnostics().get(1);
+            Assertions.assertEquals(4, unknown.line());
+            Assertions.assertEquals(0, unknown.diagnostic().getCursor());
+            Assertions.assertEquals(CommandSyntaxError.UNKNOWN_COMMAND, unknown.diagnostic().getError());
+        }
+    }
+
+    @Test
+    void lint_whitespaceOnlyLine() throws IOException {
+        writeFunction("data/test/functions/blank.mcfunction", "say hi\n   \n");
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2)) {
+            var results = linter.lint(root);
+
+            Assertions.assertEquals(1, results.size());
+            Assertions.assertEquals(2, results.get(0).lineCount());
+            Assertions.assertTrue(results.get(0).diagnostics().stream().noneMatch(diagnostic -> diagnostic.line() == 2));
+        }
+    }
+
+    @Test
+    void lint_streamsInOrder() throws IOException {
+        for (int i = 0; i < 600; i++) {
+            writeFunction(String.format("data/test/functions/f%03d.mcfunction", i), i % 3 == 0 ? "unknown\n" : "\n");
+        }
+
+        var names = new ArrayList<String>();
+        var problems = new int[1];
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 4)) {
+            linter.lint(root, result -> {
+                names.add(result.file().getFileName().toString());
+                problems[0] += result.diagnostics().size();
+            });
+        }
+
+        Assertions.assertEquals(600, names.size());
+        Assertions.assertEquals(200, problems[0]);
+
+        for (int i = 0; i < names.size(); i++) {
+            Assertions.assertEquals(String.format("f%03d.mcfunction", i), names.get(i));
+        }
+    }
+
+    @Test
+    void lint_streamStopsOnConsumerError() throws IOException {
+        for (int i = 0; i < 300; i++) {
+            writeFunction(String.format("data/test/functions/f%03d.mcfunction", i), "");
+        }
+
+        var consumed = new int[1];
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2)) {
+            var ex = Assertions.assertThrows(IOException.class, () -> linter.lint(root, result -> {
+                if (++consumed[0] == 10) {
+                    throw new IOException("Disk full");
+                }
+            }));
+
+            Assertions.assertEquals("Disk full", ex.getMessage());
+        }
+
+        Assertions.assertEquals(10, consumed[0]);
+    }
+}
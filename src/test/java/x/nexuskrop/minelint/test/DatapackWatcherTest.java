@@ -0,0 +1,174 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.DatapackWatcher;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+class DatapackWatcherTest {
+    @TempDir
+    Path root;
+
+    private record Change(List<FunctionLintResult> results, List<Path> removed) {
+    }
+
+    private static Change next(BlockingQueue<Change> changes) throws InterruptedException {
+        var change = changes.poll(10, TimeUnit.SECONDS);
+        Assertions.assertNotNull(change);
+        return change;
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void run_relintsChangedFiles() throws IOException, InterruptedException {
+        var functions = root.resolve("data/test/functions");
+        Files.createDirectories(functions);
+        Files.writeString(functions.resolve("clean.mcfunction"), "ban-ip\n");
+
+        var changes = new LinkedBlockingQueue<Change>();
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2);
+             var watcher = new DatapackWatcher(linter, root)) {
+            var thread = new Thread(() -> watcher.run((results, removed, latency) -> changes.add(new Change(results, removed))));
+            thread.start();
+
+            // Files in directories created after the watcher started are picked up as well
+            var nested = functions.resolve("nested");
+            Files.createDirectories(nested);
+            Files.writeString(nested.resolve("broken.mcfunction"), "unknown_command\n");
+
+            var change = next(changes);
+
+            while (change.results().isEmpty()) {
+                change = next(changes);
+            }
+
+            var result = change.results().get(0);
+            Assertions.assertEquals(nested.resolve("broken.mcfunction"), result.file());
+            Assertions.assertEquals(CommandSyntaxError.UNKNOWN_COMMAND, result.diagnostics().get(0).diagnostic().getError());
+
+            Files.delete(functions.resolve("clean.mcfunction"));
+            change = next(changes);
+
+            while (change.removed().isEmpty()) {
+                change = next(changes);
+            }
+
+            Assertions.assertEquals(List.of(functions.resolve("clean.mcfunction")), change.removed());
+
+            watcher.close();
+            thread.join(10_000);
+            Assertions.assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void run_reportsFilesOfMovedDirectories() throws IOException, InterruptedException {
+        var pack = root.resolve("pack");
+        var moved = Files.createDirectories(pack.resolve("data/test/functions/moved/nested"));
+        Files.writeString(moved.resolve("../first.mcfunction"), "ban-ip\n");
+        Files.writeString(moved.resolve("second.mcfunction"), "ban-ip\n");
+
+        var changes = new LinkedBlockingQueue<Change>();
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2);
+             var watcher = new DatapackWatcher(linter, pack)) {
+            var thread = new Thread(() -> watcher.run((results, removed, latency) -> changes.add(new Change(results, removed))));
+            thread.start();
+
+            // Moving a directory away only reports the directory itself, not the files in it
+            Files.move(moved.getParent(), root.resolve("outside"));
+            var removed = new TreeSet<Path>();
+
+            while (removed.size() < 2) {
+                removed.addAll(next(changes).removed());
+            }
+
+            Assertions.assertEquals(List.of(moved.resolve("../first.mcfunction").normalize(),
+                    moved.resolve("second.mcfunction")), List.copyOf(removed));
+
+            watcher.close();
+            thread.join(10_000);
+            Assertions.assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void run_survivesVanishedDirectories() throws IOException, InterruptedException {
+        var functions = root.resolve("data/test/functions");
+        Files.createDirectories(functions);
+
+        var changes = new LinkedBlockingQueue<Change>();
+        var errors = new LinkedBlockingQueue<Exception>();
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2);
+             var watcher = new DatapackWatcher(linter, root)) {
+            var thread = new Thread(() -> watcher.run(new DatapackWatcher.Listener() {
+                @Override
+                public void onChange(List<FunctionLintResult> results, List<Path> removed, long latencyNanos) {
+                    changes.add(new Change(results, removed));
+                }
+
+                @Override
+                public void onError(Exception ex) {
+                    errors.add(ex);
+                }
+            }));
+            thread.start();
+
+            // Directories deleted before the watcher gets to register them are skipped
+            for (int i = 0; i < 20; i++) {
+                var nested = Files.createDirectories(functions.resolve("transient" + i + "/nested"));
+                Files.delete(nested);
+                Files.delete(nested.getParent());
+            }
+
+            Files.writeString(functions.resolve("after.mcfunction"), "unknown_command\n");
+            var change = next(changes);
+
+            while (change.results().isEmpty()) {
+                change = next(changes);
+            }
+
+            Assertions.assertEquals(functions.resolve("after.mcfunction"), change.results().get(0).file());
+            Assertions.assertTrue(errors.isEmpty(), "Unexpected error: " + errors.peek());
+            Assertions.assertTrue(thread.isAlive());
+
+            watcher.close();
+            thread.join(10_000);
+            Assertions.assertFalse(thread.isAlive());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.parsing.selector.EntitySelectorParser;
+import x.nexuskrop.minelint.parsing.selector.SelectorOption;
+
+class EntitySelectorTest {
+    private final EntitySelectorParser selector = new EntitySelectorParser();
+
+    private void valid(String text) {
+        var parser = new CommandSyntaxParser(text);
+        Assertions.assertTrue(selector.tryParse(parser), text + ": " + parser.getFailure());
+        Assertions.assertTrue(parser.isEnd(), text);
+    }
+
+    private CommandSyntaxError invalid(String text) {
+        var parser = new CommandSyntaxParser(text);
+        Assertions.assertFalse(selector.tryParse(parser), text);
+        Assertions.assertNotNull(parser.getFailure());
+        return parser.getFailure().getError();
+    }
+
+    @Test
+    void parse_selectorTypes() {
+        valid("@p");
+        Assertions.assertEquals('p', selector.getSelectorType());
+        Assertions.assertEquals(1, selector.getMaxResults());
+        Assertions.assertFalse(selector.includesEntities());
+
+        valid("@a");
+        Assertions.assertEquals(Integer.MAX_VALUE, selector.getMaxResults());
+        Assertions.assertFalse(selector.includesEntities());
+
+        valid("@e");
+        Assertions.assertTrue(selector.includesEntities());
+
+        valid("@s");
+        Assertions.assertTrue(selector.isCurrentEntity());
+
+        valid("@r");
+        valid("@n");
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_UNKNOWN_TYPE, invalid("@x"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("@"));
+    }
+
+    @Test
+    void parse_namesAndUuids() {
+        valid("Steve");
+        Assertions.assertEquals('\0', selector.getSelectorType());
+        Assertions.assertFalse(selector.isUuid());
+        Assertions.assertFalse(selector.includesEntities());
+
+        valid("\"Alex\"");
+        valid("dd12be42-52a9-4a91-a8a1-11c01849e498");
+        Assertions.assertTrue(selector.isUuid());
+        Assertions.assertTrue(selector.includesEntities());
+
+        valid("0-0-0-0-1");
+        Assertions.assertTrue(selector.isUuid());
+
+        Assertions.assertEquals(CommandSyntaxError.INVALID_NAME_OR_UUID, invalid("ThisNameIsFarTooLong"));
+        Assertions.assertEquals(CommandSyntaxError.INVALID_NAME_OR_UUID, invalid("\"\""));
+    }
+
+    @Test
+    void parse_options() {
+        valid("@e[type=minecraft:zombie,limit=1,sort=nearest]");
+        Assertions.assertEquals(1, selector.getMaxResults());
+        Assertions.assertTrue(selector.hasOption(SelectorOption.TYPE));
+        Assertions.assertTrue(selector.hasOption(SelectorOption.SORT));
+        Assertions.assertFalse(selector.hasOption(SelectorOption.TAG));
+
+        valid("@e[ type = !#minecraft:skeletons , tag=a, tag=!b, tag=,]");
+        valid("@a[name=!\"Some One\",name=!Other,gamemode=!creative,gamemode=!spectator]");
+        valid("@e[x=1.5,y=-2,z=.5,dx=10,dy=0,dz=-3.25]");
+        valid("@e[x_rotation=-90..90,y_rotation=170..-170]");
+        valid("@e[nbt={Tags:[\"a\"]},nbt=!{NoAI:1b},predicate=test:p,predicate=!test:q]");
+        valid("@a[scores={kills=1..,deaths=..5 ,level=3},team=red]");
+        valid("@a[advancements={story/root=true,test:a={crit=false,other=true}}]");
+        valid("@e[\"type\"=player]");
+        Assertions.assertFalse(selector.includesEntities());
+        valid("@e[type=!player]");
+        Assertions.assertTrue(selector.includesEntities());
+        valid("@e[]");
+    }
+
+    @Test
+    void parse_ranges() {
+        valid("@a[level=1..5]");
+        Assertions.assertEquals(1, selector.getLevelMin());
+        Assertions.assertEquals(5, selector.getLevelMax());
+
+        valid("@a[level=3]");
+        Assertions.assertEquals(3, selector.getLevelMin());
+        Assertions.assertEquals(3, selector.getLevelMax());
+
+        valid("@e[distance=..12.5]");
+        Assertions.assertEquals(0, selector.getDistanceMin());
+        Assertions.assertEquals(12.5, selector.getDistanceMax());
+
+        valid("@e[distance=2..]");
+        Assertions.assertEquals(2, selector.getDistanceMin());
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, selector.getDistanceMax());
+
+        Assertions.assertEquals(CommandSyntaxError.RANGE_SWAPPED, invalid("@a[level=5..1]"));
+        Assertions.assertEquals(CommandSyntaxError.VALUE_TOO_SMALL, invalid("@a[level=-1..]"));
+        Assertions.assertEquals(CommandSyntaxError.VALUE_TOO_SMALL, invalid("@e[distance=..-1]"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("@a[level=..]"));
+        Assertions.assertEquals(CommandSyntaxError.INVALID_VALUE, invalid("@a[level=1.5]"));
+        Assertions.assertEquals(CommandSyntaxError.INVALID_VALUE, invalid("@a[scores={a=1-2}]"));
+    }
+
+    @Test
+    void parse_optionErrors() {
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_UNKNOWN_OPTION, invalid("@e[colour=red]"));
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_UNKNOWN_OPTION, invalid("@e[typ=zombie]"));
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE, invalid("@e[limit=1,limit=2]"));
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE, invalid("@s[limit=1]"));
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE, invalid("@a[type=zombie]"));
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE,
+                invalid("@e[type=zombie,type=!skeleton]"));
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_OPTION_NOT_APPLICABLE,
+                invalid("@e[type=!skeleton,type=zombie]"));
+        Assertions.assertEquals(CommandSyntaxError.VALUE_TOO_SMALL, invalid("@e[limit=0]"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE_BUT, invalid("@e[sort=closest]"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE_BUT, invalid("@a[gamemode=hardcore]"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("@e[limit=!1]"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE_BUT, invalid("@e[tag=a tag=b]"));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("@e[tag=a"));
+        Assertions.assertEquals(CommandSyntaxError.INVALID_RESOURCE_LOCATION, invalid("@e[type=a:b:c]"));
+    }
+
+    @Test
+    void parse_everyOption() {
+        // Every option must resolve through the option table, rather than being reported as unknown
+        for (var option : SelectorOption.values()) {
+            var parser = new CommandSyntaxParser("@e[" + option.key() + "=");
+            selector.tryParse(parser);
+            Assertions.assertNotNull(parser.getFailure());
+            Assertions.assertTrue(parser.getFailure().getError() != CommandSyntaxError.SELECTOR_UNKNOWN_OPTION,
+                    option.key());
+        }
+    }
+
+    @Test
+    void argument_lint() {
+        var linter = new CommandLinter(TestLinters.definitions()
+                .command("test")
+                .argument("player", "single_player", true)
+                .argument("entity", "single_entity", true)
+                .argument("players", "players", true)
+                .argument("entities", "entities", false)
+                .compile("test"));
+        var parser = new CommandSyntaxParser("");
+
+        parser.resetText("test @s @e[type=zombie,limit=1] @a[tag=x] @e[distance=..5]");
+        Assertions.assertNull(linter.lint(parser));
+
+        parser.resetText("test Steve @p @r[limit=3] dd12be42-52a9-4a91-a8a1-11c01849e498");
+        Assertions.assertNull(linter.lint(parser));
+
+        parser.resetText("test @a @e @a");
+        var multiple = linter.lint(parser);
+        Assertions.assertNotNull(multiple);
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_NOT_SINGLE, multiple.getError());
+
+        parser.resetText("test @e[limit=1] @e @a");
+        var entities = linter.lint(parser);
+        Assertions.assertNotNull(entities);
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_NOT_PLAYERS, entities.getError());
+
+        parser.resetText("test @p @e @e[type=player]");
+        Assertions.assertNotNull(linter.lint(parser));
+
+        parser.resetText("test @e[type=player,limit=1] @e[limit=1] @e[type=player]");
+        Assertions.assertNull(linter.lint(parser));
+
+        parser.resetText("test @p[limit=1]x @e @a");
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_END_OR_WHITESPACE, linter.lint(parser).getError());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.server.FunctionDocument;
+
+class FunctionDocumentTest {
+    private static FunctionDocument createDocument(String text) {
+        return new FunctionDocument(TestLinters.embedded(), new CommandSyntaxParser(""), text);
+    }
+
+    @Test
+    void open_lintsAllLines() {
+        var document = createDocument("ban-ip\r\n# comment\nunknown_command\n");
+
+        Assertions.assertEquals(4, document.lineCount());
+        Assertions.assertEquals(2, document.problemCount());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, document.diagnostic(0).getError());
+        Assertions.assertNull(document.diagnostic(1));
+        Assertions.assertEquals(CommandSyntaxError.UNKNOWN_COMMAND, document.diagnostic(2).getError());
+        Assertions.assertNull(document.diagnostic(3));
+    }
+
+    @Test
+    void applyChange_keepsUntouchedLines() {
+        var document = createDocument("unknown_a\n# comment\nunknown_b");
+        var first = document.diagnostic(0);
+        var last = document.diagnostic(2);
+
+        // Insert two lines in the middle
+        Assertions.assertEquals(3, document.applyChange(1, 0, 1, 0, "unknown_c\n\n"));
+        Assertions.assertEquals(5, document.lineCount());
+        Assertions.assertSame(first, document.diagnostic(0));
+        Assertions.assertEquals(CommandSyntaxError.UNKNOWN_COMMAND, document.diagnostic(1).getError());
+        Assertions.assertNull(document.diagnostic(2));
+        Assertions.assertEquals("# comment", document.line(3));
+        Assertions.assertSame(last, document.diagnostic(4));
+        Assertions.assertEquals(3, document.problemCount());
+
+        // Remove them again, joining across lines
+        Assertions.assertEquals(1, document.applyChange(1, 0, 3, 0, ""));
+        Assertions.assertEquals("unknown_a\n# comment\nunknown_b", document.text());
+        Assertions.assertSame(last, document.diagnostic(2));
+        Assertions.assertEquals(2, document.problemCount());
+
+        // Fix the last line by replacing a word
+        document.applyChange(2, 0, 2, 9, "# fixed");
+        Assertions.assertNull(document.diagnostic(2));
+        Assertions.assertEquals(1, document.problemCount());
+    }
+
+    @Test
+    void applyChange_clampsPositions() {
+        var document = createDocument("# a");
+
+        document.applyChange(5, 0, 9, 0, "\nunknown");
+        Assertions.assertEquals("# a\nunknown", document.text());
+        Assertions.assertEquals(1, document.problemCount());
+
+        document.replace("");
+        Assertions.assertEquals(1, document.lineCount());
+        Assertions.assertEquals(0, document.problemCount());
+    }
+}
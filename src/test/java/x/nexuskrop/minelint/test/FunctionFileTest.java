@@ -0,0 +1,128 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.linting.ByteCharSequence;
+import x.nexuskrop.minelint.linting.FunctionFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class FunctionFileTest {
+    @TempDir
+    Path root;
+
+    private static List<String> lines(FunctionFile file) {
+        var result = new ArrayList<String>();
+        var start = 0;
+
+        while (start < file.length()) {
+            var lineEnd = file.findLineEnd(start);
+            result.add(file.content().subSequence(start, file.trimLineEnd(start, lineEnd)).toString());
+            start = lineEnd + 1;
+        }
+
+        return result;
+    }
+
+    private static FunctionFile of(String content) {
+        var buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        return Assertions.assertDoesNotThrow(() -> FunctionFile.of(buffer));
+    }
+
+    @Test
+    void lines_ascii() {
+        Assertions.assertEquals(List.of("say a", "", "say b"), lines(of("say a\n\nsay b\n")));
+    }
+
+    @Test
+    void findLineEnd_matchesScalar() throws IOException {
+        var random = new Random(42);
+        var bytes = new byte[1000];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = random.nextInt(10) == 0 ? (byte) '\n' : (byte) ('a' + random.nextInt(26));
+        }
+
+        for (var order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            var file = FunctionFile.of(ByteBuffer.wrap(bytes).order(order));
+
+            for (int start = 0; start <= bytes.length; start++) {
+                var expected = start;
+
+                while (expected < bytes.length && bytes[expected] != '\n') {
+                    expected++;
+                }
+
+                Assertions.assertEquals(expected, file.findLineEnd(start));
+            }
+        }
+    }
+
+    @Test
+    void indexOf_region() {
+        var content = new ByteCharSequence(ByteBuffer.wrap("xx\nabcdefghij\nk".getBytes(StandardCharsets.US_ASCII)));
+        var region = (ByteCharSequence) content.subSequence(3, 15);
+
+        Assertions.assertEquals(10, region.indexOf('\n', 0));
+        Assertions.assertEquals(-1, region.indexOf('\n', 11));
+        Assertions.assertEquals(-1, region.indexOf('x', 0));
+        Assertions.assertEquals(11, region.indexOf('k', 5));
+    }
+
+    @Test
+    void lines_crlf() {
+        Assertions.assertEquals(List.of("say a", "say b"), lines(of("say a\r\nsay b")));
+    }
+
+    @Test
+    void lines_utf8WithByteOrderMark() {
+        Assertions.assertEquals(List.of("say \u00e4", "say \u00f6"), lines(of("\uFEFFsay \u00e4\nsay \u00f6\n")));
+    }
+
+    @Test
+    void of_malformed() {
+        var buffer = ByteBuffer.wrap(new byte[] { 's', (byte) 0xC3, '\n' });
+        Assertions.assertThrows(IOException.class, () -> FunctionFile.of(buffer));
+    }
+
+    @Test
+    void open_mapped() throws IOException {
+        var file = root.resolve("large.mcfunction");
+        var expected = new ArrayList<String>();
+
+        for (int i = 0; i < 10000; i++) {
+            expected.add("say line " + i);
+        }
+
+        Files.write(file, expected);
+
+        Assertions.assertEquals(expected, lines(FunctionFile.open(file)));
+    }
+}
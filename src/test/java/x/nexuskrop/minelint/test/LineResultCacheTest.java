@@ -0,0 +1,246 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.linting.LineResultCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+class LineResultCacheTest {
+    private static final CommandArgumentManager ARGUMENTS = CommandArgumentManager.createDefault();
+
+    private static CommandLinter createLinter(LineResultCache cache) {
+        var tree = TestLinters.definitions()
+                .command("kill").argument("targets", "entities", false)
+                .command("say").argument("message", "greedy_string", true)
+                .compile("1.20.*", ARGUMENTS);
+        return new CommandLinter(tree, null, cache);
+    }
+
+    @Test
+    void lint_repeatedLineHits() {
+        var cache = new LineResultCache(64);
+        var linter = createLinter(cache);
+        var parser = new CommandSyntaxParser("");
+
+        for (int i = 0; i < 4; i++) {
+            parser.resetText("kill @e[type=zombie]");
+            Assertions.assertNull(linter.lint(parser));
+        }
+
+        // The line is only stored on its second miss
+        Assertions.assertEquals(2, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void lint_singleLinesNotStored() {
+        var cache = new LineResultCache(64);
+        var linter = createLinter(cache);
+
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("say first")));
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("say second")));
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("say first")));
+        Assertions.assertEquals(0, cache.hits());
+
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("say first")));
+        Assertions.assertEquals(1, cache.hits());
+
+        cache.clear();
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("say first")));
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("say first")));
+        Assertions.assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void lint_cachedProblemMatchesParsed() {
+        var cached = createLinter(new LineResultCache(64));
+        var uncached = createLinter(null);
+        var line = "kill @e[typ=zombie]";
+
+        var expected = uncached.lint(new CommandSyntaxParser(line));
+        Assertions.assertNotNull(expected);
+        Assertions.assertEquals(CommandSyntaxError.SELECTOR_UNKNOWN_OPTION, expected.getError());
+
+        for (int i = 0; i < 2; i++) {
+            var diagnostic = cached.lint(new CommandSyntaxParser(line));
+            Assertions.assertNotNull(diagnostic);
+            Assertions.assertEquals(expected.getError(), diagnostic.getError());
+            Assertions.assertEquals(expected.getCursor(), diagnostic.getCursor());
+            Assertions.assertEquals(expected.getDescription(), diagnostic.getDescription());
+        }
+    }
+
+    @Test
+    void lint_indentationShiftsCursor() {
+        var cache = new LineResultCache(64);
+        var linter = createLinter(cache);
+
+        linter.lint(new CommandSyntaxParser("kill @q"));
+        var flat = linter.lint(new CommandSyntaxParser("kill @q"));
+        var indented = linter.lint(new CommandSyntaxParser("    kill @q"));
+
+        Assertions.assertNotNull(flat);
+        Assertions.assertNotNull(indented);
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(flat.getError(), indented.getError());
+        Assertions.assertEquals(flat.getCursor() + 4, indented.getCursor());
+    }
+
+    @Test
+    void lint_region() {
+        var cache = new LineResultCache(64);
+        var linter = createLinter(cache);
+        var parser = new CommandSyntaxParser("");
+        var text = "say hi\nkill @q\nkill @q\nkill @q";
+
+        parser.resetText(text, 7, 14);
+        var first = linter.lint(parser);
+        parser.resetText(text, 15, 22);
+        linter.lint(parser);
+        parser.resetText(text, 23, 30);
+        var second = linter.lint(parser);
+
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(second);
+        Assertions.assertEquals(first.getCursor(), second.getCursor());
+        Assertions.assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void lint_commentsAndEmptyLinesSkipCache() {
+        var cache = new LineResultCache(64);
+        var linter = createLinter(cache);
+
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("# kill @q")));
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser("")));
+        Assertions.assertEquals(0, cache.hits() + cache.misses());
+    }
+
+    @Test
+    void lint_treesDoNotShareEntries() {
+        var cache = new LineResultCache(64);
+        var first = createLinter(cache);
+        var second = new CommandLinter(first.tree().derive("1.21.*", Map.of(), List.of("kill"), ARGUMENTS), null,
+                cache);
+
+        Assertions.assertNull(first.lint(new CommandSyntaxParser("kill @e")));
+        Assertions.assertNull(first.lint(new CommandSyntaxParser("kill @e")));
+        var diagnostic = second.lint(new CommandSyntaxParser("kill @e"));
+
+        Assertions.assertNotNull(diagnostic);
+        Assertions.assertEquals(CommandSyntaxError.UNKNOWN_COMMAND, diagnostic.getError());
+        Assertions.assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void lint_evictsBeyondCapacity() {
+        var cache = new LineResultCache(4);
+        var linter = createLinter(cache);
+        Assertions.assertEquals(4, cache.capacity());
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNull(linter.lint(new CommandSyntaxParser("say " + i)));
+            Assertions.assertNull(linter.lint(new CommandSyntaxParser("say " + i)));
+        }
+
+        Assertions.assertEquals(200, cache.misses());
+
+        var hitsBefore = cache.hits();
+        var found = 0;
+
+        for (int i = 0; i < 100; i++) {
+            linter.lint(new CommandSyntaxParser("say " + i));
+            found += (int) (cache.hits() - hitsBefore);
+            hitsBefore = cache.hits();
+        }
+
+        Assertions.assertTrue(found <= cache.capacity(), "More entries than the capacity: " + found);
+    }
+
+    @Test
+    void lint_longLinesNotCached() {
+        var cache = new LineResultCache(64);
+        var linter = createLinter(cache);
+        var line = "say " + "a".repeat(LineResultCache.MAX_LINE_LENGTH);
+
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser(line)));
+        Assertions.assertNull(linter.lint(new CommandSyntaxParser(line)));
+        Assertions.assertEquals(0, cache.hits() + cache.misses());
+    }
+
+    @Test
+    void constructor_roundsCapacity() {
+        Assertions.assertEquals(2, new LineResultCache(1).capacity());
+        Assertions.assertEquals(1024, new LineResultCache(1000).capacity());
+        Assertions.assertEquals(1024, new LineResultCache(1024).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LineResultCache(0));
+    }
+
+    @Test
+    void lint_concurrent() throws InterruptedException {
+        var cache = new LineResultCache(8);
+        var linter = createLinter(cache);
+        var failure = new AtomicReference<Throwable>();
+        var threads = new ArrayList<Thread>();
+
+        for (int t = 0; t < 4; t++) {
+            var thread = new Thread(() -> {
+                var parser = new CommandSyntaxParser("");
+
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        var bad = i % 2 == 0;
+                        parser.resetText((i % 3 == 0 ? "  " : "") + (bad ? "kill @q" + (i % 5) : "say " + (i % 7)));
+                        var diagnostic = linter.lint(parser);
+
+                        if (bad != (diagnostic != null)) {
+                            throw new AssertionError("Wrong result for line " + i);
+                        }
+
+                        if (bad && diagnostic.getCursor() != (i % 3 == 0 ? 7 : 5)) {
+                            throw new AssertionError("Wrong cursor " + diagnostic.getCursor() + " for line " + i);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(8000, cache.hits() + cache.misses());
+        Assertions.assertTrue(cache.hits() > 0, "No hits");
+    }
+}
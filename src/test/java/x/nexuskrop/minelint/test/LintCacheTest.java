@@ -0,0 +1,144 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.LintCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+class LintCacheTest {
+    @TempDir
+    Path root;
+
+    private DatapackLinter createLinter(String fingerprint) {
+        return new DatapackLinter(TestLinters.embedded(), 2, new LintCache(root.resolve("cache"), fingerprint));
+    }
+
+    private void ageEntries(Duration age) throws IOException {
+        try (var entries = Files.walk(root.resolve("cache"))) {
+            for (var entry : entries.filter(Files::isRegularFile).toList()) {
+                Files.setLastModifiedTime(entry, FileTime.from(Instant.now().minus(age)));
+            }
+        }
+    }
+
+    @Test
+    void lint_replaysUnchanged() throws IOException {
+        var function = root.resolve("pack/data/test/functions/main.mcfunction");
+        Files.createDirectories(function.getParent());
+        Files.writeString(function, "ban-ip\nunknown\n");
+
+        try (var linter = createLinter("schema")) {
+            var first = linter.lint(root.resolve("pack")).get(0);
+            Assertions.assertFalse(first.cached());
+
+            var second = linter.lint(root.resolve("pack")).get(0);
+            Assertions.assertTrue(second.cached());
+            Assertions.assertEquals(first.lineCount(), second.lineCount());
+            Assertions.assertEquals(2, second.diagnostics().size());
+
+            for (int i = 0; i < 2; i++) {
+                var expected = first.diagnostics().get(i);
+                var actual = second.diagnostics().get(i);
+
+                Assertions.assertEquals(expected.line(), actual.line());
+                Assertions.assertSame(expected.diagnostic().getError(), actual.diagnostic().getError());
+                Assertions.assertEquals(expected.diagnostic().getCursor(), actual.diagnostic().getCursor());
+                Assertions.assertEquals(expected.diagnostic().getDescription(), actual.diagnostic().getDescription());
+            }
+
+            Assertions.assertSame(CommandSyntaxError.UNKNOWN_COMMAND, second.diagnostics().get(1).diagnostic().getError());
+
+            Files.writeString(function, "ban-ip\n");
+            Assertions.assertFalse(linter.lint(root.resolve("pack")).get(0).cached());
+        }
+    }
+
+    @Test
+    void lint_schemaChangeMisses() throws IOException {
+        var function = root.resolve("pack/data/test/functions/main.mcfunction");
+        Files.createDirectories(function.getParent());
+        Files.writeString(function, "ban-ip\n");
+
+        try (var linter = createLinter("schema1")) {
+            linter.lint(root.resolve("pack"));
+        }
+
+        try (var linter = createLinter("schema2")) {
+            Assertions.assertFalse(linter.lint(root.resolve("pack")).get(0).cached());
+        }
+
+        try (var linter = createLinter("schema1")) {
+            Assertions.assertTrue(linter.lint(root.resolve("pack")).get(0).cached());
+        }
+    }
+
+    @Test
+    void get_corruptEntryMisses() throws IOException {
+        var function = root.resolve("pack/data/test/functions/main.mcfunction");
+        Files.createDirectories(function.getParent());
+        Files.writeString(function, "ban-ip\n");
+
+        try (var linter = createLinter("schema")) {
+            linter.lint(root.resolve("pack"));
+
+            try (var entries = Files.walk(root.resolve("cache"))) {
+                for (var entry : entries.filter(Files::isRegularFile).toList()) {
+                    Files.writeString(entry, "{\"lines\":");
+                }
+            }
+
+            Assertions.assertFalse(linter.lint(root.resolve("pack")).get(0).cached());
+            Assertions.assertTrue(linter.lint(root.resolve("pack")).get(0).cached());
+        }
+    }
+
+    @Test
+    void prune_removesStaleEntries() throws IOException {
+        var function = root.resolve("pack/data/test/functions/main.mcfunction");
+        Files.createDirectories(function.getParent());
+        Files.writeString(function, "ban-ip\n");
+
+        var cache = new LintCache(root.resolve("cache"), "schema");
+        Assertions.assertEquals(0, cache.prune(Duration.ofDays(1)));
+
+        try (var linter = createLinter("schema")) {
+            linter.lint(root.resolve("pack"));
+
+            // A hit keeps the entry alive
+            ageEntries(Duration.ofDays(2));
+            Assertions.assertTrue(linter.lint(root.resolve("pack")).get(0).cached());
+            Assertions.assertEquals(0, cache.prune(Duration.ofDays(1)));
+
+            ageEntries(Duration.ofDays(2));
+            Assertions.assertEquals(1, cache.prune(Duration.ofDays(1)));
+            Assertions.assertFalse(linter.lint(root.resolve("pack")).get(0).cached());
+        }
+    }
+}
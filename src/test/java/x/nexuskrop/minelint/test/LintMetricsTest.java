@@ -0,0 +1,130 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.metrics.LatencyHistogram;
+import x.nexuskrop.minelint.metrics.LintMetrics;
+import x.nexuskrop.minelint.metrics.LintPhase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class LintMetricsTest {
+    @TempDir
+    Path root;
+
+    private static CommandLinter createLinter(CommandArgumentManager arguments, LintMetrics metrics) {
+        return new CommandLinter(TestLinters.sayAndFunction().compile("test", arguments), metrics);
+    }
+
+    @Test
+    void histogram_percentiles() {
+        var histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        Assertions.assertEquals(100, histogram.count());
+        Assertions.assertEquals(5_050_000, histogram.totalNanos());
+        Assertions.assertEquals(100_000, histogram.maxNanos());
+
+        // Buckets are powers of two, so a percentile is within a factor of two above the exact value
+        var median = histogram.percentileNanos(50);
+        Assertions.assertTrue(median >= 50_000 && median < 100_000, Long.toString(median));
+        Assertions.assertEquals(100_000, histogram.percentileNanos(100));
+    }
+
+    @Test
+    void histogram_empty() {
+        var histogram = new LatencyHistogram();
+
+        Assertions.assertEquals(0, histogram.count());
+        Assertions.assertEquals(0, histogram.percentileNanos(99));
+    }
+
+    @Test
+    void lint_recordsArguments() {
+        var arguments = CommandArgumentManager.createDefault();
+        var metrics = new LintMetrics(arguments);
+        var linter = createLinter(arguments, metrics);
+        var parser = new CommandSyntaxParser("");
+
+        for (var line : new String[] { "say hello", "function test:valid", "function Invalid", "# comment" }) {
+            parser.resetText(line);
+            linter.lint(parser);
+        }
+
+        var greedy = arguments.idOf("greedy_string");
+        var location = arguments.idOf("resource_location");
+
+        Assertions.assertEquals(1, metrics.argument(greedy).count());
+        Assertions.assertEquals(0, metrics.argumentFailures(greedy));
+        Assertions.assertEquals(2, metrics.argument(location).count());
+        Assertions.assertEquals(1, metrics.argumentFailures(location));
+        Assertions.assertNull(metrics.argument(CommandArgumentManager.UNKNOWN_ID));
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void lint_recordsFilesAndPhases() throws IOException {
+        var arguments = CommandArgumentManager.createDefault();
+        var metrics = new LintMetrics(arguments);
+        var directory = root.resolve("data/test/functions");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("a.mcfunction"), "say hello\nfunction test:b\n");
+        Files.writeString(directory.resolve("b.mcfunction"), "unknown\n");
+
+        try (var linter = new DatapackLinter(createLinter(arguments, metrics), 2)) {
+            linter.lint(root);
+        }
+
+        Assertions.assertEquals(2, metrics.files());
+        Assertions.assertEquals(3, metrics.lines());
+        Assertions.assertEquals(1, metrics.problems());
+        Assertions.assertEquals(2, metrics.phase(LintPhase.READ).count());
+        Assertions.assertEquals(2, metrics.phase(LintPhase.PARSE).count());
+        Assertions.assertEquals(0, metrics.phase(LintPhase.REFERENCES).count());
+
+        try (var span = LintMetrics.begin(metrics, LintPhase.REPORT)) {
+            Assertions.assertEquals(0, metrics.phase(LintPhase.REPORT).count());
+        }
+
+        Assertions.assertEquals(1, metrics.phase(LintPhase.REPORT).count());
+
+        var out = new ByteArrayOutputStream();
+        metrics.printSummary(new PrintStream(out, true, StandardCharsets.UTF_8));
+        var summary = out.toString(StandardCharsets.UTF_8);
+
+        Assertions.assertTrue(summary.contains("2 files"), summary);
+        Assertions.assertTrue(summary.contains("resource_location"), summary);
+        Assertions.assertTrue(summary.contains("report"), summary);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandDiagnostic;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.linting.FunctionLintResult;
+import x.nexuskrop.minelint.linting.LintDiagnostic;
+import x.nexuskrop.minelint.reporting.JsonLintReporter;
+import x.nexuskrop.minelint.reporting.LintReporter;
+import x.nexuskrop.minelint.reporting.SarifLintReporter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+import java.util.List;
+
+class LintReporterTest {
+    private static final Path ROOT = Path.of("pack");
+
+    private static List<FunctionLintResult> createResults() {
+        var unknown = new LintDiagnostic(2, new CommandDiagnostic(CommandSyntaxError.UNKNOWN_COMMAND, 0, "foo"));
+        var missing = new LintDiagnostic(5, new CommandDiagnostic(CommandSyntaxError.EXCEPTED_VALUE, 6, "target"));
+
+        return List.of(
+                new FunctionLintResult(ROOT.resolve("data/a/functions/clean.mcfunction"), 3, List.of(), null, false),
+                new FunctionLintResult(ROOT.resolve("data/a/functions/main.mcfunction"), 5, List.of(unknown, missing),
+                        null, true),
+                new FunctionLintResult(ROOT.resolve("data/a/functions/locked.mcfunction"), 0, List.of(),
+                        new AccessDeniedException("locked.mcfunction"), false));
+    }
+
+    private static JsonObject write(LintReporter reporter, StringWriter out) throws IOException {
+        try (reporter) {
+            for (var result : createResults()) {
+                reporter.report(result);
+            }
+        }
+
+        return JsonParser.parseString(out.toString()).getAsJsonObject();
+    }
+
+    @Test
+    void json_report() throws IOException {
+        var out = new StringWriter();
+        var report = write(new JsonLintReporter(out, ROOT), out);
+
+        var files = report.getAsJsonArray("files");
+        Assertions.assertEquals(2, files.size());
+
+        var main = files.get(0).getAsJsonObject();
+        Assertions.assertEquals("data/a/functions/main.mcfunction", main.get("file").getAsString());
+
+        var diagnostics = main.getAsJsonArray("diagnostics");
+        Assertions.assertEquals(2, diagnostics.size());
+
+        var missing = diagnostics.get(1).getAsJsonObject();
+        Assertions.assertEquals(5, missing.get("line").getAsInt());
+        Assertions.assertEquals(6, missing.get("cursor").getAsInt());
+        Assertions.assertEquals("MCF0006", missing.get("id").getAsString());
+        Assertions.assertEquals("Excepted target", missing.get("message").getAsString());
+
+        var locked = files.get(1).getAsJsonObject();
+        Assertions.assertEquals("locked.mcfunction", locked.get("error").getAsString());
+
+        var summary = report.getAsJsonObject("summary");
+        Assertions.assertEquals(3, summary.get("files").getAsInt());
+        Assertions.assertEquals(8, summary.get("lines").getAsInt());
+        Assertions.assertEquals(3, summary.get("problems").getAsInt());
+    }
+
+    @Test
+    void json_empty() throws IOException {
+        var out = new StringWriter();
+        new JsonLintReporter(out, ROOT).close();
+
+        Assertions.assertEquals("{\"files\":[],\"summary\":{\"files\":0,\"lines\":0,\"problems\":0}}", out.toString());
+    }
+
+    @Test
+    void sarif_report() throws IOException {
+        var out = new StringWriter();
+        var report = write(new SarifLintReporter(out, ROOT, "1.0"), out);
+
+        Assertions.assertEquals("2.1.0", report.get("version").getAsString());
+
+        var run = report.getAsJsonArray("runs").get(0).getAsJsonObject();
+        var driver = run.getAsJsonObject("tool").getAsJsonObject("driver");
+        Assertions.assertEquals("MineLint", driver.get("name").getAsString());
+        Assertions.assertEquals("1.0", driver.get("version").getAsString());
+
+        var results = run.getAsJsonArray("results");
+        Assertions.assertEquals(3, results.size());
+
+        var unknown = results.get(0).getAsJsonObject();
+        Assertions.assertEquals("MCF0009", unknown.get("ruleId").getAsString());
+        Assertions.assertEquals("Unknown command foo", unknown.getAsJsonObject("message").get("text").getAsString());
+
+        var location = unknown.getAsJsonArray("locations").get(0).getAsJsonObject()
+                .getAsJsonObject("physicalLocation");
+        Assertions.assertEquals("data/a/functions/main.mcfunction",
+                location.getAsJsonObject("artifactLocation").get("uri").getAsString());
+        Assertions.assertEquals(2, location.getAsJsonObject("region").get("startLine").getAsInt());
+        Assertions.assertEquals(1, location.getAsJsonObject("region").get("startColumn").getAsInt());
+
+        var locked = results.get(2).getAsJsonObject();
+        Assertions.assertFalse(locked.has("ruleId"));
+    }
+
+    @Test
+    void relativePath_slashes() {
+        Assertions.assertEquals("data/a/functions/b.mcfunction",
+                LintReporter.relativePath(ROOT, ROOT.resolve("data").resolve("a").resolve("functions")
+                        .resolve("b.mcfunction")));
+        Assertions.assertEquals("b.mcfunction", LintReporter.relativePath(Path.of("b.mcfunction"),
+                Path.of("b.mcfunction")));
+    }
+}
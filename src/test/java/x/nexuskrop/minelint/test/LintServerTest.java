@@ -0,0 +1,96 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.server.LintServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class LintServerTest {
+    private static void frame(StringBuilder builder, String content) {
+        builder.append("Content-Length: ").append(content.getBytes(StandardCharsets.UTF_8).length)
+                .append("\r\n\r\n").append(content);
+    }
+
+    private static List<JsonObject> run(String... messages) throws IOException {
+        var input = new StringBuilder();
+
+        for (var message : messages) {
+            frame(input, message);
+        }
+
+        var out = new ByteArrayOutputStream();
+        var server = new LintServer(TestLinters.embedded(),
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+        Assertions.assertEquals(0, server.run());
+
+        var output = out.toString(StandardCharsets.UTF_8);
+        var responses = new ArrayList<JsonObject>();
+        var start = 0;
+
+        while (start < output.length()) {
+            var headerEnd = output.indexOf("\r\n\r\n", start);
+            var length = Integer.parseInt(output.substring(start + "Content-Length: ".length(), headerEnd));
+            var content = output.substring(headerEnd + 4, headerEnd + 4 + length);
+            responses.add(JsonParser.parseString(content).getAsJsonObject());
+            start = headerEnd + 4 + length;
+        }
+
+        return responses;
+    }
+
+    @Test
+    void run_publishesIncrementalDiagnostics() throws IOException {
+        var responses = run(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":{}}",
+                "{\"jsonrpc\":\"2.0\",\"method\":\"textDocument/didOpen\",\"params\":{\"textDocument\":"
+                        + "{\"uri\":\"file:///a.mcfunction\",\"version\":1,\"text\":\"# ok\\nunknown_command\"}}}",
+                "{\"jsonrpc\":\"2.0\",\"method\":\"textDocument/didChange\",\"params\":{\"textDocument\":"
+                        + "{\"uri\":\"file:///a.mcfunction\",\"version\":2},\"contentChanges\":[{\"range\":"
+                        + "{\"start\":{\"line\":1,\"character\":0},\"end\":{\"line\":1,\"character\":0}},\"text\":\"# \"}]}}",
+                "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"unknown/request\"}",
+                "{\"jsonrpc\":\"2.0\",\"id\":3,\"method\":\"shutdown\"}",
+                "{\"jsonrpc\":\"2.0\",\"method\":\"exit\"}");
+
+        Assertions.assertEquals(5, responses.size());
+        Assertions.assertEquals(2, responses.get(0).getAsJsonObject("result").getAsJsonObject("capabilities")
+                .getAsJsonObject("textDocumentSync").get("change").getAsInt());
+
+        var opened = responses.get(1).getAsJsonObject("params").getAsJsonArray("diagnostics");
+        Assertions.assertEquals(1, opened.size());
+
+        var diagnostic = opened.get(0).getAsJsonObject();
+        Assertions.assertEquals("MCF0009", diagnostic.get("code").getAsString());
+        Assertions.assertEquals(1, diagnostic.getAsJsonObject("range").getAsJsonObject("start").get("line").getAsInt());
+        Assertions.assertEquals(15, diagnostic.getAsJsonObject("range").getAsJsonObject("end").get("character").getAsInt());
+
+        Assertions.assertEquals(0, responses.get(2).getAsJsonObject("params").getAsJsonArray("diagnostics").size());
+        Assertions.assertEquals(-32601, responses.get(3).getAsJsonObject("error").get("code").getAsInt());
+        Assertions.assertTrue(responses.get(4).get("result").isJsonNull());
+    }
+}
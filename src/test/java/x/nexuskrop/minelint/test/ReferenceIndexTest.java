@@ -0,0 +1,122 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import x.nexuskrop.minelint.linting.DatapackLinter;
+import x.nexuskrop.minelint.linting.ReferenceIndex;
+import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class ReferenceIndexTest {
+    @TempDir
+    Path root;
+
+    private void write(String path, String content) throws IOException {
+        var file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private ReferenceIndex index() throws IOException {
+        var index = new ReferenceIndex(root);
+        index.loadTags();
+
+        try (var linter = new DatapackLinter(TestLinters.embedded(), 2, null, index)) {
+            linter.lint(root);
+        }
+
+        return index;
+    }
+
+    @Test
+    void locate() {
+        var file = root.resolve("data/test/functions/a/b.mcfunction");
+
+        Assertions.assertEquals(new ResourceLocation("test", "a/b"),
+                ReferenceIndex.locate(root, file, "functions", ".mcfunction"));
+        Assertions.assertNull(ReferenceIndex.locate(root, root.resolve("data/test/other/b.mcfunction"),
+                "functions", ".mcfunction"));
+        Assertions.assertNull(ReferenceIndex.locate(root, root.resolve("data/test/functions/B.mcfunction"),
+                "functions", ".mcfunction"));
+        Assertions.assertEquals(new ResourceLocation("minecraft", "load"),
+                ReferenceIndex.locate(root, root.resolve("data/minecraft/tags/functions/load.json"),
+                        "tags/functions", ".json"));
+    }
+
+    @Test
+    void analyze() throws IOException {
+        write("data/minecraft/tags/functions/load.json", "{\"values\": [\"test:main\", {\"id\": \"test:optional\", \"required\": false}]}");
+        write("data/minecraft/tags/functions/tick.json", "{\"values\": [\"#test:loop\"]}");
+        write("data/test/tags/functions/loop.json", "{\"values\": [\"test:loop/a\"]}");
+        write("data/test/tags/functions/broken.json", "{\"values\": [");
+        write("data/test/functions/main.mcfunction", """
+                # function test:commented
+                function test:helper
+                execute as @a run function test:missing
+                say function test:not_a_reference
+                schedule function #test:no_tag 1t
+                """);
+        write("data/test/functions/helper.mcfunction", "tellraw @a \"hi\"\n");
+        write("data/test/functions/loop/a.mcfunction", "function test:loop/b\n");
+        write("data/test/functions/loop/b.mcfunction", "execute if function test:loop/a run say\n");
+        write("data/test/functions/self.mcfunction", "function test:self\n");
+        write("data/test/functions/orphan.mcfunction", "say orphan\n");
+
+        var index = index();
+        Assertions.assertEquals(6, index.functionCount());
+        Assertions.assertEquals(3, index.tagCount());
+
+        var report = index.analyze();
+
+        Assertions.assertEquals(List.of(root.resolve("data/test/tags/functions/broken.json")), report.invalidTags());
+        Assertions.assertEquals(2, report.unresolved().size());
+
+        var missing = report.unresolved().get(0);
+        Assertions.assertEquals(3, missing.line());
+        Assertions.assertEquals("test:missing", missing.target().toString());
+
+        var tag = report.unresolved().get(1);
+        Assertions.assertEquals(5, tag.line());
+        Assertions.assertEquals("#test:no_tag", tag.target().toString());
+
+        Assertions.assertEquals(List.of(new ResourceLocation("test", "orphan"), new ResourceLocation("test", "self")),
+                report.unreachable());
+
+        Assertions.assertEquals(2, report.cycles().size());
+        Assertions.assertEquals("[test:loop/a, test:loop/b]", report.cycles().get(0).toString());
+        Assertions.assertEquals("[test:self]", report.cycles().get(1).toString());
+    }
+
+    @Test
+    void analyze_noRoots() throws IOException {
+        write("data/test/functions/a.mcfunction", "function test:b\n");
+        write("data/test/functions/b.mcfunction", "");
+
+        var report = index().analyze();
+
+        Assertions.assertTrue(report.isClean());
+    }
+}
@@ -2,7 +2,10 @@ package x.nexuskrop.minelint.test;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
 import x.nexuskrop.minelint.parsing.data.ResourceLocation;
+import x.nexuskrop.minelint.parsing.data.ResourceLocationPool;
 
 public class ResourceLocationTest {
     @Test
@@ -11,4 +14,85 @@ public class ResourceLocationTest {
 
         Assertions.assertEquals("test:tested/test_file", rl.toString());
     }
+
+    @Test
+    public void constructor_invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ResourceLocation("Test", "path"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ResourceLocation("te/st", "path"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ResourceLocation("test", "pa th"));
+    }
+
+    @Test
+    public void equalsTest() {
+        var rl1 = new ResourceLocation("test", "path");
+        var rl2 = new ResourceLocation("test", "path");
+
+        Assertions.assertEquals(rl1, rl2);
+        Assertions.assertEquals(rl1.hashCode(), rl2.hashCode());
+        Assertions.assertNotEquals(rl1, new ResourceLocation("test", "path2"));
+    }
+
+    @Test
+    public void parse_defaultNamespace() {
+        var parser = new CommandSyntaxParser("stone test:block/dirt");
+
+        var rl1 = Assertions.assertDoesNotThrow(() -> ResourceLocation.parse(parser, null));
+        Assertions.assertEquals(new ResourceLocation("minecraft", "stone"), rl1);
+
+        parser.skip(1);
+
+        var rl2 = Assertions.assertDoesNotThrow(() -> ResourceLocation.parse(parser, null));
+        Assertions.assertEquals(new ResourceLocation("test", "block/dirt"), rl2);
+        Assertions.assertTrue(parser.isEnd());
+    }
+
+    @Test
+    public void parse_emptyNamespace() {
+        var stone = new ResourceLocation("minecraft", "stone");
+        var pool = new ResourceLocationPool(64);
+
+        Assertions.assertEquals(stone, ResourceLocation.tryParse(new CommandSyntaxParser(":stone"), null));
+        Assertions.assertSame(pool.intern(stone), ResourceLocation.tryParse(new CommandSyntaxParser(":stone"), pool));
+    }
+
+    @Test
+    public void parse_stopsAtOtherCharacters() {
+        var parser = new CommandSyntaxParser("test:path,next");
+
+        Assertions.assertEquals(new ResourceLocation("test", "path"),
+                Assertions.assertDoesNotThrow(() -> ResourceLocation.parse(parser, null)));
+        Assertions.assertEquals(',', parser.peek(0));
+    }
+
+    @Test
+    public void parse_invalid() {
+        var parser = new CommandSyntaxParser("say te/st:path");
+        parser.skip(4);
+
+        Assertions.assertNull(ResourceLocation.tryParse(parser, null));
+        Assertions.assertEquals(CommandSyntaxError.INVALID_RESOURCE_LOCATION, parser.getFailure().getError());
+        Assertions.assertEquals(4, parser.getCursor());
+
+        Assertions.assertNull(ResourceLocation.tryParse(new CommandSyntaxParser("a:b:c"), null));
+        Assertions.assertNull(ResourceLocation.tryParse(new CommandSyntaxParser(" stone"), null));
+    }
+
+    @Test
+    public void pool_sharesInstances() {
+        var pool = new ResourceLocationPool(64);
+        var parser = new CommandSyntaxParser("test:path minecraft:stone test:path stone");
+
+        var rl1 = ResourceLocation.tryParse(parser, pool);
+        parser.skip(1);
+        var rl2 = ResourceLocation.tryParse(parser, pool);
+        parser.skip(1);
+        var rl3 = ResourceLocation.tryParse(parser, pool);
+        parser.skip(1);
+        var rl4 = ResourceLocation.tryParse(parser, pool);
+
+        Assertions.assertSame(rl1, rl3);
+        Assertions.assertSame(rl2, rl4);
+        Assertions.assertEquals(new ResourceLocation("minecraft", "stone"), rl4);
+        Assertions.assertSame(rl1, pool.intern(new ResourceLocation("test", "path")));
+    }
 }
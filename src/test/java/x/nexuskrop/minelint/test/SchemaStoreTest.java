@@ -0,0 +1,109 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandVersionModel;
+import x.nexuskrop.minelint.commands.tree.SchemaStore;
+
+import java.util.List;
+import java.util.Map;
+
+class SchemaStoreTest {
+    private static SchemaStore createStore(Map<String, CommandVersionModel> versions) {
+        return createStore("1.20.*", versions);
+    }
+
+    private static SchemaStore createStore(String target, Map<String, CommandVersionModel> versions) {
+        var definitions = TestLinters.definitions()
+                .command("say").argument("message", "greedy_string", true)
+                .command("stop")
+                .command("old")
+                .build(target, versions);
+        return new SchemaStore(definitions, CommandArgumentManager.createDefault());
+    }
+
+    @Test
+    void get_sharesUnchangedCommands() {
+        var store = createStore(Map.of(
+                "1.21.*", new CommandVersionModel(null,
+                        TestLinters.definitions().command("stop").command("new").commands(), List.of("old")),
+                "1.21.5", new CommandVersionModel("1.21.*", null, List.of("stop"))));
+
+        Assertions.assertFalse(store.isLoaded("1.20.*"));
+        Assertions.assertFalse(store.isLoaded("1.21.*"));
+
+        var latest = store.get("1.21.5");
+        Assertions.assertNotNull(latest);
+        Assertions.assertTrue(store.isLoaded("1.21.*"));
+        Assertions.assertEquals("1.21.5", latest.target());
+
+        var base = store.base();
+        var middle = store.get("1.21.*");
+        Assertions.assertNotNull(middle);
+
+        Assertions.assertSame(base.getCommand("say"), middle.getCommand("say"));
+        Assertions.assertSame(base.getCommand("say"), latest.getCommand("say"));
+        Assertions.assertNotSame(base.getCommand("stop"), middle.getCommand("stop"));
+        Assertions.assertNull(middle.getCommand("old"));
+        Assertions.assertNotNull(middle.getCommand("new"));
+        Assertions.assertSame(middle.getCommand("new"), latest.getCommand("new"));
+        Assertions.assertNull(latest.getCommand("stop"));
+        Assertions.assertNotNull(base.getCommand("old"));
+
+        Assertions.assertSame(latest, store.get("1.21.5"));
+        Assertions.assertNull(store.get("1.22"));
+    }
+
+    @Test
+    void resolve_mostSpecific() {
+        var store = createStore(Map.of(
+                "1.21.*", new CommandVersionModel(null, null, null),
+                "1.21.5", new CommandVersionModel("1.21.*", null, null)));
+
+        Assertions.assertSame(store.base(), store.resolve("1.20.4"));
+        Assertions.assertSame(store.base(), store.resolve("1.20"));
+        Assertions.assertSame(store.get("1.21.*"), store.resolve("1.21.1"));
+        Assertions.assertSame(store.get("1.21.5"), store.resolve("1.21.5"));
+        Assertions.assertNull(store.resolve("1.2"));
+        Assertions.assertNull(store.resolve("1.200"));
+    }
+
+    @Test
+    void resolve_withoutTarget() {
+        var store = createStore(null, Map.of("1.21.*", new CommandVersionModel(null, null, null)));
+
+        Assertions.assertEquals(List.of("1.21.*"), List.copyOf(store.versions()));
+        Assertions.assertSame(store.get("1.21.*"), store.resolve("1.21.1"));
+        Assertions.assertNull(store.resolve("1.20.4"));
+    }
+
+    @Test
+    void get_parentCycle() {
+        var store = createStore(Map.of(
+                "a", new CommandVersionModel("b", null, null),
+                "b", new CommandVersionModel("a", null, null),
+                "c", new CommandVersionModel("missing", null, null)));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.get("a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.get("c"));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.parsing.nbt.NbtType;
+import x.nexuskrop.minelint.parsing.nbt.SnbtParser;
+
+class SnbtParserTest {
+    private static final SnbtParser PARSER = new SnbtParser();
+
+    private static NbtType validate(String text) {
+        var parser = new CommandSyntaxParser(text);
+        var type = PARSER.tryValidate(parser);
+
+        if (type != null) {
+            Assertions.assertTrue(parser.isEnd(), text);
+        }
+
+        return type;
+    }
+
+    private static CommandSyntaxParser invalid(String text) {
+        var parser = new CommandSyntaxParser(text);
+        Assertions.assertNull(PARSER.tryValidate(parser), text);
+        Assertions.assertNotNull(parser.getFailure());
+        return parser;
+    }
+
+    @Test
+    void validate_primitives() {
+        Assertions.assertEquals(NbtType.BYTE, validate("1b"));
+        Assertions.assertEquals(NbtType.BYTE, validate("-128B"));
+        Assertions.assertEquals(NbtType.BYTE, validate("true"));
+        Assertions.assertEquals(NbtType.BYTE, validate("FALSE"));
+        Assertions.assertEquals(NbtType.SHORT, validate("32767s"));
+        Assertions.assertEquals(NbtType.INT, validate("-2147483648"));
+        Assertions.assertEquals(NbtType.LONG, validate("9223372036854775807L"));
+        Assertions.assertEquals(NbtType.FLOAT, validate("1.5f"));
+        Assertions.assertEquals(NbtType.FLOAT, validate("3F"));
+        Assertions.assertEquals(NbtType.DOUBLE, validate("1.5"));
+        Assertions.assertEquals(NbtType.DOUBLE, validate("1."));
+        Assertions.assertEquals(NbtType.DOUBLE, validate(".5e-3"));
+        Assertions.assertEquals(NbtType.DOUBLE, validate("2d"));
+        Assertions.assertEquals(NbtType.STRING, validate("hello"));
+        Assertions.assertEquals(NbtType.STRING, validate("\"quoted \\\" string\""));
+        Assertions.assertEquals(NbtType.STRING, validate("'single'"));
+    }
+
+    @Test
+    void validate_outOfRangeNumbersAreStrings() {
+        Assertions.assertEquals(NbtType.STRING, validate("128b"));
+        Assertions.assertEquals(NbtType.STRING, validate("2147483648"));
+        Assertions.assertEquals(NbtType.STRING, validate("01"));
+        Assertions.assertEquals(NbtType.STRING, validate("1.2.3"));
+        Assertions.assertEquals(NbtType.STRING, validate("1e"));
+    }
+
+    @Test
+    void validate_containers() {
+        Assertions.assertEquals(NbtType.COMPOUND, validate("{}"));
+        Assertions.assertEquals(NbtType.COMPOUND,
+                validate("{id:\"minecraft:zombie\", Health: 20.0f, Tags:[a,b], 'key with space':{x:1b,},}"));
+        Assertions.assertEquals(NbtType.LIST, validate("[]"));
+        Assertions.assertEquals(NbtType.LIST, validate("[ {a:1}, {b:[1,2]} ]"));
+        Assertions.assertEquals(NbtType.BYTE_ARRAY, validate("[B; 1b, true, -1B]"));
+        Assertions.assertEquals(NbtType.INT_ARRAY, validate("[I;]"));
+        Assertions.assertEquals(NbtType.LONG_ARRAY, validate("[L;1l,2L]"));
+    }
+
+    @Test
+    void validate_errors() {
+        var mixed = invalid("[1, 2b]");
+        Assertions.assertEquals(CommandSyntaxError.NBT_MIXED_LIST, mixed.getFailure().getError());
+        Assertions.assertEquals(4, mixed.getFailure().getCursor());
+
+        var element = invalid("[I; 1, 2L]");
+        Assertions.assertEquals(CommandSyntaxError.NBT_INVALID_ARRAY_ELEMENT, element.getFailure().getError());
+        Assertions.assertEquals("Cannot insert long into int array", element.getFailure().getDescription());
+
+        Assertions.assertEquals(CommandSyntaxError.NBT_INVALID_ARRAY, invalid("[X;1]").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE_BUT, invalid("{a 1}").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("{a:1").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("{:1}").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE, invalid("[1,").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_END_OF_QUOTE, invalid("{a:'}").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_END_OF_QUOTE, invalid("'").getFailure().getError());
+        Assertions.assertEquals(CommandSyntaxError.INVALID_ESCAPE, invalid("\"\\n\"").getFailure().getError());
+    }
+
+    @Test
+    void validate_depthLimit() {
+        var parser = new SnbtParser(3);
+
+        Assertions.assertNotNull(parser.tryValidate(new CommandSyntaxParser("[[[1]]]")));
+
+        var tooDeep = new CommandSyntaxParser("[[[[1]]]]");
+        Assertions.assertNull(parser.tryValidate(tooDeep));
+        Assertions.assertEquals(CommandSyntaxError.NBT_TOO_DEEP, tooDeep.getFailure().getError());
+
+        var nested = "[".repeat(SnbtParser.DEFAULT_MAX_DEPTH + 1) + "]".repeat(SnbtParser.DEFAULT_MAX_DEPTH + 1);
+        Assertions.assertEquals(CommandSyntaxError.NBT_TOO_DEEP, invalid(nested).getFailure().getError());
+    }
+
+    @Test
+    void validateCompound_requiresCompound() {
+        var parser = new CommandSyntaxParser("[1]");
+
+        Assertions.assertFalse(PARSER.tryValidateCompound(parser));
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_VALUE_BUT, parser.getFailure().getError());
+    }
+
+    @Test
+    void parse_tree() {
+        var parser = new CommandSyntaxParser("give @s {a:1b, \"b\\\"q\":[1.5f, 2f], c:'x\\'y', d:[L;5L], e:true}");
+        parser.setCursor(8);
+
+        var tree = PARSER.tryParseCompound(parser);
+        Assertions.assertNotNull(tree);
+        Assertions.assertTrue(parser.isEnd());
+
+        var root = tree.root();
+        Assertions.assertEquals(NbtType.COMPOUND, tree.type(root));
+        Assertions.assertEquals(5, tree.childCount(root));
+
+        var a = tree.find(root, "a");
+        Assertions.assertEquals(NbtType.BYTE, tree.type(a));
+        Assertions.assertEquals(1, tree.longValue(a));
+
+        var b = tree.find(root, "b\"q");
+        Assertions.assertEquals(NbtType.LIST, tree.type(b));
+        Assertions.assertEquals(2, tree.childCount(b));
+
+        var first = tree.firstChild(b);
+        Assertions.assertEquals(1.5, tree.doubleValue(first));
+        Assertions.assertEquals(2.0, tree.doubleValue(tree.nextSibling(first)));
+        Assertions.assertEquals(-1, tree.nextSibling(tree.nextSibling(first)));
+
+        var c = tree.find(root, "c");
+        Assertions.assertEquals("x'y", tree.stringValue(c));
+        Assertions.assertEquals("'x\\'y'", tree.source(c));
+
+        var d = tree.find(root, "d");
+        Assertions.assertEquals(NbtType.LONG_ARRAY, tree.type(d));
+        Assertions.assertEquals(5, tree.longValue(tree.firstChild(d)));
+        Assertions.assertEquals("[L;5L]", tree.source(d));
+
+        Assertions.assertEquals(1, tree.longValue(tree.find(root, "e")));
+        Assertions.assertEquals(-1, tree.find(root, "missing"));
+        Assertions.assertEquals("a", tree.key(a));
+        Assertions.assertEquals(9, tree.size());
+    }
+
+    @Test
+    void argument_lint() {
+        var linter = new CommandLinter(TestLinters.definitions()
+                .command("merge")
+                .argument("target", "resource_location", true)
+                .argument("nbt", "nbt_compound_tag", true)
+                .argument("value", "nbt_tag", false)
+                .compile("test"));
+        var parser = new CommandSyntaxParser("");
+
+        parser.resetText("merge test:a {CustomName:'{\"text\":\"x\"}', Items:[{Count:1b}]} [1, 2]");
+        Assertions.assertNull(linter.lint(parser));
+
+        parser.resetText("merge test:a {a:1}x");
+        var trailing = linter.lint(parser);
+        Assertions.assertNotNull(trailing);
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_END_OR_WHITESPACE, trailing.getError());
+
+        parser.resetText("merge test:a [1]");
+        Assertions.assertNotNull(linter.lint(parser));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import x.nexuskrop.minelint.commands.arguments.CommandArgumentManager;
+import x.nexuskrop.minelint.commands.models.CommandArgumentModel;
+import x.nexuskrop.minelint.commands.models.CommandDefinitionModel;
+import x.nexuskrop.minelint.commands.models.CommandModel;
+import x.nexuskrop.minelint.commands.models.CommandVersionModel;
+import x.nexuskrop.minelint.commands.tree.CommandTree;
+import x.nexuskrop.minelint.linting.CommandLinter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates the linters and command definitions shared by the tests.
+ */
+final class TestLinters {
+    private TestLinters() {
+    }
+
+    /**
+     * Creates a linter of the embedded command definitions with the default argument types.
+     * @return The linter.
+     */
+    static CommandLinter embedded() {
+        var definitions = CommandDefinitionModel.getEmbedded();
+        Assertions.assertNotNull(definitions);
+
+        return new CommandLinter(definitions, CommandArgumentManager.createDefault());
+    }
+
+    /**
+     * Starts building command definitions by hand.
+     * @return The builder, without commands.
+     */
+    static Definitions definitions() {
+        return new Definitions();
+    }
+
+    /**
+     * Starts building the {@code say <message>} and {@code function <name> [<arguments>]} commands, which most tests
+     * that lint valid lines use.
+     * @return The builder, with both commands.
+     */
+    static Definitions sayAndFunction() {
+        return definitions()
+                .command("say").argument("message", "greedy_string", true)
+                .command("function").argument("name", "resource_location", true)
+                .argument("arguments", "greedy_string", false);
+    }
+
+    /**
+     * Builds command definitions for tests that lint against a few specific commands.
+     */
+    static final class Definitions {
+        private final Map<String, Map<String, CommandArgumentModel>> commands = new LinkedHashMap<>();
+        private Map<String, CommandArgumentModel> arguments;
+
+        private Definitions() {
+        }
+
+        /**
+         * Adds a command. The arguments added next belong to it, in the order they are added.
+         * @param literal The literal of the command.
+         * @return This builder.
+         */
+        Definitions command(String literal) {
+            arguments = new LinkedHashMap<>();
+            commands.put(literal, arguments);
+            return this;
+        }
+
+        /**
+         * Adds an argument to the last added command.
+         * @param name The name of the argument.
+         * @param type The type of the argument.
+         * @param required Whether the argument is required.
+         * @return This builder.
+         */
+        Definitions argument(String name, String type, boolean required) {
+            arguments.put(name, new CommandArgumentModel(type, required));
+            return this;
+        }
+
+        /**
+         * Gets the added commands. Commands without arguments have {@code null} arguments, as if read from a
+         * definition that leaves them out.
+         * @return The commands.
+         */
+        Map<String, CommandModel> commands() {
+            var result = new HashMap<String, CommandModel>();
+            commands.forEach((literal, args) -> result.put(literal,
+                    new CommandModel(args.isEmpty() ? null : new LinkedHashMap<>(args), null)));
+            return result;
+        }
+
+        CommandDefinitionModel build(String target) {
+            return build(target, null);
+        }
+
+        CommandDefinitionModel build(String target, Map<String, CommandVersionModel> versions) {
+            return new CommandDefinitionModel(commands(), target, versions);
+        }
+
+        CommandTree compile(String target) {
+            return compile(target, CommandArgumentManager.createDefault());
+        }
+
+        CommandTree compile(String target, CommandArgumentManager arguments) {
+            return CommandTree.compile(build(target), arguments);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * MineLint - a Minecraft datapack linter
+ * Copyright (C) 2023 NexusKrop & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package x.nexuskrop.minelint.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import x.nexuskrop.minelint.commands.CommandSyntaxError;
+import x.nexuskrop.minelint.commands.CommandSyntaxParser;
+import x.nexuskrop.minelint.linting.CommandLinter;
+import x.nexuskrop.minelint.parsing.text.TextComponentValidator;
+
+class TextComponentTest {
+    private final TextComponentValidator validator = new TextComponentValidator();
+
+    private void valid(String text) {
+        var parser = new CommandSyntaxParser(text);
+        Assertions.assertTrue(validator.tryValidate(parser), text + ": " + parser.getFailure());
+        Assertions.assertTrue(parser.isEnd(), text);
+    }
+
+    private CommandSyntaxParser invalid(String text, CommandSyntaxError error) {
+        var parser = new CommandSyntaxParser(text);
+        Assertions.assertFalse(validator.tryValidate(parser), text);
+        Assertions.assertNotNull(parser.getFailure());
+        Assertions.assertEquals(error, parser.getFailure().getError(), text + ": " + parser.getFailure());
+        return parser;
+    }
+
+    @Test
+    void validate_primitivesAndLists() {
+        valid("\"plain text\"");
+        valid("\"escaped \\\" \\u00e9 \\n\"");
+        valid("42");
+        valid("-1.5e3");
+        valid("true");
+        valid("[\"a\", {\"text\": \"b\"}, [\"c\"]]");
+
+        invalid("null", CommandSyntaxError.EXCEPTED_VALUE_BUT);
+        invalid("[]", CommandSyntaxError.COMPONENT_EMPTY_LIST);
+        invalid("'single'", CommandSyntaxError.EXCEPTED_VALUE_BUT);
+        invalid("01", CommandSyntaxError.INVALID_VALUE);
+        invalid("tru", CommandSyntaxError.EXCEPTED_VALUE);
+        invalid("\"bad \\x escape\"", CommandSyntaxError.INVALID_ESCAPE);
+        invalid("\"unterminated", CommandSyntaxError.EXCEPTED_END_OF_QUOTE);
+    }
+
+    @Test
+    void validate_content() {
+        valid("{\"text\":\"hello\",\"color\":\"gold\",\"bold\":true,\"extra\":[{\"text\":\"!\",\"color\":\"#FF00aa\"}]}");
+        valid("{\"translate\":\"chat.type.text\",\"with\":[\"a\",{\"score\":{\"name\":\"@s\",\"objective\":\"o\"}}]}");
+        valid("{\"selector\":\"@e[type=zombie,limit=3]\",\"separator\":{\"text\":\", \"}}");
+        valid("{\"keybind\":\"key.jump\"}");
+        valid("{\"nbt\":\"Items[0]\",\"storage\":\"test:data\",\"interpret\":false}");
+        valid("{\"nbt\":\"Health\",\"entity\":\"@p\"}");
+        valid("{\"text\":\"\",\"unknown\":{\"anything\":[1,null]},\"font\":\"minecraft:uniform\",\"type\":\"text\"}");
+
+        invalid("{}", CommandSyntaxError.COMPONENT_NO_CONTENT);
+        invalid("{\"color\":\"red\"}", CommandSyntaxError.COMPONENT_NO_CONTENT);
+        invalid("{\"nbt\":\"Health\"}", CommandSyntaxError.COMPONENT_MISSING_KEY);
+        invalid("{\"score\":{\"name\":\"@s\"}}", CommandSyntaxError.COMPONENT_MISSING_KEY);
+        invalid("{\"text\":\"a\",\"extra\":[]}", CommandSyntaxError.COMPONENT_EMPTY_LIST);
+        invalid("{\"text\":\"a\",\"bold\":\"yes\"}", CommandSyntaxError.COMPONENT_WRONG_TYPE);
+        invalid("{\"text\":{}}", CommandSyntaxError.COMPONENT_WRONG_TYPE);
+        invalid("{\"text\":\"a\",\"color\":\"pinkish\"}", CommandSyntaxError.COMPONENT_UNKNOWN_VALUE);
+        invalid("{\"text\":\"a\",\"color\":\"#GG0000\"}", CommandSyntaxError.COMPONENT_UNKNOWN_VALUE);
+        invalid("{\"text\":\"a\",\"font\":\"Bad Font\"}", CommandSyntaxError.INVALID_RESOURCE_LOCATION);
+        invalid("{\"text\":\"a\",}", CommandSyntaxError.EXCEPTED_VALUE_BUT);
+        invalid("{\"text\" \"a\"}", CommandSyntaxError.EXCEPTED_VALUE_BUT);
+        invalid("{\"text\":\"a\"", CommandSyntaxError.EXCEPTED_VALUE);
+    }
+
+    @Test
+    void validate_events() {
+        valid("{\"text\":\"a\",\"clickEvent\":{\"action\":\"run_command\",\"value\":\"/say hi\"}}");
+        valid("{\"text\":\"a\",\"clickEvent\":{\"value\":3,\"action\":\"change_page\"}}");
+        valid("{\"text\":\"a\",\"hoverEvent\":{\"action\":\"show_text\",\"contents\":[\"tip\"]}}");
+        valid("{\"text\":\"a\",\"hoverEvent\":{\"contents\":{\"id\":\"minecraft:stone\",\"count\":2},"
+                + "\"action\":\"show_item\"}}");
+        valid("{\"text\":\"a\",\"hoverEvent\":{\"action\":\"show_entity\",\"contents\":{\"type\":\"pig\","
+                + "\"id\":\"dd12be42-52a9-4a91-a8a1-11c01849e498\",\"name\":\"Piggy\"}}}");
+        valid("{\"text\":\"a\",\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"legacy\"}}");
+
+        invalid("{\"text\":\"a\",\"clickEvent\":{\"action\":\"explode\",\"value\":\"x\"}}",
+                CommandSyntaxError.COMPONENT_UNKNOWN_VALUE);
+        invalid("{\"text\":\"a\",\"clickEvent\":{\"action\":\"open_url\"}}", CommandSyntaxError.COMPONENT_MISSING_KEY);
+        invalid("{\"text\":\"a\",\"hoverEvent\":{\"contents\":\"tip\"}}", CommandSyntaxError.COMPONENT_MISSING_KEY);
+        invalid("{\"text\":\"a\",\"hoverEvent\":{\"contents\":{\"id\":\"Stone!\"},\"action\":\"show_item\"}}",
+                CommandSyntaxError.INVALID_RESOURCE_LOCATION);
+        invalid("{\"text\":\"a\",\"hoverEvent\":{\"action\":\"show_entity\",\"contents\":{\"type\":\"pig\","
+                + "\"id\":\"not-a-uuid\"}}}", CommandSyntaxError.EXCEPTED_VALUE_BUT);
+        invalid("{\"text\":\"a\",\"hoverEvent\":{\"contents\":{\"nope\":1},\"action\":\"show_text\"}}",
+                CommandSyntaxError.COMPONENT_NO_CONTENT);
+    }
+
+    @Test
+    void validate_positions() {
+        // Failures point to the offending token, including within a selector
+        var color = invalid("{\"text\":\"a\", \"color\":\"pinkish\"}", CommandSyntaxError.COMPONENT_UNKNOWN_VALUE);
+        Assertions.assertEquals(21, color.getFailure().getCursor());
+
+        var selector = invalid("{\"selector\":\"@e[colour=red]\"}", CommandSyntaxError.SELECTOR_UNKNOWN_OPTION);
+        Assertions.assertEquals(16, selector.getFailure().getCursor());
+
+        var number = invalid("[\"a\", 1.]", CommandSyntaxError.INVALID_VALUE);
+        Assertions.assertEquals(6, number.getFailure().getCursor());
+    }
+
+    @Test
+    void validate_depthLimit() {
+        var shallow = new TextComponentValidator(3);
+        var parser = new CommandSyntaxParser("[[[\"a\"]]]");
+        Assertions.assertTrue(shallow.tryValidate(parser));
+
+        parser.resetText("[[[[\"a\"]]]]");
+        Assertions.assertFalse(shallow.tryValidate(parser));
+        Assertions.assertEquals(CommandSyntaxError.JSON_TOO_DEEP, parser.getFailure().getError());
+    }
+
+    @Test
+    void argument_lint() {
+        var linter = new CommandLinter(TestLinters.definitions()
+                .command("tellraw")
+                .argument("targets", "players", true)
+                .argument("message", "component", true)
+                .compile("test"));
+        var parser = new CommandSyntaxParser("");
+
+        parser.resetText("tellraw @a {\"text\": \"Hello, \", \"extra\": [{\"selector\": \"@s\"}]}");
+        Assertions.assertNull(linter.lint(parser));
+
+        parser.resetText("tellraw @a \"hi\"x");
+        Assertions.assertEquals(CommandSyntaxError.EXCEPTED_END_OR_WHITESPACE, linter.lint(parser).getError());
+
+        parser.resetText("tellraw @a {\"text\": \"a\", \"italic\": 1}");
+        var diagnostic = linter.lint(parser);
+        Assertions.assertNotNull(diagnostic);
+        Assertions.assertEquals(CommandSyntaxError.COMPONENT_WRONG_TYPE, diagnostic.getError());
+        Assertions.assertEquals(35, diagnostic.getCursor());
+    }
+}